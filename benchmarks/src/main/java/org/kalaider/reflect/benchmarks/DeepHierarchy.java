@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect.benchmarks;
+
+/**
+ * Contains the linear generic hierarchy of depth {@value #MAX_DEPTH}
+ * used by the benchmarks. The class <code>D</code><i>n</i> is placed
+ * on the depth <i>n</i> below the root class <code>D0</code>.
+ *
+ * @author Alexander Vasilevsky
+ */
+final class DeepHierarchy {
+
+    /**
+     * The maximal depth of the hierarchy.
+     */
+    static final int MAX_DEPTH = 100;
+
+    /**
+     * The private constructor.
+     */
+    private DeepHierarchy() {
+    }
+
+    /**
+     * Returns the class on the given depth of the hierarchy.
+     *
+     * @param depth The depth
+     *
+     * @return The class on the given depth
+     *
+     * @throws ClassNotFoundException If the depth is out of range
+     */
+    static Class<?> classAt(int depth) throws ClassNotFoundException {
+        return Class.forName(DeepHierarchy.class.getName() + "$D" + depth);
+    }
+
+    static class D0<T> {  }
+    static class D1<T> extends D0<T> {  }
+    static class D2<T> extends D1<T> {  }
+    static class D3<T> extends D2<T> {  }
+    static class D4<T> extends D3<T> {  }
+    static class D5<T> extends D4<T> {  }
+    static class D6<T> extends D5<T> {  }
+    static class D7<T> extends D6<T> {  }
+    static class D8<T> extends D7<T> {  }
+    static class D9<T> extends D8<T> {  }
+    static class D10<T> extends D9<T> {  }
+    static class D11<T> extends D10<T> {  }
+    static class D12<T> extends D11<T> {  }
+    static class D13<T> extends D12<T> {  }
+    static class D14<T> extends D13<T> {  }
+    static class D15<T> extends D14<T> {  }
+    static class D16<T> extends D15<T> {  }
+    static class D17<T> extends D16<T> {  }
+    static class D18<T> extends D17<T> {  }
+    static class D19<T> extends D18<T> {  }
+    static class D20<T> extends D19<T> {  }
+    static class D21<T> extends D20<T> {  }
+    static class D22<T> extends D21<T> {  }
+    static class D23<T> extends D22<T> {  }
+    static class D24<T> extends D23<T> {  }
+    static class D25<T> extends D24<T> {  }
+    static class D26<T> extends D25<T> {  }
+    static class D27<T> extends D26<T> {  }
+    static class D28<T> extends D27<T> {  }
+    static class D29<T> extends D28<T> {  }
+    static class D30<T> extends D29<T> {  }
+    static class D31<T> extends D30<T> {  }
+    static class D32<T> extends D31<T> {  }
+    static class D33<T> extends D32<T> {  }
+    static class D34<T> extends D33<T> {  }
+    static class D35<T> extends D34<T> {  }
+    static class D36<T> extends D35<T> {  }
+    static class D37<T> extends D36<T> {  }
+    static class D38<T> extends D37<T> {  }
+    static class D39<T> extends D38<T> {  }
+    static class D40<T> extends D39<T> {  }
+    static class D41<T> extends D40<T> {  }
+    static class D42<T> extends D41<T> {  }
+    static class D43<T> extends D42<T> {  }
+    static class D44<T> extends D43<T> {  }
+    static class D45<T> extends D44<T> {  }
+    static class D46<T> extends D45<T> {  }
+    static class D47<T> extends D46<T> {  }
+    static class D48<T> extends D47<T> {  }
+    static class D49<T> extends D48<T> {  }
+    static class D50<T> extends D49<T> {  }
+    static class D51<T> extends D50<T> {  }
+    static class D52<T> extends D51<T> {  }
+    static class D53<T> extends D52<T> {  }
+    static class D54<T> extends D53<T> {  }
+    static class D55<T> extends D54<T> {  }
+    static class D56<T> extends D55<T> {  }
+    static class D57<T> extends D56<T> {  }
+    static class D58<T> extends D57<T> {  }
+    static class D59<T> extends D58<T> {  }
+    static class D60<T> extends D59<T> {  }
+    static class D61<T> extends D60<T> {  }
+    static class D62<T> extends D61<T> {  }
+    static class D63<T> extends D62<T> {  }
+    static class D64<T> extends D63<T> {  }
+    static class D65<T> extends D64<T> {  }
+    static class D66<T> extends D65<T> {  }
+    static class D67<T> extends D66<T> {  }
+    static class D68<T> extends D67<T> {  }
+    static class D69<T> extends D68<T> {  }
+    static class D70<T> extends D69<T> {  }
+    static class D71<T> extends D70<T> {  }
+    static class D72<T> extends D71<T> {  }
+    static class D73<T> extends D72<T> {  }
+    static class D74<T> extends D73<T> {  }
+    static class D75<T> extends D74<T> {  }
+    static class D76<T> extends D75<T> {  }
+    static class D77<T> extends D76<T> {  }
+    static class D78<T> extends D77<T> {  }
+    static class D79<T> extends D78<T> {  }
+    static class D80<T> extends D79<T> {  }
+    static class D81<T> extends D80<T> {  }
+    static class D82<T> extends D81<T> {  }
+    static class D83<T> extends D82<T> {  }
+    static class D84<T> extends D83<T> {  }
+    static class D85<T> extends D84<T> {  }
+    static class D86<T> extends D85<T> {  }
+    static class D87<T> extends D86<T> {  }
+    static class D88<T> extends D87<T> {  }
+    static class D89<T> extends D88<T> {  }
+    static class D90<T> extends D89<T> {  }
+    static class D91<T> extends D90<T> {  }
+    static class D92<T> extends D91<T> {  }
+    static class D93<T> extends D92<T> {  }
+    static class D94<T> extends D93<T> {  }
+    static class D95<T> extends D94<T> {  }
+    static class D96<T> extends D95<T> {  }
+    static class D97<T> extends D96<T> {  }
+    static class D98<T> extends D97<T> {  }
+    static class D99<T> extends D98<T> {  }
+    static class D100<T> extends D99<T> {  }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect.benchmarks;
+
+import java.util.List;
+
+/**
+ * Contains the class hierarchies used by the benchmarks.
+ *
+ * @author Alexander Vasilevsky
+ */
+final class Hierarchies {
+
+    /**
+     * The private constructor.
+     */
+    private Hierarchies() {
+    }
+
+    /**
+     * The hierarchy without any generic declarations.
+     */
+    static class NonGeneric {
+
+        static class ClassA {
+            void a(Object arg1, List arg2) {  }
+        }
+        static class ClassB extends ClassA {
+            @Override void a(Object arg1, List arg2) {  }
+        }
+        static class ClassC extends ClassB {
+            @Override void a(Object arg1, List arg2) {  }
+        }
+    }
+
+    /**
+     * The hierarchy with a single unbounded generic parameter.
+     */
+    static class SimpleGeneric {
+
+        static class ClassA<T> {
+            void a(T arg1, List<? extends T> arg2) {  }
+        }
+        static class ClassB<T> extends ClassA<T> {
+            @Override void a(T arg1, List<? extends T> arg2) {  }
+        }
+        static class ClassC extends ClassB<C2> {
+            @Override void a(C2 arg1, List<? extends C2> arg2) {  }
+        }
+    }
+
+    /**
+     * The hierarchy with deeply bounded generic parameters.
+     */
+    static class DeeplyBounded {
+
+        static class ClassA<T, K> {
+            void a(T arg1, K arg2) {  }
+        }
+        static class ClassB<T extends C2 & I1 & I2, K extends List<? super T>> extends ClassA<T, K> {
+            @Override void a(T arg1, K arg2) {  }
+        }
+        static class ClassC<T extends C2 & I2 & I1 & I7, K extends List<? super T> & I3> extends ClassB<T, K> {
+            @Override void a(T arg1, K arg2) {  }
+        }
+        static class ClassD<T extends C2 & I2 & I1 & I7, K extends I3 & List<? super T>> extends ClassC<T, K> {
+            @Override void a(T arg1, K arg2) {  }
+        }
+        static class ClassE<T extends C4 & I7, K extends List<T> & I3> extends ClassD<T, K> {
+            @Override void a(T arg1, K arg2) {  }
+        }
+        static class ClassF extends ClassE<C4, C7> {
+            @Override void a(C4 arg1, C7 arg2) {  }
+        }
+    }
+
+    static interface I1 {  }
+    static interface I2 {  }
+    static interface I3 {  }
+    static interface I7 {  }
+    static class     C2                                          implements I1, I2 {  }
+    static class     C3 <T extends List<? extends I3>> extends C2 {  }
+    static class     C4 <T extends I1 & I2 & List<? extends I3>> extends C3<T> implements I7 {  }
+    static class     C7                                          extends java.util.ArrayList<C4> implements I3 {  }
+}
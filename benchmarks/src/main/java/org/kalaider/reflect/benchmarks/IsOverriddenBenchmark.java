@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect.benchmarks;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.kalaider.reflect.ReflectionUtilities;
+
+/**
+ * Measures the {@link ReflectionUtilities#isOverridden(Method, Method)
+ * isOverridden()} method on the non-generic, simple generic and deeply
+ * bounded class hierarchies.
+ *
+ * @author Alexander Vasilevsky
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IsOverriddenBenchmark {
+
+    private Method nonGenericA;
+    private Method nonGenericC;
+    private Method simpleGenericA;
+    private Method simpleGenericC;
+    private Method deeplyBoundedA;
+    private Method deeplyBoundedF;
+    private Method deeplyBoundedB;
+    private Method deeplyBoundedE;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        nonGenericA = Hierarchies.NonGeneric.ClassA.class
+                .getDeclaredMethod("a", Object.class, List.class);
+        nonGenericC = Hierarchies.NonGeneric.ClassC.class
+                .getDeclaredMethod("a", Object.class, List.class);
+        simpleGenericA = Hierarchies.SimpleGeneric.ClassA.class
+                .getDeclaredMethod("a", Object.class, List.class);
+        simpleGenericC = Hierarchies.SimpleGeneric.ClassC.class
+                .getDeclaredMethod("a", Hierarchies.C2.class, List.class);
+        deeplyBoundedA = Hierarchies.DeeplyBounded.ClassA.class
+                .getDeclaredMethod("a", Object.class, Object.class);
+        deeplyBoundedF = Hierarchies.DeeplyBounded.ClassF.class
+                .getDeclaredMethod("a", Hierarchies.C4.class, Hierarchies.C7.class);
+        deeplyBoundedB = Hierarchies.DeeplyBounded.ClassB.class
+                .getDeclaredMethod("a", Hierarchies.C2.class, List.class);
+        deeplyBoundedE = Hierarchies.DeeplyBounded.ClassE.class
+                .getDeclaredMethod("a", Hierarchies.C4.class, List.class);
+    }
+
+    @Benchmark
+    public boolean nonGeneric() {
+        return ReflectionUtilities.isOverridden(nonGenericA, nonGenericC);
+    }
+
+    @Benchmark
+    public boolean simpleGeneric() {
+        return ReflectionUtilities.isOverridden(simpleGenericA, simpleGenericC);
+    }
+
+    @Benchmark
+    public boolean deeplyBounded() {
+        return ReflectionUtilities.isOverridden(deeplyBoundedA, deeplyBoundedF);
+    }
+
+    @Benchmark
+    public boolean deeplyBoundedIntermediate() {
+        return ReflectionUtilities.isOverridden(deeplyBoundedB, deeplyBoundedE);
+    }
+
+    @Benchmark
+    public boolean notOverridden() {
+        return ReflectionUtilities.isOverridden(deeplyBoundedF, deeplyBoundedA);
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect.benchmarks;
+
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.kalaider.reflect.ReflectionUtilities;
+
+/**
+ * Measures the {@link ReflectionUtilities#resolveParameters(Class, Class)
+ * resolveParameters()} and {@link ReflectionUtilities#resolveContext(Class,
+ * Class) resolveContext()} methods on the linear generic hierarchy
+ * of the different depth.
+ *
+ * <p/>
+ * The <code>*Uncached</code> benchmarks are run in a separate JVM
+ * with caching disabled, so they measure the actual hierarchy walk.
+ *
+ * @author Alexander Vasilevsky
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResolveParametersBenchmark {
+
+    @Param({"1", "2", "5", "10", "20", "50", "100"})
+    private int depth;
+
+    private Class<?> root;
+    private Class<?> leaf;
+
+    @Setup
+    public void setup() throws ClassNotFoundException {
+        root = DeepHierarchy.classAt(0);
+        leaf = DeepHierarchy.classAt(depth);
+    }
+
+    @Benchmark
+    public Map<Type, Type> resolveParameters() {
+        return ReflectionUtilities.resolveParameters(root, leaf);
+    }
+
+    @Benchmark
+    public Map<Type, Type> resolveContext() {
+        return ReflectionUtilities.resolveContext(root, leaf);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-D" + ReflectionUtilities.DISABLE_CACHE_PROPERTY + "=true")
+    public Map<Type, Type> resolveParametersUncached() {
+        return ReflectionUtilities.resolveParameters(root, leaf);
+    }
+}
@@ -0,0 +1,328 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect.processor;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.TypeParameterElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.IntersectionType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.TypeVariable;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import org.kalaider.reflect.Precomputed;
+import org.kalaider.reflect.ReflectionUtilities;
+
+/**
+ * The annotation processor which precomputes the generic parameter
+ * bindings and override relations of the classes marked with the
+ * {@link Precomputed} annotation, and writes them to the table resources
+ * read by {@link ReflectionUtilities}.
+ *
+ * <p/>
+ * The relations are computed by the same rules as the
+ * {@link ReflectionUtilities#isOverridden(java.lang.reflect.Method,
+ * java.lang.reflect.Method) isOverridden()} method uses, so the tables
+ * give the same answers as the reflective resolution.
+ *
+ * @author Alexander Vasilevsky
+ *
+ * @see Precomputed
+ */
+@SupportedAnnotationTypes("org.kalaider.reflect.Precomputed")
+public class PrecomputedProcessor extends AbstractProcessor {
+
+    private static final String RESOURCE_PREFIX = "META-INF/reflect4j/";
+    private static final String RESOURCE_SUFFIX = ".table";
+    private static final String HEADER = "reflect4j-table 1";
+
+    /*
+     * The kinds of the reflected types, see kind().
+     */
+    private static final int OTHER = -1;
+    private static final int CLASS = 0;
+    private static final int PARAMETERIZED = 1;
+    private static final int ARRAY = 2;
+    private static final int VARIABLE = 3;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(Precomputed.class)) {
+            if (element.getKind() != ElementKind.CLASS && element.getKind() != ElementKind.ENUM) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "Only classes may be marked with @Precomputed", element);
+                continue;
+            }
+            TypeElement type = (TypeElement) element;
+            try {
+                write(type, new Table(type).toString());
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "Cannot write the precomputed table: " + e.getMessage(), element);
+            }
+        }
+        return true;
+    }
+
+    private void write(TypeElement type, String table) throws IOException {
+        String name = processingEnv.getElementUtils().getBinaryName(type).toString();
+        FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT,
+                "", RESOURCE_PREFIX + name + RESOURCE_SUFFIX, type);
+        Writer writer = new OutputStreamWriter(file.openOutputStream(), "UTF-8");
+        try {
+            writer.write(table);
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * The binding of a type parameter.
+     */
+    private static final class Binding {
+
+        /**
+         * The index of the superclass declaring the type parameter.
+         */
+        final int level;
+
+        /**
+         * The index of the class which generic superclass contains
+         * the actual type.
+         */
+        final int source;
+
+        /**
+         * The index of the actual type argument.
+         */
+        final int index;
+
+        /**
+         * The actual type.
+         */
+        final TypeMirror type;
+
+        Binding(int level, int source, int index, TypeMirror type) {
+            this.level = level;
+            this.source = source;
+            this.index = index;
+            this.type = type;
+        }
+    }
+
+    /**
+     * The table of a class being computed.
+     */
+    private final class Table {
+
+        private final Types types = processingEnv.getTypeUtils();
+        private final StringBuilder builder = new StringBuilder(HEADER).append('\n');
+
+        /**
+         * The class and its superclasses, i.e. <code>classes.get(i)</code>
+         * is the <code>i</code>-th class.
+         */
+        private final List<TypeElement> classes = new ArrayList<TypeElement>();
+
+        private final Map<Element, Binding> bindings = new HashMap<Element, Binding>();
+
+        Table(TypeElement type) {
+            classes.add(type);
+            List<DeclaredType> superclasses = new ArrayList<DeclaredType>();
+            for (TypeElement current = type; current.getSuperclass().getKind() == TypeKind.DECLARED; ) {
+                DeclaredType superclass = (DeclaredType) current.getSuperclass();
+                current = (TypeElement) superclass.asElement();
+                superclasses.add(superclass);
+                classes.add(current);
+                builder.append("S ").append(binaryName(current)).append(' ')
+                        .append(current.getTypeParameters().size()).append('\n');
+            }
+
+            for (int i = 1; i < classes.size(); i++) {
+                List<? extends TypeMirror> actual = superclasses.get(i - 1).getTypeArguments();
+                List<? extends TypeParameterElement> theoretical = classes.get(i).getTypeParameters();
+                if (actual.size() != theoretical.size()) continue;
+                for (int j = 0; j < actual.size(); j++) {
+                    TypeMirror argument = actual.get(j);
+                    Binding processed = argument.getKind() == TypeKind.TYPEVAR
+                            ? bindings.get(((TypeVariable) argument).asElement())
+                            : null;
+                    Binding binding = processed != null
+                            ? new Binding(i, processed.source, processed.index, processed.type)
+                            : new Binding(i, i - 1, j, argument);
+                    bindings.put(theoretical.get(j), binding);
+                    builder.append("B ").append(i).append(' ').append(j).append(' ')
+                            .append(binding.source).append(' ').append(binding.index).append('\n');
+                }
+            }
+
+            for (ExecutableElement methodB : ElementFilter.methodsIn(type.getEnclosedElements())) {
+                builder.append("M ").append(key(methodB)).append('\n');
+                for (int i = 1; i < classes.size(); i++) {
+                    for (ExecutableElement methodA : ElementFilter.methodsIn(classes.get(i).getEnclosedElements())) {
+                        if (isOverridden(methodA, methodB, i))
+                            builder.append("O ").append(i).append(' ').append(key(methodA)).append('\n');
+                    }
+                }
+            }
+        }
+
+        private boolean isOverridden(ExecutableElement methodA, ExecutableElement methodB, int levelA) {
+            if (!methodA.getSimpleName().contentEquals(methodB.getSimpleName())) return false;
+            List<? extends VariableElement> parametersA = methodA.getParameters();
+            List<? extends VariableElement> parametersB = methodB.getParameters();
+            if (parametersA.size() != parametersB.size()) return false;
+            for (int i = 0; i < parametersA.size(); i++) {
+                if (!compare(parametersA.get(i).asType(), parametersB.get(i).asType(), levelA))
+                    return false;
+            }
+            return true;
+        }
+
+        private boolean compare(TypeMirror typeA, TypeMirror typeB, int levelA) {
+            if (typeA.getKind() == TypeKind.TYPEVAR) {
+                Binding binding = bindings.get(((TypeVariable) typeA).asElement());
+                if (binding != null && binding.level <= levelA) return compare(binding.type, typeB, levelA);
+            }
+            int kind = kind(typeA);
+            if (kind != kind(typeB)) return false;
+            switch (kind) {
+                case CLASS:
+                case PARAMETERIZED:
+                    return types.isSameType(types.erasure(typeA), types.erasure(typeB));
+                case ARRAY:
+                    return compare(((ArrayType) typeA).getComponentType(),
+                            ((ArrayType) typeB).getComponentType(), levelA);
+                case VARIABLE:
+                    return compareWithoutOrder(bounds(typeA), bounds(typeB), levelA);
+                default:
+                    return false;
+            }
+        }
+
+        private boolean compareWithoutOrder(List<? extends TypeMirror> typesA,
+                                            List<? extends TypeMirror> typesB, int levelA) {
+            if (typesA.size() != typesB.size()) return false;
+            for (TypeMirror type1 : typesA) {
+                boolean found = false;
+                for (TypeMirror type2 : typesB) {
+                    if (compare(type1, type2, levelA)) {
+                        found = true;
+                        break;
+                    }
+                }
+                if (!found) return false;
+            }
+            return true;
+        }
+
+        private List<? extends TypeMirror> bounds(TypeMirror type) {
+            TypeMirror bound = ((TypeVariable) type).getUpperBound();
+            return bound.getKind() == TypeKind.INTERSECTION
+                    ? ((IntersectionType) bound).getBounds()
+                    : Collections.singletonList(bound);
+        }
+
+        /**
+         * Returns the kind of the reflected type the passed type corresponds
+         * to: the primitive types, the non-parameterized class types and the
+         * arrays of them are classes.
+         */
+        private int kind(TypeMirror type) {
+            if (type.getKind().isPrimitive()) return CLASS;
+            switch (type.getKind()) {
+                case DECLARED:
+                    return parameterized((DeclaredType) type) ? PARAMETERIZED : CLASS;
+                case ARRAY:
+                    return kind(((ArrayType) type).getComponentType()) == CLASS ? CLASS : ARRAY;
+                case TYPEVAR:
+                    return VARIABLE;
+                default:
+                    return OTHER;
+            }
+        }
+
+        private boolean parameterized(DeclaredType type) {
+            if (!type.getTypeArguments().isEmpty()) return true;
+            TypeMirror owner = type.getEnclosingType();
+            return owner.getKind() == TypeKind.DECLARED && parameterized((DeclaredType) owner);
+        }
+
+        private String key(ExecutableElement method) {
+            StringBuilder key = new StringBuilder(method.getSimpleName()).append('(');
+            for (VariableElement parameter : method.getParameters()) descriptor(parameter.asType(), key);
+            return key.append(')').toString();
+        }
+
+        private void descriptor(TypeMirror type, StringBuilder builder) {
+            type = types.erasure(type);
+            switch (type.getKind()) {
+                case BOOLEAN: builder.append('Z'); break;
+                case BYTE: builder.append('B'); break;
+                case CHAR: builder.append('C'); break;
+                case SHORT: builder.append('S'); break;
+                case INT: builder.append('I'); break;
+                case LONG: builder.append('J'); break;
+                case FLOAT: builder.append('F'); break;
+                case DOUBLE: builder.append('D'); break;
+                case ARRAY:
+                    builder.append('[');
+                    descriptor(((ArrayType) type).getComponentType(), builder);
+                    break;
+                default:
+                    builder.append('L').append(binaryName((TypeElement) types.asElement(type))
+                            .replace('.', '/')).append(';');
+            }
+        }
+
+        private String binaryName(TypeElement type) {
+            return processingEnv.getElementUtils().getBinaryName(type).toString();
+        }
+
+        @Override
+        public String toString() {
+            return builder.toString();
+        }
+    }
+}
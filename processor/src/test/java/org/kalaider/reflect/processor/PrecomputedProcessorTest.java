@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect.processor;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import static org.junit.Assert.*;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.kalaider.reflect.Precomputed;
+import org.kalaider.reflect.ReflectionUtilities;
+
+/**
+ *
+ * @author Alexander Vasilevsky
+ */
+public class PrecomputedProcessorTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    public PrecomputedProcessorTest() {
+    }
+
+    /**
+     * <b>Method:</b> {@link PrecomputedProcessor#process(java.util.Set,
+     *                       javax.annotation.processing.RoundEnvironment)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Writes the tables of the marked classes only.
+     */
+    @Test
+    public void process_signature1_case1() throws IOException {
+        File classes = compile(true);
+        assertTrue(new File(classes, "META-INF/reflect4j/fixtures.Fixtures$C.table").isFile());
+        assertTrue(new File(classes, "META-INF/reflect4j/fixtures.Fixtures$D.table").isFile());
+        assertFalse(new File(classes, "META-INF/reflect4j/fixtures.Fixtures$B.table").exists());
+        List<String> table = Files.readAllLines(
+                new File(classes, "META-INF/reflect4j/fixtures.Fixtures$C.table").toPath(),
+                Charset.forName("UTF-8"));
+        assertEquals("reflect4j-table 1", table.get(0));
+        assertTrue(table.contains("S fixtures.Fixtures$B 1"));
+        assertTrue(table.contains("B 2 0 0 0"));
+        assertTrue(table.contains("O 2 a(Ljava/lang/Object;Ljava/util/List;)"));
+    }
+
+    /**
+     * <b>Method:</b> {@link PrecomputedProcessor#process(java.util.Set,
+     *                       javax.annotation.processing.RoundEnvironment)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 2</h2>
+     *
+     * <p/>
+     * The tables give the same answers as the reflective resolution.
+     */
+    @Test
+    public void process_signature1_case2() throws Exception {
+        URLClassLoader precomputed = new URLClassLoader(
+                new URL[] { compile(true).toURI().toURL() }, getClass().getClassLoader());
+        URLClassLoader reflective = new URLClassLoader(
+                new URL[] { compile(false).toURI().toURL() }, getClass().getClassLoader());
+        try {
+            int overridden = 0;
+            for (String name : Arrays.asList("A", "B", "C", "D", "E")) {
+                Class<?> classA = precomputed.loadClass("fixtures.Fixtures$" + name);
+                for (String other : Arrays.asList("C", "D", "E")) {
+                    Class<?> classC = precomputed.loadClass("fixtures.Fixtures$" + other);
+                    Class<?> reflectiveA = reflective.loadClass(classA.getName());
+                    Class<?> reflectiveC = reflective.loadClass(classC.getName());
+                    for (Method methodA : classA.getDeclaredMethods()) {
+                        for (Method methodB : classC.getDeclaredMethods()) {
+                            boolean expected = ReflectionUtilities.isOverridden(
+                                    reflectiveA.getDeclaredMethod(methodA.getName(), methodA.getParameterTypes()),
+                                    reflectiveC.getDeclaredMethod(methodB.getName(), methodB.getParameterTypes()));
+                            assertEquals(methodA + " / " + methodB, expected,
+                                    ReflectionUtilities.isOverridden(methodA, methodB));
+                            if (expected) overridden++;
+                        }
+                    }
+                    if (classA.isAssignableFrom(classC)) {
+                        assertEquals(classA + " / " + classC,
+                                names(ReflectionUtilities.resolveParameters(reflectiveA, reflectiveC)),
+                                names(ReflectionUtilities.resolveParameters(classA, classC)));
+                    }
+                }
+            }
+            assertTrue(overridden > 5);
+        } finally {
+            precomputed.close();
+            reflective.close();
+        }
+    }
+
+    //==================== Testing Utilities ==================================
+
+    private static final String FIXTURES =
+            "package fixtures;\n"
+            + "import java.util.*;\n"
+            + "import org.kalaider.reflect.Precomputed;\n"
+            + "public class Fixtures {\n"
+            + "    public static class A<T, K> {\n"
+            + "        void a(T x, List<K> y) {  }\n"
+            + "        void b(T[] x) {  }\n"
+            + "        <M extends Comparable<M>> void c(M x) {  }\n"
+            + "        void d(Object x) {  }\n"
+            + "    }\n"
+            + "    public static class B<N extends Number> extends A<N, String> {\n"
+            + "        void a(N x, List<String> y) {  }\n"
+            + "        void b(N[] x) {  }\n"
+            + "    }\n"
+            + "    @Precomputed public static class C extends B<Integer> {\n"
+            + "        void a(Integer x, List<String> y) {  }\n"
+            + "        void b(Integer[] x) {  }\n"
+            + "        <M extends Comparable<M>> void c(M x) {  }\n"
+            + "        void d(Object x) {  }\n"
+            + "        void e(int x) {  }\n"
+            + "    }\n"
+            + "    @Precomputed @SuppressWarnings(\"rawtypes\")\n"
+            + "    public static class D<Q> extends B {\n"
+            + "        void a(Number x, List y) {  }\n"
+            + "        <M extends Q> void c(M x) {  }\n"
+            + "    }\n"
+            + "    @Precomputed public static class E extends A<List<String>, Map<String, Integer>> {\n"
+            + "        void a(List<String> x, List<Map<String, Integer>> y) {  }\n"
+            + "        void b(List<String>[] x) {  }\n"
+            + "    }\n"
+            + "}\n";
+
+    private File compile(boolean process) throws IOException {
+        File sources = folder.newFolder();
+        File classes = folder.newFolder();
+        File source = new File(sources, "Fixtures.java");
+        Files.write(source.toPath(), FIXTURES.getBytes("UTF-8"));
+        String classPath = new File(Precomputed.class.getProtectionDomain()
+                .getCodeSource().getLocation().getPath()).getPath();
+        List<String> arguments = new ArrayList<String>(Arrays.asList(
+                "-d", classes.getPath(), "-classpath", classPath));
+        if (process) arguments.addAll(Arrays.asList("-processor", PrecomputedProcessor.class.getName()));
+        else arguments.add("-proc:none");
+        arguments.add(source.getPath());
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assertEquals(0, compiler.run(null, null, null, arguments.toArray(new String[arguments.size()])));
+        return classes;
+    }
+
+    private static Map<String, String> names(Map<Type, Type> context) {
+        Map<String, String> names = new HashMap<String, String>();
+        for (Map.Entry<Type, Type> entry : context.entrySet()) {
+            TypeVariable<?> variable = (TypeVariable<?>) entry.getKey();
+            names.put(variable.getGenericDeclaration() + "." + variable.getName(),
+                    entry.getValue().getTypeName());
+        }
+        return names;
+    }
+}
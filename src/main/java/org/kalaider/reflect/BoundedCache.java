@@ -0,0 +1,205 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The bounded {@link Cache}.
+ *
+ * <p/>
+ * The values are kept in a {@link ClassValue} of their owner classes,
+ * so the cache does not prevent the classes (and their class loaders)
+ * from being unloaded: the values live no longer than the owners. The
+ * cache holds at most the maximum number of values; the values to evict
+ * are chosen by the CLOCK (second chance) policy, the approximation of
+ * the least recently used policy which does not lock or reorder anything
+ * when a value is read. The ring of the clock refers to the values
+ * weakly.
+ *
+ * <p/>
+ * The cache is thread-safe. The reads are lock-free and do not allocate;
+ * the insertions are serialized.
+ *
+ * @param <K> The type of keys
+ * @param <V> The type of values
+ *
+ * @author Alexander Vasilevsky
+ */
+final class BoundedCache<K, V> implements Cache<K, V> {
+
+    /**
+     * The default maximum number of values.
+     */
+    static final int DEFAULT_MAXIMUM_SIZE = 8192;
+
+    /**
+     * The values of each owner class.
+     */
+    private final ClassValue<ConcurrentMap<K, Entry<K, V>>> entries =
+            new ClassValue<ConcurrentMap<K, Entry<K, V>>>() {
+                @Override
+                protected ConcurrentMap<K, Entry<K, V>> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<K, Entry<K, V>>(4);
+                }
+            };
+
+    /**
+     * The ring of the clock, each slot refers to a value weakly.
+     */
+    private final WeakReference<?>[] ring;
+
+    /**
+     * The hand of the clock.
+     */
+    private int hand;
+
+    /**
+     * Creates the cache.
+     *
+     * @param maximumSize The maximum number of values
+     *
+     * @throws IllegalArgumentException If the maximum size is not positive
+     */
+    BoundedCache(int maximumSize) {
+        if (maximumSize <= 0)
+            throw new IllegalArgumentException("The maximum size is not positive.");
+        ring = new WeakReference<?>[maximumSize];
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p/>
+     * Marks the value as recently used.
+     */
+    @Override
+    public V get(Class<?> owner, K key) {
+        Entry<K, V> entry = entries.get(owner).get(key);
+        if (entry == null) return null;
+        if (!entry.referenced) entry.referenced = true;
+        return entry.value;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p/>
+     * Evicts the value not used for the longest time if the cache is full.
+     */
+    @Override
+    public V putIfAbsent(Class<?> owner, K key, V value) {
+        if (value == null) throw new NullPointerException();
+        Entry<K, V> entry = new Entry<K, V>(owner, key, value);
+        Entry<K, V> existing = entries.get(owner).putIfAbsent(key, entry);
+        if (existing != null) return existing.value;
+        admit(entry);
+        return value;
+    }
+
+    @Override
+    public synchronized void clear() {
+        for (WeakReference<?> reference : ring) {
+            Entry<?, ?> entry = reference != null ? (Entry<?, ?>) reference.get() : null;
+            if (entry != null) evict(entry);
+        }
+        Arrays.fill(ring, null);
+        hand = 0;
+    }
+
+    /**
+     * Returns the number of values in the cache.
+     *
+     * @return The number of values
+     */
+    synchronized int size() {
+        int size = 0;
+        for (WeakReference<?> reference : ring) {
+            if (reference != null && reference.get() != null) size++;
+        }
+        return size;
+    }
+
+    /**
+     * Returns the maximum number of values in the cache.
+     *
+     * @return The maximum number of values
+     */
+    int maximumSize() {
+        return ring.length;
+    }
+
+    /**
+     * Puts the entry to the ring of the clock, evicting the first entry
+     * which is not marked as recently used. The marks of the entries
+     * passed by are cleared, so the hand never makes more than two turns.
+     *
+     * @param entry The entry
+     */
+    private synchronized void admit(Entry<K, V> entry) {
+        for (int passed = 0; ; passed++) {
+            WeakReference<?> reference = ring[hand];
+            Entry<?, ?> victim = reference != null ? (Entry<?, ?>) reference.get() : null;
+            if (victim == null) break;
+            if (!victim.referenced || passed >= 2 * ring.length) {
+                evict(victim);
+                break;
+            }
+            victim.referenced = false;
+            hand = (hand + 1) % ring.length;
+        }
+        ring[hand] = new WeakReference<Entry<K, V>>(entry);
+        hand = (hand + 1) % ring.length;
+    }
+
+    /**
+     * Removes the entry from the cache.
+     *
+     * @param entry The entry
+     */
+    private void evict(Entry<?, ?> entry) {
+        entries.get(entry.owner).remove(entry.key, entry);
+    }
+
+    /**
+     * The value put under an owner class and key.
+     *
+     * @param <K> The type of the key
+     * @param <V> The type of the value
+     */
+    private static final class Entry<K, V> {
+
+        final Class<?> owner;
+        final K key;
+        final V value;
+
+        /**
+         * Whether the value was used since the hand of the clock
+         * passed the entry.
+         */
+        volatile boolean referenced;
+
+        Entry(Class<?> owner, K key, V value) {
+            this.owner = owner;
+            this.key = key;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect;
+
+/**
+ * The cache of a {@link ReflectionEngine}, created by a
+ * {@link CacheProvider}.
+ *
+ * <p/>
+ * Each value is put under an owner class and a key. The owner is the
+ * class which the value is computed for, e.g. the lower class of the
+ * resolved context or the declaring class of the method, and the value
+ * refers only to the owner and its supertypes. The cache should not
+ * keep the values longer than their owner classes are alive, e.g. keep
+ * them in a {@link ClassValue} of the owner, so that the classes (and
+ * their class loaders) may still be unloaded.
+ *
+ * <p/>
+ * The caches must be thread-safe. The {@link #get(java.lang.Class,
+ * java.lang.Object) get()} method is called on the warm path of every
+ * check, so it should neither lock nor allocate. The cache may drop
+ * any value at any time.
+ *
+ * @param <K> The type of keys
+ * @param <V> The type of values
+ *
+ * @author Alexander Vasilevsky
+ *
+ * @see CacheProviders
+ */
+public interface Cache<K, V> {
+
+    /**
+     * Returns the value put under the owner class and key.
+     *
+     * @param owner The owner class
+     * @param key   The key
+     *
+     * @return The value, or <code>null</code> if there is no value
+     *         in the cache
+     *
+     * @throws NullPointerException If any argument is <code>null</code>
+     */
+    V get(Class<?> owner, K key);
+
+    /**
+     * Puts the value under the owner class and key unless there is
+     * a value already.
+     *
+     * @param owner The owner class
+     * @param key   The key
+     * @param value The value
+     *
+     * @return The value in the cache, or the passed value if the cache
+     *         did not keep it
+     *
+     * @throws NullPointerException If any argument is <code>null</code>
+     */
+    V putIfAbsent(Class<?> owner, K key, V value);
+
+    /**
+     * Removes all of the values from the cache.
+     */
+    void clear();
+}
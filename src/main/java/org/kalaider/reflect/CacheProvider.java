@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect;
+
+/**
+ * The service provider of the caches of a {@link ReflectionEngine}.
+ *
+ * <p/>
+ * The engine creates its caches once, when it is constructed. The caches
+ * are named by the {@link ReflectionEngine#RESOLUTION_CONTEXTS},
+ * {@link ReflectionEngine#METHOD_SIGNATURES},
+ * {@link ReflectionEngine#OVERRIDDEN_METHODS},
+ * {@link ReflectionEngine#INHERITED_ANNOTATIONS} and
+ * {@link ReflectionEngine#RESOLVED_TYPES} constants, so a provider
+ * may configure them differently. The provider must create every one
+ * of them.
+ *
+ * @author Alexander Vasilevsky
+ *
+ * @see CacheProviders
+ */
+public interface CacheProvider {
+
+    /**
+     * Creates the cache.
+     *
+     * @param <K>  The type of keys
+     * @param <V>  The type of values
+     * @param name The name of the cache
+     *
+     * @return The cache
+     */
+    <K, V> Cache<K, V> createCache(String name);
+}
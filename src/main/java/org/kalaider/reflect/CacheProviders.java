@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect;
+
+/**
+ * The built-in {@link CacheProvider providers} of caches.
+ *
+ * @author Alexander Vasilevsky
+ */
+public final class CacheProviders {
+
+    /**
+     * The provider of the caches which keep nothing.
+     */
+    private static final CacheProvider NONE = new CacheProvider() {
+        @Override
+        public <K, V> Cache<K, V> createCache(String name) {
+            return new Cache<K, V>() {
+                @Override
+                public V get(Class<?> owner, K key) {
+                    return null;
+                }
+
+                @Override
+                public V putIfAbsent(Class<?> owner, K key, V value) {
+                    return value;
+                }
+
+                @Override
+                public void clear() {
+                }
+            };
+        }
+    };
+
+    /**
+     * The provider of the unbounded caches.
+     */
+    private static final CacheProvider CONCURRENT = new CacheProvider() {
+        @Override
+        public <K, V> Cache<K, V> createCache(String name) {
+            return new ConcurrentCache<K, V>();
+        }
+    };
+
+    /**
+     * The private constructor.
+     */
+    private CacheProviders() {
+    }
+
+    /**
+     * Returns the provider of the caches which keep nothing, so
+     * everything is resolved on every call.
+     *
+     * @return The provider
+     */
+    public static CacheProvider none() {
+        return NONE;
+    }
+
+    /**
+     * Returns the provider of the unbounded caches. The values are
+     * dropped only when their owner classes are unloaded or the caches
+     * are cleared.
+     *
+     * @return The provider
+     */
+    public static CacheProvider concurrent() {
+        return CONCURRENT;
+    }
+
+    /**
+     * Returns the provider of the bounded caches. Each cache keeps
+     * at most the passed number of values and evicts the ones used least
+     * recently, approximated by the CLOCK policy.
+     *
+     * @param maximumSize The maximum number of values of each cache
+     *
+     * @return The provider
+     *
+     * @throws IllegalArgumentException If the maximum size is not positive
+     */
+    public static CacheProvider bounded(final int maximumSize) {
+        if (maximumSize <= 0)
+            throw new IllegalArgumentException("The maximum size is not positive.");
+        return new CacheProvider() {
+            @Override
+            public <K, V> Cache<K, V> createCache(String name) {
+                return new BoundedCache<K, V>(maximumSize);
+            }
+        };
+    }
+}
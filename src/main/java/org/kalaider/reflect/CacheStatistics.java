@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The statistics of a cache of a {@link ReflectionEngine}.
+ *
+ * <p/>
+ * The counters are {@link LongAdder striped}, so the lookups of the cache
+ * are counted without contention.
+ *
+ * @author Alexander Vasilevsky
+ *
+ * @see ReflectionEngine#getCacheStatistics(java.lang.String)
+ */
+public final class CacheStatistics {
+
+    private final String name;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Creates the empty statistics.
+     *
+     * @param name The name of the cache
+     */
+    CacheStatistics(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Counts the value found in the cache.
+     */
+    void hit() {
+        hits.increment();
+    }
+
+    /**
+     * Counts the value not found in the cache.
+     */
+    void miss() {
+        misses.increment();
+    }
+
+    /**
+     * Returns the name of the cache.
+     *
+     * @return The name of the cache
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the number of values found in the cache.
+     *
+     * @return The number of cache hits
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of values not found in the cache.
+     *
+     * @return The number of cache misses
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the ratio of the values found in the cache.
+     *
+     * @return The ratio from <code>0</code> to <code>1</code>,
+     *         or <code>0</code> if the cache was not looked up
+     */
+    public double getHitRatio() {
+        long hits = this.hits.sum();
+        long total = hits + misses.sum();
+        return total != 0 ? (double) hits / total : 0;
+    }
+
+    /**
+     * Resets the counters.
+     */
+    public void reset() {
+        hits.reset();
+        misses.reset();
+    }
+
+    @Override
+    public String toString() {
+        return name + "[hits=" + getHitCount() + ", misses=" + getMissCount() + "]";
+    }
+}
@@ -0,0 +1,383 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericSignatureFormatError;
+import java.lang.reflect.MalformedParameterizedTypeException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The generic types of the fields and accessors of a class, resolved
+ * in its context.
+ *
+ * <p/>
+ * The descriptor holds the instance fields declared by the class and
+ * its superclasses, ordered from the farthest superclass to the class
+ * itself, and the public accessors of the class, i.e. the getters
+ * (<code>getX()</code> and <code>isX()</code>) and the setters
+ * (<code>setX(value)</code>) declared by the class or inherited from its
+ * supertypes, ordered by name. The type of each field, the return type
+ * of each getter and the parameter type of each setter is resolved by the
+ * {@link ReflectionEngine#resolveType(java.lang.reflect.Type,
+ * java.lang.Class) resolveType()} method of the
+ * {@link ReflectionUtilities#getEngine() current engine}, which reuses
+ * the cached resolution contexts of the superclasses.
+ *
+ * <blockquote><code><pre>
+ * ClassDescriptor descriptor = ClassDescriptor.of(Dto.class);
+ * for (int i = 0; i &lt; descriptor.getFieldCount(); i++) {
+ *     write(descriptor.getField(i), descriptor.getFieldType(i));
+ * }
+ * </pre></code></blockquote>
+ *
+ * <p/>
+ * The descriptor is immutable and built once per class: the descriptors
+ * are cached by the {@link ClassValue}, so the whole picture is fetched
+ * by a single lookup.
+ *
+ * @author Alexander Vasilevsky
+ */
+public final class ClassDescriptor {
+
+    /**
+     * The cache of descriptors.
+     */
+    private static final ClassValue<ClassDescriptor> DESCRIPTORS = new ClassValue<ClassDescriptor>() {
+        @Override
+        protected ClassDescriptor computeValue(Class<?> type) {
+            return new ClassDescriptor(type);
+        }
+    };
+
+    /**
+     * The order of accessors: by name, then by the number of parameters,
+     * then by the names of the parameter types, then by the name of the
+     * declaring class and finally by the name of the return type, so that
+     * neither overloaded setters nor accessors inherited from several
+     * interfaces keep the unspecified order of {@link Class#getMethods()}.
+     */
+    private static final Comparator<Method> ACCESSOR_ORDER = new Comparator<Method>() {
+        @Override
+        public int compare(Method methodA, Method methodB) {
+            int order = methodA.getName().compareTo(methodB.getName());
+            if (order != 0) return order;
+            Class<?>[] parametersA = methodA.getParameterTypes();
+            Class<?>[] parametersB = methodB.getParameterTypes();
+            if (parametersA.length != parametersB.length)
+                return parametersA.length - parametersB.length;
+            for (int i = 0; i < parametersA.length; i++) {
+                order = parametersA[i].getName().compareTo(parametersB[i].getName());
+                if (order != 0) return order;
+            }
+            order = methodA.getDeclaringClass().getName().compareTo(
+                    methodB.getDeclaringClass().getName());
+            if (order != 0) return order;
+            return methodA.getReturnType().getName().compareTo(methodB.getReturnType().getName());
+        }
+    };
+
+    /**
+     * The class.
+     */
+    private final Class<?> type;
+
+    /**
+     * The instance fields.
+     */
+    private final Field[] fields;
+
+    /**
+     * The resolved types of the fields.
+     */
+    private final Type[] fieldTypes;
+
+    /**
+     * The accessors.
+     */
+    private final Method[] accessors;
+
+    /**
+     * The names of the properties of the accessors.
+     */
+    private final String[] propertyNames;
+
+    /**
+     * The resolved types of the properties of the accessors.
+     */
+    private final Type[] accessorTypes;
+
+    /**
+     * The numbers of the fields and accessors.
+     */
+    private final Map<Object, Integer> numbers;
+
+    /**
+     * Builds the descriptor of the passed class.
+     *
+     * @param type The class
+     *
+     * @throws NullPointerException                If the argument is
+     *                                             <code>null</code>
+     * @throws GenericSignatureFormatError         If the generic signature
+     *         of this generic declaration does not conform to the format
+     *         specified in the Java Virtual Machine Specification, 3rd edition
+     * @throws TypeNotPresentException             If the generic superclass
+     *         or any of its actual type arguments refers to a non-existent
+     *         type declaration
+     * @throws MalformedParameterizedTypeException if the generic superclass
+     *         or any of its actual type parameters refers to a parameterized
+     *         type that cannot be instantiated for any reason
+     */
+    private ClassDescriptor(Class<?> type) {
+        this.type = type;
+        ReflectionEngine engine = ReflectionUtilities.getEngine();
+
+        List<Class<?>> superclasses = new ArrayList<Class<?>>();
+        for (Class<?> superclass = type; superclass != null; superclass = superclass.getSuperclass()) {
+            superclasses.add(superclass);
+        }
+        List<Field> declared = new ArrayList<Field>();
+        for (int i = superclasses.size() - 1; i >= 0; i--) {
+            for (Field field : superclasses.get(i).getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) continue;
+                declared.add(field);
+            }
+        }
+        fields = declared.toArray(new Field[declared.size()]);
+        fieldTypes = new Type[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            fieldTypes[i] = engine.resolveType(fields[i].getGenericType(), type);
+        }
+
+        List<Method> methods = new ArrayList<Method>();
+        List<String> names = new ArrayList<String>();
+        for (Method method : type.getMethods()) {
+            if (method.getDeclaringClass() == Object.class || method.isBridge()
+                    || method.isSynthetic() || Modifier.isStatic(method.getModifiers())) continue;
+            if (propertyName(method) != null) methods.add(method);
+        }
+        accessors = methods.toArray(new Method[methods.size()]);
+        Arrays.sort(accessors, ACCESSOR_ORDER);
+        propertyNames = new String[accessors.length];
+        accessorTypes = new Type[accessors.length];
+        for (int i = 0; i < accessors.length; i++) {
+            propertyNames[i] = propertyName(accessors[i]);
+            accessorTypes[i] = engine.resolveType(accessors[i].getParameterCount() == 0
+                    ? accessors[i].getGenericReturnType()
+                    : accessors[i].getGenericParameterTypes()[0], type);
+        }
+
+        numbers = new HashMap<Object, Integer>((fields.length + accessors.length) * 4 / 3 + 1);
+        for (int i = 0; i < fields.length; i++) numbers.put(fields[i], i);
+        for (int i = 0; i < accessors.length; i++) numbers.put(accessors[i], i);
+    }
+
+    /**
+     * Returns the name of the property of the accessor, or
+     * <code>null</code> if the method is not an accessor.
+     */
+    private static String propertyName(Method method) {
+        String name = method.getName();
+        int prefix;
+        if (method.getParameterCount() == 0 && method.getReturnType() != void.class) {
+            if (name.startsWith("get")) prefix = 3;
+            else if (name.startsWith("is") && method.getReturnType() == boolean.class) prefix = 2;
+            else return null;
+        } else if (method.getParameterCount() == 1 && name.startsWith("set")) {
+            prefix = 3;
+        } else {
+            return null;
+        }
+        if (name.length() == prefix) return null;
+        if (name.length() > prefix + 1 && Character.isUpperCase(name.charAt(prefix))
+                && Character.isUpperCase(name.charAt(prefix + 1))) return name.substring(prefix);
+        return Character.toLowerCase(name.charAt(prefix)) + name.substring(prefix + 1);
+    }
+
+    /**
+     * Returns the descriptor of the passed class, taking it from the
+     * cache if possible.
+     *
+     * @param type The class
+     *
+     * @return The descriptor
+     *
+     * @throws NullPointerException                If the argument is
+     *                                             <code>null</code>
+     * @throws GenericSignatureFormatError         If the generic signature
+     *         of this generic declaration does not conform to the format
+     *         specified in the Java Virtual Machine Specification, 3rd edition
+     * @throws TypeNotPresentException             If the generic superclass
+     *         or any of its actual type arguments refers to a non-existent
+     *         type declaration
+     * @throws MalformedParameterizedTypeException if the generic superclass
+     *         or any of its actual type parameters refers to a parameterized
+     *         type that cannot be instantiated for any reason
+     */
+    public static ClassDescriptor of(Class<?> type) {
+        if (!ReflectionUtilities.CACHE_ENABLED) return new ClassDescriptor(type);
+        return DESCRIPTORS.get(type);
+    }
+
+    /**
+     * Returns the described class.
+     *
+     * @return The class
+     */
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * Returns the number of instance fields.
+     *
+     * @return The number of fields
+     */
+    public int getFieldCount() {
+        return fields.length;
+    }
+
+    /**
+     * Returns the instance field.
+     *
+     * @param index The index of the field
+     *
+     * @return The field
+     *
+     * @throws IndexOutOfBoundsException If there is no such field
+     */
+    public Field getField(int index) {
+        return fields[index];
+    }
+
+    /**
+     * Returns the resolved type of the instance field.
+     *
+     * @param index The index of the field
+     *
+     * @return The type of the field
+     *
+     * @throws IndexOutOfBoundsException If there is no such field
+     */
+    public Type getFieldType(int index) {
+        return fieldTypes[index];
+    }
+
+    /**
+     * Returns the resolved type of the instance field.
+     *
+     * @param field The field
+     *
+     * @return The type of the field, or <code>null</code> if the field
+     *         is not described
+     */
+    public Type getFieldType(Field field) {
+        Integer index = numbers.get(field);
+        return index != null ? fieldTypes[index] : null;
+    }
+
+    /**
+     * Returns all of the instance fields.
+     *
+     * @return The unmodifiable list of fields
+     */
+    public List<Field> getFields() {
+        return Collections.unmodifiableList(Arrays.asList(fields));
+    }
+
+    /**
+     * Returns the number of accessors.
+     *
+     * @return The number of accessors
+     */
+    public int getAccessorCount() {
+        return accessors.length;
+    }
+
+    /**
+     * Returns the accessor.
+     *
+     * @param index The index of the accessor
+     *
+     * @return The accessor
+     *
+     * @throws IndexOutOfBoundsException If there is no such accessor
+     */
+    public Method getAccessor(int index) {
+        return accessors[index];
+    }
+
+    /**
+     * Returns the name of the property of the accessor, e.g.
+     * <code>value</code> for <code>getValue()</code>.
+     *
+     * @param index The index of the accessor
+     *
+     * @return The name of the property
+     *
+     * @throws IndexOutOfBoundsException If there is no such accessor
+     */
+    public String getPropertyName(int index) {
+        return propertyNames[index];
+    }
+
+    /**
+     * Returns the resolved type of the property of the accessor, i.e.
+     * the return type of the getter or the parameter type of the setter.
+     *
+     * @param index The index of the accessor
+     *
+     * @return The type of the property
+     *
+     * @throws IndexOutOfBoundsException If there is no such accessor
+     */
+    public Type getAccessorType(int index) {
+        return accessorTypes[index];
+    }
+
+    /**
+     * Returns the resolved type of the property of the accessor.
+     *
+     * @param accessor The accessor
+     *
+     * @return The type of the property, or <code>null</code> if the
+     *         accessor is not described
+     */
+    public Type getAccessorType(Method accessor) {
+        Integer index = numbers.get(accessor);
+        return index != null ? accessorTypes[index] : null;
+    }
+
+    /**
+     * Returns all of the accessors.
+     *
+     * @return The unmodifiable list of accessors
+     */
+    public List<Method> getAccessors() {
+        return Collections.unmodifiableList(Arrays.asList(accessors));
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect;
+
+import java.lang.reflect.GenericSignatureFormatError;
+import java.lang.reflect.MalformedParameterizedTypeException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+
+/**
+ * The descriptor of the generic signature of a class.
+ *
+ * <p/>
+ * Keeps the type parameters of the class, which are otherwise copied
+ * by the Java Reflection API on every request, and the facts about its
+ * hierarchy. The descriptor is immutable and created once per class.
+ *
+ * @author Alexander Vasilevsky
+ */
+final class ClassSignature {
+
+    /**
+     * The cache of descriptors.
+     */
+    private static final ClassValue<ClassSignature> SIGNATURES =
+            new ClassValue<ClassSignature>() {
+                @Override
+                protected ClassSignature computeValue(Class<?> type) {
+                    return new ClassSignature(type);
+                }
+            };
+
+    /**
+     * The type parameters of the class.
+     * The array must not be modified.
+     */
+    final TypeVariable<?>[] typeParameters;
+
+    /**
+     * Whether neither the class nor its supertypes declare type
+     * parameters or extend parameterized types, i.e. the resolution
+     * context of the class against any of its supertypes is empty.
+     */
+    final boolean genericFree;
+
+    /**
+     * The number of superclasses of the class.
+     */
+    final int depth;
+
+    /**
+     * Creates the descriptor of the passed class.
+     *
+     * @param type The class
+     *
+     * @throws NullPointerException                If the argument is
+     *                                             <code>null</code>
+     * @throws GenericSignatureFormatError         If the generic signature
+     *         of this generic declaration does not conform to the format
+     *         specified in the Java Virtual Machine Specification, 3rd edition
+     * @throws TypeNotPresentException             If the generic superclass
+     *         or superinterfaces refer to a non-existent type declaration
+     * @throws MalformedParameterizedTypeException If the generic superclass
+     *         or superinterfaces refer to a parameterized type that cannot
+     *         be instantiated for any reason
+     */
+    private ClassSignature(Class<?> type) {
+        typeParameters = type.getTypeParameters();
+        Class<?> superclass = type.getSuperclass();
+        ClassSignature superSignature = superclass == null ? null : of(superclass);
+        genericFree = typeParameters.length == 0
+                && !(type.getGenericSuperclass() instanceof ParameterizedType)
+                && (superSignature == null || superSignature.genericFree)
+                && interfacesGenericFree(type);
+        depth = superSignature == null ? 0 : superSignature.depth + 1;
+    }
+
+    /**
+     * Determines the superinterfaces of the passed class are
+     * {@link #genericFree generic-free}.
+     *
+     * @param type The class
+     *
+     * @return <code>true</code> if the superinterfaces are generic-free,
+     *         <code>false</code> otherwise
+     *
+     * @throws GenericSignatureFormatError         If the generic signature
+     *         of this generic declaration does not conform to the format
+     *         specified in the Java Virtual Machine Specification, 3rd edition
+     * @throws TypeNotPresentException             If any of the generic
+     *         superinterfaces refers to a non-existent type declaration
+     * @throws MalformedParameterizedTypeException If any of the generic
+     *         superinterfaces refers to a parameterized type that cannot
+     *         be instantiated for any reason
+     */
+    private static boolean interfacesGenericFree(Class<?> type) {
+        for (Type generic : type.getGenericInterfaces()) {
+            if (generic instanceof ParameterizedType
+                    || !of((Class<?>) generic).genericFree) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the descriptor of the passed class, taking it from
+     * the cache. The descriptor is structural and immutable, so it is
+     * cached even if the {@link ReflectionUtilities#DISABLE_CACHE_PROPERTY
+     * caching} of the results is disabled.
+     *
+     * @param type The class
+     *
+     * @return The descriptor
+     *
+     * @throws NullPointerException                If the argument is
+     *                                             <code>null</code>
+     * @throws GenericSignatureFormatError         If the generic signature
+     *         of this generic declaration does not conform to the format
+     *         specified in the Java Virtual Machine Specification, 3rd edition
+     * @throws TypeNotPresentException             If the generic superclass
+     *         or superinterfaces refer to a non-existent type declaration
+     * @throws MalformedParameterizedTypeException If the generic superclass
+     *         or superinterfaces refer to a parameterized type that cannot
+     *         be instantiated for any reason
+     */
+    static ClassSignature of(Class<?> type) {
+        return SIGNATURES.get(type);
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The unbounded {@link Cache}.
+ *
+ * <p/>
+ * The values are kept in a {@link ClassValue} of their owner classes,
+ * so the cache does not prevent the classes (and their class loaders)
+ * from being unloaded, but the values are never evicted otherwise.
+ *
+ * @param <K> The type of keys
+ * @param <V> The type of values
+ *
+ * @author Alexander Vasilevsky
+ */
+final class ConcurrentCache<K, V> implements Cache<K, V> {
+
+    /**
+     * The values of each owner class.
+     */
+    private volatile ClassValue<ConcurrentMap<K, V>> values = create();
+
+    @Override
+    public V get(Class<?> owner, K key) {
+        return values.get(owner).get(key);
+    }
+
+    @Override
+    public V putIfAbsent(Class<?> owner, K key, V value) {
+        V existing = values.get(owner).putIfAbsent(key, value);
+        return existing != null ? existing : value;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p/>
+     * The values of the owner classes cannot be enumerated, so the values
+     * are dropped all at once by replacing the {@link ClassValue}.
+     */
+    @Override
+    public void clear() {
+        values = create();
+    }
+
+    /**
+     * Creates the storage of the values.
+     *
+     * @param <K> The type of keys
+     * @param <V> The type of values
+     *
+     * @return The storage
+     */
+    private static <K, V> ClassValue<ConcurrentMap<K, V>> create() {
+        return new ClassValue<ConcurrentMap<K, V>>() {
+            @Override
+            protected ConcurrentMap<K, V> computeValue(Class<?> type) {
+                return new ConcurrentHashMap<K, V>(4);
+            }
+        };
+    }
+}
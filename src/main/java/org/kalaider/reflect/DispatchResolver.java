@@ -0,0 +1,311 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.GenericSignatureFormatError;
+import java.lang.reflect.MalformedParameterizedTypeException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The resolver of the implementations of a method invoked virtually.
+ *
+ * <p/>
+ * For each receiver class, finds the method which runs if the base
+ * method is invoked on an instance of the class, like the virtual
+ * machine selects it: the most specific method declared by the class or
+ * its superclasses which overrides the base method (or implements it,
+ * as determined by the {@link ReflectionEngine#isSameSignature(
+ * java.lang.reflect.Method, java.lang.reflect.Method, java.lang.Class)
+ * isSameSignature()} method of the engine), or, if there is no such
+ * non-abstract method, the single maximally specific default method of
+ * the superinterfaces. Supports generics: the overrides are found by the
+ * {@link ReflectionEngine#findOverridingMethod(java.lang.reflect.Method,
+ * java.lang.Class) findOverridingMethod()} method of the engine.
+ *
+ * <p/>
+ * The implementations are found once per receiver class and kept by
+ * the {@link ClassValue}, so a repeated lookup is a single read of the
+ * class value, and the cache does not prevent the receiver classes from
+ * being unloaded. If the resolver was created with a
+ * {@link MethodHandles.Lookup lookup}, the method handles of the
+ * implementations are also created once per receiver class.
+ *
+ * <blockquote><code><pre>
+ * DispatchResolver resolver = new DispatchResolver(
+ *         ClassA.class.getDeclaredMethod("test", Object.class),
+ *         MethodHandles.lookup());
+ * Method implementation = resolver.resolve(ClassB.class);
+ * MethodHandle handle = resolver.getMethodHandle(ClassB.class);
+ * </pre></code></blockquote>
+ *
+ * <p/>
+ * The resolver is thread-safe.
+ *
+ * @author Alexander Vasilevsky
+ */
+public final class DispatchResolver {
+
+    /**
+     * The target of the receiver class not implementing the method.
+     */
+    private static final Target NO_TARGET = new Target(null);
+
+    /**
+     * The base method.
+     */
+    private final Method method;
+
+    /**
+     * The lookup to create the method handles by, or <code>null</code>.
+     */
+    private final MethodHandles.Lookup lookup;
+
+    /**
+     * The engine to find the overriding methods by.
+     */
+    private final ReflectionEngine engine;
+
+    /**
+     * The cache of the targets.
+     */
+    private final ClassValue<Target> targets = new ClassValue<Target>() {
+        @Override
+        protected Target computeValue(Class<?> type) {
+            Method implementation = find(type);
+            return implementation != null ? new Target(implementation) : NO_TARGET;
+        }
+    };
+
+    /**
+     * Creates the resolver of the implementations of the passed method,
+     * which finds the overriding methods by the
+     * {@link ReflectionUtilities#getEngine() current engine}, but does
+     * not create the method handles.
+     *
+     * @param method The base method
+     *
+     * @throws NullPointerException     If the argument is <code>null</code>
+     * @throws IllegalArgumentException If the method is static or private
+     */
+    public DispatchResolver(Method method) {
+        this(method, null);
+    }
+
+    /**
+     * Creates the resolver of the implementations of the passed method,
+     * which finds the overriding methods by the
+     * {@link ReflectionUtilities#getEngine() current engine} and creates
+     * the method handles by the passed lookup.
+     *
+     * @param method The base method
+     * @param lookup The lookup to create the method handles by, or
+     *               <code>null</code> if the handles are not needed
+     *
+     * @throws NullPointerException     If the method is <code>null</code>
+     * @throws IllegalArgumentException If the method is static or private
+     */
+    public DispatchResolver(Method method, MethodHandles.Lookup lookup) {
+        if ((method.getModifiers() & (Modifier.STATIC | Modifier.PRIVATE)) != 0)
+            throw new IllegalArgumentException("The method is not invoked virtually.");
+        this.method = method;
+        this.lookup = lookup;
+        this.engine = ReflectionUtilities.getEngine();
+    }
+
+    /**
+     * Returns the base method.
+     *
+     * @return The base method
+     */
+    public Method getMethod() {
+        return method;
+    }
+
+    /**
+     * Finds the method which runs if the base method is invoked on
+     * an instance of the <code>receiver</code> class.
+     *
+     * @param receiver The receiver class
+     *
+     * @return The implementation of the base method, or <code>null</code>
+     *         if the receiver class does not implement it, i.e. the
+     *         method is abstract in the receiver class or there are
+     *         several maximally specific default methods
+     *
+     * @throws NullPointerException                If the argument is
+     *                                             <code>null</code>
+     * @throws IllegalArgumentException            If the receiver class
+     *         is not a subtype of the declaring class of the base method
+     * @throws GenericSignatureFormatError         If the generic signature
+     *         of this generic declaration does not conform to the format
+     *         specified in the Java Virtual Machine Specification, 3rd edition
+     * @throws TypeNotPresentException             If the generic superclass
+     *         or any of its actual type arguments refers to a non-existent
+     *         type declaration
+     * @throws MalformedParameterizedTypeException if the generic superclass
+     *         or any of its actual type parameters refers to a parameterized
+     *         type that cannot be instantiated for any reason
+     */
+    public Method resolve(Class<?> receiver) {
+        return target(receiver).method;
+    }
+
+    /**
+     * Returns the method handle of the method which runs if the base
+     * method is invoked on an instance of the <code>receiver</code>
+     * class. The handle is created by the lookup of this resolver once
+     * per receiver class, and takes the receiver as the first argument.
+     *
+     * @param receiver The receiver class
+     *
+     * @return The method handle of the implementation of the base method,
+     *         or <code>null</code> if the receiver class does not
+     *         implement it
+     *
+     * @throws NullPointerException                If the argument is
+     *                                             <code>null</code>
+     * @throws IllegalStateException               If the resolver was
+     *                                             created without a lookup
+     * @throws IllegalAccessException              If the lookup has no
+     *                                             access to the method
+     * @throws IllegalArgumentException            If the receiver class
+     *         is not a subtype of the declaring class of the base method
+     * @throws GenericSignatureFormatError         If the generic signature
+     *         of this generic declaration does not conform to the format
+     *         specified in the Java Virtual Machine Specification, 3rd edition
+     * @throws TypeNotPresentException             If the generic superclass
+     *         or any of its actual type arguments refers to a non-existent
+     *         type declaration
+     * @throws MalformedParameterizedTypeException if the generic superclass
+     *         or any of its actual type parameters refers to a parameterized
+     *         type that cannot be instantiated for any reason
+     */
+    public MethodHandle getMethodHandle(Class<?> receiver) throws IllegalAccessException {
+        if (lookup == null)
+            throw new IllegalStateException("The resolver has no lookup.");
+        Target target = target(receiver);
+        if (target.method == null) return null;
+        MethodHandle handle = target.handle;
+        if (handle == null) target.handle = handle = lookup.unreflect(target.method);
+        return handle;
+    }
+
+    /**
+     * Returns the target of the receiver class, taking it from the cache
+     * if possible.
+     */
+    private Target target(Class<?> receiver) {
+        if (!ReflectionUtilities.CACHE_ENABLED) {
+            Method implementation = find(receiver);
+            return implementation != null ? new Target(implementation) : NO_TARGET;
+        }
+        return targets.get(receiver);
+    }
+
+    /**
+     * Finds the implementation of the base method for the receiver class.
+     * The superclasses are walked first, so the methods of classes, even
+     * the abstract ones, take precedence over the default methods of
+     * interfaces.
+     */
+    private Method find(Class<?> receiver) {
+        Class<?> declaring = method.getDeclaringClass();
+        if (!declaring.isAssignableFrom(receiver))
+            throw new IllegalArgumentException("The receiver is not a subtype of "
+                    + declaring.getName() + ".");
+        for (Class<?> type = receiver; type != null; type = type.getSuperclass()) {
+            Method overriding = declaring.isAssignableFrom(type)
+                    ? engine.findOverridingMethod(method, type)
+                    : findInheritedMethod(type, receiver);
+            if (overriding != null && (!Modifier.isAbstract(overriding.getModifiers())
+                    || !overriding.getDeclaringClass().isInterface())) {
+                return Modifier.isAbstract(overriding.getModifiers()) ? null : overriding;
+            }
+        }
+        if (!declaring.isInterface()) return null;
+
+        List<Method> candidates = new ArrayList<Method>(2);
+        if (receiver.isInterface()) add(candidates, engine.findOverridingMethod(method, receiver));
+        for (Class<?> type : SupertypeGraph.of(receiver).interfaces) {
+            add(candidates, engine.findOverridingMethod(method, type));
+        }
+        Method implementation = null;
+        for (Method candidate : candidates) {
+            if (Modifier.isAbstract(candidate.getModifiers())) continue;
+            if (implementation != null) return null;
+            implementation = candidate;
+        }
+        return implementation;
+    }
+
+    /**
+     * Finds the method declared by the superclass of the receiver class,
+     * which does not implement the declaring interface of the base
+     * method, but implements the base method for the receiver class,
+     * i.e. has the same parameter types in context of the receiver class.
+     */
+    private Method findInheritedMethod(Class<?> type, Class<?> receiver) {
+        Method[] candidates = MethodIndex.of(type)
+                .candidates(method.getName(), method.getParameterCount());
+        for (Method candidate : candidates) {
+            if ((candidate.getModifiers() & (Modifier.STATIC | Modifier.PRIVATE)) != 0) continue;
+            if (engine.isSameSignature(method, candidate, receiver)) return candidate;
+        }
+        return null;
+    }
+
+    /**
+     * Adds the method to the maximally specific methods, removing the
+     * ones declared by its superinterfaces, unless there is a method
+     * declared by a subinterface of its declaring interface.
+     */
+    private static void add(List<Method> candidates, Method method) {
+        if (method == null) return;
+        Class<?> declaring = method.getDeclaringClass();
+        for (int i = candidates.size() - 1; i >= 0; i--) {
+            Class<?> other = candidates.get(i).getDeclaringClass();
+            if (declaring.isAssignableFrom(other)) return;
+            if (other.isAssignableFrom(declaring)) candidates.remove(i);
+        }
+        candidates.add(method);
+    }
+
+    /**
+     * The implementation of the base method for a receiver class.
+     */
+    private static final class Target {
+
+        /**
+         * The implementation, or <code>null</code> if there is none.
+         */
+        final Method method;
+
+        /**
+         * The method handle of the implementation, created lazily.
+         */
+        volatile MethodHandle handle;
+
+        Target(Method method) {
+            this.method = method;
+        }
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The index of the subtype relation of a set of classes.
+ *
+ * <p/>
+ * The classes and all of their supertypes are numbered in pre- and
+ * post-order of the depth-first walk of the tree of superclasses (the
+ * interfaces are the leaves of <code>Object</code>), so a class is
+ * a superclass of another one if its interval contains the interval of
+ * the other one. Each interface is assigned a bit, and each class keeps
+ * the bits of all of its superinterfaces. Thus, once the labels of both
+ * classes are found, the subtype check is two integer comparisons or a
+ * single bit test.
+ *
+ * <p/>
+ * The index is immutable and thread-safe. It is meant for the batch
+ * workloads checking the same set of classes many times, e.g. by the
+ * {@link ReflectionEngine#withHierarchyIndex(
+ * org.kalaider.reflect.HierarchyIndex) engine} of an
+ * {@link OverrideAnalysis}. The classes not indexed are checked by the
+ * {@link Class#isAssignableFrom(java.lang.Class)} method.
+ *
+ * <blockquote><code><pre>
+ * HierarchyIndex index = HierarchyIndex.of(classes);
+ * ReflectionEngine engine = ReflectionUtilities.getEngine().withHierarchyIndex(index);
+ * </pre></code></blockquote>
+ *
+ * @author Alexander Vasilevsky
+ */
+public final class HierarchyIndex {
+
+    /**
+     * The labels of the indexed classes.
+     */
+    private final Map<Class<?>, Label> labels;
+
+    /**
+     * The number of indexed interfaces.
+     */
+    private final int interfaces;
+
+    /**
+     * Indexes the classes.
+     *
+     * @param labels     The labels of the classes
+     * @param interfaces The number of interfaces
+     */
+    private HierarchyIndex(Map<Class<?>, Label> labels, int interfaces) {
+        this.labels = labels;
+        this.interfaces = interfaces;
+    }
+
+    /**
+     * Indexes the passed classes and all of their supertypes. The arrays
+     * and primitive types are not indexed.
+     *
+     * @param classes The classes
+     *
+     * @return The index
+     *
+     * @throws NullPointerException If the argument is <code>null</code>
+     *                              or contains <code>null</code>
+     */
+    public static HierarchyIndex of(Collection<? extends Class<?>> classes) {
+        Map<Class<?>, Label> labels = new IdentityHashMap<Class<?>, Label>();
+        Map<Class<?>, List<Class<?>>> children = new IdentityHashMap<Class<?>, List<Class<?>>>();
+        List<Class<?>> order = new ArrayList<Class<?>>();
+        Deque<Class<?>> pending = new ArrayDeque<Class<?>>();
+        int interfaces = 0;
+        labels.put(Object.class, new Label());
+        order.add(Object.class);
+        for (Class<?> type : classes) {
+            if (type == null) throw new NullPointerException();
+            pending.push(type);
+        }
+        while (!pending.isEmpty()) {
+            Class<?> type = pending.pop();
+            if (type.isArray() || type.isPrimitive() || labels.containsKey(type)) continue;
+            Label label = new Label();
+            if (type.isInterface()) label.bit = interfaces++;
+            labels.put(type, label);
+            order.add(type);
+            Class<?> parent = type.getSuperclass() != null ? type.getSuperclass() : Object.class;
+            List<Class<?>> siblings = children.get(parent);
+            if (siblings == null) children.put(parent, siblings = new ArrayList<Class<?>>());
+            siblings.add(type);
+            pending.push(parent);
+            for (Class<?> implemented : type.getInterfaces()) pending.push(implemented);
+        }
+
+        int counter = 0;
+        Deque<Class<?>> path = new ArrayDeque<Class<?>>();
+        Deque<Integer> next = new ArrayDeque<Integer>();
+        labels.get(Object.class).pre = counter++;
+        path.push(Object.class);
+        next.push(0);
+        while (!path.isEmpty()) {
+            List<Class<?>> list = children.get(path.peek());
+            int index = next.pop();
+            if (list != null && index < list.size()) {
+                next.push(index + 1);
+                Class<?> child = list.get(index);
+                labels.get(child).pre = counter++;
+                path.push(child);
+                next.push(0);
+            } else {
+                labels.get(path.pop()).post = counter++;
+            }
+        }
+
+        int words = (interfaces + 63) >>> 6;
+        for (Class<?> type : order) bits(type, labels, words);
+        return new HierarchyIndex(labels, interfaces);
+    }
+
+    /**
+     * Returns the bits of the superinterfaces of the class, computing
+     * them if needed.
+     */
+    private static long[] bits(Class<?> type, Map<Class<?>, Label> labels, int words) {
+        Label label = labels.get(type);
+        if (label.bits != null) return label.bits;
+        long[] bits = new long[words];
+        if (label.bit >= 0) bits[label.bit >>> 6] |= 1L << label.bit;
+        Class<?> superclass = type.getSuperclass();
+        if (superclass != null) or(bits, bits(superclass, labels, words));
+        for (Class<?> implemented : type.getInterfaces()) {
+            or(bits, bits(implemented, labels, words));
+        }
+        return label.bits = bits;
+    }
+
+    private static void or(long[] bits, long[] other) {
+        for (int i = 0; i < bits.length; i++) bits[i] |= other[i];
+    }
+
+    /**
+     * Determines the <code>classA</code> is either the same as, or is
+     * a supertype of the <code>classC</code>, like the
+     * {@link Class#isAssignableFrom(java.lang.Class)} method does.
+     *
+     * @param classA The upper class
+     * @param classC The lower class
+     *
+     * @return <code>true</code> if the objects of the <code>classC</code>
+     *         can be assigned to the variables of the <code>classA</code>,
+     *         <code>false</code> otherwise
+     *
+     * @throws NullPointerException If any argument is <code>null</code>
+     */
+    public boolean isAssignableFrom(Class<?> classA, Class<?> classC) {
+        if (classA == classC) return true;
+        Label labelA = labels.get(classA);
+        Label labelC = labels.get(classC);
+        if (labelA == null || labelC == null) return classA.isAssignableFrom(classC);
+        if (labelA.bit >= 0) return (labelC.bits[labelA.bit >>> 6] & 1L << labelA.bit) != 0;
+        return labelA.pre <= labelC.pre && labelC.post <= labelA.post;
+    }
+
+    /**
+     * Determines the class is indexed.
+     *
+     * @param type The class
+     *
+     * @return <code>true</code> if the class is indexed,
+     *         <code>false</code> otherwise
+     */
+    public boolean contains(Class<?> type) {
+        return labels.containsKey(type);
+    }
+
+    /**
+     * Returns the number of indexed classes and interfaces.
+     *
+     * @return The number of classes
+     */
+    public int size() {
+        return labels.size();
+    }
+
+    /**
+     * Returns the number of indexed interfaces.
+     *
+     * @return The number of interfaces
+     */
+    public int getInterfaceCount() {
+        return interfaces;
+    }
+
+    /**
+     * The label of an indexed class.
+     */
+    private static final class Label {
+
+        /**
+         * The numbers of the class in pre- and post-order.
+         */
+        int pre, post;
+
+        /**
+         * The bit of the interface, <code>-1</code> for the classes.
+         */
+        int bit = -1;
+
+        /**
+         * The bits of the superinterfaces, including the interface itself.
+         */
+        long[] bits;
+    }
+}
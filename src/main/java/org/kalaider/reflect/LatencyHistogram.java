@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The lock-free histogram of latencies.
+ *
+ * <p/>
+ * The latencies are counted in the buckets of powers of two: the
+ * <code>i</code>-th bucket counts the latencies from
+ * <code>2<sup>i - 1</sup></code> up to <code>2<sup>i</sup> - 1</code>
+ * nanoseconds, and the <code>0</code>-th one counts the zero latencies.
+ * Each bucket is a {@link LongAdder}, so the concurrent updates do not
+ * contend.
+ *
+ * @author Alexander Vasilevsky
+ */
+public final class LatencyHistogram {
+
+    /**
+     * The number of buckets.
+     */
+    public static final int BUCKETS = 64;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder total = new LongAdder();
+
+    /**
+     * Creates the empty histogram.
+     */
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) buckets[i] = new LongAdder();
+    }
+
+    /**
+     * Records the latency.
+     *
+     * @param nanos The latency, in nanoseconds; the negative latencies
+     *              are counted as zero ones
+     */
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        buckets[64 - Long.numberOfLeadingZeros(nanos)].increment();
+        total.add(nanos);
+    }
+
+    /**
+     * Returns the number of latencies recorded.
+     *
+     * @return The number of latencies
+     */
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucket : buckets) count += bucket.sum();
+        return count;
+    }
+
+    /**
+     * Returns the mean latency.
+     *
+     * @return The mean latency in nanoseconds, or <code>0</code> if
+     *         there are no latencies recorded
+     */
+    public double getMean() {
+        long count = getCount();
+        return count != 0 ? (double) total.sum() / count : 0;
+    }
+
+    /**
+     * Returns the counts of the buckets.
+     *
+     * @return The new array of counts
+     */
+    public long[] getBuckets() {
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) counts[i] = buckets[i].sum();
+        return counts;
+    }
+
+    /**
+     * Returns the upper bound of the bucket containing the latency
+     * of the passed percentile.
+     *
+     * @param percentile The percentile, from <code>0</code>
+     *                   to <code>100</code>
+     *
+     * @return The upper bound in nanoseconds, or <code>0</code> if
+     *         there are no latencies recorded
+     *
+     * @throws IllegalArgumentException If the percentile is out of range
+     */
+    public long getPercentile(double percentile) {
+        if (!(percentile >= 0 && percentile <= 100))
+            throw new IllegalArgumentException("The percentile is out of range: " + percentile);
+        long[] counts = getBuckets();
+        long count = 0;
+        for (long bucket : counts) count += bucket;
+        if (count == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+        for (int i = 0; i < BUCKETS; i++) {
+            rank -= counts[i];
+            if (rank <= 0) return (1L << i) - 1;
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Clears the histogram.
+     */
+    public void reset() {
+        for (LongAdder bucket : buckets) bucket.reset();
+        total.reset();
+    }
+}
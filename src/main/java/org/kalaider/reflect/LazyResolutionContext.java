@@ -0,0 +1,302 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect;
+
+import java.lang.reflect.GenericDeclaration;
+import java.lang.reflect.GenericSignatureFormatError;
+import java.lang.reflect.MalformedParameterizedTypeException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * The context of generic parameters which walks the superclasses of the
+ * lower class only as far as the lookups need.
+ *
+ * <p/>
+ * The superclasses are resolved one edge at a time, from the lower class
+ * upward, until the declaring class of the type variable looked up is
+ * reached, so the upper part of the hierarchy is never visited by the
+ * shallow lookups. The resolved part of the walk is kept in append-only
+ * arrays, which are published along with their length through a volatile
+ * field, so the lookups of the part already walked take no locks; the
+ * walk is extended under the lock of the context. The type variables of
+ * the superinterfaces, the size and the iteration need the whole context,
+ * which is then taken from the engine, so it is resolved at once and
+ * shared through its cache.
+ *
+ * <p/>
+ * The context is thread-safe and may be freely shared; it is also
+ * an unmodifiable {@link java.util.Map} from type variables to their
+ * actual types, equal to the {@link ResolutionContext} of the same
+ * classes.
+ *
+ * @author Alexander Vasilevsky
+ *
+ * @see ReflectionEngine#resolveParametersLazily(java.lang.Class, java.lang.Class)
+ */
+final class LazyResolutionContext extends AbstractMap<Type, Type> {
+
+    /**
+     * The engine to resolve the whole context by.
+     */
+    private final ReflectionEngine engine;
+
+    private final Class<?> classA;
+    private final Class<?> classC;
+
+    /**
+     * The depth of the lower class of the hierarchy.
+     */
+    private final int lowerDepth;
+
+    /**
+     * The number of superclasses of the lower class up to the upper class.
+     */
+    private final int length;
+
+    /**
+     * The part of the superclasses walked.
+     */
+    private volatile Walk walk;
+
+    /**
+     * The whole context, or <code>null</code> if not resolved yet.
+     */
+    private volatile ResolutionContext complete;
+
+    /**
+     * Creates the context of generic parameters of the <code>classA</code>
+     * in context of <code>classC</code>. Does not resolve anything.
+     *
+     * @param engine The engine to resolve the whole context by
+     * @param classA The upper class in the hierarchy class
+     * @param classC The lower class in the hierarchy class
+     *
+     * @throws NullPointerException                If any argument is
+     *                                             <code>null</code>
+     */
+    LazyResolutionContext(ReflectionEngine engine, Class<?> classA, Class<?> classC) {
+        this.engine = engine;
+        this.classA = classA;
+        this.classC = classC;
+        lowerDepth = ClassSignature.of(classC).depth;
+        if (!classA.isInterface()) {
+            length = lowerDepth - ClassSignature.of(classA).depth;
+        } else {
+            int length = 0;
+            for (Class<?> type = classC.getSuperclass();
+                    type != null && classA.isAssignableFrom(type); type = type.getSuperclass()) {
+                length++;
+            }
+            this.length = length;
+        }
+        walk = new Walk(new Class<?>[Math.min(length, 4)], new int[Math.min(length, 4) + 1],
+                new TypeVariable<?>[0], TypeNode.NO_NODES, 0);
+    }
+
+    /**
+     * Returns the actual type of the passed type variable, walking the
+     * superclasses up to its declaring class if needed.
+     *
+     * @param variable The type variable
+     *
+     * @return The actual type, or <code>null</code> if the type variable
+     *         is not declared by the classes of the context or its
+     *         declaring class is extended as a raw type
+     *
+     * @throws NullPointerException                If the argument is
+     *                                             <code>null</code>
+     * @throws GenericSignatureFormatError         If the generic signature
+     *         of this generic declaration does not conform to the format
+     *         specified in the Java Virtual Machine Specification, 3rd edition
+     * @throws TypeNotPresentException             If the generic supertypes
+     *         or any of their actual type arguments refer to a non-existent
+     *         type declaration
+     * @throws MalformedParameterizedTypeException if the generic supertypes
+     *         or any of their actual type parameters refer to a parameterized
+     *         type that cannot be instantiated for any reason
+     */
+    Type resolve(TypeVariable<?> variable) {
+        GenericDeclaration declaration = variable.getGenericDeclaration();
+        if (!(declaration instanceof Class)) return null;
+        Class<?> type = (Class<?>) declaration;
+        if (type.isInterface()) return complete().resolve(variable);
+        int index = lowerDepth - ClassSignature.of(type).depth - 1;
+        if (index < 0 || index >= length) return null;
+        Walk walk = this.walk;
+        if (index >= walk.count) walk = extend(index + 1);
+        if (walk.classes[index] != type) return null;
+        String name = variable.getName();
+        for (int i = walk.offsets[index]; i < walk.offsets[index + 1]; i++) {
+            if (walk.variables[i].getName().equals(name))
+                return walk.values[i] != null ? walk.values[i].type : null;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the number of superclasses walked.
+     *
+     * @return The number of superclasses walked
+     */
+    int walked() {
+        return walk.count;
+    }
+
+    /**
+     * Walks the superclasses up to the passed number of them.
+     *
+     * @param count The number of superclasses to walk
+     *
+     * @return The walk
+     *
+     * @throws GenericSignatureFormatError         If the generic signature
+     *         of this generic declaration does not conform to the format
+     *         specified in the Java Virtual Machine Specification, 3rd edition
+     * @throws TypeNotPresentException             If the generic superclass
+     *         or any of its actual type arguments refers to a non-existent
+     *         type declaration
+     * @throws MalformedParameterizedTypeException if the generic superclass
+     *         or any of its actual type parameters refers to a parameterized
+     *         type that cannot be instantiated for any reason
+     */
+    private synchronized Walk extend(int count) {
+        Walk walk = this.walk;
+        if (walk.count >= count) return walk;
+        Class<?>[] classes = walk.classes;
+        int[] offsets = walk.offsets;
+        TypeVariable<?>[] variables = walk.variables;
+        TypeNode[] values = walk.values;
+        if (classes.length < count) {
+            int capacity = Math.min(Math.max(count, classes.length * 2), length);
+            classes = Arrays.copyOf(classes, capacity);
+            offsets = Arrays.copyOf(offsets, capacity + 1);
+        }
+        Class<?> classB = walk.count == 0 ? classC : classes[walk.count - 1];
+        for (int i = walk.count; i < count; i++) {
+            Type gs = classB.getGenericSuperclass();
+            classB = classB.getSuperclass();
+            TypeVariable<?>[] theoretical = ClassSignature.of(classB).typeParameters;
+            classes[i] = classB;
+            offsets[i + 1] = offsets[i] + theoretical.length;
+            if (variables.length < offsets[i + 1]) {
+                int capacity = Math.max(offsets[i + 1], variables.length * 2);
+                variables = Arrays.copyOf(variables, capacity);
+                values = Arrays.copyOf(values, capacity);
+            }
+            System.arraycopy(theoretical, 0, variables, offsets[i], theoretical.length);
+            if (!(gs instanceof ParameterizedType)) continue;
+            Type[] actual = ((ParameterizedType) gs).getActualTypeArguments();
+            for (int j = 0; j < theoretical.length; j++) {
+                TypeNode node = TypeNode.of(actual[j]);
+                TypeNode processed = resolve(node, classes, offsets, values, i);
+                values[offsets[i] + j] = processed != null ? processed : node;
+            }
+        }
+        return this.walk = new Walk(classes, offsets, variables, values, count);
+    }
+
+    /**
+     * Returns the node of actual type of the passed node in the part
+     * of the superclasses walked.
+     *
+     * @param node    The node
+     * @param classes The superclasses walked
+     * @param offsets The offsets of their type parameters
+     * @param values  The nodes of actual types of the type parameters
+     * @param count   The number of superclasses walked
+     *
+     * @return The node of actual type, or <code>null</code> if the node
+     *         is not a type variable of the superclasses walked or its
+     *         declaring class is extended as a raw type
+     */
+    private TypeNode resolve(TypeNode node, Class<?>[] classes, int[] offsets,
+                             TypeNode[] values, int count) {
+        if (node.position < 0 || node.depth < 0) return null;
+        int index = lowerDepth - node.depth - 1;
+        if (index < 0 || index >= count || classes[index] != node.declaration) return null;
+        return values[offsets[index] + node.position];
+    }
+
+    /**
+     * Returns the whole context, resolving it if needed.
+     *
+     * @return The whole context
+     *
+     * @throws GenericSignatureFormatError         If the generic signature
+     *         of this generic declaration does not conform to the format
+     *         specified in the Java Virtual Machine Specification, 3rd edition
+     * @throws TypeNotPresentException             If the generic supertypes
+     *         or any of their actual type arguments refer to a non-existent
+     *         type declaration
+     * @throws MalformedParameterizedTypeException if the generic supertypes
+     *         or any of their actual type parameters refer to a parameterized
+     *         type that cannot be instantiated for any reason
+     */
+    private ResolutionContext complete() {
+        ResolutionContext complete = this.complete;
+        if (complete == null) this.complete = complete = engine.context(classA, classC);
+        return complete;
+    }
+
+    @Override
+    public Type get(Object key) {
+        return key instanceof TypeVariable ? resolve((TypeVariable<?>) key) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public int size() {
+        return complete().size();
+    }
+
+    @Override
+    public Set<Entry<Type, Type>> entrySet() {
+        return complete().entrySet();
+    }
+
+    /**
+     * The part of the superclasses walked. The arrays are shared by the
+     * consecutive walks and only appended to, so only the elements of the
+     * superclasses walked may be read.
+     */
+    private static final class Walk {
+
+        final Class<?>[] classes;
+        final int[] offsets;
+        final TypeVariable<?>[] variables;
+        final TypeNode[] values;
+        final int count;
+
+        Walk(Class<?>[] classes, int[] offsets, TypeVariable<?>[] variables,
+             TypeNode[] values, int count) {
+            this.classes = classes;
+            this.offsets = offsets;
+            this.variables = variables;
+            this.values = values;
+            this.count = count;
+        }
+    }
+}
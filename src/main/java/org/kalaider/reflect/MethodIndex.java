@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The index of methods declared by a class.
+ *
+ * <p/>
+ * Buckets the declared methods by their names and arities, so the
+ * methods that may override (or be overridden by) a given method are
+ * found without scanning all of the declared methods. Bridge methods
+ * are not indexed: they are generated by the compiler and always
+ * accompanied by the actual declaration.
+ *
+ * <p/>
+ * The index is immutable and built once per class.
+ *
+ * @author Alexander Vasilevsky
+ */
+final class MethodIndex {
+
+    /**
+     * The empty array of methods.
+     */
+    private static final Method[] NO_METHODS = new Method[0];
+
+    /**
+     * The cache of indexes.
+     */
+    private static final ClassValue<MethodIndex> INDEXES = new ClassValue<MethodIndex>() {
+        @Override
+        protected MethodIndex computeValue(Class<?> type) {
+            return new MethodIndex(type);
+        }
+    };
+
+    /**
+     * The declared methods bucketed by name and then by arity.
+     */
+    private final Map<String, Method[][]> buckets;
+
+    /**
+     * Builds the index of the methods declared by the passed class.
+     *
+     * @param type The class
+     *
+     * @throws NullPointerException If the argument is <code>null</code>
+     */
+    private MethodIndex(Class<?> type) {
+        Map<String, List<Method>> byName = new HashMap<String, List<Method>>();
+        for (Method method : type.getDeclaredMethods()) {
+            if (method.isBridge()) continue;
+            List<Method> methods = byName.get(method.getName());
+            if (methods == null) {
+                methods = new ArrayList<Method>(1);
+                byName.put(method.getName(), methods);
+            }
+            methods.add(method);
+        }
+        buckets = new HashMap<String, Method[][]>(byName.size() * 4 / 3 + 1);
+        for (Map.Entry<String, List<Method>> entry : byName.entrySet()) {
+            int arities = 0;
+            for (Method method : entry.getValue()) {
+                arities = Math.max(arities, method.getParameterCount() + 1);
+            }
+            Method[][] byArity = new Method[arities][];
+            for (Method method : entry.getValue()) {
+                Method[] methods = byArity[method.getParameterCount()];
+                if (methods == null) {
+                    methods = new Method[1];
+                } else {
+                    Method[] grown = new Method[methods.length + 1];
+                    System.arraycopy(methods, 0, grown, 0, methods.length);
+                    methods = grown;
+                }
+                methods[methods.length - 1] = method;
+                byArity[method.getParameterCount()] = methods;
+            }
+            buckets.put(entry.getKey(), byArity);
+        }
+    }
+
+    /**
+     * Returns the index of the methods declared by the passed class.
+     *
+     * @param type The class
+     *
+     * @return The index
+     *
+     * @throws NullPointerException If the argument is <code>null</code>
+     */
+    static MethodIndex of(Class<?> type) {
+        return INDEXES.get(type);
+    }
+
+    /**
+     * Returns the declared methods of the passed name and arity.
+     * The array returned must not be modified.
+     *
+     * @param name  The name of methods
+     * @param arity The number of formal parameters of methods
+     *
+     * @return The array of declared methods (possibly empty)
+     */
+    Method[] candidates(String name, int arity) {
+        Method[][] byArity = buckets.get(name);
+        if (byArity == null || arity >= byArity.length) return NO_METHODS;
+        Method[] methods = byArity[arity];
+        return methods != null ? methods : NO_METHODS;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect;
+
+import java.lang.reflect.GenericSignatureFormatError;
+import java.lang.reflect.MalformedParameterizedTypeException;
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The descriptor of the generic signature of a method.
+ *
+ * <p/>
+ * Keeps the canonical {@link TypeNode nodes} of the generic parameter
+ * types of the method, which are otherwise copied by the Java Reflection
+ * API on every request. The descriptor is immutable and kept in the
+ * {@link ReflectionEngine#METHOD_SIGNATURES} cache of the engine, so the
+ * warm path of the override checks does not allocate.
+ * The bounds of the type parameters of the method are kept by the nodes
+ * of the type variables.
+ *
+ * @author Alexander Vasilevsky
+ */
+final class MethodSignature {
+
+    /**
+     * The last id assigned.
+     */
+    private static final AtomicInteger IDS = new AtomicInteger();
+
+    /**
+     * The id of the descriptor, unique among all of the descriptors
+     * created, which keys the {@link OverrideMemo results} of the
+     * override checks. The ids are never reused; once they are exhausted,
+     * the ids are not positive and the results are not kept.
+     */
+    final int id;
+
+    /**
+     * The nodes of the generic parameter types of the method.
+     * The array must not be modified.
+     */
+    final TypeNode[] parameterTypes;
+
+    /**
+     * Whether all of the parameter types are classes, i.e. the generic
+     * parameter types of the method are the same as their erasures.
+     */
+    final boolean erased;
+
+    /**
+     * Creates the descriptor of the passed method.
+     *
+     * @param method The method
+     *
+     * @throws NullPointerException                If the argument is
+     *                                             <code>null</code>
+     * @throws GenericSignatureFormatError         If the generic signature
+     *         of this generic declaration does not conform to the format
+     *         specified in the Java Virtual Machine Specification, 3rd edition
+     * @throws TypeNotPresentException             If any of the parameter
+     *         types refers to a non-existent type declaration
+     * @throws MalformedParameterizedTypeException If any of the parameter
+     *         types refers to a parameterized type that cannot be
+     *         instantiated for any reason
+     */
+    MethodSignature(Method method) {
+        id = nextId(IDS);
+        parameterTypes = TypeNode.of(method.getGenericParameterTypes());
+        boolean erased = true;
+        for (TypeNode type : parameterTypes) {
+            if (type.kind != TypeNode.CLASS) {
+                erased = false;
+                break;
+            }
+        }
+        this.erased = erased;
+    }
+
+    /**
+     * Takes the next id from the counter. The counter stops at
+     * {@link Integer#MAX_VALUE} instead of wrapping around, so the ids
+     * are never reused, and <code>0</code> is returned from then on.
+     *
+     * @param ids The last id assigned
+     *
+     * @return The next id, or <code>0</code> if the ids are exhausted
+     */
+    static int nextId(AtomicInteger ids) {
+        for (;;) {
+            int id = ids.get();
+            if (id == Integer.MAX_VALUE) return 0;
+            if (ids.compareAndSet(id, id + 1)) return id + 1;
+        }
+    }
+}
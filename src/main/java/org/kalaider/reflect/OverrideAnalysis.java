@@ -0,0 +1,433 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.MalformedParameterizedTypeException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * The override relations of a set of classes.
+ *
+ * <p/>
+ * The relations are computed in parallel on a {@link ForkJoinPool}: the
+ * classes are split into chunks analyzed independently, sharing the
+ * cached resolution contexts and signatures. For each method declared by
+ * the analyzed classes, the overridden methods of its superclasses are
+ * found by the {@link ReflectionEngine#findOverriddenMethods(
+ * java.lang.reflect.Method) findOverriddenMethods()} method of the
+ * {@link ReflectionUtilities#getEngine() current engine}. The analyzed
+ * classes, if passed as such, are indexed by a {@link HierarchyIndex}
+ * first, so the subtype checks between them are answered by the index.
+ *
+ * <p/>
+ * The result is immutable. The methods are numbered and the relations
+ * are kept in both directions as compressed arrays of method numbers.
+ * The classes which cannot be loaded or whose generic signatures are
+ * malformed are skipped and reported by {@link #getFailures()}.
+ *
+ * @author Alexander Vasilevsky
+ */
+public final class OverrideAnalysis {
+
+    /**
+     * The number of classes analyzed sequentially by a single task.
+     */
+    private static final int THRESHOLD = 32;
+
+    /**
+     * The suffix of class file names.
+     */
+    private static final String CLASS_SUFFIX = ".class";
+
+    /**
+     * The methods taking part in the relations.
+     */
+    private final Method[] methods;
+
+    /**
+     * The numbers of methods.
+     */
+    private final Map<Method, Integer> numbers;
+
+    /**
+     * The offsets of overridden methods of <code>methods[i]</code>
+     * in the <code>overridden</code> array.
+     */
+    private final int[] overriddenOffsets;
+
+    /**
+     * The numbers of overridden methods.
+     */
+    private final int[] overridden;
+
+    /**
+     * The offsets of overriding methods of <code>methods[i]</code>
+     * in the <code>overriding</code> array.
+     */
+    private final int[] overridingOffsets;
+
+    /**
+     * The numbers of overriding methods.
+     */
+    private final int[] overriding;
+
+    /**
+     * The number of analyzed classes.
+     */
+    private final int classCount;
+
+    /**
+     * The names of classes which failed to be analyzed.
+     */
+    private final List<String> failures;
+
+    /**
+     * Indexes the relations found by the tasks.
+     *
+     * @param chunk      The relations
+     * @param classCount The number of analyzed classes
+     */
+    private OverrideAnalysis(Chunk chunk, int classCount) {
+        this.classCount = classCount;
+        this.failures = Collections.unmodifiableList(chunk.failures);
+        numbers = new HashMap<Method, Integer>(chunk.pairs.size());
+        List<Method> methods = new ArrayList<Method>();
+        int[] pairs = new int[chunk.pairs.size()];
+        for (int i = 0; i < pairs.length; i++) {
+            Method method = chunk.pairs.get(i);
+            Integer number = numbers.get(method);
+            if (number == null) {
+                number = methods.size();
+                numbers.put(method, number);
+                methods.add(method);
+            }
+            pairs[i] = number;
+        }
+        this.methods = methods.toArray(new Method[methods.size()]);
+        overriddenOffsets = new int[this.methods.length + 1];
+        overridden = new int[pairs.length / 2];
+        overridingOffsets = new int[this.methods.length + 1];
+        overriding = new int[pairs.length / 2];
+        index(pairs, 0, overriddenOffsets, overridden);
+        index(pairs, 1, overridingOffsets, overriding);
+    }
+
+    /**
+     * Computes the override relations of the passed classes
+     * in the common pool.
+     *
+     * @param classes The classes to analyze
+     *
+     * @return The relations
+     *
+     * @throws NullPointerException If the argument is <code>null</code>
+     *                              or contains <code>null</code>
+     */
+    public static OverrideAnalysis analyze(Collection<? extends Class<?>> classes) {
+        return analyze(classes, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the override relations of the passed classes
+     * in the passed pool.
+     *
+     * @param classes The classes to analyze
+     * @param pool    The pool to run the tasks in
+     *
+     * @return The relations
+     *
+     * @throws NullPointerException If any argument is <code>null</code>
+     *                              or the collection contains
+     *                              <code>null</code>
+     */
+    public static OverrideAnalysis analyze(Collection<? extends Class<?>> classes,
+            ForkJoinPool pool) {
+        Object[] sources = classes.toArray();
+        for (Object source : sources) {
+            if (source == null) throw new NullPointerException();
+        }
+        ReflectionEngine engine = ReflectionUtilities.getEngine().withHierarchyIndex(
+                HierarchyIndex.of(classes));
+        return new OverrideAnalysis(pool.invoke(
+                new AnalysisTask(sources, null, engine, 0, sources.length)), sources.length);
+    }
+
+    /**
+     * Computes the override relations of the classes contained in the
+     * passed jar file in the common pool. The classes are loaded by the
+     * passed class loader without initialization.
+     *
+     * @param jar    The jar file
+     * @param loader The class loader to load the classes by
+     *
+     * @return The relations
+     *
+     * @throws NullPointerException If the first argument is <code>null</code>
+     * @throws IOException          If the jar file cannot be read
+     */
+    public static OverrideAnalysis analyze(File jar, ClassLoader loader)
+            throws IOException {
+        return analyze(jar, loader, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the override relations of the classes contained in the
+     * passed jar file in the passed pool. The classes are loaded by the
+     * passed class loader without initialization.
+     *
+     * @param jar    The jar file
+     * @param loader The class loader to load the classes by
+     * @param pool   The pool to run the tasks in
+     *
+     * @return The relations
+     *
+     * @throws NullPointerException If the first or the last argument
+     *                              is <code>null</code>
+     * @throws IOException          If the jar file cannot be read
+     */
+    public static OverrideAnalysis analyze(File jar, ClassLoader loader, ForkJoinPool pool)
+            throws IOException {
+        List<String> names = new ArrayList<String>();
+        JarFile file = new JarFile(jar);
+        try {
+            for (Enumeration<JarEntry> entries = file.entries(); entries.hasMoreElements(); ) {
+                String name = entries.nextElement().getName();
+                if (!name.endsWith(CLASS_SUFFIX) || name.startsWith("META-INF/")
+                        || name.endsWith("module-info.class")
+                        || name.endsWith("package-info.class")) continue;
+                names.add(name.substring(0, name.length() - CLASS_SUFFIX.length())
+                        .replace('/', '.'));
+            }
+        } finally {
+            file.close();
+        }
+        Object[] sources = names.toArray();
+        return new OverrideAnalysis(pool.invoke(new AnalysisTask(
+                sources, loader, ReflectionUtilities.getEngine(), 0, sources.length)), sources.length);
+    }
+
+    /**
+     * Returns the number of analyzed classes, including the failed ones.
+     *
+     * @return The number of classes
+     */
+    public int getClassCount() {
+        return classCount;
+    }
+
+    /**
+     * Returns the number of found override relations.
+     *
+     * @return The number of relations
+     */
+    public int getRelationCount() {
+        return overridden.length;
+    }
+
+    /**
+     * Returns the names of classes which could not be loaded or whose
+     * generic signatures are malformed.
+     *
+     * @return The unmodifiable list of class names
+     */
+    public List<String> getFailures() {
+        return failures;
+    }
+
+    /**
+     * Returns the methods overridden by the passed method, ordered from
+     * the nearest superclass to the farthest, followed by the methods of
+     * the superinterfaces in breadth-first order.
+     *
+     * @param method The overriding method
+     *
+     * @return The unmodifiable list of overridden methods (possibly empty)
+     *
+     * @throws NullPointerException If the argument is <code>null</code>
+     */
+    public List<Method> getOverriddenMethods(Method method) {
+        return lookup(method, overriddenOffsets, overridden);
+    }
+
+    /**
+     * Returns the methods of the analyzed classes which override
+     * the passed method.
+     *
+     * @param method The overridden method
+     *
+     * @return The unmodifiable list of overriding methods (possibly empty)
+     *
+     * @throws NullPointerException If the argument is <code>null</code>
+     */
+    public List<Method> getOverridingMethods(Method method) {
+        return lookup(method, overridingOffsets, overriding);
+    }
+
+    /**
+     * Returns the methods related to the passed method.
+     */
+    private List<Method> lookup(Method method, int[] offsets, int[] related) {
+        Integer number = numbers.get(method);
+        if (number == null) return Collections.emptyList();
+        Method[] result = new Method[offsets[number + 1] - offsets[number]];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = methods[related[offsets[number] + i]];
+        }
+        return Collections.unmodifiableList(Arrays.asList(result));
+    }
+
+    /**
+     * Fills the compressed arrays of relations keyed by the first
+     * (<code>key == 0</code>) or the second (<code>key == 1</code>)
+     * methods of pairs, keeping the order of pairs.
+     */
+    private static void index(int[] pairs, int key, int[] offsets, int[] related) {
+        for (int i = key; i < pairs.length; i += 2) offsets[pairs[i] + 1]++;
+        for (int i = 0; i < offsets.length - 1; i++) offsets[i + 1] += offsets[i];
+        int[] positions = Arrays.copyOf(offsets, offsets.length - 1);
+        for (int i = 0; i < pairs.length; i += 2) {
+            related[positions[pairs[i + key]]++] = pairs[i + 1 - key];
+        }
+    }
+
+    /**
+     * The relations found by a task.
+     */
+    private static final class Chunk {
+
+        /**
+         * The pairs of (overriding; overridden) methods, flattened.
+         */
+        final List<Method> pairs = new ArrayList<Method>();
+
+        /**
+         * The names of classes which failed to be analyzed.
+         */
+        final List<String> failures = new ArrayList<String>(0);
+
+        /**
+         * Appends the relations of another chunk to this one.
+         */
+        Chunk merge(Chunk chunk) {
+            pairs.addAll(chunk.pairs);
+            failures.addAll(chunk.failures);
+            return this;
+        }
+    }
+
+    /**
+     * The task analyzing a range of classes.
+     */
+    private static final class AnalysisTask extends RecursiveTask<Chunk> {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The classes or the names of classes.
+         */
+        private final Object[] sources;
+
+        /**
+         * The class loader to load the classes by their names.
+         */
+        private final transient ClassLoader loader;
+
+        /**
+         * The engine to find the overridden methods by.
+         */
+        private final transient ReflectionEngine engine;
+
+        /**
+         * The range of classes.
+         */
+        private final int from, to;
+
+        AnalysisTask(Object[] sources, ClassLoader loader, ReflectionEngine engine,
+                int from, int to) {
+            this.sources = sources;
+            this.loader = loader;
+            this.engine = engine;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Chunk compute() {
+            if (to - from > THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                AnalysisTask right = new AnalysisTask(sources, loader, engine, middle, to);
+                right.fork();
+                Chunk left = new AnalysisTask(sources, loader, engine, from, middle).compute();
+                return left.merge(right.join());
+            }
+            Chunk chunk = new Chunk();
+            for (int i = from; i < to; i++) analyze(sources[i], chunk);
+            return chunk;
+        }
+
+        /**
+         * Finds the overridden methods of all of the methods declared
+         * by the class.
+         */
+        private void analyze(Object source, Chunk chunk) {
+            int mark = chunk.pairs.size();
+            try {
+                Class<?> type = source instanceof Class
+                        ? (Class<?>) source
+                        : Class.forName((String) source, false, loader);
+                for (Method method : type.getDeclaredMethods()) {
+                    if (method.isBridge()) continue;
+                    for (Method overridden : engine.findOverriddenMethods(method)) {
+                        chunk.pairs.add(method);
+                        chunk.pairs.add(overridden);
+                    }
+                }
+            } catch (ClassNotFoundException e) {
+                fail(source, chunk, mark);
+            } catch (LinkageError e) {
+                fail(source, chunk, mark);
+            } catch (TypeNotPresentException e) {
+                fail(source, chunk, mark);
+            } catch (MalformedParameterizedTypeException e) {
+                fail(source, chunk, mark);
+            }
+        }
+
+        /**
+         * Discards the relations of the failed class.
+         */
+        private static void fail(Object source, Chunk chunk, int mark) {
+            chunk.pairs.subList(mark, chunk.pairs.size()).clear();
+            chunk.failures.add(source instanceof Class
+                    ? ((Class<?>) source).getName() : (String) source);
+        }
+    }
+}
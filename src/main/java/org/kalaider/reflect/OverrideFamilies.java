@@ -0,0 +1,264 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect;
+
+import java.lang.reflect.GenericSignatureFormatError;
+import java.lang.reflect.MalformedParameterizedTypeException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The override families of a class and all of its supertypes.
+ *
+ * <p/>
+ * An override family is the set of methods which transitively override
+ * each other, e.g. an interface method, the method of a superclass
+ * implementing it and the methods of subclasses overriding the latter.
+ * The families are the slots of the virtual method table of the class.
+ *
+ * <p/>
+ * The methods declared by the class and its supertypes are bucketed by
+ * name and arity, and the methods of a bucket are merged into families
+ * by a union-find over the pairs of methods one of which is overridden
+ * by another, as determined by the {@link ReflectionEngine#isOverridden(
+ * java.lang.reflect.Method, java.lang.reflect.Method) isOverridden()}
+ * method of the {@link ReflectionUtilities#getEngine() current engine},
+ * or which have the same parameter types once both are resolved in
+ * context of the class, as determined by the
+ * {@link ReflectionEngine#isSameSignature(java.lang.reflect.Method,
+ * java.lang.reflect.Method, java.lang.Class) isSameSignature()} method
+ * of the same engine. Thus, the generic overrides are supported. The
+ * static and private methods do not override anything and form the
+ * families of their own. Bridge methods are not included.
+ *
+ * <p/>
+ * The families are computed once per class and cached by the
+ * {@link ClassValue}. The result is immutable. The methods are kept
+ * in a single array grouped by the families, and both the families and
+ * their methods are ordered from the class itself to its superclasses
+ * and then to the superinterfaces in breadth-first order, so the first
+ * method of a family is the most specific one.
+ *
+ * @author Alexander Vasilevsky
+ */
+public final class OverrideFamilies {
+
+    /**
+     * The cache of families.
+     */
+    private static final ClassValue<OverrideFamilies> FAMILIES = new ClassValue<OverrideFamilies>() {
+        @Override
+        protected OverrideFamilies computeValue(Class<?> type) {
+            return new OverrideFamilies(type);
+        }
+    };
+
+    /**
+     * The class.
+     */
+    private final Class<?> type;
+
+    /**
+     * The methods grouped by families.
+     */
+    private final Method[] methods;
+
+    /**
+     * The offsets of the families in the array of methods, followed by
+     * the number of methods.
+     */
+    private final int[] offsets;
+
+    /**
+     * The numbers of the families of methods.
+     */
+    private final Map<Method, Integer> families;
+
+    /**
+     * Computes the override families of the passed class.
+     *
+     * @param type The class
+     *
+     * @throws NullPointerException                If the argument is
+     *                                             <code>null</code>
+     * @throws GenericSignatureFormatError         If the generic signature
+     *         of this generic declaration does not conform to the format
+     *         specified in the Java Virtual Machine Specification, 3rd edition
+     * @throws TypeNotPresentException             If the generic superclass
+     *         or any of its actual type arguments refers to a non-existent
+     *         type declaration
+     * @throws MalformedParameterizedTypeException if the generic superclass
+     *         or any of its actual type parameters refers to a parameterized
+     *         type that cannot be instantiated for any reason
+     */
+    private OverrideFamilies(Class<?> type) {
+        this.type = type;
+        List<Class<?>> types = new ArrayList<Class<?>>();
+        for (Class<?> superclass = type; superclass != null; superclass = superclass.getSuperclass()) {
+            types.add(superclass);
+        }
+        types.addAll(Arrays.asList(SupertypeGraph.of(type).interfaces));
+
+        List<Method> declared = new ArrayList<Method>();
+        Map<String, List<Integer>> buckets = new HashMap<String, List<Integer>>();
+        for (Class<?> supertype : types) {
+            for (Method method : supertype.getDeclaredMethods()) {
+                if (method.isBridge()) continue;
+                declared.add(method);
+                if ((method.getModifiers() & (Modifier.STATIC | Modifier.PRIVATE)) != 0) continue;
+                String key = method.getName() + '/' + method.getParameterCount();
+                List<Integer> bucket = buckets.get(key);
+                if (bucket == null) buckets.put(key, bucket = new ArrayList<Integer>(2));
+                bucket.add(declared.size() - 1);
+            }
+        }
+
+        ReflectionEngine engine = ReflectionUtilities.getEngine();
+        int[] parents = new int[declared.size()];
+        for (int i = 0; i < parents.length; i++) parents[i] = i;
+        for (List<Integer> bucket : buckets.values()) {
+            for (int i = 0; i < bucket.size(); i++) {
+                int lower = bucket.get(i);
+                for (int j = i + 1; j < bucket.size(); j++) {
+                    int upper = bucket.get(j);
+                    int rootA = find(parents, lower);
+                    int rootB = find(parents, upper);
+                    if (rootA == rootB) continue;
+                    Method methodA = declared.get(lower);
+                    Method methodB = declared.get(upper);
+                    if (engine.isOverridden(methodB, methodA) || engine.isOverridden(methodA, methodB)
+                            || engine.isSameSignature(methodA, methodB, type)) {
+                        parents[Math.max(rootA, rootB)] = Math.min(rootA, rootB);
+                    }
+                }
+            }
+        }
+
+        int[] numbers = new int[parents.length];
+        int count = 0;
+        for (int i = 0; i < parents.length; i++) {
+            int root = find(parents, i);
+            numbers[i] = root == i ? count++ : numbers[root];
+        }
+        offsets = new int[count + 1];
+        for (int number : numbers) offsets[number + 1]++;
+        for (int i = 0; i < count; i++) offsets[i + 1] += offsets[i];
+        int[] positions = Arrays.copyOf(offsets, count);
+        methods = new Method[parents.length];
+        families = new HashMap<Method, Integer>(parents.length * 4 / 3 + 1);
+        for (int i = 0; i < parents.length; i++) {
+            methods[positions[numbers[i]]++] = declared.get(i);
+            families.put(declared.get(i), numbers[i]);
+        }
+    }
+
+    /**
+     * Returns the root of the set of the element, halving the path.
+     */
+    private static int find(int[] parents, int element) {
+        while (parents[element] != element) {
+            element = parents[element] = parents[parents[element]];
+        }
+        return element;
+    }
+
+    /**
+     * Returns the override families of the passed class, taking them
+     * from the cache if possible.
+     *
+     * @param type The class
+     *
+     * @return The families
+     *
+     * @throws NullPointerException                If the argument is
+     *                                             <code>null</code>
+     * @throws GenericSignatureFormatError         If the generic signature
+     *         of this generic declaration does not conform to the format
+     *         specified in the Java Virtual Machine Specification, 3rd edition
+     * @throws TypeNotPresentException             If the generic superclass
+     *         or any of its actual type arguments refers to a non-existent
+     *         type declaration
+     * @throws MalformedParameterizedTypeException if the generic superclass
+     *         or any of its actual type parameters refers to a parameterized
+     *         type that cannot be instantiated for any reason
+     */
+    public static OverrideFamilies of(Class<?> type) {
+        if (!ReflectionUtilities.CACHE_ENABLED) return new OverrideFamilies(type);
+        return FAMILIES.get(type);
+    }
+
+    /**
+     * Returns the class whose families these are.
+     *
+     * @return The class
+     */
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * Returns the number of families.
+     *
+     * @return The number of families
+     */
+    public int getFamilyCount() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * Returns all of the families.
+     *
+     * @return The unmodifiable list of families, each of which is
+     *         the unmodifiable list of methods
+     */
+    public List<List<Method>> getFamilies() {
+        List<List<Method>> result = new ArrayList<List<Method>>(offsets.length - 1);
+        for (int i = 0; i < offsets.length - 1; i++) result.add(family(i));
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Returns the family of the passed method.
+     *
+     * @param method The method
+     *
+     * @return The unmodifiable list of methods of the family, or the empty
+     *         list if the method is declared by neither the class nor its
+     *         supertypes
+     *
+     * @throws NullPointerException If the argument is <code>null</code>
+     */
+    public List<Method> getFamily(Method method) {
+        Integer number = families.get(method);
+        if (number == null) return Collections.emptyList();
+        return family(number);
+    }
+
+    /**
+     * Returns the methods of the family.
+     */
+    private List<Method> family(int number) {
+        return Collections.unmodifiableList(Arrays.asList(
+                Arrays.copyOfRange(methods, offsets[number], offsets[number + 1])));
+    }
+}
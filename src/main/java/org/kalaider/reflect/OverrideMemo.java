@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The table of the results of the override checks, keyed by the pairs
+ * of {@link MethodSignature#id ids} of methods.
+ *
+ * <p/>
+ * The ids of both methods and the result are packed into a single
+ * <code>long</code>, which is stored in a slot of the open-addressing
+ * table as a whole, so the table needs neither locks nor boxing and the
+ * readers never see a torn entry. A repeated check is a single probe
+ * of a few adjacent slots. The table is lossy: if the slots probed are
+ * taken, the first one is overwritten. The results are never removed
+ * otherwise, since the ids are never reused.
+ *
+ * @author Alexander Vasilevsky
+ */
+final class OverrideMemo {
+
+    /**
+     * The default number of slots.
+     */
+    static final int DEFAULT_CAPACITY = 4096;
+
+    /**
+     * The result returned for the pairs not found in the table.
+     */
+    static final int UNKNOWN = -1;
+
+    /**
+     * The number of slots probed.
+     */
+    private static final int PROBES = 4;
+
+    /**
+     * The slots, <code>0</code> if a slot is free.
+     */
+    private final AtomicLongArray entries;
+
+    private final int mask;
+
+    /**
+     * Creates the empty table.
+     *
+     * @param capacity The minimum number of slots, rounded up to a power
+     *                 of two
+     *
+     * @throws IllegalArgumentException If the capacity is not positive
+     *                                  or too large
+     */
+    OverrideMemo(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30)
+            throw new IllegalArgumentException("The capacity is out of range.");
+        int length = Integer.highestOneBit(capacity);
+        if (length < capacity) length <<= 1;
+        entries = new AtomicLongArray(length);
+        mask = length - 1;
+    }
+
+    /**
+     * Returns the result of the check of the pair of methods.
+     *
+     * @param idA The id of the first method
+     * @param idB The id of the second method
+     *
+     * @return <code>1</code> if the first method is overridden by the
+     *         second, <code>0</code> if it is not, or {@link #UNKNOWN}
+     *         if the pair is not in the table
+     */
+    int get(int idA, int idB) {
+        long key = key(idA, idB);
+        int index = index(key);
+        for (int i = 0; i < PROBES; i++) {
+            long entry = entries.get((index + i) & mask);
+            if (entry == 0) break;
+            if (entry >>> 1 == key) return (int) (entry & 1);
+        }
+        return UNKNOWN;
+    }
+
+    /**
+     * Puts the result of the check of the pair of methods.
+     *
+     * @param idA        The id of the first method
+     * @param idB        The id of the second method
+     * @param overridden The result
+     */
+    void put(int idA, int idB, boolean overridden) {
+        long key = key(idA, idB);
+        long entry = key << 1 | (overridden ? 1 : 0);
+        int index = index(key);
+        for (int i = 0; i < PROBES; i++) {
+            int slot = (index + i) & mask;
+            long existing = entries.get(slot);
+            if (existing == 0) {
+                if (entries.compareAndSet(slot, 0, entry)) return;
+                existing = entries.get(slot);
+            }
+            if (existing >>> 1 == key) return;
+        }
+        entries.set(index, entry);
+    }
+
+    /**
+     * Removes all of the results.
+     */
+    void clear() {
+        for (int i = 0; i < entries.length(); i++) entries.set(i, 0);
+    }
+
+    /**
+     * Packs the ids into the key, which is never <code>0</code>
+     * and fits in 63 bits.
+     */
+    private static long key(int idA, int idB) {
+        return (long) idA << 32 | idB & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Returns the first slot probed for the key.
+     */
+    private int index(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ h >>> 32) & mask;
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks the class which generic parameter bindings and override
+ * relations should be precomputed at compile time.
+ *
+ * <p/>
+ * The <code>reflect4j-processor</code> annotation processor computes the
+ * bindings of the type parameters of the superclasses of the marked class
+ * and the methods of the superclasses overridden by its methods, and
+ * writes them to the <code>META-INF/reflect4j/&lt;binary name&gt;.table</code>
+ * resource. {@link ReflectionUtilities} looks the tables up before
+ * resolving the generic signatures reflectively, and ignores the tables
+ * which do not match the classes loaded.
+ *
+ * <p/>
+ * The table is a UTF-8 text of the following lines:
+ *
+ * <ul>
+ *     <li><code>reflect4j-table 1</code> -- the header;</li>
+ *     <li><code>S &lt;class&gt; &lt;n&gt;</code> -- the superclasses of the marked
+ *         class, from the direct superclass up to
+ *         <code>java.lang.Object</code>, with the numbers of their
+ *         type parameters;</li>
+ *     <li><code>B &lt;i&gt; &lt;j&gt; &lt;s&gt; &lt;k&gt;</code> -- the
+ *         <code>j</code>-th type parameter of the <code>i</code>-th
+ *         superclass is bound to the <code>k</code>-th actual type argument
+ *         of the generic superclass of the <code>s</code>-th class, where
+ *         the marked class is the <code>0</code>-th one and its direct
+ *         superclass is the <code>1</code>-st one;</li>
+ *     <li><code>M &lt;method&gt;</code> -- a method of the marked class,
+ *         written as its name followed by the descriptors of its parameters
+ *         in parentheses, like <code>a(Ljava/lang/Object;I)</code>;</li>
+ *     <li><code>O &lt;i&gt; &lt;method&gt;</code> -- the method of the
+ *         <code>i</code>-th superclass overridden by the method of the
+ *         preceding <code>M</code> line.</li>
+ * </ul>
+ *
+ * @author Alexander Vasilevsky
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Precomputed {
+}
@@ -0,0 +1,310 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The table of generic parameter bindings and override relations
+ * of a class, precomputed at compile time for the classes marked
+ * with the {@link Precomputed} annotation.
+ *
+ * <p/>
+ * The tables are read once per class and kept in a {@link ClassValue}.
+ * A table is ignored if it is malformed or does not match the classes
+ * loaded, so the callers fall back to the reflective resolution.
+ *
+ * @author Alexander Vasilevsky
+ */
+final class PrecomputedTable {
+
+    /**
+     * The prefix of the names of the table resources.
+     */
+    static final String RESOURCE_PREFIX = "META-INF/reflect4j/";
+
+    /**
+     * The suffix of the names of the table resources.
+     */
+    static final String RESOURCE_SUFFIX = ".table";
+
+    /**
+     * The first line of the tables.
+     */
+    static final String HEADER = "reflect4j-table 1";
+
+    /**
+     * The marker of the classes without a table.
+     */
+    private static final PrecomputedTable NONE =
+            new PrecomputedTable(new Class<?>[0], new int[0][], new HashMap<Method, Method[]>());
+
+    private static final ClassValue<PrecomputedTable> TABLES = new ClassValue<PrecomputedTable>() {
+        @Override
+        protected PrecomputedTable computeValue(Class<?> type) {
+            PrecomputedTable table = null;
+            if (type.isAnnotationPresent(Precomputed.class) && type.getClassLoader() != null) {
+                try {
+                    table = read(type);
+                } catch (IOException e) {
+                    // Falls back to the reflective resolution
+                } catch (RuntimeException e) {
+                    // Falls back to the reflective resolution
+                }
+            }
+            return table != null ? table : NONE;
+        }
+    };
+
+    /**
+     * The superclasses of the class, i.e. <code>classes[i]</code> is the
+     * <code>(i + 1)</code>-th superclass.
+     */
+    private final Class<?>[] classes;
+
+    /**
+     * The sources of the actual types of the type parameters of the
+     * superclasses: <code>references[i][j]</code> refers to the actual
+     * type of the <code>j</code>-th type parameter of <code>classes[i]</code>
+     * as <code>s &lt;&lt; 16 | k</code>, which is the <code>k</code>-th
+     * actual type argument of the generic superclass of the
+     * <code>s</code>-th class, or is <code>-1</code> if the parameter
+     * is not bound.
+     */
+    private final int[][] references;
+
+    /**
+     * The methods of the superclasses overridden by the methods
+     * of the class.
+     */
+    private final Map<Method, Method[]> overrides;
+
+    private PrecomputedTable(Class<?>[] classes, int[][] references, Map<Method, Method[]> overrides) {
+        this.classes = classes;
+        this.references = references;
+        this.overrides = overrides;
+    }
+
+    /**
+     * Returns the table of the class.
+     *
+     * @param type The class
+     *
+     * @return The table, or <code>null</code> if the class has no valid table
+     *
+     * @throws NullPointerException If the argument is <code>null</code>
+     */
+    static PrecomputedTable of(Class<?> type) {
+        PrecomputedTable table = TABLES.get(type);
+        return table != NONE ? table : null;
+    }
+
+    /**
+     * Determines the <code>methodA</code> is overridden by the
+     * <code>methodB</code> declared by the class of this table.
+     *
+     * @param methodA The first method
+     * @param methodB The second method
+     *
+     * @return The answer, or <code>null</code> if the table does not
+     *         cover the methods passed
+     */
+    Boolean isOverridden(Method methodA, Method methodB) {
+        Method[] overridden = overrides.get(methodB);
+        if (overridden == null) return null;
+        Class<?> declaringA = methodA.getDeclaringClass();
+        for (Class<?> type : classes) {
+            if (type != declaringA) continue;
+            for (Method method : overridden) {
+                if (method.equals(methodA)) return Boolean.TRUE;
+            }
+            return Boolean.FALSE;
+        }
+        return null;
+    }
+
+    /**
+     * Determines this table binds the type parameters of the superclasses
+     * of the class up to the passed one, and the bindings match
+     * the classes loaded.
+     *
+     * @param classA The superclass
+     * @param classC The class of this table
+     *
+     * @return <code>true</code> if the table covers the superclass,
+     *         <code>false</code> otherwise
+     */
+    boolean covers(Class<?> classA, Class<?> classC) {
+        for (int i = 0; i < classes.length; i++) {
+            if (references[i].length != ClassSignature.of(classes[i]).typeParameters.length)
+                return false;
+            for (int reference : references[i]) {
+                if (reference < 0) continue;
+                Type[] actual = actualTypeArguments(reference >>> 16, classC);
+                if (actual == null || (reference & 0xFFFF) >= actual.length) return false;
+            }
+            if (classes[i] == classA) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of superclasses up to the passed one.
+     *
+     * @param classA The superclass
+     *
+     * @return The number of superclasses
+     */
+    int length(Class<?> classA) {
+        for (int i = 0; i < classes.length; i++) {
+            if (classes[i] == classA) return i + 1;
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the actual type of the type parameter.
+     *
+     * @param i      The index of the superclass
+     * @param j      The index of the type parameter
+     * @param classC The class of this table
+     *
+     * @return The actual type, or <code>null</code> if the type parameter
+     *         is not bound
+     */
+    Type resolve(int i, int j, Class<?> classC) {
+        int reference = references[i][j];
+        if (reference < 0) return null;
+        return actualTypeArguments(reference >>> 16, classC)[reference & 0xFFFF];
+    }
+
+    private Type[] actualTypeArguments(int s, Class<?> classC) {
+        Class<?> type = s == 0 ? classC : classes[s - 1];
+        Type superclass = type.getGenericSuperclass();
+        return superclass instanceof ParameterizedType
+                ? ((ParameterizedType) superclass).getActualTypeArguments()
+                : null;
+    }
+
+    /**
+     * Reads the table of the class.
+     *
+     * @param type The class
+     *
+     * @return The table, or <code>null</code> if the class has no valid table
+     *
+     * @throws IOException If an I/O error occurs
+     */
+    private static PrecomputedTable read(Class<?> type) throws IOException {
+        InputStream input = type.getClassLoader().getResourceAsStream(
+                RESOURCE_PREFIX + type.getName() + RESOURCE_SUFFIX);
+        if (input == null) return null;
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, "UTF-8"));
+        try {
+            if (!HEADER.equals(reader.readLine())) return null;
+
+            List<Class<?>> classes = new ArrayList<Class<?>>();
+            for (Class<?> superclass = type.getSuperclass(); superclass != null;
+                    superclass = superclass.getSuperclass()) {
+                classes.add(superclass);
+            }
+            int[][] references = new int[classes.size()][];
+            Map<Method, Method[]> overrides = new HashMap<Method, Method[]>();
+            Map<Class<?>, Map<String, Method>> methods = new HashMap<Class<?>, Map<String, Method>>();
+            Method method = null;
+            List<Method> overridden = new ArrayList<Method>();
+            int level = 0;
+
+            for (String line; (line = reader.readLine()) != null; ) {
+                String[] fields = line.split(" ");
+                if (fields[0].equals("S") && fields.length == 3) {
+                    if (level == classes.size() || !classes.get(level).getName().equals(fields[1]))
+                        return null;
+                    int[] bindings = new int[Integer.parseInt(fields[2])];
+                    Arrays.fill(bindings, -1);
+                    references[level++] = bindings;
+                } else if (fields[0].equals("B") && fields.length == 5) {
+                    int i = Integer.parseInt(fields[1]);
+                    int s = Integer.parseInt(fields[3]);
+                    if (i < 1 || i > level || s < 0 || s >= i) return null;
+                    references[i - 1][Integer.parseInt(fields[2])] = s << 16 | Integer.parseInt(fields[4]);
+                } else if (fields[0].equals("M") && fields.length == 2) {
+                    if (method != null) overrides.put(method, overridden.toArray(new Method[overridden.size()]));
+                    method = methods(type, methods).get(fields[1]);
+                    if (method == null) return null;
+                    overridden.clear();
+                } else if (fields[0].equals("O") && fields.length == 3) {
+                    int i = Integer.parseInt(fields[1]);
+                    if (method == null || i < 1 || i > level) return null;
+                    Method superMethod = methods(classes.get(i - 1), methods).get(fields[2]);
+                    if (superMethod == null) return null;
+                    overridden.add(superMethod);
+                } else {
+                    return null;
+                }
+            }
+            if (level != classes.size()) return null;
+            if (method != null) overrides.put(method, overridden.toArray(new Method[overridden.size()]));
+            return new PrecomputedTable(classes.toArray(new Class<?>[classes.size()]), references, overrides);
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Returns the declared methods of the class keyed by their names
+     * followed by the descriptors of their parameters.
+     *
+     * @param type  The class
+     * @param cache The methods of the classes already processed
+     *
+     * @return The methods
+     */
+    private static Map<String, Method> methods(Class<?> type, Map<Class<?>, Map<String, Method>> cache) {
+        Map<String, Method> methods = cache.get(type);
+        if (methods == null) {
+            methods = new HashMap<String, Method>();
+            for (Method method : type.getDeclaredMethods()) {
+                if (method.isBridge()) continue;
+                StringBuilder key = new StringBuilder(method.getName()).append('(');
+                for (Class<?> parameter : method.getParameterTypes()) descriptor(parameter, key);
+                methods.put(key.append(')').toString(), method);
+            }
+            cache.put(type, methods);
+        }
+        return methods;
+    }
+
+    private static void descriptor(Class<?> type, StringBuilder builder) {
+        if (type.isArray()) builder.append(type.getName().replace('.', '/'));
+        else if (!type.isPrimitive()) builder.append('L').append(type.getName().replace('.', '/')).append(';');
+        else if (type == boolean.class) builder.append('Z');
+        else if (type == long.class) builder.append('J');
+        else builder.append(Character.toUpperCase(type.getName().charAt(0)));
+    }
+}
@@ -0,0 +1,1355 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.GenericDeclaration;
+import java.lang.reflect.GenericSignatureFormatError;
+import java.lang.reflect.MalformedParameterizedTypeException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The engine of the generic resolution, which answers the queries
+ * of the {@link ReflectionUtilities} facade.
+ *
+ * <p/>
+ * The engine keeps the results which are expensive to compute in the
+ * caches created by the {@link CacheProvider} passed to it, so the
+ * deployments may choose between the unbounded, bounded or no caching
+ * at all (see {@link CacheProviders}). The lookups of each cache are
+ * counted by its {@link CacheStatistics}. The structure of the classes
+ * themselves (their type parameters, supertypes and declared methods)
+ * is cached independently of the engine.
+ *
+ * <blockquote><code><pre>
+ * ReflectionEngine engine = new ReflectionEngine(CacheProviders.concurrent());
+ * engine.isOverridden(methodA, methodB);
+ * </pre></code></blockquote>
+ *
+ * <p/>
+ * The engine is thread-safe. The {@link ResolutionListener listener}
+ * installed by the {@link ReflectionUtilities#setListener(
+ * org.kalaider.reflect.ResolutionListener) setListener()} method is
+ * notified by all of the engines.
+ *
+ * @author Alexander Vasilevsky
+ */
+public final class ReflectionEngine {
+
+    /**
+     * The name of the cache of the {@link ResolutionContext contexts}
+     * of generic parameters, owned by the lower class and keyed by the
+     * upper class.
+     */
+    public static final String RESOLUTION_CONTEXTS = "resolutionContexts";
+
+    /**
+     * The name of the cache of the descriptors of generic signatures
+     * of methods, owned by the declaring class and keyed by the method.
+     */
+    public static final String METHOD_SIGNATURES = "methodSignatures";
+
+    /**
+     * The name of the cache of the methods overridden by a method, owned
+     * by the declaring class and keyed by the overriding method.
+     */
+    public static final String OVERRIDDEN_METHODS = "overriddenMethods";
+
+    /**
+     * The name of the table of the results of the override checks, keyed
+     * by the pairs of methods. The table is not created by the
+     * {@link CacheProvider}: it keeps the results in a primitive
+     * lock-free table of fixed size, which is probed without allocation.
+     */
+    public static final String OVERRIDE_RESULTS = "overrideResults";
+
+    /**
+     * The name of the cache of the annotations of methods merged with the
+     * annotations of the methods they override, owned by the declaring
+     * class and keyed by the method. Each value is the array of all of the
+     * annotations of the method followed by the ones of the overridden
+     * methods, which is filtered by the annotation type on lookup, so the
+     * cache refers to no annotation type that is not already reachable
+     * from the declaring class.
+     */
+    public static final String INHERITED_ANNOTATIONS = "inheritedAnnotations";
+
+    /**
+     * The name of the cache of the resolved generic types of members,
+     * owned by the class the types are resolved in context of and keyed
+     * by the member. Each value is the type of the field, or the return
+     * type of the method followed by its parameter types.
+     */
+    public static final String RESOLVED_TYPES = "resolvedTypes";
+
+    private final Cache<Class<?>, ResolutionContext> contexts;
+    private final Cache<Method, MethodSignature> signatures;
+    private final Cache<Method, Method[]> overriddenMethods;
+    private final Cache<Method, Annotation[]> annotations;
+    private final Cache<Member, Type[]> resolvedTypes;
+    private final CacheStatistics contextStatistics;
+    private final CacheStatistics signatureStatistics;
+    private final CacheStatistics overriddenStatistics;
+    private final OverrideMemo overrideResults;
+    private final CacheStatistics resultStatistics;
+    private final CacheStatistics annotationStatistics;
+    private final CacheStatistics typeStatistics;
+    private final HierarchyIndex index;
+
+    /**
+     * Creates the engine with the table of the override results of the
+     * default size, unless the provider is {@link CacheProviders#none()}.
+     *
+     * @param provider The provider of the caches
+     *
+     * @throws NullPointerException If the argument is <code>null</code>,
+     *                              or the provider creates no cache
+     */
+    public ReflectionEngine(CacheProvider provider) {
+        this(provider, OverrideMemo.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates the engine.
+     *
+     * <p/>
+     * The results of the override checks are keyed by the descriptors
+     * of the methods kept in the {@link #METHOD_SIGNATURES} cache, so the
+     * table is useful only if the cache keeps the descriptors; it is not
+     * created for {@link CacheProviders#none()}.
+     *
+     * @param provider        The provider of the caches
+     * @param overrideResults The number of slots of the table of the
+     *                        override results, rounded up to a power of two,
+     *                        or <code>0</code> if the results are not kept
+     *
+     * @throws NullPointerException     If the provider is <code>null</code>,
+     *                                  or it creates no cache
+     * @throws IllegalArgumentException If the number of slots is negative
+     *                                  or too large
+     */
+    public ReflectionEngine(CacheProvider provider, int overrideResults) {
+        if (overrideResults < 0)
+            throw new IllegalArgumentException("The number of slots is negative.");
+        this.overrideResults = overrideResults != 0 && provider != CacheProviders.none()
+                ? new OverrideMemo(overrideResults) : null;
+        contexts = provider.<Class<?>, ResolutionContext>createCache(RESOLUTION_CONTEXTS);
+        signatures = provider.<Method, MethodSignature>createCache(METHOD_SIGNATURES);
+        overriddenMethods = provider.<Method, Method[]>createCache(OVERRIDDEN_METHODS);
+        annotations = provider.<Method, Annotation[]>createCache(INHERITED_ANNOTATIONS);
+        resolvedTypes = provider.<Member, Type[]>createCache(RESOLVED_TYPES);
+        if (contexts == null || signatures == null || overriddenMethods == null
+                || annotations == null || resolvedTypes == null)
+            throw new NullPointerException("The provider created no cache.");
+        contextStatistics = new CacheStatistics(RESOLUTION_CONTEXTS);
+        signatureStatistics = new CacheStatistics(METHOD_SIGNATURES);
+        overriddenStatistics = new CacheStatistics(OVERRIDDEN_METHODS);
+        resultStatistics = new CacheStatistics(OVERRIDE_RESULTS);
+        annotationStatistics = new CacheStatistics(INHERITED_ANNOTATIONS);
+        typeStatistics = new CacheStatistics(RESOLVED_TYPES);
+        index = null;
+    }
+
+    /**
+     * Creates the view of the engine which shares its caches and
+     * statistics, but checks the subtypes by the index.
+     *
+     * @param engine The engine
+     * @param index  The index of the subtypes, or <code>null</code>
+     */
+    private ReflectionEngine(ReflectionEngine engine, HierarchyIndex index) {
+        contexts = engine.contexts;
+        signatures = engine.signatures;
+        overriddenMethods = engine.overriddenMethods;
+        annotations = engine.annotations;
+        resolvedTypes = engine.resolvedTypes;
+        overrideResults = engine.overrideResults;
+        contextStatistics = engine.contextStatistics;
+        signatureStatistics = engine.signatureStatistics;
+        overriddenStatistics = engine.overriddenStatistics;
+        resultStatistics = engine.resultStatistics;
+        annotationStatistics = engine.annotationStatistics;
+        typeStatistics = engine.typeStatistics;
+        this.index = index;
+    }
+
+    /**
+     * Returns the view of this engine which checks whether one class is
+     * a subtype of another by the index, if both of them are indexed.
+     * The view shares the caches and statistics of this engine, so the
+     * results resolved by either of them are reused by the other one.
+     *
+     * <p/>
+     * The subtype checks of the batch workloads over a known set of
+     * classes are thus two integer comparisons instead of the walks of
+     * the supertypes done by {@link Class#isAssignableFrom(java.lang.Class)}.
+     *
+     * @param index The index of the subtypes, or <code>null</code> to
+     *              check all of the classes by reflection
+     *
+     * @return The view of this engine
+     */
+    public ReflectionEngine withHierarchyIndex(HierarchyIndex index) {
+        return index == this.index ? this : new ReflectionEngine(this, index);
+    }
+
+    /**
+     * Returns the index of the subtypes used by this engine.
+     *
+     * @return The index, or <code>null</code> if the subtypes are checked
+     *         by reflection
+     */
+    public HierarchyIndex getHierarchyIndex() {
+        return index;
+    }
+
+    /**
+     * Creates the engine configured by the system properties: there are
+     * no caches if the {@link ReflectionUtilities#DISABLE_CACHE_PROPERTY}
+     * is set, otherwise the caches and the table of the override results
+     * are bounded by the {@link ReflectionUtilities#CACHE_SIZE_PROPERTY}.
+     *
+     * @return The engine
+     */
+    static ReflectionEngine createDefault() {
+        if (!ReflectionUtilities.CACHE_ENABLED)
+            return new ReflectionEngine(CacheProviders.none(), 0);
+        int maximumSize = Math.min(Math.max(1, Integer.getInteger(
+                ReflectionUtilities.CACHE_SIZE_PROPERTY, BoundedCache.DEFAULT_MAXIMUM_SIZE)), 1 << 30);
+        return new ReflectionEngine(CacheProviders.bounded(maximumSize), maximumSize);
+    }
+
+    /**
+     * Determines the <code>methodA</code> is overridden by the
+     * <code>methodB</code>.
+     *
+     * <p/>
+     * Supports generics. The override relations precomputed at compile
+     * time for the classes marked with the {@link Precomputed} annotation
+     * are used if available.
+     *
+     * @param methodA The first method
+     * @param methodB The second method
+     *
+     * @return <code>true</code> if one method is overridden by another,
+     *         <code>false</code> otherwise
+     *
+     * @throws NullPointerException                If any argument is
+     *                                             <code>null</code>
+     * @throws GenericSignatureFormatError         If the generic signature
+     *         of this generic declaration does not conform to the format
+     *         specified in the Java Virtual Machine Specification, 3rd edition
+     * @throws TypeNotPresentException             If the generic superclass
+     *         or any of its actual type arguments refers to a non-existent
+     *         type declaration
+     * @throws MalformedParameterizedTypeException if the generic superclass
+     *         or any of its actual type parameters refers to a parameterized
+     *         type that cannot be instantiated for any reason
+     */
+    public boolean isOverridden(Method methodA, Method methodB) {
+        ResolutionListener listener = ReflectionUtilities.listener;
+        if (listener == null) return isOverridden(methodA, methodB, null);
+        long start = System.nanoTime();
+        Probe probe = new Probe();
+        boolean overridden = isOverridden(methodA, methodB, probe);
+        listener.isOverriddenCalled(methodA, methodB, overridden, probe.depth, System.nanoTime() - start);
+        return overridden;
+    }
+
+    /**
+     * Determines the <code>methodA</code> is overridden by the
+     * <code>methodB</code>.
+     *
+     * @param methodA The first method
+     * @param methodB The second method
+     * @param probe   The probe of the recursion depth, or <code>null</code>
+     *
+     * @return <code>true</code> if one method is overridden by another,
+     *         <code>false</code> otherwise
+     *
+     * @throws NullPointerException                If any argument is
+     *                                             <code>null</code>
+     * @throws GenericSignatureFormatError         If the generic signature
+     *         of this generic declaration does not conform to the format
+     *         specified in the Java Virtual Machine Specification, 3rd edition
+     * @throws TypeNotPresentException             If the generic superclass
+     *         or any of its actual type arguments refers to a non-existent
+     *         type declaration
+     * @throws MalformedParameterizedTypeException if the generic superclass
+     *         or any of its actual type parameters refers to a parameterized
+     *         type that cannot be instantiated for any reason
+     */
+    private boolean isOverridden(Method methodA, Method methodB, Probe probe) {
+        Class<?> declaringA = methodA.getDeclaringClass();
+        Class<?> declaringB = methodB.getDeclaringClass();
+
+        if (!isSubtype(declaringA, declaringB)) return false;
+        if (!methodB.getName().equals(methodA.getName())) return false;
+
+        PrecomputedTable table = PrecomputedTable.of(declaringB);
+        if (table != null) {
+            Boolean overridden = table.isOverridden(methodA, methodB);
+            if (overridden != null) return overridden;
+        }
+        return isOverridden0(methodA, methodB, probe);
+    }
+
+    /**
+     * Finds the method declared by the <code>classC</code> which
+     * overrides the <code>methodA</code>.
+     *
+     * <p/>
+     * The declared methods of the <code>classC</code> are indexed once
+     * by name and arity, so only the methods of the same name and arity
+     * are compared in the generic context. The result is consistent with
+     * the {@link #isOverridden(java.lang.reflect.Method,
+     * java.lang.reflect.Method) isOverridden()} method.
+     *
+     * @param methodA The overridden method
+     * @param classC  The class to search the overriding method in
+     *
+     * @return The overriding method declared by the <code>classC</code>,
+     *         or <code>null</code> if there is no such method
+     *
+     * @throws NullPointerException                If any argument is
+     *                                             <code>null</code>
+     * @throws GenericSignatureFormatError         If the generic signature
+     *         of this generic declaration does not conform to the format
+     *         specified in the Java Virtual Machine Specification, 3rd edition
+     * @throws TypeNotPresentException             If the generic superclass
+     *         or any of its actual type arguments refers to a non-existent
+     *         type declaration
+     * @throws MalformedParameterizedTypeException if the generic superclass
+     *         or any of its actual type parameters refers to a parameterized
+     *         type that cannot be instantiated for any reason
+     */
+    public Method findOverridingMethod(Method methodA, Class<?> classC) {
+        Class<?> declaringA = methodA.getDeclaringClass();
+        if (!isSubtype(declaringA, classC)) return null;
+        Method[] candidates = MethodIndex.of(classC)
+                .candidates(methodA.getName(), methodA.getParameterCount());
+        for (Method candidate : candidates) {
+            if (isOverridden0(methodA, candidate, null)) return candidate;
+        }
+        return null;
+    }
+
+    /**
+     * Finds the method declared by the <code>classA</code> which
+     * is overridden by the <code>methodB</code>.
+     *
+     * <p/>
+     * The declared methods of the <code>classA</code> are indexed once
+     * by name and arity, so only the methods of the same name and arity
+     * are compared in the generic context. The result is consistent with
+     * the {@link #isOverridden(java.lang.reflect.Method,
+     * java.lang.reflect.Method) isOverridden()} method.
+     *
+     * @param methodB The overriding method
+     * @param classA  The class to search the overridden method in
+     *
+     * @return The overridden method declared by the <code>classA</code>,
+     *         or <code>null</code> if there is no such method
+     *
+     * @throws NullPointerException                If any argument is
+     *                                             <code>null</code>
+     * @throws GenericSignatureFormatError         If the generic signature
+     *         of this generic declaration does not conform to the format
+     *         specified in the Java Virtual Machine Specification, 3rd edition
+     * @throws TypeNotPresentException             If the generic superclass
+     *         or any of its actual type arguments refers to a non-existent
+     *         type declaration
+     * @throws MalformedParameterizedTypeException if the generic superclass
+     *         or any of its actual type parameters refers to a parameterized
+     *         type that cannot be instantiated for any reason
+     */
+    public Method findOverriddenMethod(Method methodB, Class<?> classA) {
+        Class<?> declaringB = methodB.getDeclaringClass();
+        if (!isSubtype(classA, declaringB)) return null;
+        Method[] candidates = MethodIndex.of(classA)
+                .candidates(methodB.getName(), methodB.getParameterCount());
+        for (Method candidate : candidates) {
+            if (isOverridden0(candidate, methodB, null)) return candidate;
+        }
+        return null;
+    }
+
+    /**
+     * Finds all of the methods declared by the superclasses and
+     * superinterfaces of the declaring class of <code>methodB</code>
+     * which are overridden by the <code>methodB</code>.
+     *
+     * <p/>
+     * The methods are ordered from the nearest superclass to the farthest,
+     * followed by the methods of the superinterfaces in breadth-first order.
+     * The methods found are kept in the {@link #OVERRIDDEN_METHODS} cache.
+     * The list returned may be freely modified -- it is not backed by this
+     * method/class.
+     *
+     * @param methodB The overriding method
+     *
+     * @return The list of overridden methods (possibly empty)
+     *
+     * @throws NullPointerException                If the argument is
+     *                                             <code>null</code>
+     * @throws GenericSignatureFormatError         If the generic signature
+     *         of this generic declaration does not conform to the format
+     *         specified in the Java Virtual Machine Specification, 3rd edition
+     * @throws TypeNotPresentException             If the generic superclass
+     *         or any of its actual type arguments refers to a non-existent
+     *         type declaration
+     * @throws MalformedParameterizedTypeException if the generic superclass
+     *         or any of its actual type parameters refers to a parameterized
+     *         type that cannot be instantiated for any reason
+     */
+    public List<Method> findOverriddenMethods(Method methodB) {
+        Class<?> declaringB = methodB.getDeclaringClass();
+        Method[] overridden = overriddenMethods.get(declaringB, methodB);
+        if (overridden != null) overriddenStatistics.hit();
+        else {
+            overriddenStatistics.miss();
+            List<Method> methods = new ArrayList<Method>(2);
+            for (Class<?> classA = declaringB.getSuperclass();
+                    classA != null; classA = classA.getSuperclass()) {
+                Method method = findOverriddenMethod(methodB, classA);
+                if (method != null) methods.add(method);
+            }
+            for (Class<?> classA : SupertypeGraph.of(declaringB).interfaces) {
+                Method method = findOverriddenMethod(methodB, classA);
+                if (method != null) methods.add(method);
+            }
+            overridden = overriddenMethods.putIfAbsent(declaringB, methodB,
+                    methods.toArray(new Method[methods.size()]));
+        }
+        return new ArrayList<Method>(Arrays.asList(overridden));
+    }
+
+    /**
+     * Finds the annotation of the passed type present on the method, or
+     * else on the nearest of the methods overridden by it.
+     *
+     * <p/>
+     * The annotations are merged in the order of the
+     * {@link #findAnnotations(java.lang.reflect.Method, java.lang.Class)
+     * findAnnotations()} method, and kept in the cache of the
+     * {@link #INHERITED_ANNOTATIONS inherited annotations}, so a repeated
+     * lookup neither resolves nor allocates anything, but only scans the
+     * annotations of the method and the methods overridden by it.
+     *
+     * @param <A>            The type of the annotation
+     * @param method         The method
+     * @param annotationType The type of the annotation
+     *
+     * @return The annotation, or <code>null</code> if neither the method
+     *         nor the methods overridden by it are annotated by such
+     *         annotation
+     *
+     * @throws NullPointerException                If any argument is
+     *                                             <code>null</code>
+     * @throws GenericSignatureFormatError         If the generic signature
+     *         of this generic declaration does not conform to the format
+     *         specified in the Java Virtual Machine Specification, 3rd edition
+     * @throws TypeNotPresentException             If the generic superclass
+     *         or any of its actual type arguments refers to a non-existent
+     *         type declaration
+     * @throws MalformedParameterizedTypeException if the generic superclass
+     *         or any of its actual type parameters refers to a parameterized
+     *         type that cannot be instantiated for any reason
+     */
+    public <A extends Annotation> A findAnnotation(Method method, Class<A> annotationType) {
+        if (annotationType == null) throw new NullPointerException();
+        for (Annotation annotation : annotations(method)) {
+            if (annotation.annotationType() == annotationType) return annotationType.cast(annotation);
+        }
+        return null;
+    }
+
+    /**
+     * Finds the annotations of the passed type present on the method and
+     * on all of the methods overridden by it.
+     *
+     * <p/>
+     * The annotation of the method itself goes first, followed by the
+     * annotations of the overridden methods in the order of the
+     * {@link #findOverriddenMethods(java.lang.reflect.Method)
+     * findOverriddenMethods()} method, so the generic overrides are
+     * supported. The list returned may be freely modified -- it is not
+     * backed by this method/class.
+     *
+     * @param <A>            The type of the annotations
+     * @param method         The method
+     * @param annotationType The type of the annotations
+     *
+     * @return The list of annotations (possibly empty)
+     *
+     * @throws NullPointerException                If any argument is
+     *                                             <code>null</code>
+     * @throws GenericSignatureFormatError         If the generic signature
+     *         of this generic declaration does not conform to the format
+     *         specified in the Java Virtual Machine Specification, 3rd edition
+     * @throws TypeNotPresentException             If the generic superclass
+     *         or any of its actual type arguments refers to a non-existent
+     *         type declaration
+     * @throws MalformedParameterizedTypeException if the generic superclass
+     *         or any of its actual type parameters refers to a parameterized
+     *         type that cannot be instantiated for any reason
+     */
+    public <A extends Annotation> List<A> findAnnotations(Method method, Class<A> annotationType) {
+        if (annotationType == null) throw new NullPointerException();
+        List<A> result = new ArrayList<A>(2);
+        for (Annotation annotation : annotations(method)) {
+            if (annotation.annotationType() == annotationType) result.add(annotationType.cast(annotation));
+        }
+        return result;
+    }
+
+    /**
+     * Returns all of the annotations present on the method followed by
+     * the ones of the methods overridden by it, taking them from the cache
+     * if possible. The array returned must not be modified.
+     */
+    private Annotation[] annotations(Method method) {
+        Class<?> declaring = method.getDeclaringClass();
+        Annotation[] found = annotations.get(declaring, method);
+        if (found != null) {
+            annotationStatistics.hit();
+            return found;
+        }
+        annotationStatistics.miss();
+        List<Annotation> merged = new ArrayList<Annotation>(Arrays.asList(method.getDeclaredAnnotations()));
+        for (Method overridden : findOverriddenMethods(method)) {
+            merged.addAll(Arrays.asList(overridden.getDeclaredAnnotations()));
+        }
+        return annotations.putIfAbsent(declaring, method, merged.toArray(new Annotation[merged.size()]));
+    }
+
+    /**
+     * Determines the <code>methodA</code> is overridden by the
+     * <code>methodB</code>. Does not check the declaring classes
+     * and the names of methods.
+     *
+     * <p/>
+     * The generic parameters are resolved only if needed:
+     *
+     * <ul>
+     *     <li>If neither method uses generics in its parameter types,
+     *         the erasures of parameter types are compared</li>
+     *     <li>If the <code>methodA</code> does not use generics in its
+     *         parameter types, or there are no generic declarations
+     *         in the hierarchy of the declaring class of
+     *         <code>methodB</code>, the parameter types are compared
+     *         in the empty context</li>
+     *     <li>Otherwise, the parameter types are compared in context of
+     *         the generic parameters resolved between the declaring
+     *         classes</li>
+     * </ul>
+     *
+     * <p/>
+     * The results of the generic comparisons are kept in the table
+     * of the {@link #OVERRIDE_RESULTS override results}, so a repeated
+     * check neither resolves nor compares anything.
+     *
+     * @param methodA The first method
+     * @param methodB The second method
+     * @param probe   The probe of the recursion depth, or <code>null</code>
+     *
+     * @return <code>true</code> if one method is overridden by another,
+     *         <code>false</code> otherwise
+     *
+     * @throws NullPointerException                If any argument is
+     *                                             <code>null</code>
+     * @throws GenericSignatureFormatError         If the generic signature
+     *         of this generic declaration does not conform to the format
+     *         specified in the Java Virtual Machine Specification, 3rd edition
+     * @throws TypeNotPresentException             If the generic superclass
+     *         or any of its actual type arguments refers to a non-existent
+     *         type declaration
+     * @throws MalformedParameterizedTypeException if the generic superclass
+     *         or any of its actual type parameters refers to a parameterized
+     *         type that cannot be instantiated for any reason
+     */
+    private boolean isOverridden0(Method methodA, Method methodB, Probe probe) {
+        MethodSignature signatureA = signature(methodA);
+        MethodSignature signatureB = signature(methodB);
+        TypeNode[] typesA = signatureA.parameterTypes;
+        TypeNode[] typesB = signatureB.parameterTypes;
+
+        if (typesA.length != typesB.length) return false;
+        if (signatureA.erased && signatureB.erased) return Arrays.equals(typesA, typesB);
+
+        OverrideMemo results = signatureA.id > 0 && signatureB.id > 0 ? overrideResults : null;
+        if (results != null) {
+            int result = results.get(signatureA.id, signatureB.id);
+            if (result != OverrideMemo.UNKNOWN) {
+                resultStatistics.hit();
+                return result != 0;
+            }
+            resultStatistics.miss();
+        }
+
+        Class<?> declaringB = methodB.getDeclaringClass();
+        ResolutionContext parameters;
+        if (signatureA.erased || ClassSignature.of(declaringB).genericFree)
+            parameters = ResolutionContext.EMPTY;
+        else parameters = context(methodA.getDeclaringClass(), declaringB);
+
+        boolean overridden = compare(typesA, typesB, parameters, probe);
+        if (results != null) results.put(signatureA.id, signatureB.id, overridden);
+        return overridden;
+    }
+
+    /**
+     * Compares two arrays of types in context of generic parameters
+     * pairwise by using the {@link TypeComparator} of the current thread.
+     *
+     * @param typesA  The first array of types
+     * @param typesB  The second array of types
+     * @param context The context of generic parameter
+     * @param probe   The probe of the recursion depth, or <code>null</code>
+     *
+     * @return <code>true</code> two arrays are equivalent in the passed
+     *         context of generic parameters, <code>false</code> otherwise
+     *
+     * @throws NullPointerException           If one of the arguments
+     *                                        is <code>null</code>
+     * @throws ArrayIndexOutOfBoundsException If arrays differ in length
+     * @throws GenericSignatureFormatError         If the generic signature
+     *         of this generic declaration does not conform to the format
+     *         specified in the Java Virtual Machine Specification, 3rd edition
+     * @throws TypeNotPresentException             If the generic superclass
+     *         or any of its actual type arguments refers to a non-existent
+     *         type declaration
+     * @throws MalformedParameterizedTypeException if the generic superclass
+     *         or any of its actual type parameters refers to a parameterized
+     *         type that cannot be instantiated for any reason
+     */
+    private static boolean compare(TypeNode[] typesA, TypeNode[] typesB, ResolutionContext context,
+                                   Probe probe) {
+        TypeComparator comparator = TypeComparator.acquire();
+        try {
+            boolean equivalent = comparator.compare(typesA, typesB, context);
+            if (probe != null && comparator.depth > probe.depth) probe.depth = comparator.depth;
+            return equivalent;
+        } finally {
+            comparator.release();
+        }
+    }
+
+    /**
+     * Resolves generic type parameters of the <code>classA</code>
+     * in context of <code>classC</code>.
+     *
+     * <p/>
+     * The method resolves only the simple type variables, it
+     * does nothing with complex parameterized types, which should be
+     * expanded manually using the context, returned by this method, or
+     * by the {@link #resolveType(java.lang.reflect.Type, java.lang.Class)
+     * resolveType()} method.
+     *
+     * <p/>
+     * The method starts parameter resolution from the direct
+     * superclass of <code>classC</code>, using the <code>classC</code>
+     * definition to recognize the actual parameters of its superclass;
+     * simultaneously storing already resolved parameters of the superclass
+     * in the context.
+     *
+     * <p/>
+     * Then, it does the same with superclass of superclass of
+     * <code>classC</code>, taking already resolved parameters
+     * from the context and storing newly resolved parameters to it.
+     *
+     * <p/>
+     * Thus, the map will contain all of the defined type parameters
+     * of class hierarchy (not including the <code>typeC</code> itself).
+     *
+     * <p/>
+     * The map returned may be freely modified -- it is not backed by this
+     * method/class.
+     *
+     * <p/>
+     * Example.
+     *
+     * <blockquote><code><pre>
+     * public class ReflectionUtilitiesTest {
+     *     static class TestClass1 &lt;K, T extends List&lt;K&gt;&gt; {  }
+     *
+     *     static class TestClass2 &lt;K&gt;
+     *         extends TestClass1&lt;K, List&lt;K&gt;&gt; {  }
+     *
+     *     static class TestClass3
+     *         extends TestClass2&lt;Number&gt; {  }
+     *
+     *     public static void main(String[] args) {
+     *         System.out.println(
+     *             resolveParameters(TestClass1.class, TestClass2.class));
+     *         System.out.println(
+     *             resolveParameters(TestClass1.class, TestClass3.class));
+     *         System.out.println(
+     *             resolveParameters(TestClass2.class, TestClass3.class));
+     *     }
+     * }
+     * </pre></code></blockquote>
+     *
+     * The output is:
+     * <blockquote><code><pre>
+     * {T=java.util.List&lt;P&gt;, K=P}
+     * {T=java.util.List&lt;P&gt;, P=class java.lang.Number, K=class java.lang.Number}
+     * {P=class java.lang.Number}
+     * </pre></code></blockquote>
+     *
+     * @param classA The upper class in the hierarchy class
+     * @param classC The lower class in the hierarchy class
+     *
+     * @return A map that represents context of generic parameters
+     *
+     * @throws NullPointerException                If any argument is
+     *                                             <code>null</code>
+     * @throws IllegalArgumentException            If the second class passed
+     *         is not a subclass of the first one
+     * @throws GenericSignatureFormatError         If the generic signature
+     *         of this generic declaration does not conform to the format
+     *         specified in the Java Virtual Machine Specification, 3rd edition
+     * @throws TypeNotPresentException             If the generic superclass
+     *         or any of its actual type arguments refers to a non-existent
+     *         type declaration
+     * @throws MalformedParameterizedTypeException if the generic superclass
+     *         or any of its actual type parameters refers to a parameterized
+     *         type that cannot be instantiated for any reason
+     */
+    public Map<Type, Type> resolveParameters(Class<?> classA, Class<?> classC) {
+        if (!isSubtype(classA, classC))
+            throw new IllegalArgumentException(
+                    "The second class is not a subclass of the first.");
+        ResolutionListener listener = ReflectionUtilities.listener;
+        if (listener == null) return new HashMap<Type, Type>(context(classA, classC));
+        long start = System.nanoTime();
+        Map<Type, Type> parameters = new HashMap<Type, Type>(context(classA, classC));
+        listener.resolveParametersCalled(classA, classC, System.nanoTime() - start);
+        return parameters;
+    }
+
+    /**
+     * Resolves generic type parameters of the <code>classA</code>
+     * in context of <code>classC</code>.
+     *
+     * <p/>
+     * Works the same way as the {@link #resolveParameters(java.lang.Class,
+     * java.lang.Class) resolveParameters()} method does, but the map
+     * returned is an immutable {@link ResolutionContext} which may be
+     * shared between the callers.
+     * The contexts are resolved once per pair of classes and then reused
+     * as long as they are kept in the {@link #RESOLUTION_CONTEXTS} cache.
+     *
+     * @param classA The upper class in the hierarchy class
+     * @param classC The lower class in the hierarchy class
+     *
+     * @return The context of generic parameters
+     *
+     * @throws NullPointerException                If any argument is
+     *                                             <code>null</code>
+     * @throws IllegalArgumentException            If the second class passed
+     *         is not a subclass of the first one
+     * @throws GenericSignatureFormatError         If the generic signature
+     *         of this generic declaration does not conform to the format
+     *         specified in the Java Virtual Machine Specification, 3rd edition
+     * @throws TypeNotPresentException             If the generic superclass
+     *         or any of its actual type arguments refers to a non-existent
+     *         type declaration
+     * @throws MalformedParameterizedTypeException if the generic superclass
+     *         or any of its actual type parameters refers to a parameterized
+     *         type that cannot be instantiated for any reason
+     */
+    public ResolutionContext resolveContext(Class<?> classA, Class<?> classC) {
+        if (!isSubtype(classA, classC))
+            throw new IllegalArgumentException(
+                    "The second class is not a subclass of the first.");
+        ResolutionListener listener = ReflectionUtilities.listener;
+        if (listener == null) return context(classA, classC);
+        long start = System.nanoTime();
+        ResolutionContext context = context(classA, classC);
+        listener.resolveParametersCalled(classA, classC, System.nanoTime() - start);
+        return context;
+    }
+
+    /**
+     * Resolves generic type parameters of the <code>classA</code>
+     * in context of <code>classC</code> lazily.
+     *
+     * <p/>
+     * Returns the same mappings as the {@link #resolveContext(
+     * java.lang.Class, java.lang.Class) resolveContext()} method does,
+     * but the superclasses of the <code>classC</code> are walked only
+     * when a type variable is looked up, and only up to its declaring
+     * class, so the shallow lookups in the contexts of deep hierarchies
+     * never visit most of the hierarchy. The type variables of the
+     * superinterfaces, the size and the iteration resolve the whole
+     * context at once, through the {@link #RESOLUTION_CONTEXTS} cache.
+     * If the whole context is already in the cache, it is returned
+     * instead.
+     *
+     * <p/>
+     * The map returned is unmodifiable, thread-safe and may be shared
+     * between the callers. The lazy map itself is not cached; each call
+     * which does not find the whole context in the cache counts as a
+     * miss of the {@link #RESOLUTION_CONTEXTS} cache.
+     *
+     * @param classA The upper class in the hierarchy class
+     * @param classC The lower class in the hierarchy class
+     *
+     * @return The context of generic parameters
+     *
+     * @throws NullPointerException                If any argument is
+     *                                             <code>null</code>
+     * @throws IllegalArgumentException            If the second class passed
+     *         is not a subclass of the first one
+     */
+    public Map<Type, Type> resolveParametersLazily(Class<?> classA, Class<?> classC) {
+        if (!isSubtype(classA, classC))
+            throw new IllegalArgumentException(
+                    "The second class is not a subclass of the first.");
+        ResolutionContext context = contexts.get(classC, classA);
+        ResolutionListener listener = ReflectionUtilities.listener;
+        if (listener != null) listener.contextLookedUp(classA, classC, context != null);
+        if (context != null) {
+            contextStatistics.hit();
+            return context;
+        }
+        contextStatistics.miss();
+        return new LazyResolutionContext(this, classA, classC);
+    }
+
+    /**
+     * Substitutes the type variables of the passed type which are declared
+     * by the superclasses and superinterfaces of the <code>classC</code>
+     * with their actual types in context of the <code>classC</code>.
+     *
+     * <p/>
+     * The substitution is deep: the actual types of the variables, the
+     * actual type arguments of the parameterized types, the component
+     * types of the arrays and the bounds of the wildcards are substituted
+     * as well. The generic arrays whose component types turn into classes
+     * are replaced by the array classes. The types which need no
+     * substitution are returned as they are, the other ones are replaced
+     * by the immutable implementations of {@link ParameterizedType},
+     * {@link GenericArrayType} and {@link WildcardType} equal to the ones
+     * reflected by the virtual machine. The type variables declared by
+     * the methods, by the <code>classC</code> itself, or left unresolved
+     * by the raw superclasses are kept.
+     *
+     * <blockquote><code><pre>
+     * class ClassA&lt;T&gt; {
+     *     List&lt;? extends T&gt; a;
+     * }
+     * class ClassB&lt;N extends Number&gt; extends ClassA&lt;N[]&gt; {  }
+     * class ClassC extends ClassB&lt;Integer&gt; {  }
+     *
+     * resolveType(ClassA.class.getDeclaredField("a").getGenericType(), ClassC.class);
+     * </pre></code></blockquote>
+     *
+     * The output is:
+     * <blockquote><code><pre>
+     * java.util.List&lt;? extends java.lang.Integer[]&gt;
+     * </pre></code></blockquote>
+     *
+     * @param type   The type
+     * @param classC The class to resolve the type in context of
+     *
+     * @return The resolved type
+     *
+     * @throws NullPointerException                If any argument is
+     *                                             <code>null</code>
+     * @throws GenericSignatureFormatError         If the generic signature
+     *         of this generic declaration does not conform to the format
+     *         specified in the Java Virtual Machine Specification, 3rd edition
+     * @throws TypeNotPresentException             If the generic superclass
+     *         or any of its actual type arguments refers to a non-existent
+     *         type declaration
+     * @throws MalformedParameterizedTypeException if the generic superclass
+     *         or any of its actual type parameters refers to a parameterized
+     *         type that cannot be instantiated for any reason
+     */
+    public Type resolveType(Type type, Class<?> classC) {
+        if (classC == null) throw new NullPointerException();
+        return substitute(type, classC);
+    }
+
+    /**
+     * Resolves the generic return type of the method in context of the
+     * <code>classC</code>, as the {@link #resolveType(java.lang.reflect.Type,
+     * java.lang.Class) resolveType()} method does. The types of the method
+     * are resolved once per class and kept in the cache of the
+     * {@link #RESOLVED_TYPES resolved types}.
+     *
+     * @param method The method
+     * @param classC The class to resolve the type in context of
+     *
+     * @return The resolved return type
+     *
+     * @throws NullPointerException                If any argument is
+     *                                             <code>null</code>
+     * @throws IllegalArgumentException            If the class is not
+     *         a subclass of the declaring class of the method
+     * @throws GenericSignatureFormatError         If the generic signature
+     *         of this generic declaration does not conform to the format
+     *         specified in the Java Virtual Machine Specification, 3rd edition
+     * @throws TypeNotPresentException             If the generic superclass
+     *         or any of its actual type arguments refers to a non-existent
+     *         type declaration
+     * @throws MalformedParameterizedTypeException if the generic superclass
+     *         or any of its actual type parameters refers to a parameterized
+     *         type that cannot be instantiated for any reason
+     */
+    public Type resolveReturnType(Method method, Class<?> classC) {
+        return resolvedTypes(method, classC)[0];
+    }
+
+    /**
+     * Resolves the generic parameter types of the method in context of
+     * the <code>classC</code>, as the {@link #resolveType(
+     * java.lang.reflect.Type, java.lang.Class) resolveType()} method
+     * does. The types of the method are resolved once per class and kept
+     * in the cache of the {@link #RESOLVED_TYPES resolved types}.
+     *
+     * @param method The method
+     * @param classC The class to resolve the types in context of
+     *
+     * @return The new array of the resolved parameter types
+     *
+     * @throws NullPointerException                If any argument is
+     *                                             <code>null</code>
+     * @throws IllegalArgumentException            If the class is not
+     *         a subclass of the declaring class of the method
+     * @throws GenericSignatureFormatError         If the generic signature
+     *         of this generic declaration does not conform to the format
+     *         specified in the Java Virtual Machine Specification, 3rd edition
+     * @throws TypeNotPresentException             If the generic superclass
+     *         or any of its actual type arguments refers to a non-existent
+     *         type declaration
+     * @throws MalformedParameterizedTypeException if the generic superclass
+     *         or any of its actual type parameters refers to a parameterized
+     *         type that cannot be instantiated for any reason
+     */
+    public Type[] resolveParameterTypes(Method method, Class<?> classC) {
+        Type[] types = resolvedTypes(method, classC);
+        return Arrays.copyOfRange(types, 1, types.length);
+    }
+
+    /**
+     * Resolves the generic type of the field in context of the
+     * <code>classC</code>, as the {@link #resolveType(java.lang.reflect.Type,
+     * java.lang.Class) resolveType()} method does. The type is resolved
+     * once per class and kept in the cache of the
+     * {@link #RESOLVED_TYPES resolved types}.
+     *
+     * @param field  The field
+     * @param classC The class to resolve the type in context of
+     *
+     * @return The resolved type
+     *
+     * @throws NullPointerException                If any argument is
+     *                                             <code>null</code>
+     * @throws IllegalArgumentException            If the class is not
+     *         a subclass of the declaring class of the field
+     * @throws GenericSignatureFormatError         If the generic signature
+     *         of this generic declaration does not conform to the format
+     *         specified in the Java Virtual Machine Specification, 3rd edition
+     * @throws TypeNotPresentException             If the generic superclass
+     *         or any of its actual type arguments refers to a non-existent
+     *         type declaration
+     * @throws MalformedParameterizedTypeException if the generic superclass
+     *         or any of its actual type parameters refers to a parameterized
+     *         type that cannot be instantiated for any reason
+     */
+    public Type resolveFieldType(Field field, Class<?> classC) {
+        return resolvedTypes(field, classC)[0];
+    }
+
+    /**
+     * Determines the methods have the same parameter types once both are
+     * resolved in context of the <code>classC</code>, i.e. one of them
+     * implements another in the <code>classC</code> even if neither of
+     * their declaring classes is a subtype of another. The generic
+     * methods are compared by the erasures of their parameter types.
+     *
+     * <p/>
+     * Such methods are not related by {@link #isOverridden(
+     * java.lang.reflect.Method, java.lang.reflect.Method) isOverridden()},
+     * yet one of them implements another when it is inherited from
+     * a superclass which does not implement the interface declaring
+     * another, and the <code>classC</code> implements the interface.
+     *
+     * @param methodA The first method
+     * @param methodB The second method
+     * @param classC  The subclass of the declaring classes of the methods
+     *
+     * @return <code>true</code> if the methods have the same parameter
+     *         types in context of the <code>classC</code>,
+     *         <code>false</code> otherwise
+     *
+     * @throws NullPointerException                If any argument is
+     *                                             <code>null</code>
+     * @throws IllegalArgumentException            If the class is not
+     *         a subclass of the declaring classes of the methods
+     * @throws GenericSignatureFormatError         If the generic signature
+     *         of this generic declaration does not conform to the format
+     *         specified in the Java Virtual Machine Specification, 3rd edition
+     * @throws TypeNotPresentException             If the generic superclass
+     *         or any of its actual type arguments refers to a non-existent
+     *         type declaration
+     * @throws MalformedParameterizedTypeException if the generic superclass
+     *         or any of its actual type parameters refers to a parameterized
+     *         type that cannot be instantiated for any reason
+     */
+    boolean isSameSignature(Method methodA, Method methodB, Class<?> classC) {
+        if (!methodA.getName().equals(methodB.getName())
+                || methodA.getParameterCount() != methodB.getParameterCount()) return false;
+        boolean generic = methodA.getTypeParameters().length != 0;
+        if (generic != (methodB.getTypeParameters().length != 0)) return false;
+        if (generic) return Arrays.equals(methodA.getParameterTypes(), methodB.getParameterTypes());
+        Type[] typesA = resolvedTypes(methodA, classC);
+        Type[] typesB = resolvedTypes(methodB, classC);
+        for (int i = 1; i < typesA.length; i++) {
+            if (!typesA[i].equals(typesB[i])) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the resolved types of the member, taking them from the
+     * cache if possible. The array returned must not be modified.
+     */
+    private Type[] resolvedTypes(Member member, Class<?> classC) {
+        if (!isSubtype(member.getDeclaringClass(), classC))
+            throw new IllegalArgumentException(
+                    "The class is not a subclass of the declaring class.");
+        Type[] types = resolvedTypes.get(classC, member);
+        if (types != null) {
+            typeStatistics.hit();
+            return types;
+        }
+        typeStatistics.miss();
+        if (member instanceof Field) {
+            types = new Type[] { substitute(((Field) member).getGenericType(), classC) };
+        } else {
+            Method method = (Method) member;
+            Type[] parameterTypes = method.getGenericParameterTypes();
+            types = new Type[parameterTypes.length + 1];
+            types[0] = substitute(method.getGenericReturnType(), classC);
+            for (int i = 0; i < parameterTypes.length; i++) {
+                types[i + 1] = substitute(parameterTypes[i], classC);
+            }
+        }
+        return resolvedTypes.putIfAbsent(classC, member, types);
+    }
+
+    /**
+     * Substitutes the type variables of the type in context of the
+     * <code>classC</code>, returning the same type if there is nothing
+     * to substitute.
+     */
+    private Type substitute(Type type, Class<?> classC) {
+        if (type instanceof Class) return type;
+        if (type instanceof TypeVariable) {
+            TypeVariable<?> variable = (TypeVariable<?>) type;
+            GenericDeclaration declaration = variable.getGenericDeclaration();
+            if (!(declaration instanceof Class) || declaration == classC
+                    || !isSubtype((Class<?>) declaration, classC)) return type;
+            Type actual = context((Class<?>) declaration, classC).get(variable);
+            if (actual == null || actual.equals(variable)) return type;
+            return substitute(actual, classC);
+        }
+        if (type instanceof ParameterizedType) {
+            ParameterizedType parameterized = (ParameterizedType) type;
+            Type owner = parameterized.getOwnerType();
+            Type resolvedOwner = owner != null ? substitute(owner, classC) : null;
+            Type[] arguments = parameterized.getActualTypeArguments();
+            boolean substituted = substitute(arguments, classC) | resolvedOwner != owner;
+            if (!substituted) return type;
+            return new ResolvedTypes.Parameterized(
+                    (Class<?>) parameterized.getRawType(), resolvedOwner, arguments);
+        }
+        if (type instanceof GenericArrayType) {
+            Type component = ((GenericArrayType) type).getGenericComponentType();
+            Type resolved = substitute(component, classC);
+            if (resolved == component) return type;
+            if (resolved instanceof Class) return Array.newInstance((Class<?>) resolved, 0).getClass();
+            return new ResolvedTypes.GenericArray(resolved);
+        }
+        if (type instanceof WildcardType) {
+            WildcardType wildcard = (WildcardType) type;
+            Type[] upperBounds = wildcard.getUpperBounds();
+            Type[] lowerBounds = wildcard.getLowerBounds();
+            boolean substituted = substitute(upperBounds, classC) | substitute(lowerBounds, classC);
+            return substituted ? new ResolvedTypes.Wildcard(upperBounds, lowerBounds) : type;
+        }
+        if (type == null) throw new NullPointerException();
+        return type;
+    }
+
+    /**
+     * Substitutes the type variables of the types in place.
+     *
+     * @return <code>true</code> if any type was substituted,
+     *         <code>false</code> otherwise
+     */
+    private boolean substitute(Type[] types, Class<?> classC) {
+        boolean substituted = false;
+        for (int i = 0; i < types.length; i++) {
+            Type resolved = substitute(types[i], classC);
+            if (resolved != types[i]) {
+                types[i] = resolved;
+                substituted = true;
+            }
+        }
+        return substituted;
+    }
+
+    /**
+     * Returns the context of generic parameters of the
+     * <code>classA</code> resolved in context of <code>classC</code>,
+     * taking it from the cache if possible.
+     *
+     * @param classA The upper class in the hierarchy class
+     * @param classC The lower class in the hierarchy class
+     *
+     * @return The context of generic parameters
+     *
+     * @throws NullPointerException                If any argument is
+     *                                             <code>null</code>
+     * @throws GenericSignatureFormatError         If the generic signature
+     *         of this generic declaration does not conform to the format
+     *         specified in the Java Virtual Machine Specification, 3rd edition
+     * @throws TypeNotPresentException             If the generic superclass
+     *         or any of its actual type arguments refers to a non-existent
+     *         type declaration
+     * @throws MalformedParameterizedTypeException if the generic superclass
+     *         or any of its actual type parameters refers to a parameterized
+     *         type that cannot be instantiated for any reason
+     */
+    ResolutionContext context(Class<?> classA, Class<?> classC) {
+        ResolutionContext context = contexts.get(classC, classA);
+        ResolutionListener listener = ReflectionUtilities.listener;
+        if (listener != null) listener.contextLookedUp(classA, classC, context != null);
+        if (context != null) {
+            contextStatistics.hit();
+            return context;
+        }
+        contextStatistics.miss();
+        return contexts.putIfAbsent(classC, classA, resolveParameters0(classA, classC));
+    }
+
+    /**
+     * Resolves generic type parameters of the <code>classA</code>
+     * in context of <code>classC</code>.
+     *
+     * <p/>
+     * The method resolves only the simple type variables, it
+     * does nothing with complex parameterized types, which should be
+     * expanded manually using the context, returned by this method, or
+     * by the {@link #resolveType(java.lang.reflect.Type, java.lang.Class)
+     * resolveType()} method.
+     *
+     * <p/>
+     * The method starts parameter resolution from the direct
+     * superclass of <code>classC</code>, using the <code>classC</code>
+     * definition to recognize the actual parameters of its superclass;
+     * simultaneously storing already resolved parameters of the superclass
+     * in the context.
+     *
+     * <p/>
+     * Then, it does the same with superclass of superclass of
+     * <code>classC</code>, taking already resolved parameters
+     * from the context and storing newly resolved parameters to it.
+     *
+     * <p/>
+     * Thus, the map will contain all of the defined type parameters
+     * of class hierarchy (not including the <code>typeC</code> itself).
+     *
+     * <p/>
+     * The context returned is immutable and may be freely shared.
+     *
+     * <p/>
+     * The bindings precomputed at compile time for the classes marked
+     * with the {@link Precomputed} annotation are used if available.
+     *
+     * <p/>
+     * Example.
+     *
+     * <blockquote><code><pre>
+     * public class ReflectionUtilitiesTest {
+     *     static class TestClass1 &lt;K, T extends List&lt;K&gt;&gt; {  }
+     *
+     *     static class TestClass2 &lt;K&gt;
+     *         extends TestClass1&lt;K, List&lt;K&gt;&gt; {  }
+     *
+     *     static class TestClass3
+     *         extends TestClass2&lt;Number&gt; {  }
+     *
+     *     public static void main(String[] args) {
+     *         System.out.println(
+     *             resolveParameters0(TestClass1.class, TestClass2.class));
+     *         System.out.println(
+     *             resolveParameters0(TestClass1.class, TestClass3.class));
+     *         System.out.println(
+     *             resolveParameters0(TestClass2.class, TestClass3.class));
+     *     }
+     * }
+     * </pre></code></blockquote>
+     *
+     * The output is:
+     * <blockquote><code><pre>
+     * {T=java.util.List&lt;P&gt;, K=P}
+     * {T=java.util.List&lt;P&gt;, P=class java.lang.Number, K=class java.lang.Number}
+     * {P=class java.lang.Number}
+     * </pre></code></blockquote>
+     *
+     * @param classA The upper class in the hierarchy class
+     * @param classC The lower class in the hierarchy class
+     *
+     * @return The context of generic parameters
+     *
+     * @throws NullPointerException                If any argument is
+     *                                             <code>null</code>
+     * @throws GenericSignatureFormatError         If the generic signature
+     *         of this generic declaration does not conform to the format
+     *         specified in the Java Virtual Machine Specification, 3rd edition
+     * @throws TypeNotPresentException             If the generic superclass
+     *         or any of its actual type arguments refers to a non-existent
+     *         type declaration
+     * @throws MalformedParameterizedTypeException if the generic superclass
+     *         or any of its actual type parameters refers to a parameterized
+     *         type that cannot be instantiated for any reason
+     */
+    private static ResolutionContext resolveParameters0(Class<?> classA, Class<?> classC) {
+        ResolutionListener listener = ReflectionUtilities.listener;
+        long start = listener != null ? System.nanoTime() : 0;
+        PrecomputedTable table = PrecomputedTable.of(classC);
+        ResolutionContext context;
+        if (table != null && table.covers(classA, classC))
+            context = new ResolutionContext(classA, classC, table);
+        else context = new ResolutionContext(classA, classC);
+        if (listener != null) {
+            int depth = SupertypeGraph.distance(classA, classC);
+            listener.contextResolved(classA, classC, depth, System.nanoTime() - start);
+        }
+        return context;
+    }
+
+    /**
+     * Returns the descriptor of the passed method, taking it from
+     * the cache if possible.
+     *
+     * @param method The method
+     *
+     * @return The descriptor
+     *
+     * @throws NullPointerException                If the argument is
+     *                                             <code>null</code>
+     * @throws GenericSignatureFormatError         If the generic signature
+     *         of this generic declaration does not conform to the format
+     *         specified in the Java Virtual Machine Specification, 3rd edition
+     * @throws TypeNotPresentException             If any of the parameter
+     *         types refers to a non-existent type declaration
+     * @throws MalformedParameterizedTypeException If any of the parameter
+     *         types refers to a parameterized type that cannot be
+     *         instantiated for any reason
+     */
+    private MethodSignature signature(Method method) {
+        Class<?> declaring = method.getDeclaringClass();
+        MethodSignature signature = signatures.get(declaring, method);
+        if (signature != null) {
+            signatureStatistics.hit();
+            return signature;
+        }
+        signatureStatistics.miss();
+        return signatures.putIfAbsent(declaring, method, new MethodSignature(method));
+    }
+
+    /**
+     * Determines the <code>classA</code> is either the same as, or is
+     * a supertype of the <code>classC</code>, by the index if there is one.
+     */
+    private boolean isSubtype(Class<?> classA, Class<?> classC) {
+        return index != null ? index.isAssignableFrom(classA, classC) : classA.isAssignableFrom(classC);
+    }
+
+    /**
+     * Returns the statistics of the cache.
+     *
+     * @param name The name of the cache
+     *
+     * @return The statistics, or <code>null</code> if there is no
+     *         cache of such name
+     *
+     * @throws NullPointerException If the argument is <code>null</code>
+     */
+    public CacheStatistics getCacheStatistics(String name) {
+        if (name.equals(RESOLUTION_CONTEXTS)) return contextStatistics;
+        if (name.equals(METHOD_SIGNATURES)) return signatureStatistics;
+        if (name.equals(OVERRIDDEN_METHODS)) return overriddenStatistics;
+        if (name.equals(OVERRIDE_RESULTS)) return resultStatistics;
+        if (name.equals(INHERITED_ANNOTATIONS)) return annotationStatistics;
+        if (name.equals(RESOLVED_TYPES)) return typeStatistics;
+        return null;
+    }
+
+    /**
+     * Returns the statistics of all of the caches.
+     *
+     * @return The unmodifiable list of statistics
+     */
+    public List<CacheStatistics> getCacheStatistics() {
+        return Collections.unmodifiableList(Arrays.asList(
+                contextStatistics, signatureStatistics, overriddenStatistics, resultStatistics,
+                annotationStatistics, typeStatistics));
+    }
+
+    /**
+     * Removes all of the values from the caches. The statistics are
+     * not reset.
+     */
+    public void clearCaches() {
+        contexts.clear();
+        signatures.clear();
+        overriddenMethods.clear();
+        annotations.clear();
+        resolvedTypes.clear();
+        if (overrideResults != null) overrideResults.clear();
+    }
+
+    /**
+     * The deepest recursion of the comparison of types reached
+     * during a single check.
+     */
+    private static final class Probe {
+        int depth;
+    }
+}
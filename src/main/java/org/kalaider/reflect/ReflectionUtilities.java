@@ -16,23 +16,98 @@
  */
 package org.kalaider.reflect;
 
-import java.lang.reflect.GenericArrayType;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
 import java.lang.reflect.GenericSignatureFormatError;
 import java.lang.reflect.MalformedParameterizedTypeException;
 import java.lang.reflect.Method;
-import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
-import java.lang.reflect.TypeVariable;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import javax.management.JMException;
 
 /**
  * Contains some utility methods for the Java Reflection API.
  *
+ * <p/>
+ * The methods delegate to the {@link #getEngine() engine}, which
+ * is configured by the {@link #DISABLE_CACHE_PROPERTY} and
+ * {@link #CACHE_SIZE_PROPERTY} system properties by default and may be
+ * replaced by the {@link #setEngine(org.kalaider.reflect.ReflectionEngine)
+ * setEngine()} method.
+ *
  * @author Alexander Vasilevsky
  */
 public class ReflectionUtilities {
 
+    /**
+     * The name of the system property which disables caching of the
+     * resolved generic parameters and signatures when set to
+     * <code>true</code>.
+     */
+    public static final String DISABLE_CACHE_PROPERTY =
+            "org.kalaider.reflect.disableCache";
+
+    /**
+     * Whether the resolved generic parameters and signatures are cached.
+     */
+    static final boolean CACHE_ENABLED =
+            !Boolean.getBoolean(DISABLE_CACHE_PROPERTY);
+
+    /**
+     * The name of the system property which sets the maximum number of
+     * values in each cache of the default engine,
+     * {@value BoundedCache#DEFAULT_MAXIMUM_SIZE} by default.
+     */
+    public static final String CACHE_SIZE_PROPERTY =
+            "org.kalaider.reflect.cacheSize";
+
+    /**
+     * The engine which answers the queries.
+     */
+    private static volatile ReflectionEngine engine = ReflectionEngine.createDefault();
+
+    /**
+     * The name of the system property which installs the
+     * {@link ResolutionStatistics} listener and registers it as an MBean
+     * when set to <code>true</code>.
+     */
+    public static final String STATISTICS_PROPERTY =
+            "org.kalaider.reflect.statistics";
+
+    /**
+     * The listener notified of the resolution events, or <code>null</code>
+     * if the resolution is not instrumented. Combines the
+     * {@link #userListener} and the {@link #eventListener}.
+     */
+    static volatile ResolutionListener listener;
+
+    /**
+     * The listener installed by the {@link #setListener(
+     * org.kalaider.reflect.ResolutionListener) setListener()} method,
+     * or <code>null</code>.
+     */
+    private static ResolutionListener userListener;
+
+    /**
+     * The listener which emits the Java Flight Recorder events while
+     * a recording is running, or <code>null</code>.
+     */
+    private static ResolutionListener eventListener;
+
+    static {
+        if (Boolean.getBoolean(STATISTICS_PROPERTY)) {
+            ResolutionStatistics statistics = new ResolutionStatistics();
+            try {
+                statistics.register();
+            } catch (JMException e) {
+                // The statistics are still collected
+            }
+            setListener(statistics);
+        }
+        ResolutionEvents.install();
+    }
+
     /**
      * The private constructor.
      */
@@ -44,7 +119,9 @@ public class ReflectionUtilities {
      * <code>methodB</code>.
      *
      * <p/>
-     * Supports generics.
+     * Supports generics. The override relations precomputed at compile
+     * time for the classes marked with the {@link Precomputed} annotation
+     * are used if available.
      *
      * @param methodA The first method
      * @param methodB The second method
@@ -65,37 +142,28 @@ public class ReflectionUtilities {
      *         type that cannot be instantiated for any reason
      */
     public static boolean isOverridden(Method methodA, Method methodB) {
-        Class<?> declaringA = methodA.getDeclaringClass();
-        Class<?> declaringB = methodB.getDeclaringClass();
-
-        if (!declaringA.isAssignableFrom(declaringB)) return false;
-        if (!methodB.getName().equals(methodA.getName())) return false;
-
-        Map<Type, Type> parameters = resolveParameters(declaringA, declaringB);
-        Type[] typesA = methodA.getGenericParameterTypes();
-        Type[] typesB = methodB.getGenericParameterTypes();
-
-        if (typesA.length != typesB.length) return false;
-
-        return compare(typesA, typesB, parameters);
+        return engine.isOverridden(methodA, methodB);
     }
 
     /**
-     * Compares two arrays of types in context of generic parameters
-     * by calling the {@link #compare(java.lang.reflect.Type,
-     * java.lang.reflect.Type, java.util.Map) compare()}
-     * method for each pair (typeA[i]; typeB[i]).
+     * Finds the method declared by the <code>classC</code> which
+     * overrides the <code>methodA</code>.
+     *
+     * <p/>
+     * The declared methods of the <code>classC</code> are indexed once
+     * by name and arity, so only the methods of the same name and arity
+     * are compared in the generic context. The result is consistent with
+     * the {@link #isOverridden(java.lang.reflect.Method,
+     * java.lang.reflect.Method) isOverridden()} method.
      *
-     * @param typesA  The first array of types
-     * @param typesB  The second array of types
-     * @param context The context of generic parameter
+     * @param methodA The overridden method
+     * @param classC  The class to search the overriding method in
      *
-     * @return <code>true</code> two arrays are equivalent in the passed
-     *         context of generic parameters, <code>false</code> otherwise
+     * @return The overriding method declared by the <code>classC</code>,
+     *         or <code>null</code> if there is no such method
      *
-     * @throws NullPointerException           If one of the arguments
-     *                                        is <code>null</code>
-     * @throws ArrayIndexOutOfBoundsException If arrays differ in length
+     * @throws NullPointerException                If any argument is
+     *                                             <code>null</code>
      * @throws GenericSignatureFormatError         If the generic signature
      *         of this generic declaration does not conform to the format
      *         specified in the Java Virtual Machine Specification, 3rd edition
@@ -106,48 +174,88 @@ public class ReflectionUtilities {
      *         or any of its actual type parameters refers to a parameterized
      *         type that cannot be instantiated for any reason
      */
-    private static boolean compare(Type[] typesA, Type[] typesB, Map<Type, Type> context) {
-        for (int i = 0; i < typesA.length; i++) {
-            if (!compare(typesA[i], typesB[i], context)) return false;
-        }
-        return true;
+    public static Method findOverridingMethod(Method methodA, Class<?> classC) {
+        return engine.findOverridingMethod(methodA, classC);
     }
 
     /**
-     * Compares two types in the passed context of generic parameters.
-     * Checks if the first type is assignable from another.
+     * Finds the method declared by the <code>classA</code> which
+     * is overridden by the <code>methodB</code>.
      *
      * <p/>
-     * If both types are <code>null</code>, returns <code>true</code>.
-     * If if one of the types is <code>null</code>, returns <code>false</code>.
+     * The declared methods of the <code>classA</code> are indexed once
+     * by name and arity, so only the methods of the same name and arity
+     * are compared in the generic context. The result is consistent with
+     * the {@link #isOverridden(java.lang.reflect.Method,
+     * java.lang.reflect.Method) isOverridden()} method.
+     *
+     * @param methodB The overriding method
+     * @param classA  The class to search the overridden method in
+     *
+     * @return The overridden method declared by the <code>classA</code>,
+     *         or <code>null</code> if there is no such method
+     *
+     * @throws NullPointerException                If any argument is
+     *                                             <code>null</code>
+     * @throws GenericSignatureFormatError         If the generic signature
+     *         of this generic declaration does not conform to the format
+     *         specified in the Java Virtual Machine Specification, 3rd edition
+     * @throws TypeNotPresentException             If the generic superclass
+     *         or any of its actual type arguments refers to a non-existent
+     *         type declaration
+     * @throws MalformedParameterizedTypeException if the generic superclass
+     *         or any of its actual type parameters refers to a parameterized
+     *         type that cannot be instantiated for any reason
+     */
+    public static Method findOverriddenMethod(Method methodB, Class<?> classA) {
+        return engine.findOverriddenMethod(methodB, classA);
+    }
+
+    /**
+     * Finds all of the methods declared by the superclasses and
+     * superinterfaces of the declaring class of <code>methodB</code>
+     * which are overridden by the <code>methodB</code>.
      *
      * <p/>
-     * Otherwise, performs recursive comparison:
-     *
-     * <ul>
-     *     <li>If context of generic parameters contains the
-     *         first type, its opponent from context map
-     *         will be recursively compared with the other type</li>
-     *     <li>If both types are of {@link Class} type,
-     *         they will be tested on equality</li>
-     *     <li>If both types are of {@link ParameterizedType} its
-     *         raw types will be tested for equality</li>
-     *     <li>If both types are of {@link GenericArrayType} its
-     *         component types will be recursively compared</li>
-     *     <li>If both types are of {@link TypeVariable} type,
-     *         its bounds will be compared without order
-     *         by using the {@link #compareWithoutOrder(
-     *         java.lang.reflect.Type[], java.lang.reflect.Type[],
-     *         java.util.Map) compareWithoutOrder()} method</li>
-     *     <li>In other cases, <code>false</code> will be returned</li>
-     * </ul>
-     *
-     * @param typeA   The first type
-     * @param typeB   The second type
-     * @param context The context of generic parameters
-     *
-     * @return <code>true</code> if types are equivalent in the passed context
-     *         of generic parameters, <code>false</code> otherwise
+     * The methods are ordered from the nearest superclass to the farthest,
+     * followed by the methods of the superinterfaces in breadth-first order.
+     * The list returned may be freely modified -- it is not backed by this
+     * method/class.
+     *
+     * @param methodB The overriding method
+     *
+     * @return The list of overridden methods (possibly empty)
+     *
+     * @throws NullPointerException                If the argument is
+     *                                             <code>null</code>
+     * @throws GenericSignatureFormatError         If the generic signature
+     *         of this generic declaration does not conform to the format
+     *         specified in the Java Virtual Machine Specification, 3rd edition
+     * @throws TypeNotPresentException             If the generic superclass
+     *         or any of its actual type arguments refers to a non-existent
+     *         type declaration
+     * @throws MalformedParameterizedTypeException if the generic superclass
+     *         or any of its actual type parameters refers to a parameterized
+     *         type that cannot be instantiated for any reason
+     */
+    public static List<Method> findOverriddenMethods(Method methodB) {
+        return engine.findOverriddenMethods(methodB);
+    }
+
+    /**
+     * Finds the annotation of the passed type present on the method, or
+     * else on the nearest of the methods overridden by it, e.g. on the
+     * generic method of a superclass or an interface which the method
+     * implements. All of the merged annotations are cached once per
+     * method and filtered by the annotation type on lookup.
+     *
+     * @param <A>            The type of the annotation
+     * @param method         The method
+     * @param annotationType The type of the annotation
+     *
+     * @return The annotation, or <code>null</code> if neither the method
+     *         nor the methods overridden by it are annotated by such
+     *         annotation
      *
      * @throws NullPointerException                If any argument is
      *                                             <code>null</code>
@@ -161,42 +269,26 @@ public class ReflectionUtilities {
      *         or any of its actual type parameters refers to a parameterized
      *         type that cannot be instantiated for any reason
      */
-    private static boolean compare(Type typeA, Type typeB, Map<Type, Type> context) {
-        Type type = context.get(typeA);
-        if (typeB.equals(type)) return true;
-        if (type != null) return compare(type, typeB, context);
-        if (typeA instanceof Class && typeB instanceof Class)
-            return ((Class<?>) typeA).equals((Class<?>) typeB);
-        if (typeA instanceof ParameterizedType
-                && typeB instanceof ParameterizedType) {
-            if (!((ParameterizedType) typeA).getRawType()
-                    .equals(((ParameterizedType) typeB).getRawType()))
-                return false;
-            else return true;
-        }
-        if (typeA instanceof GenericArrayType && typeB instanceof GenericArrayType)
-            return compare(((GenericArrayType) typeA).getGenericComponentType(),
-                    ((GenericArrayType) typeB).getGenericComponentType(), context);
-        if (typeA instanceof TypeVariable && typeB instanceof TypeVariable)
-            return compareWithoutOrder(((TypeVariable) typeA).getBounds(),
-                    ((TypeVariable) typeB).getBounds(), context);
-        // No checking for WildcardType. It may be located only in parameterized
-        // types, but they are compared by its rawtypes only.
-        return false;
+    public static <A extends Annotation> A findAnnotation(Method method, Class<A> annotationType) {
+        return engine.findAnnotation(method, annotationType);
     }
 
     /**
-     * Tests the passed arrays on equality in spite of element order.
-     * Uses {@link #compare(java.lang.reflect.Type, java.lang.reflect.Type, java.util.Map)
-     * compare()} method to perform comparison.
+     * Finds the annotations of the passed type present on the method and
+     * on all of the methods overridden by it.
+     *
+     * <p/>
+     * The annotation of the method itself goes first, followed by the
+     * annotations of the overridden methods in the order of the
+     * {@link #findOverriddenMethods(java.lang.reflect.Method)
+     * findOverriddenMethods()} method. The list returned may be freely
+     * modified -- it is not backed by this method/class.
      *
-     * @param typeA   The first type
-     * @param typeB   The second type
-     * @param context The context of generic parameters
+     * @param <A>            The type of the annotations
+     * @param method         The method
+     * @param annotationType The type of the annotations
      *
-     * @return <code>true</code> if the passed arrays are equivalent
-     *         in the passed context of generic parameters,
-     *         <code>false</code> otherwise
+     * @return The list of annotations (possibly empty)
      *
      * @throws NullPointerException                If any argument is
      *                                             <code>null</code>
@@ -210,19 +302,8 @@ public class ReflectionUtilities {
      *         or any of its actual type parameters refers to a parameterized
      *         type that cannot be instantiated for any reason
      */
-    private static boolean compareWithoutOrder(Type typesA[], Type[] typesB, Map<Type, Type> context) {
-        if (typesA.length != typesB.length) return false;
-        for (Type type1 : typesA) {
-            boolean found = false;
-            for (Type type2 : typesB) {
-                if (compare(type1, type2, context)) {
-                    found = true;
-                    break;
-                }
-            }
-            if (!found) return false;
-        }
-        return true;
+    public static <A extends Annotation> List<A> findAnnotations(Method method, Class<A> annotationType) {
+        return engine.findAnnotations(method, annotationType);
     }
 
     /**
@@ -232,7 +313,9 @@ public class ReflectionUtilities {
      * <p/>
      * The method resolves only the simple type variables, it
      * does nothing with complex parameterized types, which should be
-     * expanded manually using the context, returned by this method.
+     * expanded manually using the context, returned by this method, or
+     * by the {@link #resolveType(java.lang.reflect.Type, java.lang.Class)
+     * resolveType()} method.
      *
      * <p/>
      * The method starts parameter resolution from the direct
@@ -305,10 +388,7 @@ public class ReflectionUtilities {
      *         type that cannot be instantiated for any reason
      */
     public static Map<Type, Type> resolveParameters(Class<?> classA, Class<?> classC) {
-        if (!classA.isAssignableFrom(classC))
-            throw new IllegalArgumentException(
-                    "The second class is not a subclass of the first.");
-        return resolveParameters0(classA, classC);
+        return engine.resolveParameters(classA, classC);
     }
 
     /**
@@ -316,68 +396,141 @@ public class ReflectionUtilities {
      * in context of <code>classC</code>.
      *
      * <p/>
-     * The method resolves only the simple type variables, it
-     * does nothing with complex parameterized types, which should be
-     * expanded manually using the context, returned by this method.
+     * Works the same way as the {@link #resolveParameters(java.lang.Class,
+     * java.lang.Class) resolveParameters()} method does, but the map
+     * returned is an immutable {@link ResolutionContext} which may be
+     * shared between the callers.
+     * The contexts are resolved once per pair of classes and then reused
+     * as long as they are kept in the cache of the {@link #getEngine()
+     * engine}.
      *
-     * <p/>
-     * The method starts parameter resolution from the direct
-     * superclass of <code>classC</code>, using the <code>classC</code>
-     * definition to recognize the actual parameters of its superclass;
-     * simultaneously storing already resolved parameters of the superclass
-     * in the context.
+     * @param classA The upper class in the hierarchy class
+     * @param classC The lower class in the hierarchy class
      *
-     * <p/>
-     * Then, it does the same with superclass of superclass of
-     * <code>classC</code>, taking already resolved parameters
-     * from the context and storing newly resolved parameters to it.
+     * @return The context of generic parameters
      *
-     * <p/>
-     * Thus, the map will contain all of the defined type parameters
-     * of class hierarchy (not including the <code>typeC</code> itself).
+     * @throws NullPointerException                If any argument is
+     *                                             <code>null</code>
+     * @throws IllegalArgumentException            If the second class passed
+     *         is not a subclass of the first one
+     * @throws GenericSignatureFormatError         If the generic signature
+     *         of this generic declaration does not conform to the format
+     *         specified in the Java Virtual Machine Specification, 3rd edition
+     * @throws TypeNotPresentException             If the generic superclass
+     *         or any of its actual type arguments refers to a non-existent
+     *         type declaration
+     * @throws MalformedParameterizedTypeException if the generic superclass
+     *         or any of its actual type parameters refers to a parameterized
+     *         type that cannot be instantiated for any reason
+     */
+    public static ResolutionContext resolveContext(Class<?> classA, Class<?> classC) {
+        return engine.resolveContext(classA, classC);
+    }
+
+    /**
+     * Resolves generic type parameters of the <code>classA</code>
+     * in context of <code>classC</code> lazily.
      *
      * <p/>
-     * The map returned may be freely modified -- it is not backed by this
-     * method/class.
+     * Works the same way as the {@link #resolveContext(java.lang.Class,
+     * java.lang.Class) resolveContext()} method does, but the superclasses
+     * of the <code>classC</code> are walked only as far as the lookups
+     * of the map returned need. The map is unmodifiable and thread-safe.
+     *
+     * @param classA The upper class in the hierarchy class
+     * @param classC The lower class in the hierarchy class
+     *
+     * @return The context of generic parameters
+     *
+     * @throws NullPointerException                If any argument is
+     *                                             <code>null</code>
+     * @throws IllegalArgumentException            If the second class passed
+     *         is not a subclass of the first one
+     *
+     * @see ReflectionEngine#resolveParametersLazily(java.lang.Class, java.lang.Class)
+     */
+    public static Map<Type, Type> resolveParametersLazily(Class<?> classA, Class<?> classC) {
+        return engine.resolveParametersLazily(classA, classC);
+    }
+
+    /**
+     * Substitutes the type variables of the passed type which are declared
+     * by the superclasses and superinterfaces of the <code>classC</code>
+     * with their actual types in context of the <code>classC</code>.
      *
      * <p/>
-     * Example.
+     * The substitution is deep: the actual type arguments of the
+     * parameterized types, the component types of the arrays and the
+     * bounds of the wildcards are substituted as well, producing
+     * immutable types equal to the ones reflected by the virtual machine.
+     * The type variables declared by the methods or by the
+     * <code>classC</code> itself are kept.
      *
-     * <blockquote><code><pre>
-     * public class ReflectionUtilitiesTest {
-     *     static class TestClass1 &lt;K, T extends List&lt;K&gt;&gt; {  }
+     * @param type   The type
+     * @param classC The class to resolve the type in context of
      *
-     *     static class TestClass2 &lt;K&gt;
-     *         extends TestClass1&lt;K, List&lt;K&gt;&gt; {  }
+     * @return The resolved type
      *
-     *     static class TestClass3
-     *         extends TestClass2&lt;Number&gt; {  }
+     * @throws NullPointerException                If any argument is
+     *                                             <code>null</code>
+     * @throws GenericSignatureFormatError         If the generic signature
+     *         of this generic declaration does not conform to the format
+     *         specified in the Java Virtual Machine Specification, 3rd edition
+     * @throws TypeNotPresentException             If the generic superclass
+     *         or any of its actual type arguments refers to a non-existent
+     *         type declaration
+     * @throws MalformedParameterizedTypeException if the generic superclass
+     *         or any of its actual type parameters refers to a parameterized
+     *         type that cannot be instantiated for any reason
+     */
+    public static Type resolveType(Type type, Class<?> classC) {
+        return engine.resolveType(type, classC);
+    }
+
+    /**
+     * Resolves the generic return type of the method in context of the
+     * <code>classC</code>, as the {@link #resolveType(java.lang.reflect.Type,
+     * java.lang.Class) resolveType()} method does. The types are resolved
+     * once per method and class.
      *
-     *     public static void main(String[] args) {
-     *         System.out.println(
-     *             resolveParameters0(TestClass1.class, TestClass2.class));
-     *         System.out.println(
-     *             resolveParameters0(TestClass1.class, TestClass3.class));
-     *         System.out.println(
-     *             resolveParameters0(TestClass2.class, TestClass3.class));
-     *     }
-     * }
-     * </pre></code></blockquote>
+     * @param method The method
+     * @param classC The class to resolve the type in context of
      *
-     * The output is:
-     * <blockquote><code><pre>
-     * {T=java.util.List&lt;P&gt;, K=P}
-     * {T=java.util.List&lt;P&gt;, P=class java.lang.Number, K=class java.lang.Number}
-     * {P=class java.lang.Number}
-     * </pre></code></blockquote>
+     * @return The resolved return type
      *
-     * @param classA The upper class in the hierarchy class
-     * @param classC The lower class in the hierarchy class
+     * @throws NullPointerException                If any argument is
+     *                                             <code>null</code>
+     * @throws IllegalArgumentException            If the class is not
+     *         a subclass of the declaring class of the method
+     * @throws GenericSignatureFormatError         If the generic signature
+     *         of this generic declaration does not conform to the format
+     *         specified in the Java Virtual Machine Specification, 3rd edition
+     * @throws TypeNotPresentException             If the generic superclass
+     *         or any of its actual type arguments refers to a non-existent
+     *         type declaration
+     * @throws MalformedParameterizedTypeException if the generic superclass
+     *         or any of its actual type parameters refers to a parameterized
+     *         type that cannot be instantiated for any reason
+     */
+    public static Type resolveReturnType(Method method, Class<?> classC) {
+        return engine.resolveReturnType(method, classC);
+    }
+
+    /**
+     * Resolves the generic parameter types of the method in context of
+     * the <code>classC</code>, as the {@link #resolveType(
+     * java.lang.reflect.Type, java.lang.Class) resolveType()} method
+     * does. The types are resolved once per method and class.
      *
-     * @return A map that represents context of generic parameters
+     * @param method The method
+     * @param classC The class to resolve the types in context of
+     *
+     * @return The new array of the resolved parameter types
      *
      * @throws NullPointerException                If any argument is
      *                                             <code>null</code>
+     * @throws IllegalArgumentException            If the class is not
+     *         a subclass of the declaring class of the method
      * @throws GenericSignatureFormatError         If the generic signature
      *         of this generic declaration does not conform to the format
      *         specified in the Java Virtual Machine Specification, 3rd edition
@@ -388,20 +541,148 @@ public class ReflectionUtilities {
      *         or any of its actual type parameters refers to a parameterized
      *         type that cannot be instantiated for any reason
      */
-    private static Map<Type, Type> resolveParameters0(Class<?> classA, Class<?> classC) {
-        Map<Type, Type> map = new HashMap<Type, Type>(3);
-        Class<?> classB = classC;
-        while (!classA.equals(classB)) {
-            TypeVariable[] theoretical = classB.getSuperclass().getTypeParameters();
-            Type gs = classB.getGenericSuperclass();
-            classB = classB.getSuperclass();
-            if (!(gs instanceof ParameterizedType)) continue;
-            Type[] actual = ((ParameterizedType) gs).getActualTypeArguments();
-            for (int i = 0; i < theoretical.length; i++) {
-                Type processed = map.get(actual[i]);
-                map.put(theoretical[i], processed != null ? processed : actual[i]);
-            }
+    public static Type[] resolveParameterTypes(Method method, Class<?> classC) {
+        return engine.resolveParameterTypes(method, classC);
+    }
+
+    /**
+     * Resolves the generic type of the field in context of the
+     * <code>classC</code>, as the {@link #resolveType(java.lang.reflect.Type,
+     * java.lang.Class) resolveType()} method does. The type is resolved
+     * once per field and class.
+     *
+     * @param field  The field
+     * @param classC The class to resolve the type in context of
+     *
+     * @return The resolved type
+     *
+     * @throws NullPointerException                If any argument is
+     *                                             <code>null</code>
+     * @throws IllegalArgumentException            If the class is not
+     *         a subclass of the declaring class of the field
+     * @throws GenericSignatureFormatError         If the generic signature
+     *         of this generic declaration does not conform to the format
+     *         specified in the Java Virtual Machine Specification, 3rd edition
+     * @throws TypeNotPresentException             If the generic superclass
+     *         or any of its actual type arguments refers to a non-existent
+     *         type declaration
+     * @throws MalformedParameterizedTypeException if the generic superclass
+     *         or any of its actual type parameters refers to a parameterized
+     *         type that cannot be instantiated for any reason
+     */
+    public static Type resolveFieldType(Field field, Class<?> classC) {
+        return engine.resolveFieldType(field, classC);
+    }
+
+    /**
+     * Replaces the engine which answers the queries, e.g. by the one
+     * with different {@link CacheProvider caches}.
+     *
+     * @param engine The engine
+     *
+     * @throws NullPointerException If the argument is <code>null</code>
+     */
+    public static void setEngine(ReflectionEngine engine) {
+        if (engine == null) throw new NullPointerException();
+        ReflectionUtilities.engine = engine;
+    }
+
+    /**
+     * Returns the engine which answers the queries.
+     *
+     * @return The engine
+     */
+    public static ReflectionEngine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Installs the listener of the resolution events.
+     *
+     * <p/>
+     * The listener is notified synchronously by the calling threads,
+     * so it should be thread-safe and cheap. The resolution is not
+     * instrumented at all while there is no listener.
+     *
+     * @param listener The listener, or <code>null</code> to remove
+     *                 the current one
+     *
+     * @see ResolutionStatistics
+     */
+    public static synchronized void setListener(ResolutionListener listener) {
+        userListener = listener;
+        updateListener();
+    }
+
+    /**
+     * Returns the listener of the resolution events.
+     *
+     * @return The listener, or <code>null</code> if there is no listener
+     */
+    public static synchronized ResolutionListener getListener() {
+        return userListener;
+    }
+
+    /**
+     * Installs the listener which emits the Java Flight Recorder events.
+     * The listener is notified in addition to the one installed by the
+     * {@link #setListener(org.kalaider.reflect.ResolutionListener)
+     * setListener()} method.
+     *
+     * @param listener The listener, or <code>null</code> to remove
+     *                 the current one
+     */
+    static synchronized void setEventListener(ResolutionListener listener) {
+        eventListener = listener;
+        updateListener();
+    }
+
+    /**
+     * Combines the listeners installed into the one notified
+     * by the resolution.
+     */
+    private static void updateListener() {
+        if (userListener == null) listener = eventListener;
+        else if (eventListener == null) listener = userListener;
+        else listener = new Listeners(userListener, eventListener);
+    }
+
+    /**
+     * The pair of listeners notified one after another.
+     */
+    private static final class Listeners implements ResolutionListener {
+
+        private final ResolutionListener first;
+        private final ResolutionListener second;
+
+        Listeners(ResolutionListener first, ResolutionListener second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public void isOverriddenCalled(Method methodA, Method methodB, boolean overridden,
+                                       int compareDepth, long nanos) {
+            first.isOverriddenCalled(methodA, methodB, overridden, compareDepth, nanos);
+            second.isOverriddenCalled(methodA, methodB, overridden, compareDepth, nanos);
+        }
+
+        @Override
+        public void resolveParametersCalled(Class<?> classA, Class<?> classC, long nanos) {
+            first.resolveParametersCalled(classA, classC, nanos);
+            second.resolveParametersCalled(classA, classC, nanos);
+        }
+
+        @Override
+        public void contextLookedUp(Class<?> classA, Class<?> classC, boolean hit) {
+            first.contextLookedUp(classA, classC, hit);
+            second.contextLookedUp(classA, classC, hit);
+        }
+
+        @Override
+        public void contextResolved(Class<?> classA, Class<?> classC, int depth, long nanos) {
+            first.contextResolved(classA, classC, depth, nanos);
+            second.contextResolved(classA, classC, depth, nanos);
         }
-        return map;
     }
 }
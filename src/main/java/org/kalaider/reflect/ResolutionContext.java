@@ -0,0 +1,394 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect;
+
+import java.lang.reflect.GenericDeclaration;
+import java.lang.reflect.GenericSignatureFormatError;
+import java.lang.reflect.MalformedParameterizedTypeException;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * The context of generic parameters, i.e. the type parameters of the
+ * classes and interfaces of a hierarchy mapped to their actual types
+ * in context of the lower class of the hierarchy.
+ *
+ * <p/>
+ * The bindings are kept in flat arrays indexed by the declaring class
+ * of the type parameter and its position in the declaration, so the
+ * lookup neither hashes nor compares the types structurally. The
+ * superclasses are found by their depth, the few superinterfaces
+ * are scanned. The actual
+ * types are kept as canonical {@link TypeNode nodes}. The context
+ * is immutable and may be freely shared between threads; it is also
+ * an unmodifiable {@link java.util.Map} from type variables to their
+ * actual types for compatibility.
+ *
+ * @author Alexander Vasilevsky
+ *
+ * @see ReflectionUtilities#resolveContext(java.lang.Class, java.lang.Class)
+ */
+public final class ResolutionContext extends AbstractMap<Type, Type> {
+
+    /**
+     * The empty context.
+     */
+    static final ResolutionContext EMPTY = new ResolutionContext();
+
+    /**
+     * The depth of the lower class of the hierarchy.
+     */
+    private final int lowerDepth;
+
+    /**
+     * The supertypes of the lower class up to the upper class of
+     * the hierarchy: the superclasses first, i.e. <code>classes[i]</code>
+     * is located on the depth <code>lowerDepth - i - 1</code>, and then
+     * the superinterfaces in breadth-first order.
+     */
+    private final Class<?>[] classes;
+
+    /**
+     * The number of superclasses in the <code>classes</code> array.
+     */
+    private final int superclasses;
+
+    /**
+     * The offsets of type parameters of <code>classes[i]</code> in the
+     * <code>variables</code> and <code>values</code> arrays; the last
+     * offset is the total number of type parameters.
+     */
+    private final int[] offsets;
+
+    /**
+     * The type parameters of the classes.
+     */
+    private final TypeVariable<?>[] variables;
+
+    /**
+     * The nodes of actual types of the type parameters, <code>null</code>
+     * for the type parameters of raw superclasses.
+     */
+    private final TypeNode[] values;
+
+    /**
+     * The number of resolved type parameters.
+     */
+    private final int size;
+
+    /**
+     * The lazily created entry set view.
+     */
+    private Set<Entry<Type, Type>> entrySet;
+
+    /**
+     * Creates the empty context.
+     */
+    private ResolutionContext() {
+        lowerDepth = 0;
+        classes = new Class<?>[0];
+        superclasses = 0;
+        offsets = new int[1];
+        variables = new TypeVariable<?>[0];
+        values = TypeNode.NO_NODES;
+        size = 0;
+    }
+
+    /**
+     * Resolves generic type parameters of the <code>classA</code>
+     * in context of <code>classC</code>.
+     *
+     * <p/>
+     * Starts parameter resolution from the direct superclass of
+     * <code>classC</code>, using the <code>classC</code> definition
+     * to recognize the actual parameters of its superclass; then does
+     * the same with superclass of superclass of <code>classC</code>,
+     * taking already resolved parameters from the context. The actual
+     * parameters of each superclass are taken from the edges of the
+     * {@link SuperclassChain chain} of <code>classC</code>, which are
+     * reflected once per class and shared with the other subclasses.
+     *
+     * <p/>
+     * If the <code>classA</code> is an interface, the superinterfaces
+     * of the {@link SupertypeGraph graph} of <code>classC</code> which
+     * extend the <code>classA</code> are then resolved the same way,
+     * each one through the edge it was first reached through.
+     *
+     * @param classA The upper class in the hierarchy class
+     * @param classC The lower class in the hierarchy class
+     *
+     * @throws NullPointerException                If any argument is
+     *                                             <code>null</code>
+     * @throws GenericSignatureFormatError         If the generic signature
+     *         of this generic declaration does not conform to the format
+     *         specified in the Java Virtual Machine Specification, 3rd edition
+     * @throws TypeNotPresentException             If the generic supertypes
+     *         or any of their actual type arguments refer to a non-existent
+     *         type declaration
+     * @throws MalformedParameterizedTypeException if the generic supertypes
+     *         or any of their actual type parameters refer to a parameterized
+     *         type that cannot be instantiated for any reason
+     */
+    ResolutionContext(Class<?> classA, Class<?> classC) {
+        lowerDepth = ClassSignature.of(classC).depth;
+        SupertypeGraph graph = null;
+        int length;
+        int[] selected = null;
+        if (!classA.isInterface()) {
+            length = lowerDepth - ClassSignature.of(classA).depth;
+        } else {
+            length = 0;
+            for (Class<?> type = classC.getSuperclass();
+                    type != null && classA.isAssignableFrom(type); type = type.getSuperclass()) {
+                length++;
+            }
+            graph = SupertypeGraph.of(classC);
+            selected = new int[graph.interfaces.length];
+            int count = 0;
+            for (int k = 0; k < graph.interfaces.length; k++) {
+                if (classA.isAssignableFrom(graph.interfaces[k])) selected[count++] = k;
+            }
+            selected = Arrays.copyOf(selected, count);
+        }
+        int total = length + (selected != null ? selected.length : 0);
+        classes = new Class<?>[total];
+        superclasses = length;
+        offsets = new int[total + 1];
+        SuperclassChain chain = SuperclassChain.of(classC);
+        for (int i = 0; i < total; i++) {
+            if (i < length) chain = chain.superclass;
+            classes[i] = i < length ? chain.type : graph.interfaces[selected[i - length]];
+            offsets[i + 1] = offsets[i] + ClassSignature.of(classes[i]).typeParameters.length;
+        }
+        variables = new TypeVariable<?>[offsets[total]];
+        values = new TypeNode[offsets[total]];
+
+        int size = 0;
+        chain = SuperclassChain.of(classC);
+        for (int i = 0; i < length; i++) {
+            TypeVariable<?>[] theoretical = ClassSignature.of(classes[i]).typeParameters;
+            System.arraycopy(theoretical, 0, variables, offsets[i], theoretical.length);
+            TypeNode[] actual = chain.arguments;
+            chain = chain.superclass;
+            if (actual == null) continue;
+            for (int j = 0; j < theoretical.length; j++) {
+                TypeNode processed = resolve(actual[j]);
+                values[offsets[i] + j] = processed != null ? processed : actual[j];
+                size++;
+            }
+        }
+        for (int i = length; i < total; i++) {
+            TypeVariable<?>[] theoretical = ClassSignature.of(classes[i]).typeParameters;
+            System.arraycopy(theoretical, 0, variables, offsets[i], theoretical.length);
+            TypeNode[] actual = graph.arguments[selected[i - length]];
+            if (actual == null) continue;
+            for (int j = 0; j < theoretical.length; j++) {
+                TypeNode processed = resolve(actual[j]);
+                values[offsets[i] + j] = processed != null ? processed : actual[j];
+                size++;
+            }
+        }
+        this.size = size;
+    }
+
+    /**
+     * Creates the context of generic parameters of the <code>classA</code>
+     * in context of <code>classC</code> from the bindings precomputed
+     * at compile time, which should {@link PrecomputedTable#covers(
+     * java.lang.Class, java.lang.Class) cover} the <code>classA</code>.
+     *
+     * @param classA The upper class in the hierarchy class
+     * @param classC The lower class in the hierarchy class
+     * @param table  The table of the <code>classC</code>
+     *
+     * @throws NullPointerException                If any argument is
+     *                                             <code>null</code>
+     * @throws GenericSignatureFormatError         If the generic signature
+     *         of this generic declaration does not conform to the format
+     *         specified in the Java Virtual Machine Specification, 3rd edition
+     * @throws TypeNotPresentException             If the generic superclass
+     *         or any of its actual type arguments refers to a non-existent
+     *         type declaration
+     * @throws MalformedParameterizedTypeException if the generic superclass
+     *         or any of its actual type parameters refers to a parameterized
+     *         type that cannot be instantiated for any reason
+     */
+    ResolutionContext(Class<?> classA, Class<?> classC, PrecomputedTable table) {
+        lowerDepth = ClassSignature.of(classC).depth;
+        int length = table.length(classA);
+        classes = new Class<?>[length];
+        superclasses = length;
+        offsets = new int[length + 1];
+        Class<?> classB = classC;
+        for (int i = 0; i < length; i++) {
+            classB = classB.getSuperclass();
+            classes[i] = classB;
+            offsets[i + 1] = offsets[i] + ClassSignature.of(classB).typeParameters.length;
+        }
+        variables = new TypeVariable<?>[offsets[length]];
+        values = new TypeNode[offsets[length]];
+
+        int size = 0;
+        for (int i = 0; i < length; i++) {
+            TypeVariable<?>[] theoretical = ClassSignature.of(classes[i]).typeParameters;
+            System.arraycopy(theoretical, 0, variables, offsets[i], theoretical.length);
+            for (int j = 0; j < theoretical.length; j++) {
+                Type actual = table.resolve(i, j, classC);
+                if (actual == null) continue;
+                values[offsets[i] + j] = TypeNode.of(actual);
+                size++;
+            }
+        }
+        this.size = size;
+    }
+
+    /**
+     * Returns the actual type of the passed type variable.
+     *
+     * @param variable The type variable
+     *
+     * @return The actual type, or <code>null</code> if the type variable
+     *         is not declared by the classes of the context or its
+     *         declaring class is extended as a raw type
+     *
+     * @throws NullPointerException If the argument is <code>null</code>
+     */
+    public Type resolve(TypeVariable<?> variable) {
+        GenericDeclaration declaration = variable.getGenericDeclaration();
+        if (!(declaration instanceof Class)) return null;
+        Class<?> type = (Class<?>) declaration;
+        int index = indexOf(type, type.isInterface() ? -1 : ClassSignature.of(type).depth);
+        if (index < 0) return null;
+        String name = variable.getName();
+        for (int i = offsets[index]; i < offsets[index + 1]; i++) {
+            if (variables[i].getName().equals(name))
+                return values[i] != null ? values[i].type : null;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the node of actual type of the passed node.
+     *
+     * @param node The node
+     *
+     * @return The node of actual type, or <code>null</code> if the node
+     *         is not a type variable declared by the classes of the context
+     *         or its declaring class is extended as a raw type
+     *
+     * @throws NullPointerException If the argument is <code>null</code>
+     */
+    TypeNode resolve(TypeNode node) {
+        if (node.position < 0) return null;
+        int index = indexOf((Class<?>) node.declaration, node.depth);
+        if (index < 0) return null;
+        return values[offsets[index] + node.position];
+    }
+
+    /**
+     * Returns the index of the passed class in the <code>classes</code>
+     * array.
+     *
+     * @param type  The class
+     * @param depth The depth of the class, <code>-1</code> if the class
+     *              is an interface
+     *
+     * @return The index, <code>-1</code> if the class is not
+     *         in the context
+     */
+    private int indexOf(Class<?> type, int depth) {
+        if (depth >= 0) {
+            int index = lowerDepth - depth - 1;
+            return index >= 0 && index < superclasses && classes[index] == type ? index : -1;
+        }
+        for (int i = superclasses; i < classes.length; i++) {
+            if (classes[i] == type) return i;
+        }
+        return -1;
+    }
+
+    @Override
+    public Type get(Object key) {
+        return key instanceof TypeVariable ? resolve((TypeVariable<?>) key) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Set<Entry<Type, Type>> entrySet() {
+        Set<Entry<Type, Type>> entrySet = this.entrySet;
+        if (entrySet == null) this.entrySet = entrySet = new EntrySet();
+        return entrySet;
+    }
+
+    /**
+     * The entry set view of the context.
+     */
+    private final class EntrySet extends AbstractSet<Entry<Type, Type>> {
+
+        @Override
+        public Iterator<Entry<Type, Type>> iterator() {
+            return new Iterator<Entry<Type, Type>>() {
+
+                private int next = advance(0);
+
+                private int advance(int index) {
+                    while (index < values.length && values[index] == null) index++;
+                    return index;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return next < values.length;
+                }
+
+                @Override
+                public Entry<Type, Type> next() {
+                    if (next >= values.length) throw new NoSuchElementException();
+                    Entry<Type, Type> entry = new SimpleImmutableEntry<Type, Type>(
+                            variables[next], values[next].type);
+                    next = advance(next + 1);
+                    return entry;
+                }
+
+                @Override
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect;
+
+/**
+ * The bridge to the Java Flight Recorder events of the generic
+ * resolution.
+ *
+ * <p/>
+ * The Java Flight Recorder API is not available on Java 8, so this
+ * version does nothing. The version in <code>META-INF/versions/11</code>
+ * of the multi-release jar replaces it on Java 11 and later.
+ *
+ * @author Alexander Vasilevsky
+ */
+final class ResolutionEvents {
+
+    /**
+     * The private constructor.
+     */
+    private ResolutionEvents() {
+    }
+
+    /**
+     * Installs the listener which emits the events while a recording
+     * is running. Does nothing on Java 8.
+     */
+    static void install() {
+    }
+}
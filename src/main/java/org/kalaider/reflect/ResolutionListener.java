@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect;
+
+import java.lang.reflect.Method;
+
+/**
+ * The listener of the events of the generic resolution performed
+ * by {@link ReflectionUtilities}.
+ *
+ * <p/>
+ * The listener is installed by the {@link ReflectionUtilities#setListener(
+ * org.kalaider.reflect.ResolutionListener) setListener()} method and is
+ * notified synchronously by the calling threads, so the implementations
+ * should be thread-safe and cheap.
+ *
+ * @author Alexander Vasilevsky
+ *
+ * @see ResolutionStatistics
+ */
+public interface ResolutionListener {
+
+    /**
+     * Called when the {@link ReflectionUtilities#isOverridden(
+     * java.lang.reflect.Method, java.lang.reflect.Method) isOverridden()}
+     * method returns.
+     *
+     * @param methodA      The first method
+     * @param methodB      The second method
+     * @param overridden   The result
+     * @param compareDepth The deepest recursion of the comparison of types,
+     *                     <code>0</code> if no types were compared
+     * @param nanos        The time spent, in nanoseconds
+     */
+    void isOverriddenCalled(Method methodA, Method methodB, boolean overridden,
+                            int compareDepth, long nanos);
+
+    /**
+     * Called when the {@link ReflectionUtilities#resolveParameters(
+     * java.lang.Class, java.lang.Class) resolveParameters()} or
+     * {@link ReflectionUtilities#resolveContext(java.lang.Class,
+     * java.lang.Class) resolveContext()} method returns.
+     *
+     * @param classA The upper class in the hierarchy class
+     * @param classC The lower class in the hierarchy class
+     * @param nanos  The time spent, in nanoseconds
+     */
+    void resolveParametersCalled(Class<?> classA, Class<?> classC, long nanos);
+
+    /**
+     * Called when the cache of the contexts of generic parameters
+     * is looked up.
+     *
+     * @param classA The upper class in the hierarchy class
+     * @param classC The lower class in the hierarchy class
+     * @param hit    Whether the context is found in the cache
+     */
+    void contextLookedUp(Class<?> classA, Class<?> classC, boolean hit);
+
+    /**
+     * Called when the context of generic parameters is resolved.
+     *
+     * @param classA The upper class in the hierarchy class
+     * @param classC The lower class in the hierarchy class
+     * @param depth  The length of the shortest path of supertypes
+     *               between the classes
+     * @param nanos  The time spent, in nanoseconds
+     */
+    void contextResolved(Class<?> classA, Class<?> classC, int depth, long nanos);
+}
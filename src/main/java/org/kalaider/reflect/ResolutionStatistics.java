@@ -0,0 +1,254 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongBinaryOperator;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * The default {@link ResolutionListener} which collects the statistics
+ * of the generic resolution.
+ *
+ * <p/>
+ * The counters are {@link LongAdder striped}, so the concurrent updates
+ * are lock-free and do not contend; the latencies are collected
+ * in {@link LatencyHistogram histograms}. The statistics may be
+ * {@link #register() registered} as an MBean.
+ *
+ * <blockquote><code><pre>
+ * ResolutionStatistics statistics = new ResolutionStatistics();
+ * ReflectionUtilities.setListener(statistics);
+ * statistics.register();
+ * </pre></code></blockquote>
+ *
+ * @author Alexander Vasilevsky
+ *
+ * @see ReflectionUtilities#STATISTICS_PROPERTY
+ */
+public class ResolutionStatistics implements ResolutionListener, ResolutionStatisticsMBean {
+
+    /**
+     * The name of the MBean.
+     */
+    public static final String OBJECT_NAME = "org.kalaider.reflect:type=ResolutionStatistics";
+
+    private static final LongBinaryOperator MAX = new LongBinaryOperator() {
+        @Override
+        public long applyAsLong(long left, long right) {
+            return Math.max(left, right);
+        }
+    };
+
+    private final LongAdder contextHits = new LongAdder();
+    private final LongAdder contextMisses = new LongAdder();
+    private final LongAdder resolveDepth = new LongAdder();
+    private final LongAccumulator maxResolveDepth = new LongAccumulator(MAX, 0);
+    private final LongAdder compareDepth = new LongAdder();
+    private final LongAccumulator maxCompareDepth = new LongAccumulator(MAX, 0);
+    private final LatencyHistogram isOverriddenLatency = new LatencyHistogram();
+    private final LatencyHistogram resolveParametersLatency = new LatencyHistogram();
+    private final LatencyHistogram contextResolvedLatency = new LatencyHistogram();
+
+    /**
+     * Creates the empty statistics.
+     */
+    public ResolutionStatistics() {
+    }
+
+    @Override
+    public void isOverriddenCalled(Method methodA, Method methodB, boolean overridden,
+                                   int compareDepth, long nanos) {
+        this.compareDepth.add(compareDepth);
+        maxCompareDepth.accumulate(compareDepth);
+        isOverriddenLatency.record(nanos);
+    }
+
+    @Override
+    public void resolveParametersCalled(Class<?> classA, Class<?> classC, long nanos) {
+        resolveParametersLatency.record(nanos);
+    }
+
+    @Override
+    public void contextLookedUp(Class<?> classA, Class<?> classC, boolean hit) {
+        (hit ? contextHits : contextMisses).increment();
+    }
+
+    @Override
+    public void contextResolved(Class<?> classA, Class<?> classC, int depth, long nanos) {
+        resolveDepth.add(depth);
+        maxResolveDepth.accumulate(depth);
+        contextResolvedLatency.record(nanos);
+    }
+
+    /**
+     * Returns the histogram of latency of the <code>isOverridden</code>
+     * method.
+     *
+     * @return The histogram
+     */
+    public LatencyHistogram getIsOverriddenLatency() {
+        return isOverriddenLatency;
+    }
+
+    /**
+     * Returns the histogram of latency of the <code>resolveParameters</code>
+     * and <code>resolveContext</code> methods.
+     *
+     * @return The histogram
+     */
+    public LatencyHistogram getResolveParametersLatency() {
+        return resolveParametersLatency;
+    }
+
+    /**
+     * Returns the histogram of latency of resolution of the contexts.
+     *
+     * @return The histogram
+     */
+    public LatencyHistogram getContextResolvedLatency() {
+        return contextResolvedLatency;
+    }
+
+    @Override
+    public long getIsOverriddenCount() {
+        return isOverriddenLatency.getCount();
+    }
+
+    @Override
+    public long getResolveParametersCount() {
+        return resolveParametersLatency.getCount();
+    }
+
+    @Override
+    public long getContextHitCount() {
+        return contextHits.sum();
+    }
+
+    @Override
+    public long getContextMissCount() {
+        return contextMisses.sum();
+    }
+
+    @Override
+    public double getContextHitRatio() {
+        long hits = contextHits.sum();
+        long total = hits + contextMisses.sum();
+        return total != 0 ? (double) hits / total : 0;
+    }
+
+    @Override
+    public long getContextResolvedCount() {
+        return contextResolvedLatency.getCount();
+    }
+
+    @Override
+    public double getMeanResolveDepth() {
+        long count = getContextResolvedCount();
+        return count != 0 ? (double) resolveDepth.sum() / count : 0;
+    }
+
+    @Override
+    public long getMaxResolveDepth() {
+        return maxResolveDepth.get();
+    }
+
+    @Override
+    public double getMeanCompareDepth() {
+        long count = getIsOverriddenCount();
+        return count != 0 ? (double) compareDepth.sum() / count : 0;
+    }
+
+    @Override
+    public long getMaxCompareDepth() {
+        return maxCompareDepth.get();
+    }
+
+    @Override
+    public double getIsOverriddenMeanLatency() {
+        return isOverriddenLatency.getMean();
+    }
+
+    @Override
+    public long getIsOverriddenMedianLatency() {
+        return isOverriddenLatency.getPercentile(50);
+    }
+
+    @Override
+    public long getIsOverridden99thLatency() {
+        return isOverriddenLatency.getPercentile(99);
+    }
+
+    @Override
+    public double getResolveParametersMeanLatency() {
+        return resolveParametersLatency.getMean();
+    }
+
+    @Override
+    public long getResolveParameters99thLatency() {
+        return resolveParametersLatency.getPercentile(99);
+    }
+
+    @Override
+    public double getContextResolvedMeanLatency() {
+        return contextResolvedLatency.getMean();
+    }
+
+    @Override
+    public void reset() {
+        contextHits.reset();
+        contextMisses.reset();
+        resolveDepth.reset();
+        maxResolveDepth.reset();
+        compareDepth.reset();
+        maxCompareDepth.reset();
+        isOverriddenLatency.reset();
+        resolveParametersLatency.reset();
+        contextResolvedLatency.reset();
+    }
+
+    /**
+     * Registers the statistics in the platform MBean server
+     * as the {@link #OBJECT_NAME} MBean.
+     *
+     * @return The name of the MBean
+     *
+     * @throws JMException If the MBean cannot be registered, e.g.
+     *                     another one is already registered
+     */
+    public ObjectName register() throws JMException {
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+        return name;
+    }
+
+    /**
+     * Unregisters the {@link #OBJECT_NAME} MBean from the platform
+     * MBean server.
+     *
+     * @throws JMException If the MBean cannot be unregistered
+     */
+    public void unregister() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        server.unregisterMBean(new ObjectName(OBJECT_NAME));
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect;
+
+/**
+ * The management interface of the {@link ResolutionStatistics}.
+ *
+ * @author Alexander Vasilevsky
+ */
+public interface ResolutionStatisticsMBean {
+
+    /**
+     * Returns the number of calls of the <code>isOverridden</code> method.
+     *
+     * @return The number of calls
+     */
+    long getIsOverriddenCount();
+
+    /**
+     * Returns the number of calls of the <code>resolveParameters</code>
+     * and <code>resolveContext</code> methods.
+     *
+     * @return The number of calls
+     */
+    long getResolveParametersCount();
+
+    /**
+     * Returns the number of contexts found in the cache.
+     *
+     * @return The number of cache hits
+     */
+    long getContextHitCount();
+
+    /**
+     * Returns the number of contexts not found in the cache.
+     *
+     * @return The number of cache misses
+     */
+    long getContextMissCount();
+
+    /**
+     * Returns the ratio of the contexts found in the cache.
+     *
+     * @return The ratio from <code>0</code> to <code>1</code>,
+     *         or <code>0</code> if the cache was not looked up
+     */
+    double getContextHitRatio();
+
+    /**
+     * Returns the number of contexts resolved.
+     *
+     * @return The number of contexts
+     */
+    long getContextResolvedCount();
+
+    /**
+     * Returns the mean number of supertypes walked to resolve a context.
+     *
+     * @return The mean depth
+     */
+    double getMeanResolveDepth();
+
+    /**
+     * Returns the maximum number of supertypes walked to resolve a context.
+     *
+     * @return The maximum depth
+     */
+    long getMaxResolveDepth();
+
+    /**
+     * Returns the mean deepest recursion of the comparison of types
+     * per call of the <code>isOverridden</code> method.
+     *
+     * @return The mean depth
+     */
+    double getMeanCompareDepth();
+
+    /**
+     * Returns the deepest recursion of the comparison of types.
+     *
+     * @return The maximum depth
+     */
+    long getMaxCompareDepth();
+
+    /**
+     * Returns the mean latency of the <code>isOverridden</code> method.
+     *
+     * @return The mean latency, in nanoseconds
+     */
+    double getIsOverriddenMeanLatency();
+
+    /**
+     * Returns the median latency of the <code>isOverridden</code> method,
+     * rounded up to a power of two.
+     *
+     * @return The median latency, in nanoseconds
+     */
+    long getIsOverriddenMedianLatency();
+
+    /**
+     * Returns the 99th percentile of latency of the <code>isOverridden</code>
+     * method, rounded up to a power of two.
+     *
+     * @return The 99th percentile of latency, in nanoseconds
+     */
+    long getIsOverridden99thLatency();
+
+    /**
+     * Returns the mean latency of the <code>resolveParameters</code>
+     * and <code>resolveContext</code> methods.
+     *
+     * @return The mean latency, in nanoseconds
+     */
+    double getResolveParametersMeanLatency();
+
+    /**
+     * Returns the 99th percentile of latency of the
+     * <code>resolveParameters</code> and <code>resolveContext</code>
+     * methods, rounded up to a power of two.
+     *
+     * @return The 99th percentile of latency, in nanoseconds
+     */
+    long getResolveParameters99thLatency();
+
+    /**
+     * Returns the mean latency of resolution of the contexts.
+     *
+     * @return The mean latency, in nanoseconds
+     */
+    double getContextResolvedMeanLatency();
+
+    /**
+     * Clears the statistics.
+     */
+    void reset();
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.Arrays;
+
+/**
+ * The immutable implementations of the generic types produced by the
+ * substitution of type variables.
+ *
+ * <p/>
+ * The types are equal to (and have the same hash codes as) the types
+ * of the same structure reflected by the virtual machine, so they may be
+ * mixed with the latter in the collections and comparisons.
+ *
+ * @author Alexander Vasilevsky
+ */
+final class ResolvedTypes {
+
+    /**
+     * The upper bounds of the unbounded wildcard.
+     */
+    private static final Type[] OBJECT_BOUNDS = { Object.class };
+
+    private ResolvedTypes() {
+    }
+
+    /**
+     * Returns the type name of the types separated by the delimiter.
+     */
+    private static String join(Type[] types, String delimiter) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < types.length; i++) {
+            if (i != 0) builder.append(delimiter);
+            builder.append(types[i].getTypeName());
+        }
+        return builder.toString();
+    }
+
+    /**
+     * The parameterized type with the substituted actual type arguments.
+     */
+    static final class Parameterized implements ParameterizedType {
+
+        private final Class<?> rawType;
+        private final Type ownerType;
+        private final Type[] actualTypeArguments;
+
+        /**
+         * Creates the parameterized type.
+         *
+         * @param rawType             The raw type
+         * @param ownerType           The owner type, or <code>null</code>
+         * @param actualTypeArguments The actual type arguments, not copied
+         */
+        Parameterized(Class<?> rawType, Type ownerType, Type[] actualTypeArguments) {
+            this.rawType = rawType;
+            this.ownerType = ownerType;
+            this.actualTypeArguments = actualTypeArguments;
+        }
+
+        @Override
+        public Type[] getActualTypeArguments() {
+            return actualTypeArguments.clone();
+        }
+
+        @Override
+        public Type getRawType() {
+            return rawType;
+        }
+
+        @Override
+        public Type getOwnerType() {
+            return ownerType;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) return true;
+            if (!(obj instanceof ParameterizedType)) return false;
+            ParameterizedType other = (ParameterizedType) obj;
+            return rawType.equals(other.getRawType())
+                    && (ownerType == null ? other.getOwnerType() == null : ownerType.equals(other.getOwnerType()))
+                    && Arrays.equals(actualTypeArguments, other.getActualTypeArguments());
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(actualTypeArguments)
+                    ^ (ownerType == null ? 0 : ownerType.hashCode()) ^ rawType.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder();
+            if (ownerType != null) {
+                builder.append(ownerType.getTypeName()).append('$').append(rawType.getSimpleName());
+            } else {
+                builder.append(rawType.getName());
+            }
+            if (actualTypeArguments.length != 0) {
+                builder.append('<').append(join(actualTypeArguments, ", ")).append('>');
+            }
+            return builder.toString();
+        }
+    }
+
+    /**
+     * The array type with the substituted generic component type.
+     */
+    static final class GenericArray implements GenericArrayType {
+
+        private final Type genericComponentType;
+
+        /**
+         * Creates the array type.
+         *
+         * @param genericComponentType The component type, which is not
+         *                             a {@link Class}
+         */
+        GenericArray(Type genericComponentType) {
+            this.genericComponentType = genericComponentType;
+        }
+
+        @Override
+        public Type getGenericComponentType() {
+            return genericComponentType;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj == this || obj instanceof GenericArrayType
+                    && genericComponentType.equals(((GenericArrayType) obj).getGenericComponentType());
+        }
+
+        @Override
+        public int hashCode() {
+            return genericComponentType.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return genericComponentType.getTypeName() + "[]";
+        }
+    }
+
+    /**
+     * The wildcard type with the substituted bounds.
+     */
+    static final class Wildcard implements WildcardType {
+
+        private final Type[] upperBounds;
+        private final Type[] lowerBounds;
+
+        /**
+         * Creates the wildcard type.
+         *
+         * @param upperBounds The upper bounds, not copied
+         * @param lowerBounds The lower bounds, not copied
+         */
+        Wildcard(Type[] upperBounds, Type[] lowerBounds) {
+            this.upperBounds = upperBounds.length != 0 ? upperBounds : OBJECT_BOUNDS;
+            this.lowerBounds = lowerBounds;
+        }
+
+        @Override
+        public Type[] getUpperBounds() {
+            return upperBounds.clone();
+        }
+
+        @Override
+        public Type[] getLowerBounds() {
+            return lowerBounds.clone();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) return true;
+            if (!(obj instanceof WildcardType)) return false;
+            WildcardType other = (WildcardType) obj;
+            return Arrays.equals(lowerBounds, other.getLowerBounds())
+                    && Arrays.equals(upperBounds, other.getUpperBounds());
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(lowerBounds) ^ Arrays.hashCode(upperBounds);
+        }
+
+        @Override
+        public String toString() {
+            if (lowerBounds.length != 0) return "? super " + join(lowerBounds, " & ");
+            if (upperBounds[0] == Object.class) return "?";
+            return "? extends " + join(upperBounds, " & ");
+        }
+    }
+}
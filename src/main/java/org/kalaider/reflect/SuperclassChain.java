@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect;
+
+import java.lang.reflect.GenericSignatureFormatError;
+import java.lang.reflect.MalformedParameterizedTypeException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+
+/**
+ * The chain of the superclasses of a class, along with the actual type
+ * arguments of each edge from a class to its direct superclass.
+ *
+ * <p/>
+ * The chain is a persistent linked list: each class keeps only its own
+ * edge and refers to the chain of its superclass, so the chains of the
+ * sibling classes share the whole upper part of the hierarchy and the
+ * memory grows with the number of edges rather than with the number of
+ * classes times the depth. The {@link ResolutionContext contexts} are
+ * composed from the edges of the chain, so resolving the context of a new
+ * lower class reflects only the edges not walked before.
+ *
+ * <p/>
+ * The chain is immutable and built once per class.
+ *
+ * @author Alexander Vasilevsky
+ */
+final class SuperclassChain {
+
+    /**
+     * The cache of chains.
+     */
+    private static final ClassValue<SuperclassChain> CHAINS = new ClassValue<SuperclassChain>() {
+        @Override
+        protected SuperclassChain computeValue(Class<?> type) {
+            return new SuperclassChain(type);
+        }
+    };
+
+    /**
+     * The class.
+     */
+    final Class<?> type;
+
+    /**
+     * The chain of the direct superclass, <code>null</code> if the class
+     * has no superclass.
+     */
+    final SuperclassChain superclass;
+
+    /**
+     * The nodes of actual type arguments of the direct superclass,
+     * <code>null</code> if the superclass is not a parameterized type.
+     * The array must not be modified.
+     */
+    final TypeNode[] arguments;
+
+    /**
+     * Creates the chain of the passed class.
+     *
+     * @param type The class
+     *
+     * @throws NullPointerException                If the argument is
+     *                                             <code>null</code>
+     * @throws GenericSignatureFormatError         If the generic signature
+     *         of this generic declaration does not conform to the format
+     *         specified in the Java Virtual Machine Specification, 3rd edition
+     * @throws TypeNotPresentException             If the generic superclass
+     *         or any of its actual type arguments refers to a non-existent
+     *         type declaration
+     * @throws MalformedParameterizedTypeException if the generic superclass
+     *         or any of its actual type parameters refers to a parameterized
+     *         type that cannot be instantiated for any reason
+     */
+    private SuperclassChain(Class<?> type) {
+        this.type = type;
+        Class<?> superclass = type.getSuperclass();
+        this.superclass = superclass == null ? null : of(superclass);
+        Type generic = type.getGenericSuperclass();
+        arguments = generic instanceof ParameterizedType
+                ? TypeNode.of(((ParameterizedType) generic).getActualTypeArguments())
+                : null;
+    }
+
+    /**
+     * Returns the chain of the passed class, taking it from the cache.
+     * The chain is structural and immutable, so it is cached even if the
+     * {@link ReflectionUtilities#DISABLE_CACHE_PROPERTY caching} of the
+     * results is disabled, and is shared with the subclasses.
+     *
+     * @param type The class
+     *
+     * @return The chain
+     *
+     * @throws NullPointerException                If the argument is
+     *                                             <code>null</code>
+     * @throws GenericSignatureFormatError         If the generic signature
+     *         of this generic declaration does not conform to the format
+     *         specified in the Java Virtual Machine Specification, 3rd edition
+     * @throws TypeNotPresentException             If the generic superclass
+     *         or any of its actual type arguments refers to a non-existent
+     *         type declaration
+     * @throws MalformedParameterizedTypeException if the generic superclass
+     *         or any of its actual type parameters refers to a parameterized
+     *         type that cannot be instantiated for any reason
+     */
+    static SuperclassChain of(Class<?> type) {
+        return CHAINS.get(type);
+    }
+}
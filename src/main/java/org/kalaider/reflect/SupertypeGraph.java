@@ -0,0 +1,184 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect;
+
+import java.lang.reflect.GenericSignatureFormatError;
+import java.lang.reflect.MalformedParameterizedTypeException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The graph of the supertypes of a class.
+ *
+ * <p/>
+ * The superclasses and superinterfaces of a class form a directed
+ * acyclic graph, in which an interface may be reached through several
+ * paths (the diamonds). The graph is walked once in breadth-first order
+ * and each superinterface is kept once, along with the actual type
+ * arguments of the first edge it was reached through. The type arguments
+ * of an interface are the same along any path, so each diamond is
+ * resolved once, and the edge always starts at a type walked before.
+ *
+ * <p/>
+ * The graph is immutable and built once per class.
+ *
+ * @author Alexander Vasilevsky
+ */
+final class SupertypeGraph {
+
+    /**
+     * The cache of graphs.
+     */
+    private static final ClassValue<SupertypeGraph> GRAPHS = new ClassValue<SupertypeGraph>() {
+        @Override
+        protected SupertypeGraph computeValue(Class<?> type) {
+            return new SupertypeGraph(type);
+        }
+    };
+
+    /**
+     * The superinterfaces of the class in breadth-first order.
+     * The array must not be modified.
+     */
+    final Class<?>[] interfaces;
+
+    /**
+     * The nodes of actual type arguments of <code>interfaces[i]</code>,
+     * <code>null</code> if the interface is implemented as a raw type.
+     * The arrays must not be modified.
+     */
+    final TypeNode[][] arguments;
+
+    /**
+     * The length of the shortest path from the class to
+     * <code>interfaces[i]</code>.
+     */
+    final int[] levels;
+
+    /**
+     * Walks the supertypes of the passed class.
+     *
+     * @param type The class
+     *
+     * @throws NullPointerException                If the argument is
+     *                                             <code>null</code>
+     * @throws GenericSignatureFormatError         If the generic signature
+     *         of this generic declaration does not conform to the format
+     *         specified in the Java Virtual Machine Specification, 3rd edition
+     * @throws TypeNotPresentException             If any of the generic
+     *         superinterfaces refers to a non-existent type declaration
+     * @throws MalformedParameterizedTypeException If any of the generic
+     *         superinterfaces refers to a parameterized type that cannot
+     *         be instantiated for any reason
+     */
+    private SupertypeGraph(Class<?> type) {
+        List<Class<?>> walked = new ArrayList<Class<?>>();
+        List<Integer> walkedLevels = new ArrayList<Integer>();
+        List<Class<?>> interfaces = new ArrayList<Class<?>>();
+        List<TypeNode[]> arguments = new ArrayList<TypeNode[]>();
+        List<Integer> levels = new ArrayList<Integer>();
+        Set<Class<?>> visited = new HashSet<Class<?>>();
+        walked.add(type);
+        walkedLevels.add(0);
+        for (int i = 0; i < walked.size(); i++) {
+            Class<?> subtype = walked.get(i);
+            int level = walkedLevels.get(i) + 1;
+            Class<?> superclass = subtype.getSuperclass();
+            if (superclass != null && visited.add(superclass)) {
+                walked.add(superclass);
+                walkedLevels.add(level);
+            }
+            Class<?>[] raw = subtype.getInterfaces();
+            Type[] generic = subtype.getGenericInterfaces();
+            for (int j = 0; j < raw.length; j++) {
+                if (!visited.add(raw[j])) continue;
+                walked.add(raw[j]);
+                walkedLevels.add(level);
+                interfaces.add(raw[j]);
+                arguments.add(generic[j] instanceof ParameterizedType
+                        ? TypeNode.of(((ParameterizedType) generic[j]).getActualTypeArguments())
+                        : null);
+                levels.add(level);
+            }
+        }
+        this.interfaces = interfaces.toArray(new Class<?>[interfaces.size()]);
+        this.arguments = arguments.toArray(new TypeNode[arguments.size()][]);
+        this.levels = new int[levels.size()];
+        for (int i = 0; i < this.levels.length; i++) this.levels[i] = levels.get(i);
+    }
+
+    /**
+     * Returns the graph of the passed class, taking it from the cache.
+     * The graph is structural and immutable, so it is cached even if the
+     * {@link ReflectionUtilities#DISABLE_CACHE_PROPERTY caching} of the
+     * results is disabled.
+     *
+     * @param type The class
+     *
+     * @return The graph
+     *
+     * @throws NullPointerException                If the argument is
+     *                                             <code>null</code>
+     * @throws GenericSignatureFormatError         If the generic signature
+     *         of this generic declaration does not conform to the format
+     *         specified in the Java Virtual Machine Specification, 3rd edition
+     * @throws TypeNotPresentException             If any of the generic
+     *         superinterfaces refers to a non-existent type declaration
+     * @throws MalformedParameterizedTypeException If any of the generic
+     *         superinterfaces refers to a parameterized type that cannot
+     *         be instantiated for any reason
+     */
+    static SupertypeGraph of(Class<?> type) {
+        return GRAPHS.get(type);
+    }
+
+    /**
+     * Returns the length of the shortest path of supertypes from
+     * the <code>classC</code> to the <code>classA</code>.
+     *
+     * @param classA The upper class in the hierarchy class
+     * @param classC The lower class in the hierarchy class
+     *
+     * @return The length of the path, <code>0</code> if the classes
+     *         are the same or the <code>classA</code> is not a supertype
+     *         of the <code>classC</code>
+     *
+     * @throws NullPointerException                If any argument is
+     *                                             <code>null</code>
+     * @throws GenericSignatureFormatError         If the generic signature
+     *         of this generic declaration does not conform to the format
+     *         specified in the Java Virtual Machine Specification, 3rd edition
+     * @throws TypeNotPresentException             If any of the generic
+     *         supertypes refers to a non-existent type declaration
+     * @throws MalformedParameterizedTypeException If any of the generic
+     *         supertypes refers to a parameterized type that cannot
+     *         be instantiated for any reason
+     */
+    static int distance(Class<?> classA, Class<?> classC) {
+        if (!classA.isInterface())
+            return Math.max(ClassSignature.of(classC).depth - ClassSignature.of(classA).depth, 0);
+        SupertypeGraph graph = of(classC);
+        for (int i = 0; i < graph.interfaces.length; i++) {
+            if (graph.interfaces[i] == classA) return graph.levels[i];
+        }
+        return 0;
+    }
+}
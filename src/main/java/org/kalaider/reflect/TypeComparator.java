@@ -0,0 +1,435 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect;
+
+import java.lang.reflect.GenericSignatureFormatError;
+import java.lang.reflect.MalformedParameterizedTypeException;
+import java.util.Arrays;
+
+/**
+ * The engine comparing types in context of generic parameters.
+ *
+ * <p/>
+ * Checks if the first type is assignable from another:
+ *
+ * <ul>
+ *     <li>If context of generic parameters contains the
+ *         first type, its opponent from context map
+ *         will be compared with the other type</li>
+ *     <li>If both types are of {@link Class} type,
+ *         they will be tested on equality</li>
+ *     <li>If both types are of {@link java.lang.reflect.ParameterizedType}
+ *         its raw types will be tested for equality</li>
+ *     <li>If both types are of {@link java.lang.reflect.GenericArrayType}
+ *         its component types will be compared</li>
+ *     <li>If both types are of {@link java.lang.reflect.TypeVariable} type,
+ *         its bounds will be compared without order, i.e. each bound of
+ *         the first type should be equivalent to a bound of the second
+ *         one</li>
+ *     <li>In other cases, <code>false</code> will be returned. There is
+ *         no checking for {@link java.lang.reflect.WildcardType}: it may
+ *         be located only in parameterized types, but they are compared
+ *         by its raw types only</li>
+ * </ul>
+ *
+ * <p/>
+ * The comparison does not recurse: the pending pairs of types are kept
+ * in an explicit stack, so deep chains of bounds do not exhaust the
+ * thread stack. The results for the pairs of type variables, the only
+ * pairs which fan out, are memoized for the duration of a comparison,
+ * so each pair is evaluated once per context and the work is bounded
+ * by the number of distinct pairs. A pair met again while still being
+ * evaluated is assumed to be equivalent.
+ *
+ * <p/>
+ * The engine is not thread-safe. Each thread reuses its own engine,
+ * so the comparison does not allocate after the warm-up.
+ *
+ * @author Alexander Vasilevsky
+ */
+final class TypeComparator {
+
+    /**
+     * The engines of the threads.
+     */
+    private static final ThreadLocal<TypeComparator> COMPARATORS =
+            new ThreadLocal<TypeComparator>() {
+                @Override
+                protected TypeComparator initialValue() {
+                    return new TypeComparator();
+                }
+            };
+
+    /*
+     * The states of frames: the pair is not evaluated yet, the pair
+     * is equivalent to the pair of the next frame; the non-negative
+     * states are the indexes of bounds of the first type variable.
+     */
+    private static final int NEW = -1;
+    private static final int FORWARD = -2;
+
+    /*
+     * The memoized results.
+     */
+    private static final byte UNKNOWN = 0;
+    private static final byte IN_PROGRESS = 1;
+    private static final byte EQUIVALENT = 2;
+    private static final byte DIFFERENT = 3;
+
+    /**
+     * The first types of the frames.
+     */
+    private TypeNode[] typesA = new TypeNode[16];
+
+    /**
+     * The second types of the frames.
+     */
+    private TypeNode[] typesB = new TypeNode[16];
+
+    /**
+     * The states of the frames.
+     */
+    private int[] states = new int[16];
+
+    /**
+     * The indexes of bounds of the second type variable of the frames.
+     */
+    private int[] indexes = new int[16];
+
+    /**
+     * The number of frames.
+     */
+    private int top;
+
+    /**
+     * The first type variables of the memoized pairs,
+     * the open-addressing hash table.
+     */
+    private TypeNode[] memoA = new TypeNode[32];
+
+    /**
+     * The second type variables of the memoized pairs.
+     */
+    private TypeNode[] memoB = new TypeNode[32];
+
+    /**
+     * The memoized results.
+     */
+    private byte[] results = new byte[32];
+
+    /**
+     * The slots of the memoized pairs, in order of insertion.
+     */
+    private int[] slots = new int[16];
+
+    /**
+     * The number of memoized pairs.
+     */
+    private int size;
+
+    /**
+     * Whether the engine is in use.
+     */
+    private boolean busy;
+
+    /**
+     * The deepest frame reached by the last comparison.
+     */
+    int depth;
+
+    /**
+     * Creates the engine.
+     */
+    private TypeComparator() {
+    }
+
+    /**
+     * Returns the engine of the current thread, which should be
+     * {@link #release() released} after the comparison.
+     *
+     * @return The engine
+     */
+    static TypeComparator acquire() {
+        TypeComparator comparator = COMPARATORS.get();
+        if (comparator.busy) comparator = new TypeComparator();
+        comparator.busy = true;
+        return comparator;
+    }
+
+    /**
+     * Forgets the pairs memoized, so the engine does not keep the types
+     * reachable, and makes the engine available for the next comparison.
+     */
+    void release() {
+        while (top > 0) pop();
+        for (int i = 0; i < size; i++) {
+            memoA[slots[i]] = null;
+            memoB[slots[i]] = null;
+            results[slots[i]] = UNKNOWN;
+        }
+        size = 0;
+        busy = false;
+    }
+
+    /**
+     * Compares two arrays of types in context of generic parameters
+     * pairwise.
+     *
+     * @param typesA  The first array of types
+     * @param typesB  The second array of types
+     * @param context The context of generic parameters
+     *
+     * @return <code>true</code> two arrays are equivalent in the passed
+     *         context of generic parameters, <code>false</code> otherwise
+     *
+     * @throws NullPointerException           If one of the arguments
+     *                                        is <code>null</code>
+     * @throws ArrayIndexOutOfBoundsException If arrays differ in length
+     * @throws GenericSignatureFormatError         If the generic signature
+     *         of this generic declaration does not conform to the format
+     *         specified in the Java Virtual Machine Specification, 3rd edition
+     * @throws TypeNotPresentException             If any of the bounds
+     *         refers to a non-existent type declaration
+     * @throws MalformedParameterizedTypeException If any of the bounds
+     *         refers to a parameterized type that cannot be instantiated
+     *         for any reason
+     */
+    boolean compare(TypeNode[] typesA, TypeNode[] typesB, ResolutionContext context) {
+        depth = 0;
+        for (int i = 0; i < typesA.length; i++) {
+            if (!compare(typesA[i], typesB[i], context)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Compares two types in context of generic parameters.
+     *
+     * @param typeA   The first type
+     * @param typeB   The second type
+     * @param context The context of generic parameters
+     *
+     * @return <code>true</code> if types are equivalent in the passed context
+     *         of generic parameters, <code>false</code> otherwise
+     *
+     * @throws NullPointerException                If any argument is
+     *                                             <code>null</code>
+     * @throws GenericSignatureFormatError         If the generic signature
+     *         of this generic declaration does not conform to the format
+     *         specified in the Java Virtual Machine Specification, 3rd edition
+     * @throws TypeNotPresentException             If any of the bounds
+     *         refers to a non-existent type declaration
+     * @throws MalformedParameterizedTypeException If any of the bounds
+     *         refers to a parameterized type that cannot be instantiated
+     *         for any reason
+     */
+    private boolean compare(TypeNode typeA, TypeNode typeB, ResolutionContext context) {
+        boolean result = false;
+        push(typeA, typeB);
+        while (top > 0) {
+            int frame = top - 1;
+            TypeNode a = typesA[frame];
+            TypeNode b = typesB[frame];
+            int state = states[frame];
+            if (state == FORWARD) {
+                pop();
+                continue;
+            }
+            if (state == NEW) {
+                if (top > depth) depth = top;
+                TypeNode type = context.resolve(a);
+                if (type == b) {
+                    result = true;
+                    pop();
+                    continue;
+                }
+                if (type != null) {
+                    states[frame] = FORWARD;
+                    push(type, b);
+                    continue;
+                }
+                if (a.kind != b.kind) {
+                    result = false;
+                    pop();
+                    continue;
+                }
+                switch (a.kind) {
+                    case TypeNode.CLASS:
+                        result = a == b;
+                        pop();
+                        continue;
+                    case TypeNode.PARAMETERIZED:
+                        result = a.rawClass == b.rawClass;
+                        pop();
+                        continue;
+                    case TypeNode.ARRAY:
+                        states[frame] = FORWARD;
+                        push(a.component, b.component);
+                        continue;
+                    case TypeNode.VARIABLE:
+                        byte memoized = lookup(a, b);
+                        if (memoized != UNKNOWN) {
+                            result = memoized != DIFFERENT;
+                            pop();
+                            continue;
+                        }
+                        TypeNode[] boundsA = a.bounds();
+                        TypeNode[] boundsB = b.bounds();
+                        if (boundsA.length != boundsB.length || boundsA.length == 0) {
+                            result = boundsA.length == boundsB.length;
+                            store(a, b, result ? EQUIVALENT : DIFFERENT);
+                            pop();
+                            continue;
+                        }
+                        store(a, b, IN_PROGRESS);
+                        states[frame] = 0;
+                        indexes[frame] = 0;
+                        push(boundsA[0], boundsB[0]);
+                        continue;
+                    default:
+                        result = false;
+                        pop();
+                        continue;
+                }
+            }
+            // Returned from the pair of bounds (state; indexes[frame])
+            // of the type variables
+            TypeNode[] boundsA = a.bounds();
+            TypeNode[] boundsB = b.bounds();
+            int index = indexes[frame];
+            if (result) {
+                state++;
+                index = 0;
+                if (state == boundsA.length) {
+                    store(a, b, EQUIVALENT);
+                    pop();
+                    continue;
+                }
+            } else {
+                index++;
+                if (index == boundsB.length) {
+                    store(a, b, DIFFERENT);
+                    pop();
+                    continue;
+                }
+            }
+            states[frame] = state;
+            indexes[frame] = index;
+            push(boundsA[state], boundsB[index]);
+        }
+        return result;
+    }
+
+    /**
+     * Pushes the new frame of the pair of types.
+     *
+     * @param typeA The first type
+     * @param typeB The second type
+     */
+    private void push(TypeNode typeA, TypeNode typeB) {
+        if (top == typesA.length) {
+            int length = top * 2;
+            typesA = Arrays.copyOf(typesA, length);
+            typesB = Arrays.copyOf(typesB, length);
+            states = Arrays.copyOf(states, length);
+            indexes = Arrays.copyOf(indexes, length);
+        }
+        typesA[top] = typeA;
+        typesB[top] = typeB;
+        states[top] = NEW;
+        top++;
+    }
+
+    /**
+     * Pops the top frame.
+     */
+    private void pop() {
+        top--;
+        typesA[top] = null;
+        typesB[top] = null;
+    }
+
+    /**
+     * Returns the memoized result for the pair of type variables.
+     *
+     * @param typeA The first type variable
+     * @param typeB The second type variable
+     *
+     * @return The result, {@link #UNKNOWN} if the pair is not memoized
+     */
+    private byte lookup(TypeNode typeA, TypeNode typeB) {
+        int mask = memoA.length - 1;
+        for (int i = hash(typeA, typeB) & mask; memoA[i] != null; i = (i + 1) & mask) {
+            if (memoA[i] == typeA && memoB[i] == typeB) return results[i];
+        }
+        return UNKNOWN;
+    }
+
+    /**
+     * Memoizes the result for the pair of type variables.
+     *
+     * @param typeA  The first type variable
+     * @param typeB  The second type variable
+     * @param result The result
+     */
+    private void store(TypeNode typeA, TypeNode typeB, byte result) {
+        int mask = memoA.length - 1;
+        int i = hash(typeA, typeB) & mask;
+        for (; memoA[i] != null; i = (i + 1) & mask) {
+            if (memoA[i] == typeA && memoB[i] == typeB) {
+                results[i] = result;
+                return;
+            }
+        }
+        memoA[i] = typeA;
+        memoB[i] = typeB;
+        results[i] = result;
+        if (size == slots.length) slots = Arrays.copyOf(slots, size * 2);
+        slots[size++] = i;
+        if (size * 2 > memoA.length) grow();
+    }
+
+    /**
+     * Doubles the capacity of the memo table.
+     */
+    private void grow() {
+        TypeNode[] oldA = memoA;
+        TypeNode[] oldB = memoB;
+        byte[] oldResults = results;
+        memoA = new TypeNode[oldA.length * 2];
+        memoB = new TypeNode[oldA.length * 2];
+        results = new byte[oldA.length * 2];
+        int mask = memoA.length - 1;
+        for (int k = 0; k < size; k++) {
+            int slot = slots[k];
+            int i = hash(oldA[slot], oldB[slot]) & mask;
+            while (memoA[i] != null) i = (i + 1) & mask;
+            memoA[i] = oldA[slot];
+            memoB[i] = oldB[slot];
+            results[i] = oldResults[slot];
+            slots[k] = i;
+        }
+    }
+
+    /**
+     * Returns the hash of the pair of types.
+     */
+    private static int hash(TypeNode typeA, TypeNode typeB) {
+        long h = (typeA.hash * 31 + typeB.hash) * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
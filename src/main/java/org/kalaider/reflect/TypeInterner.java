@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+
+/**
+ * The pool of canonical {@link TypeNode type nodes}.
+ *
+ * <p/>
+ * The pool refers to the nodes weakly, so it does not prevent the nodes
+ * (and the classes they refer to) from being garbage collected; the nodes
+ * are retained by the descriptors which use them. The pool is split into
+ * independently locked segments selected by the hash of the node.
+ *
+ * @author Alexander Vasilevsky
+ */
+final class TypeInterner {
+
+    /**
+     * The number of segments, a power of two.
+     */
+    private static final int SEGMENTS = 32;
+
+    /**
+     * The segments of the pool.
+     */
+    private final Segment[] segments;
+
+    /**
+     * Creates the empty pool.
+     */
+    TypeInterner() {
+        segments = new Segment[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) segments[i] = new Segment();
+    }
+
+    /**
+     * Returns the canonical node equal to the passed one, putting the
+     * passed node to the pool if there is no such node yet.
+     *
+     * @param node The node
+     *
+     * @return The canonical node
+     *
+     * @throws NullPointerException If the argument is <code>null</code>
+     */
+    TypeNode intern(TypeNode node) {
+        return segments[(int) (node.hash >>> 32) & (SEGMENTS - 1)].intern(node);
+    }
+
+    /**
+     * The weak reference to a node in the pool.
+     */
+    private static final class NodeReference extends WeakReference<TypeNode> {
+
+        /**
+         * The hash of the node.
+         */
+        final long hash;
+
+        /**
+         * The next reference in the bucket.
+         */
+        NodeReference next;
+
+        NodeReference(TypeNode node, ReferenceQueue<TypeNode> queue, NodeReference next) {
+            super(node, queue);
+            this.hash = node.hash;
+            this.next = next;
+        }
+    }
+
+    /**
+     * The segment of the pool, the hash table of weak references.
+     */
+    private static final class Segment {
+
+        /**
+         * The queue of references to collected nodes.
+         */
+        private final ReferenceQueue<TypeNode> queue = new ReferenceQueue<TypeNode>();
+
+        /**
+         * The buckets, the length is a power of two.
+         */
+        private NodeReference[] table = new NodeReference[16];
+
+        /**
+         * The number of references in the table.
+         */
+        private int count;
+
+        synchronized TypeNode intern(TypeNode node) {
+            expunge();
+            int index = (int) node.hash & (table.length - 1);
+            for (NodeReference reference = table[index];
+                    reference != null; reference = reference.next) {
+                if (reference.hash != node.hash) continue;
+                TypeNode existing = reference.get();
+                if (existing != null && existing.shallowEquals(node)) return existing;
+            }
+            table[index] = new NodeReference(node, queue, table[index]);
+            if (++count > table.length * 3 / 4) resize();
+            return node;
+        }
+
+        /**
+         * Removes the references to the collected nodes.
+         */
+        private void expunge() {
+            for (Object cleared; (cleared = queue.poll()) != null; ) {
+                NodeReference reference = (NodeReference) cleared;
+                int index = (int) reference.hash & (table.length - 1);
+                NodeReference previous = null;
+                for (NodeReference current = table[index];
+                        current != null; current = current.next) {
+                    if (current == reference) {
+                        if (previous == null) table[index] = current.next;
+                        else previous.next = current.next;
+                        count--;
+                        break;
+                    }
+                    previous = current;
+                }
+            }
+        }
+
+        /**
+         * Doubles the number of buckets.
+         */
+        private void resize() {
+            NodeReference[] resized = new NodeReference[table.length * 2];
+            for (NodeReference reference : table) {
+                while (reference != null) {
+                    NodeReference next = reference.next;
+                    int index = (int) reference.hash & (resized.length - 1);
+                    reference.next = resized[index];
+                    resized[index] = reference;
+                    reference = next;
+                }
+            }
+            table = resized;
+        }
+    }
+}
@@ -0,0 +1,361 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.GenericDeclaration;
+import java.lang.reflect.GenericSignatureFormatError;
+import java.lang.reflect.MalformedParameterizedTypeException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+
+/**
+ * The canonical node of a reflected {@link Type}.
+ *
+ * <p/>
+ * The nodes are interned: there is at most one live node for each
+ * structurally distinct type, so the nodes are compared by reference
+ * and the children of a node are compared by reference when the node
+ * is interned. Each node carries a precomputed 64-bit structural hash.
+ *
+ * <p/>
+ * The bounds of type variables are resolved lazily, on the first
+ * request, which allows the recursive declarations like
+ * <code>T extends Comparable&lt;T&gt;</code>.
+ *
+ * @author Alexander Vasilevsky
+ */
+final class TypeNode {
+
+    /**
+     * The kind of nodes of {@link Class} types.
+     */
+    static final int CLASS = 0;
+
+    /**
+     * The kind of nodes of {@link ParameterizedType} types.
+     */
+    static final int PARAMETERIZED = 1;
+
+    /**
+     * The kind of nodes of {@link GenericArrayType} types.
+     */
+    static final int ARRAY = 2;
+
+    /**
+     * The kind of nodes of {@link TypeVariable} types.
+     */
+    static final int VARIABLE = 3;
+
+    /**
+     * The kind of nodes of {@link WildcardType} types.
+     */
+    static final int WILDCARD = 4;
+
+    /**
+     * The kind of nodes of unknown implementations of {@link Type}.
+     */
+    static final int OTHER = 5;
+
+    /**
+     * The empty array of nodes.
+     */
+    static final TypeNode[] NO_NODES = new TypeNode[0];
+
+    /**
+     * The pool of canonical nodes.
+     */
+    private static final TypeInterner INTERNER = new TypeInterner();
+
+    /**
+     * The kind of the node.
+     */
+    final int kind;
+
+    /**
+     * The 64-bit structural hash of the node.
+     */
+    final long hash;
+
+    /**
+     * The reflected type this node was created for.
+     */
+    final Type type;
+
+    /**
+     * The class ({@link #CLASS}) or the raw type ({@link #PARAMETERIZED}).
+     */
+    final Class<?> rawClass;
+
+    /**
+     * The owner type ({@link #PARAMETERIZED}), may be <code>null</code>.
+     */
+    final TypeNode owner;
+
+    /**
+     * The actual type arguments ({@link #PARAMETERIZED}),
+     * the upper bounds ({@link #WILDCARD}).
+     */
+    final TypeNode[] arguments;
+
+    /**
+     * The lower bounds ({@link #WILDCARD}).
+     */
+    final TypeNode[] lowerBounds;
+
+    /**
+     * The component type ({@link #ARRAY}).
+     */
+    final TypeNode component;
+
+    /**
+     * The generic declaration ({@link #VARIABLE}).
+     */
+    final GenericDeclaration declaration;
+
+    /**
+     * The name of the type variable ({@link #VARIABLE}).
+     */
+    final String name;
+
+    /**
+     * The number of superclasses of the declaring class
+     * ({@link #VARIABLE} declared by a class other than an interface),
+     * <code>-1</code> otherwise.
+     */
+    final int depth;
+
+    /**
+     * The position of the type variable in the type parameters of its
+     * declaring class ({@link #VARIABLE} declared by a class),
+     * <code>-1</code> otherwise.
+     */
+    final int position;
+
+    /**
+     * The lazily resolved bounds ({@link #VARIABLE}).
+     */
+    private volatile TypeNode[] bounds;
+
+    /**
+     * Creates the node.
+     */
+    private TypeNode(int kind, long hash, Type type, Class<?> rawClass,
+            TypeNode owner, TypeNode[] arguments, TypeNode[] lowerBounds,
+            TypeNode component, GenericDeclaration declaration, String name,
+            int depth, int position) {
+        this.kind = kind;
+        this.hash = hash;
+        this.type = type;
+        this.rawClass = rawClass;
+        this.owner = owner;
+        this.arguments = arguments;
+        this.lowerBounds = lowerBounds;
+        this.component = component;
+        this.declaration = declaration;
+        this.name = name;
+        this.depth = depth;
+        this.position = position;
+    }
+
+    /**
+     * Returns the canonical node of the passed type.
+     *
+     * @param type The type
+     *
+     * @return The canonical node, <code>null</code> if the type
+     *         is <code>null</code>
+     *
+     * @throws GenericSignatureFormatError         If the generic signature
+     *         of this generic declaration does not conform to the format
+     *         specified in the Java Virtual Machine Specification, 3rd edition
+     * @throws TypeNotPresentException             If the type refers
+     *         to a non-existent type declaration
+     * @throws MalformedParameterizedTypeException If the type refers
+     *         to a parameterized type that cannot be instantiated
+     *         for any reason
+     */
+    static TypeNode of(Type type) {
+        if (type == null) return null;
+        if (type instanceof Class) {
+            Class<?> rawClass = (Class<?>) type;
+            return INTERNER.intern(new TypeNode(CLASS,
+                    mix(CLASS, System.identityHashCode(rawClass)), type, rawClass,
+                    null, null, null, null, null, null, -1, -1));
+        }
+        if (type instanceof ParameterizedType) {
+            ParameterizedType parameterized = (ParameterizedType) type;
+            Class<?> rawClass = (Class<?>) parameterized.getRawType();
+            TypeNode owner = of(parameterized.getOwnerType());
+            TypeNode[] arguments = of(parameterized.getActualTypeArguments());
+            long hash = mix(PARAMETERIZED, System.identityHashCode(rawClass));
+            hash = mix(hash, owner != null ? owner.hash : 0);
+            hash = mix(hash, arguments);
+            return INTERNER.intern(new TypeNode(PARAMETERIZED, hash, type, rawClass,
+                    owner, arguments, null, null, null, null, -1, -1));
+        }
+        if (type instanceof GenericArrayType) {
+            TypeNode component = of(((GenericArrayType) type).getGenericComponentType());
+            return INTERNER.intern(new TypeNode(ARRAY, mix(ARRAY, component.hash), type,
+                    null, null, null, null, component, null, null, -1, -1));
+        }
+        if (type instanceof TypeVariable) {
+            TypeVariable<?> variable = (TypeVariable<?>) type;
+            GenericDeclaration declaration = variable.getGenericDeclaration();
+            String name = variable.getName();
+            int depth = -1;
+            int position = -1;
+            if (declaration instanceof Class) {
+                ClassSignature signature = ClassSignature.of((Class<?>) declaration);
+                if (!((Class<?>) declaration).isInterface()) depth = signature.depth;
+                for (int i = 0; i < signature.typeParameters.length; i++) {
+                    if (signature.typeParameters[i].getName().equals(name)) position = i;
+                }
+            }
+            long hash = mix(mix(VARIABLE, declaration instanceof Class
+                    ? System.identityHashCode(declaration) : declaration.hashCode()),
+                    name.hashCode());
+            return INTERNER.intern(new TypeNode(VARIABLE, hash, type, null,
+                    null, null, null, null, declaration, name, depth, position));
+        }
+        if (type instanceof WildcardType) {
+            WildcardType wildcard = (WildcardType) type;
+            TypeNode[] upperBounds = of(wildcard.getUpperBounds());
+            TypeNode[] lowerBounds = of(wildcard.getLowerBounds());
+            long hash = mix(mix(WILDCARD, upperBounds), lowerBounds);
+            return INTERNER.intern(new TypeNode(WILDCARD, hash, type, null,
+                    null, upperBounds, lowerBounds, null, null, null, -1, -1));
+        }
+        return INTERNER.intern(new TypeNode(OTHER, mix(OTHER, type.hashCode()), type,
+                null, null, null, null, null, null, null, -1, -1));
+    }
+
+    /**
+     * Returns the canonical nodes of the passed types.
+     *
+     * @param types The types
+     *
+     * @return The canonical nodes
+     *
+     * @throws NullPointerException                If the argument is
+     *                                             <code>null</code>
+     * @throws GenericSignatureFormatError         If the generic signature
+     *         of this generic declaration does not conform to the format
+     *         specified in the Java Virtual Machine Specification, 3rd edition
+     * @throws TypeNotPresentException             If any of the types
+     *         refers to a non-existent type declaration
+     * @throws MalformedParameterizedTypeException If any of the types
+     *         refers to a parameterized type that cannot be instantiated
+     *         for any reason
+     */
+    static TypeNode[] of(Type[] types) {
+        if (types.length == 0) return NO_NODES;
+        TypeNode[] nodes = new TypeNode[types.length];
+        for (int i = 0; i < types.length; i++) nodes[i] = of(types[i]);
+        return nodes;
+    }
+
+    /**
+     * Returns the bounds of the type variable ({@link #VARIABLE}),
+     * resolving them on the first request.
+     * The array returned must not be modified.
+     *
+     * @return The bounds
+     *
+     * @throws GenericSignatureFormatError         If the generic signature
+     *         of this generic declaration does not conform to the format
+     *         specified in the Java Virtual Machine Specification, 3rd edition
+     * @throws TypeNotPresentException             If any of the bounds
+     *         refers to a non-existent type declaration
+     * @throws MalformedParameterizedTypeException If any of the bounds
+     *         refers to a parameterized type that cannot be instantiated
+     *         for any reason
+     */
+    TypeNode[] bounds() {
+        TypeNode[] bounds = this.bounds;
+        if (bounds == null) {
+            bounds = of(((TypeVariable<?>) type).getBounds());
+            this.bounds = bounds;
+        }
+        return bounds;
+    }
+
+    /**
+     * Tests the node on equality with another one, given that the child
+     * nodes of both are canonical.
+     *
+     * @param node The other node
+     *
+     * @return <code>true</code> if the nodes represent the same type,
+     *         <code>false</code> otherwise
+     */
+    boolean shallowEquals(TypeNode node) {
+        if (kind != node.kind || hash != node.hash) return false;
+        switch (kind) {
+            case CLASS:
+                return rawClass == node.rawClass;
+            case PARAMETERIZED:
+                return rawClass == node.rawClass && owner == node.owner
+                        && same(arguments, node.arguments);
+            case ARRAY:
+                return component == node.component;
+            case VARIABLE:
+                return declaration.equals(node.declaration) && name.equals(node.name);
+            case WILDCARD:
+                return same(arguments, node.arguments) && same(lowerBounds, node.lowerBounds);
+            default:
+                return type.equals(node.type);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return type.toString();
+    }
+
+    /**
+     * Tests the arrays of canonical nodes on equality.
+     */
+    private static boolean same(TypeNode[] nodesA, TypeNode[] nodesB) {
+        if (nodesA.length != nodesB.length) return false;
+        for (int i = 0; i < nodesA.length; i++) {
+            if (nodesA[i] != nodesB[i]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Mixes the hash with the hashes of the passed nodes.
+     */
+    private static long mix(long hash, TypeNode[] nodes) {
+        hash = mix(hash, nodes.length);
+        for (TypeNode node : nodes) hash = mix(hash, node.hash);
+        return hash;
+    }
+
+    /**
+     * Mixes the hash with the passed value.
+     */
+    private static long mix(long hash, long value) {
+        long h = (hash * 0x100000001B3L + value) * 0x9E3779B97F4A7C15L;
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect.classfile;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The parser of the class file format, as specified in the chapter 4
+ * of the Java Virtual Machine Specification.
+ *
+ * <p/>
+ * Reads only the names, access flags and signatures of the class and
+ * its methods; the fields, the code and the other attributes are skipped.
+ * The strings of the constant pool are decoded on demand.
+ *
+ * @author Alexander Vasilevsky
+ */
+final class ClassFileParser {
+
+    private static final int MAGIC = 0xCAFEBABE;
+    private static final String SIGNATURE = "Signature";
+
+    private final ByteBuffer buffer;
+    private int[] offsets;
+    private byte[] tags;
+    private String[] strings;
+
+    /**
+     * Creates the parser.
+     *
+     * @param buffer The content of the class file
+     */
+    ClassFileParser(ByteBuffer buffer) {
+        this.buffer = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Parses the class file.
+     *
+     * @param classPath The class path the class is read from
+     *
+     * @return The class
+     *
+     * @throws ClassFormatError If the class file is malformed
+     */
+    ClassInfo parse(ClassPath classPath) {
+        try {
+            return parse0(classPath);
+        } catch (BufferUnderflowException e) {
+            throw new ClassFormatError("Truncated class file");
+        } catch (IndexOutOfBoundsException e) {
+            throw new ClassFormatError("Malformed class file");
+        }
+    }
+
+    private ClassInfo parse0(ClassPath classPath) {
+        if (buffer.getInt() != MAGIC) throw new ClassFormatError("Incompatible magic value");
+        buffer.getInt(); // version
+        readConstantPool();
+
+        int access = u2();
+        String name = className(u2());
+        int superIndex = u2();
+        String superclassName = superIndex != 0 ? className(superIndex) : null;
+        String[] interfaceNames = new String[u2()];
+        for (int i = 0; i < interfaceNames.length; i++) interfaceNames[i] = className(u2());
+
+        for (int i = u2(); i > 0; i--) { // fields
+            buffer.position(buffer.position() + 6);
+            skipAttributes();
+        }
+
+        List<int[]> declarations = new ArrayList<int[]>();
+        List<String> signatures = new ArrayList<String>();
+        for (int i = u2(); i > 0; i--) {
+            int methodAccess = u2();
+            int nameIndex = u2();
+            int descriptorIndex = u2();
+            String signature = readAttributes();
+            String methodName = utf8(nameIndex);
+            if (methodName.equals("<init>") || methodName.equals("<clinit>")) continue;
+            declarations.add(new int[] { methodAccess, nameIndex, descriptorIndex });
+            signatures.add(signature);
+        }
+        String signature = readAttributes();
+
+        ClassInfo info = new ClassInfo(classPath, access, name, superclassName, interfaceNames, signature);
+        MethodInfo[] methods = new MethodInfo[declarations.size()];
+        for (int i = 0; i < methods.length; i++) {
+            int[] declaration = declarations.get(i);
+            methods[i] = new MethodInfo(info, declaration[0], utf8(declaration[1]),
+                    utf8(declaration[2]), signatures.get(i));
+        }
+        info.setMethods(methods);
+        return info;
+    }
+
+    private void readConstantPool() {
+        int count = u2();
+        offsets = new int[count];
+        tags = new byte[count];
+        strings = new String[count];
+        for (int i = 1; i < count; i++) {
+            byte tag = buffer.get();
+            tags[i] = tag;
+            offsets[i] = buffer.position();
+            int length;
+            switch (tag) {
+                case 1: // Utf8
+                    length = 2 + u2();
+                    buffer.position(buffer.position() - 2);
+                    break;
+                case 7: case 8: case 16: case 19: case 20: // Class, String, MethodType, Module, Package
+                    length = 2;
+                    break;
+                case 15: // MethodHandle
+                    length = 3;
+                    break;
+                case 3: case 4: case 9: case 10: case 11: case 12: case 17: case 18:
+                    length = 4;
+                    break;
+                case 5: case 6: // Long, Double take two entries
+                    length = 8;
+                    i++;
+                    break;
+                default:
+                    throw new ClassFormatError("Unknown constant pool tag " + tag);
+            }
+            buffer.position(buffer.position() + length);
+        }
+    }
+
+    private void skipAttributes() {
+        for (int i = u2(); i > 0; i--) {
+            buffer.getShort();
+            int length = buffer.getInt();
+            buffer.position(buffer.position() + length);
+        }
+    }
+
+    /**
+     * Reads the attributes, returning the value of the signature one.
+     *
+     * @return The signature, or <code>null</code> if there is no signature
+     */
+    private String readAttributes() {
+        String signature = null;
+        for (int i = u2(); i > 0; i--) {
+            int nameIndex = u2();
+            int length = buffer.getInt();
+            int end = buffer.position() + length;
+            if (SIGNATURE.equals(utf8(nameIndex))) signature = utf8(u2());
+            buffer.position(end);
+        }
+        return signature;
+    }
+
+    private int u2() {
+        return buffer.getShort() & 0xFFFF;
+    }
+
+    private String className(int index) {
+        if (tags[index] != 7) throw new ClassFormatError("Invalid class reference " + index);
+        return utf8(buffer.getShort(offsets[index]) & 0xFFFF).replace('/', '.');
+    }
+
+    /**
+     * Decodes the modified UTF-8 string of the constant pool.
+     *
+     * @param index The index of the string
+     *
+     * @return The string
+     */
+    private String utf8(int index) {
+        String string = strings[index];
+        if (string != null) return string;
+        if (tags[index] != 1) throw new ClassFormatError("Invalid string reference " + index);
+        int offset = offsets[index];
+        int length = buffer.getShort(offset) & 0xFFFF;
+        char[] chars = new char[length];
+        int count = 0;
+        for (int i = offset + 2, end = offset + 2 + length; i < end; ) {
+            int b = buffer.get(i++) & 0xFF;
+            if (b < 0x80) {
+                chars[count++] = (char) b;
+            } else if ((b & 0xE0) == 0xC0 && i < end) {
+                chars[count++] = (char) ((b & 0x1F) << 6 | buffer.get(i++) & 0x3F);
+            } else if ((b & 0xF0) == 0xE0 && i + 1 < end) {
+                chars[count++] = (char) ((b & 0x0F) << 12 | (buffer.get(i++) & 0x3F) << 6
+                        | buffer.get(i++) & 0x3F);
+            } else {
+                throw new ClassFormatError("Malformed string " + index);
+            }
+        }
+        string = new String(chars, 0, count);
+        strings[index] = string;
+        return string;
+    }
+}
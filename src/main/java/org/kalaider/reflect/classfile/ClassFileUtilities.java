@@ -0,0 +1,305 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect.classfile;
+
+import java.lang.reflect.GenericSignatureFormatError;
+import java.lang.reflect.MalformedParameterizedTypeException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.kalaider.reflect.ReflectionUtilities;
+
+/**
+ * Contains the counterparts of the {@link ReflectionUtilities} methods
+ * working on the classes read from class files, so the classes being
+ * analyzed are never loaded.
+ *
+ * <p/>
+ * The methods follow the same rules as their reflective counterparts
+ * and give the same answers for the same classes.
+ *
+ * @author Alexander Vasilevsky
+ */
+public final class ClassFileUtilities {
+
+    /**
+     * Whether the resolved generic parameters are cached.
+     */
+    private static final boolean CACHE_ENABLED =
+            !Boolean.getBoolean(ReflectionUtilities.DISABLE_CACHE_PROPERTY);
+
+    /*
+     * The kinds of the reflected types, see kind().
+     */
+    private static final int CLASS = 0;
+    private static final int PARAMETERIZED = 1;
+    private static final int ARRAY = 2;
+    private static final int VARIABLE = 3;
+    private static final int WILDCARD = 4;
+
+    /**
+     * The private constructor.
+     */
+    private ClassFileUtilities() {
+    }
+
+    /**
+     * Determines the <code>methodA</code> is overridden by the
+     * <code>methodB</code>.
+     *
+     * <p/>
+     * Works the same way as the {@link ReflectionUtilities#isOverridden(
+     * java.lang.reflect.Method, java.lang.reflect.Method) isOverridden()}
+     * method does.
+     *
+     * @param methodA The first method
+     * @param methodB The second method
+     *
+     * @return <code>true</code> if one method is overridden by another,
+     *         <code>false</code> otherwise
+     *
+     * @throws NullPointerException                If any argument is
+     *                                             <code>null</code>
+     * @throws GenericSignatureFormatError         If the generic signature
+     *         of any class or method involved does not conform to the format
+     *         specified in the Java Virtual Machine Specification
+     * @throws TypeNotPresentException             If any superclass of the
+     *         declaring class of <code>methodB</code> is not found
+     *         in the class path
+     * @throws MalformedParameterizedTypeException If any generic superclass
+     *         has the wrong number of type arguments
+     */
+    public static boolean isOverridden(MethodInfo methodA, MethodInfo methodB) {
+        ClassInfo declaringA = methodA.getDeclaringClass();
+        ClassInfo declaringB = methodB.getDeclaringClass();
+
+        if (!declaringA.isAssignableFrom(declaringB)) return false;
+        if (!methodB.getName().equals(methodA.getName())) return false;
+
+        TypeSignature[] typesA = methodA.parameterTypes();
+        TypeSignature[] typesB = methodB.parameterTypes();
+        if (typesA.length != typesB.length) return false;
+
+        Map<TypeSignature, TypeSignature> context = context(declaringA, declaringB);
+        for (int i = 0; i < typesA.length; i++) {
+            if (!compare(typesA[i], typesB[i], context)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Resolves generic type parameters of the <code>classA</code>
+     * in context of <code>classC</code>.
+     *
+     * <p/>
+     * Works the same way as the {@link ReflectionUtilities#resolveParameters(
+     * java.lang.Class, java.lang.Class) resolveParameters()} method does:
+     * the map returned contains the type parameters of the superclasses
+     * (and, if <code>classA</code> is an interface, of the superinterfaces)
+     * of <code>classC</code> up to <code>classA</code>, bound to their
+     * actual types.
+     *
+     * <p/>
+     * The map returned may be freely modified -- it is not backed by this
+     * method/class.
+     *
+     * @param classA The upper class in the hierarchy class
+     * @param classC The lower class in the hierarchy class
+     *
+     * @return A map that represents context of generic parameters
+     *
+     * @throws NullPointerException                If any argument is
+     *                                             <code>null</code>
+     * @throws IllegalArgumentException            If the second class passed
+     *         is not a subclass of the first one
+     * @throws GenericSignatureFormatError         If the generic signature
+     *         of any class involved does not conform to the format
+     *         specified in the Java Virtual Machine Specification
+     * @throws TypeNotPresentException             If any superclass of
+     *         <code>classC</code> is not found in the class path
+     * @throws MalformedParameterizedTypeException If any generic superclass
+     *         has the wrong number of type arguments
+     */
+    public static Map<TypeSignature, TypeSignature> resolveParameters(ClassInfo classA, ClassInfo classC) {
+        if (!classA.isAssignableFrom(classC))
+            throw new IllegalArgumentException(
+                    "The second class is not a subclass of the first.");
+        return new HashMap<TypeSignature, TypeSignature>(context(classA, classC));
+    }
+
+    /**
+     * Returns the context of generic parameters of the
+     * <code>classA</code> resolved in context of <code>classC</code>,
+     * taking it from the cache of <code>classC</code> if possible.
+     *
+     * @param classA The upper class in the hierarchy class
+     * @param classC The lower class in the hierarchy class
+     *
+     * @return The unmodifiable context of generic parameters
+     */
+    private static Map<TypeSignature, TypeSignature> context(ClassInfo classA, ClassInfo classC) {
+        if (!CACHE_ENABLED) return resolveParameters0(classA, classC);
+        Map<TypeSignature, TypeSignature> context = classC.contexts.get(classA.getName());
+        if (context != null) return context;
+        context = resolveParameters0(classA, classC);
+        Map<TypeSignature, TypeSignature> existing = classC.contexts.putIfAbsent(classA.getName(), context);
+        return existing != null ? existing : context;
+    }
+
+    private static Map<TypeSignature, TypeSignature> resolveParameters0(ClassInfo classA, ClassInfo classC) {
+        Map<TypeSignature, TypeSignature> context = new HashMap<TypeSignature, TypeSignature>();
+        ClassInfo classB = classC;
+        if (!classA.isInterface()) {
+            while (!classB.getName().equals(classA.getName()) && classB.getSuperclassName() != null) {
+                TypeSignature gs = classB.getGenericSuperclass();
+                classB = classB.getSuperclass();
+                bind(context, classB, gs);
+            }
+        } else {
+            while (classB.getSuperclassName() != null) {
+                TypeSignature gs = classB.getGenericSuperclass();
+                classB = classB.getSuperclass();
+                if (!classA.isAssignableFrom(classB)) break;
+                bind(context, classB, gs);
+            }
+            // The superinterfaces in breadth-first order, each one bound
+            // through the edge it is first reached through
+            List<ClassInfo> walked = new ArrayList<ClassInfo>();
+            Set<String> visited = new HashSet<String>();
+            walked.add(classC);
+            for (int i = 0; i < walked.size(); i++) {
+                ClassInfo type = walked.get(i);
+                if (type.getSuperclassName() != null && visited.add(type.getSuperclassName()))
+                    walked.add(type.getSuperclass());
+                List<String> names = type.getInterfaceNames();
+                List<TypeSignature> generic = type.getGenericInterfaces();
+                for (int j = 0; j < names.size(); j++) {
+                    if (!visited.add(names.get(j))) continue;
+                    ClassInfo superinterface = type.getClassPath().get(names.get(j));
+                    walked.add(superinterface);
+                    if (classA.isAssignableFrom(superinterface))
+                        bind(context, superinterface, generic.get(j));
+                }
+            }
+        }
+        return context.isEmpty()
+                ? Collections.<TypeSignature, TypeSignature>emptyMap()
+                : Collections.unmodifiableMap(context);
+    }
+
+    /**
+     * Binds the type parameters of the supertype to the actual type
+     * arguments of the generic supertype, resolving them in the context.
+     *
+     * @param context   The context of generic parameters
+     * @param supertype The supertype
+     * @param generic   The generic supertype
+     *
+     * @throws MalformedParameterizedTypeException If the generic supertype
+     *         has the wrong number of type arguments
+     */
+    private static void bind(Map<TypeSignature, TypeSignature> context,
+                             ClassInfo supertype, TypeSignature generic) {
+        TypeSignature[] actual = generic.arguments();
+        if (actual.length == 0) return;
+        TypeSignature[] theoretical = supertype.typeParameters();
+        if (actual.length != theoretical.length)
+            throw new MalformedParameterizedTypeException();
+        for (int j = 0; j < theoretical.length; j++) {
+            TypeSignature processed = context.get(actual[j]);
+            context.put(theoretical[j], processed != null ? processed : actual[j]);
+        }
+    }
+
+    /**
+     * Compares two types in the passed context of generic parameters
+     * by the rules of the reflective counterpart: the classes and arrays
+     * of classes are tested for equality, the parameterized types are
+     * compared by their raw types, the generic arrays by their components
+     * and the type variables by their bounds.
+     *
+     * @param typeA   The first type
+     * @param typeB   The second type
+     * @param context The context of generic parameters
+     *
+     * @return <code>true</code> if types are equivalent in the passed context
+     *         of generic parameters, <code>false</code> otherwise
+     */
+    private static boolean compare(TypeSignature typeA, TypeSignature typeB,
+                                   Map<TypeSignature, TypeSignature> context) {
+        TypeSignature type = context.get(typeA);
+        if (type != null) return type.equals(typeB) || compare(type, typeB, context);
+        int kind = kind(typeA);
+        if (kind != kind(typeB)) return false;
+        switch (kind) {
+            case CLASS:
+                return typeA.equals(typeB);
+            case PARAMETERIZED:
+                return typeA.getName().equals(typeB.getName());
+            case ARRAY:
+                return compare(typeA.getComponentType(), typeB.getComponentType(), context);
+            case VARIABLE:
+                return compareWithoutOrder(typeA.bounds(), typeB.bounds(), context);
+            default:
+                return false;
+        }
+    }
+
+    private static boolean compareWithoutOrder(TypeSignature[] typesA, TypeSignature[] typesB,
+                                               Map<TypeSignature, TypeSignature> context) {
+        if (typesA.length != typesB.length) return false;
+        for (TypeSignature type1 : typesA) {
+            boolean found = false;
+            for (TypeSignature type2 : typesB) {
+                if (compare(type1, type2, context)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the kind of the reflected type the passed type corresponds to:
+     * the primitive types, the non-parameterized class types and the arrays
+     * of them are {@link Class classes}.
+     *
+     * @param type The type
+     *
+     * @return The kind
+     */
+    private static int kind(TypeSignature type) {
+        switch (type.getKind()) {
+            case PRIMITIVE:
+                return CLASS;
+            case CLASS:
+                return type.isParameterized() ? PARAMETERIZED : CLASS;
+            case ARRAY:
+                return kind(type.getComponentType()) == CLASS ? CLASS : ARRAY;
+            case VARIABLE:
+                return VARIABLE;
+            default:
+                return WILDCARD;
+        }
+    }
+}
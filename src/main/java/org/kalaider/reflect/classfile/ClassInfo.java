@@ -0,0 +1,323 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect.classfile;
+
+import java.lang.reflect.GenericSignatureFormatError;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The class read from a class file.
+ *
+ * <p/>
+ * This is the class file counterpart of {@link Class}. The class is
+ * never loaded: its supertypes are looked up by name in the owning
+ * {@link ClassPath}, and its generic signature is parsed lazily,
+ * on the first request.
+ *
+ * @author Alexander Vasilevsky
+ */
+public final class ClassInfo {
+
+    /**
+     * The access flag of the interfaces.
+     */
+    private static final int INTERFACE = 0x0200;
+
+    private final ClassPath classPath;
+    private final int access;
+    private final String name;
+    private final String superclassName;
+    private final String[] interfaceNames;
+    private final String signature;
+    private MethodInfo[] methods;
+
+    private TypeSignature genericSuperclass;
+    private TypeSignature[] genericInterfaces;
+    private volatile TypeSignature[] typeParameters;
+
+    /**
+     * The contexts of generic parameters of the superclasses resolved
+     * against this class, keyed by the names of the superclasses.
+     */
+    final ConcurrentMap<String, Map<TypeSignature, TypeSignature>> contexts =
+            new ConcurrentHashMap<String, Map<TypeSignature, TypeSignature>>(4);
+
+    /**
+     * Creates the class. The methods should be assigned by the
+     * {@link #setMethods(org.kalaider.reflect.classfile.MethodInfo[])
+     * setMethods()} method.
+     *
+     * @param classPath      The owning class path
+     * @param access         The access flags
+     * @param name           The binary name
+     * @param superclassName The binary name of the superclass,
+     *                       or <code>null</code>
+     * @param interfaceNames The binary names of the direct superinterfaces
+     * @param signature      The generic signature, or <code>null</code>
+     */
+    ClassInfo(ClassPath classPath, int access, String name, String superclassName,
+              String[] interfaceNames, String signature) {
+        this.classPath = classPath;
+        this.access = access;
+        this.name = name;
+        this.superclassName = (access & INTERFACE) != 0 ? null : superclassName;
+        this.interfaceNames = interfaceNames;
+        this.signature = signature;
+    }
+
+    /**
+     * Assigns the methods declared by the class.
+     *
+     * @param methods The methods
+     */
+    void setMethods(MethodInfo[] methods) {
+        this.methods = methods;
+    }
+
+    /**
+     * Returns the class path this class is read from.
+     *
+     * @return The class path
+     */
+    public ClassPath getClassPath() {
+        return classPath;
+    }
+
+    /**
+     * Returns the binary name of this class, as returned by
+     * {@link Class#getName()}.
+     *
+     * @return The name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the Java language modifiers of this class.
+     *
+     * @return The modifiers, as defined by {@link Modifier}
+     */
+    public int getModifiers() {
+        return access & (Modifier.classModifiers() | INTERFACE);
+    }
+
+    /**
+     * Determines this class is an interface.
+     *
+     * @return <code>true</code> if the class is an interface,
+     *         <code>false</code> otherwise
+     */
+    public boolean isInterface() {
+        return (access & INTERFACE) != 0;
+    }
+
+    /**
+     * Returns the binary name of the superclass of this class.
+     *
+     * @return The name of the superclass, or <code>null</code> for
+     *         <code>java.lang.Object</code> and interfaces
+     */
+    public String getSuperclassName() {
+        return superclassName;
+    }
+
+    /**
+     * Returns the superclass of this class.
+     *
+     * @return The superclass, or <code>null</code> for
+     *         <code>java.lang.Object</code> and interfaces
+     *
+     * @throws TypeNotPresentException If the superclass is not found
+     *                                 in the class path
+     */
+    public ClassInfo getSuperclass() {
+        return superclassName != null ? classPath.get(superclassName) : null;
+    }
+
+    /**
+     * Returns the binary names of the direct superinterfaces of this class.
+     *
+     * @return The unmodifiable list of names
+     */
+    public List<String> getInterfaceNames() {
+        return Collections.unmodifiableList(Arrays.asList(interfaceNames));
+    }
+
+    /**
+     * Returns the methods declared by this class, excluding
+     * the constructors and class initializers.
+     *
+     * @return The unmodifiable list of methods
+     */
+    public List<MethodInfo> getDeclaredMethods() {
+        return Collections.unmodifiableList(Arrays.asList(methods));
+    }
+
+    /**
+     * Returns the method declared by this class.
+     *
+     * @param name       The name of the method
+     * @param descriptor The descriptor of the method
+     *
+     * @return The method, or <code>null</code> if there is no such method
+     */
+    public MethodInfo getDeclaredMethod(String name, String descriptor) {
+        for (MethodInfo method : methods) {
+            if (method.getName().equals(name) && method.getDescriptor().equals(descriptor))
+                return method;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the type variables declared by this class.
+     *
+     * @return The unmodifiable list of the type variables
+     *
+     * @throws GenericSignatureFormatError If the generic signature
+     *         of this class does not conform to the format specified
+     *         in the Java Virtual Machine Specification
+     */
+    public List<TypeSignature> getTypeParameters() {
+        return Collections.unmodifiableList(Arrays.asList(typeParameters()));
+    }
+
+    /**
+     * Returns the generic superclass of this class.
+     *
+     * @return The generic superclass, or <code>null</code> for
+     *         <code>java.lang.Object</code> and interfaces
+     *
+     * @throws GenericSignatureFormatError If the generic signature
+     *         of this class does not conform to the format specified
+     *         in the Java Virtual Machine Specification
+     */
+    public TypeSignature getGenericSuperclass() {
+        typeParameters();
+        return genericSuperclass;
+    }
+
+    /**
+     * Returns the generic direct superinterfaces of this class.
+     *
+     * @return The unmodifiable list of the superinterfaces
+     *
+     * @throws GenericSignatureFormatError If the generic signature
+     *         of this class does not conform to the format specified
+     *         in the Java Virtual Machine Specification
+     */
+    public List<TypeSignature> getGenericInterfaces() {
+        typeParameters();
+        return Collections.unmodifiableList(Arrays.asList(genericInterfaces));
+    }
+
+    /**
+     * Determines the class passed is this class or its subclass
+     * or subinterface.
+     *
+     * @param other The other class
+     *
+     * @return <code>true</code> if this class is assignable from the other,
+     *         <code>false</code> otherwise
+     *
+     * @throws NullPointerException    If the argument is <code>null</code>
+     * @throws TypeNotPresentException If any supertype of the other class
+     *                                 is not found in the class path
+     */
+    public boolean isAssignableFrom(ClassInfo other) {
+        if (other == this || name.equals(other.name)) return true;
+        if (superclassName == null && !isInterface()) return true;
+        if (!isInterface()) {
+            for (ClassInfo type = other; type.superclassName != null; ) {
+                if (type.superclassName.equals(name)) return true;
+                type = classPath.get(type.superclassName);
+            }
+            return false;
+        }
+        Set<String> visited = new HashSet<String>();
+        Deque<ClassInfo> pending = new ArrayDeque<ClassInfo>();
+        pending.add(other);
+        while (!pending.isEmpty()) {
+            ClassInfo type = pending.poll();
+            for (String interfaceName : type.interfaceNames) {
+                if (interfaceName.equals(name)) return true;
+                if (visited.add(interfaceName)) pending.add(classPath.get(interfaceName));
+            }
+            if (type.superclassName != null && visited.add(type.superclassName))
+                pending.add(classPath.get(type.superclassName));
+        }
+        return false;
+    }
+
+    /**
+     * Returns the type variables, parsing the signature
+     * on the first request.
+     *
+     * @return The type variables
+     *
+     * @throws GenericSignatureFormatError If the generic signature
+     *         is malformed
+     */
+    TypeSignature[] typeParameters() {
+        TypeSignature[] typeParameters = this.typeParameters;
+        if (typeParameters == null) {
+            List<TypeSignature> interfaces = new ArrayList<TypeSignature>(interfaceNames.length);
+            TypeSignature superclass;
+            if (signature == null) {
+                typeParameters = TypeSignature.NO_TYPES;
+                superclass = superclassName != null
+                        ? TypeSignature.classType(superclassName, null, TypeSignature.NO_TYPES)
+                        : null;
+                for (String interfaceName : interfaceNames) {
+                    interfaces.add(TypeSignature.classType(interfaceName, null, TypeSignature.NO_TYPES));
+                }
+            } else {
+                SignatureParser parser = new SignatureParser(signature, name);
+                typeParameters = parser.typeParameters();
+                superclass = parser.classType();
+                while (!parser.atEnd()) interfaces.add(parser.classType());
+                if (superclassName == null) superclass = null;
+            }
+            genericSuperclass = superclass;
+            genericInterfaces = interfaces.toArray(new TypeSignature[interfaces.size()]);
+            this.typeParameters = typeParameters;
+        }
+        return typeParameters;
+    }
+
+    /**
+     * Returns the binary name of this class.
+     *
+     * @return The string representation
+     */
+    @Override
+    public String toString() {
+        return (isInterface() ? "interface " : "class ") + name;
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect.classfile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The set of class files the {@link ClassInfo classes} are read from.
+ *
+ * <p/>
+ * The class files are read from the memory-mapped jar files and then
+ * from the resources of the parent class loader, which is used only
+ * to find the bytes of the classes and never loads them. The classes
+ * are parsed once and cached by the class path.
+ *
+ * <p/>
+ * The class path is thread-safe. It should be closed when no longer
+ * needed; the classes read are still usable after that.
+ *
+ * @author Alexander Vasilevsky
+ */
+public final class ClassPath implements Closeable {
+
+    private static final String CLASS_SUFFIX = ".class";
+
+    private final JarArchive[] archives;
+    private final ClassLoader parent;
+    private final ConcurrentMap<String, ClassInfo> classes =
+            new ConcurrentHashMap<String, ClassInfo>();
+
+    private ClassPath(JarArchive[] archives, ClassLoader parent) {
+        this.archives = archives;
+        this.parent = parent;
+    }
+
+    /**
+     * Opens the class path consisting of the jar files. The classes
+     * not found there are read from the resources of the system
+     * class loader.
+     *
+     * @param jars The jar files
+     *
+     * @return The class path
+     *
+     * @throws NullPointerException If any argument is <code>null</code>
+     * @throws IOException          If any of the files cannot be read
+     *                              or is not a jar file
+     */
+    public static ClassPath open(File... jars) throws IOException {
+        return open(ClassLoader.getSystemClassLoader(), jars);
+    }
+
+    /**
+     * Opens the class path consisting of the jar files. The classes
+     * not found there are read from the resources of the parent
+     * class loader.
+     *
+     * @param parent The parent class loader, or <code>null</code>
+     *               if the classes are read only from the jar files
+     * @param jars   The jar files
+     *
+     * @return The class path
+     *
+     * @throws NullPointerException If any of the files is <code>null</code>
+     * @throws IOException          If any of the files cannot be read
+     *                              or is not a jar file
+     */
+    public static ClassPath open(ClassLoader parent, File... jars) throws IOException {
+        JarArchive[] archives = new JarArchive[jars.length];
+        try {
+            for (int i = 0; i < jars.length; i++) archives[i] = new JarArchive(jars[i]);
+        } catch (IOException e) {
+            for (JarArchive archive : archives) {
+                if (archive != null) archive.close();
+            }
+            throw e;
+        }
+        return new ClassPath(archives, parent);
+    }
+
+    /**
+     * Returns the binary names of the classes contained in the jar files.
+     *
+     * @return The sorted list of names
+     */
+    public List<String> getClassNames() {
+        Set<String> names = new TreeSet<String>();
+        for (JarArchive archive : archives) {
+            for (String entry : archive.names()) {
+                if (!entry.endsWith(CLASS_SUFFIX) || entry.startsWith("META-INF/")
+                        || entry.endsWith("module-info.class")) continue;
+                String name = entry.substring(0, entry.length() - CLASS_SUFFIX.length()).replace('/', '.');
+                names.add(name);
+            }
+        }
+        return new ArrayList<String>(names);
+    }
+
+    /**
+     * Returns the class.
+     *
+     * @param name The binary name of the class
+     *
+     * @return The class
+     *
+     * @throws NullPointerException    If the argument is <code>null</code>
+     * @throws TypeNotPresentException If the class is not found
+     * @throws ClassFormatError        If the class file is malformed
+     * @throws UncheckedIOException    If the class file cannot be read
+     */
+    public ClassInfo get(String name) {
+        ClassInfo info = find(name);
+        if (info == null) throw new TypeNotPresentException(name, null);
+        return info;
+    }
+
+    /**
+     * Returns the class if it is present in this class path.
+     *
+     * @param name The binary name of the class
+     *
+     * @return The class, or <code>null</code> if it is not found
+     *
+     * @throws NullPointerException If the argument is <code>null</code>
+     * @throws ClassFormatError     If the class file is malformed
+     * @throws UncheckedIOException If the class file cannot be read
+     */
+    public ClassInfo find(String name) {
+        ClassInfo info = classes.get(name);
+        if (info != null) return info;
+        ByteBuffer buffer;
+        try {
+            buffer = read(name.replace('.', '/') + CLASS_SUFFIX);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (buffer == null) return null;
+        info = new ClassFileParser(buffer).parse(this);
+        if (!info.getName().equals(name))
+            throw new ClassFormatError("The class file of " + name + " contains " + info.getName());
+        ClassInfo existing = classes.putIfAbsent(name, info);
+        return existing != null ? existing : info;
+    }
+
+    private ByteBuffer read(String entry) throws IOException {
+        for (JarArchive archive : archives) {
+            ByteBuffer buffer = archive.read(entry);
+            if (buffer != null) return buffer;
+        }
+        if (parent == null) return null;
+        InputStream input = parent.getResourceAsStream(entry);
+        if (input == null) return null;
+        try {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            byte[] chunk = new byte[8192];
+            for (int read; (read = input.read(chunk)) > 0; ) output.write(chunk, 0, read);
+            return ByteBuffer.wrap(output.toByteArray());
+        } finally {
+            input.close();
+        }
+    }
+
+    /**
+     * Closes the jar files of this class path.
+     *
+     * @throws IOException If an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (JarArchive archive : archives) {
+            try {
+                archive.close();
+            } catch (IOException e) {
+                if (failure == null) failure = e;
+            }
+        }
+        if (failure != null) throw failure;
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect.classfile;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * The memory-mapped jar (zip) archive.
+ *
+ * <p/>
+ * The central directory is read once, when the archive is opened.
+ * The stored entries are returned as slices of the mapped file without
+ * copying, the deflated ones are inflated into the heap.
+ *
+ * <p/>
+ * The archives larger than 2 GB and the ZIP64 archives are
+ * not supported.
+ *
+ * @author Alexander Vasilevsky
+ */
+final class JarArchive implements Closeable {
+
+    private static final int LOCAL_HEADER = 0x04034b50;
+    private static final int CENTRAL_HEADER = 0x02014b50;
+    private static final int END_HEADER = 0x06054b50;
+    private static final int END_SIZE = 22;
+    private static final int STORED = 0;
+    private static final int DEFLATED = 8;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final RandomAccessFile file;
+    private final MappedByteBuffer buffer;
+
+    /**
+     * The offsets of the central directory headers, keyed
+     * by the entry names.
+     */
+    private final Map<String, Integer> entries;
+
+    /**
+     * Opens and maps the archive.
+     *
+     * @param path The archive file
+     *
+     * @throws IOException If the file cannot be read or is not
+     *                     a zip archive
+     */
+    JarArchive(File path) throws IOException {
+        file = new RandomAccessFile(path, "r");
+        try {
+            FileChannel channel = file.getChannel();
+            if (channel.size() > Integer.MAX_VALUE)
+                throw new ZipException("The archive is too large: " + path);
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            entries = readCentralDirectory();
+        } catch (IOException e) {
+            file.close();
+            throw e;
+        } catch (RuntimeException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    private Map<String, Integer> readCentralDirectory() throws ZipException {
+        int end = buffer.limit() - END_SIZE;
+        int stop = Math.max(0, end - 0xFFFF);
+        while (end >= stop && buffer.getInt(end) != END_HEADER) end--;
+        if (end < stop) throw new ZipException("The end of central directory is not found");
+
+        int count = buffer.getShort(end + 10) & 0xFFFF;
+        int offset = buffer.getInt(end + 16);
+        if (count == 0xFFFF || offset == -1)
+            throw new ZipException("ZIP64 archives are not supported");
+
+        Map<String, Integer> entries = new HashMap<String, Integer>(count * 4 / 3 + 1);
+        for (int i = 0; i < count; i++) {
+            if (offset < 0 || offset + 46 > buffer.limit() || buffer.getInt(offset) != CENTRAL_HEADER)
+                throw new ZipException("Malformed central directory");
+            int nameLength = buffer.getShort(offset + 28) & 0xFFFF;
+            int extraLength = buffer.getShort(offset + 30) & 0xFFFF;
+            int commentLength = buffer.getShort(offset + 32) & 0xFFFF;
+            entries.put(string(offset + 46, nameLength), offset);
+            offset += 46 + nameLength + extraLength + commentLength;
+        }
+        return entries;
+    }
+
+    private String string(int offset, int length) {
+        byte[] bytes = new byte[length];
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset);
+        view.get(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    /**
+     * Returns the names of the entries.
+     *
+     * @return The unmodifiable set of names
+     */
+    Set<String> names() {
+        return Collections.unmodifiableSet(entries.keySet());
+    }
+
+    /**
+     * Returns the content of the entry.
+     *
+     * @param name The name of the entry
+     *
+     * @return The content, or <code>null</code> if there is no such entry
+     *
+     * @throws ZipException If the entry is malformed or compressed
+     *                      by an unsupported method
+     */
+    ByteBuffer read(String name) throws ZipException {
+        Integer header = entries.get(name);
+        if (header == null) return null;
+        int method = buffer.getShort(header + 10) & 0xFFFF;
+        int compressedSize = buffer.getInt(header + 20);
+        int size = buffer.getInt(header + 24);
+        int local = buffer.getInt(header + 42);
+        if (local < 0 || local + 30 > buffer.limit() || buffer.getInt(local) != LOCAL_HEADER)
+            throw new ZipException("Malformed local header of " + name);
+        int start = local + 30 + (buffer.getShort(local + 26) & 0xFFFF)
+                + (buffer.getShort(local + 28) & 0xFFFF);
+        if (compressedSize < 0 || size < 0 || start + compressedSize > buffer.limit())
+            throw new ZipException("Malformed entry " + name);
+
+        ByteBuffer data = buffer.duplicate();
+        data.limit(start + compressedSize).position(start);
+        if (method == STORED) return data.slice();
+        if (method != DEFLATED)
+            throw new ZipException("Unsupported compression method of " + name);
+
+        // The inflater in nowrap mode may need an extra dummy byte.
+        byte[] input = new byte[compressedSize + 1];
+        data.get(input, 0, compressedSize);
+        byte[] output = new byte[size];
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(input);
+            int length = 0;
+            while (length < size && !inflater.finished()) {
+                int read = inflater.inflate(output, length, size - length);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+                length += read;
+            }
+            if (length != size) throw new ZipException("Malformed entry " + name);
+        } catch (DataFormatException e) {
+            throw new ZipException("Malformed entry " + name + ": " + e.getMessage());
+        } finally {
+            inflater.end();
+        }
+        return ByteBuffer.wrap(output);
+    }
+
+    /**
+     * Closes the archive. The mapping is released when the buffer
+     * is garbage collected.
+     *
+     * @throws IOException If an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+}
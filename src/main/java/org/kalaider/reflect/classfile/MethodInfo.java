@@ -0,0 +1,217 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect.classfile;
+
+import java.lang.reflect.GenericSignatureFormatError;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The method read from a class file.
+ *
+ * <p/>
+ * This is the class file counterpart of {@link java.lang.reflect.Method}.
+ * The generic signature of the method is parsed lazily, on the first
+ * request; the descriptor is used if the method has no signature.
+ *
+ * @author Alexander Vasilevsky
+ */
+public final class MethodInfo {
+
+    /**
+     * The access flag of the bridge methods.
+     */
+    private static final int BRIDGE = 0x0040;
+
+    /**
+     * The access flag of the synthetic methods.
+     */
+    private static final int SYNTHETIC = 0x1000;
+
+    private final ClassInfo declaringClass;
+    private final int access;
+    private final String name;
+    private final String descriptor;
+    private final String signature;
+
+    private TypeSignature[] typeParameters;
+    private TypeSignature returnType;
+    private volatile TypeSignature[] parameterTypes;
+
+    /**
+     * Creates the method.
+     *
+     * @param declaringClass The declaring class
+     * @param access         The access flags
+     * @param name           The name
+     * @param descriptor     The descriptor
+     * @param signature      The generic signature, or <code>null</code>
+     */
+    MethodInfo(ClassInfo declaringClass, int access, String name, String descriptor, String signature) {
+        this.declaringClass = declaringClass;
+        this.access = access;
+        this.name = name;
+        this.descriptor = descriptor;
+        this.signature = signature;
+    }
+
+    /**
+     * Returns the class declaring this method.
+     *
+     * @return The declaring class
+     */
+    public ClassInfo getDeclaringClass() {
+        return declaringClass;
+    }
+
+    /**
+     * Returns the name of this method.
+     *
+     * @return The name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the descriptor of this method,
+     * like <code>(I)Ljava/lang/Object;</code>.
+     *
+     * @return The descriptor
+     */
+    public String getDescriptor() {
+        return descriptor;
+    }
+
+    /**
+     * Returns the Java language modifiers of this method.
+     *
+     * @return The modifiers, as defined by {@link Modifier}
+     */
+    public int getModifiers() {
+        return access & Modifier.methodModifiers();
+    }
+
+    /**
+     * Determines this method is a bridge method.
+     *
+     * @return <code>true</code> if the method is a bridge method,
+     *         <code>false</code> otherwise
+     */
+    public boolean isBridge() {
+        return (access & BRIDGE) != 0;
+    }
+
+    /**
+     * Determines this method is a synthetic method.
+     *
+     * @return <code>true</code> if the method is a synthetic method,
+     *         <code>false</code> otherwise
+     */
+    public boolean isSynthetic() {
+        return (access & SYNTHETIC) != 0;
+    }
+
+    /**
+     * Returns the type variables declared by this method.
+     *
+     * @return The unmodifiable list of the type variables
+     *
+     * @throws GenericSignatureFormatError If the generic signature
+     *         of this method does not conform to the format specified
+     *         in the Java Virtual Machine Specification
+     */
+    public List<TypeSignature> getTypeParameters() {
+        parameterTypes();
+        return Collections.unmodifiableList(Arrays.asList(typeParameters));
+    }
+
+    /**
+     * Returns the generic types of the parameters of this method.
+     *
+     * @return The unmodifiable list of the parameter types
+     *
+     * @throws GenericSignatureFormatError If the generic signature
+     *         of this method does not conform to the format specified
+     *         in the Java Virtual Machine Specification
+     */
+    public List<TypeSignature> getGenericParameterTypes() {
+        return Collections.unmodifiableList(Arrays.asList(parameterTypes()));
+    }
+
+    /**
+     * Returns the generic return type of this method.
+     *
+     * @return The return type
+     *
+     * @throws GenericSignatureFormatError If the generic signature
+     *         of this method does not conform to the format specified
+     *         in the Java Virtual Machine Specification
+     */
+    public TypeSignature getGenericReturnType() {
+        parameterTypes();
+        return returnType;
+    }
+
+    /**
+     * Returns the generic types of the parameters, parsing
+     * the signature on the first request.
+     *
+     * @return The parameter types
+     *
+     * @throws GenericSignatureFormatError If the generic signature
+     *         is malformed
+     */
+    TypeSignature[] parameterTypes() {
+        TypeSignature[] parameterTypes = this.parameterTypes;
+        if (parameterTypes == null) {
+            String key = name + descriptor;
+            SignatureParser parser = new SignatureParser(signature != null ? signature : descriptor,
+                    declaringClass.getName(), declaringClass.typeParameters(), key);
+            TypeSignature[] typeParameters = parser.typeParameters();
+            parser.expect('(');
+            List<TypeSignature> types = new ArrayList<TypeSignature>();
+            while (parser.peek() != ')') types.add(parser.javaType());
+            parser.expect(')');
+            TypeSignature returnType = parser.javaType();
+            while (parser.peek() == '^') {
+                parser.expect('^');
+                parser.referenceType();
+            }
+            if (!parser.atEnd()) throw parser.error();
+            this.typeParameters = typeParameters;
+            this.returnType = returnType;
+            parameterTypes = types.toArray(new TypeSignature[types.size()]);
+            this.parameterTypes = parameterTypes;
+        }
+        return parameterTypes;
+    }
+
+    /**
+     * Returns the string representation of this method, like
+     * <code>java.util.List.get(I)Ljava/lang/Object;</code>.
+     *
+     * @return The string representation
+     */
+    @Override
+    public String toString() {
+        return declaringClass.getName() + "." + name + descriptor;
+    }
+}
@@ -0,0 +1,305 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect.classfile;
+
+import java.lang.reflect.GenericSignatureFormatError;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The parser of the generic signatures and descriptors, as specified
+ * in the section 4.7.9.1 of the Java Virtual Machine Specification.
+ *
+ * <p/>
+ * The type variables are bound to the type parameters of the method
+ * being parsed, then to the type parameters of the class. The type
+ * variables not found there are declared by an enclosing class and
+ * are left unbound with the <code>java.lang.Object</code> bound.
+ *
+ * @author Alexander Vasilevsky
+ */
+final class SignatureParser {
+
+    private final String signature;
+    private final String declaringClass;
+    private final String declaringMethod;
+    private TypeSignature[] classParameters;
+    private TypeSignature[] methodParameters = TypeSignature.NO_TYPES;
+    private int position;
+
+    /**
+     * Whether the type variables are parsed without binding them,
+     * which is done on the first pass over type parameters.
+     */
+    private boolean unbound;
+
+    /**
+     * Creates the parser of a class signature.
+     *
+     * @param signature      The signature
+     * @param declaringClass The binary name of the class
+     */
+    SignatureParser(String signature, String declaringClass) {
+        this(signature, declaringClass, TypeSignature.NO_TYPES, null);
+    }
+
+    /**
+     * Creates the parser of a method signature or descriptor.
+     *
+     * @param signature       The signature
+     * @param declaringClass  The binary name of the declaring class
+     * @param classParameters The type parameters of the declaring class
+     * @param declaringMethod The name and descriptor of the method
+     */
+    SignatureParser(String signature, String declaringClass,
+                    TypeSignature[] classParameters, String declaringMethod) {
+        this.signature = signature;
+        this.declaringClass = declaringClass;
+        this.classParameters = classParameters;
+        this.declaringMethod = declaringMethod;
+    }
+
+    /**
+     * Determines the whole signature is parsed.
+     *
+     * @return <code>true</code> if there are no more characters,
+     *         <code>false</code> otherwise
+     */
+    boolean atEnd() {
+        return position == signature.length();
+    }
+
+    /**
+     * Returns the next character without consuming it.
+     *
+     * @return The next character, or <code>0</code> at the end
+     */
+    char peek() {
+        return position < signature.length() ? signature.charAt(position) : 0;
+    }
+
+    /**
+     * Consumes the expected character.
+     *
+     * @param c The expected character
+     *
+     * @throws GenericSignatureFormatError If the next character differs
+     */
+    void expect(char c) {
+        if (peek() != c) throw error();
+        position++;
+    }
+
+    /**
+     * Parses the optional type parameters and binds them to the class
+     * or method being parsed.
+     *
+     * @return The type variables declared, may be empty
+     *
+     * @throws GenericSignatureFormatError If the signature is malformed
+     */
+    TypeSignature[] typeParameters() {
+        if (peek() != '<') return TypeSignature.NO_TYPES;
+        position++;
+        List<TypeSignature> variables = new ArrayList<TypeSignature>();
+        List<Integer> starts = new ArrayList<Integer>();
+
+        // The bounds may refer to the type parameters declared later,
+        // so they are skipped on the first pass and parsed on the second.
+        unbound = true;
+        do {
+            String name = identifier();
+            variables.add(TypeSignature.typeVariable(name, declaringClass, declaringMethod));
+            starts.add(position);
+            bounds();
+        } while (peek() != '>');
+        unbound = false;
+        int end = ++position;
+
+        TypeSignature[] parameters = variables.toArray(new TypeSignature[variables.size()]);
+        if (declaringMethod != null) methodParameters = parameters;
+        else classParameters = parameters;
+        for (int i = 0; i < parameters.length; i++) {
+            position = starts.get(i);
+            parameters[i].setBounds(bounds());
+        }
+        position = end;
+        return parameters;
+    }
+
+    /**
+     * Parses the class bound and interface bounds of a type parameter.
+     *
+     * @return The bounds
+     */
+    private TypeSignature[] bounds() {
+        List<TypeSignature> bounds = new ArrayList<TypeSignature>(2);
+        expect(':');
+        if (peek() != ':') bounds.add(referenceType());
+        while (peek() == ':') {
+            position++;
+            bounds.add(referenceType());
+        }
+        if (bounds.isEmpty()) bounds.add(TypeSignature.OBJECT);
+        return bounds.toArray(new TypeSignature[bounds.size()]);
+    }
+
+    /**
+     * Parses a type: a primitive type, a reference type
+     * or <code>void</code>.
+     *
+     * @return The type
+     *
+     * @throws GenericSignatureFormatError If the signature is malformed
+     */
+    TypeSignature javaType() {
+        String primitive;
+        switch (peek()) {
+            case 'B': primitive = "byte"; break;
+            case 'C': primitive = "char"; break;
+            case 'D': primitive = "double"; break;
+            case 'F': primitive = "float"; break;
+            case 'I': primitive = "int"; break;
+            case 'J': primitive = "long"; break;
+            case 'S': primitive = "short"; break;
+            case 'Z': primitive = "boolean"; break;
+            case 'V': primitive = "void"; break;
+            default: return referenceType();
+        }
+        position++;
+        return TypeSignature.primitiveType(primitive);
+    }
+
+    /**
+     * Parses a reference type: a class type, a type variable
+     * or an array type.
+     *
+     * @return The type
+     *
+     * @throws GenericSignatureFormatError If the signature is malformed
+     */
+    TypeSignature referenceType() {
+        switch (peek()) {
+            case 'L':
+                return classType();
+            case 'T': {
+                position++;
+                String name = identifier();
+                expect(';');
+                return unbound ? TypeSignature.OBJECT : variable(name);
+            }
+            case '[':
+                position++;
+                return TypeSignature.arrayType(javaType());
+            default:
+                throw error();
+        }
+    }
+
+    /**
+     * Parses a class type.
+     *
+     * @return The type
+     *
+     * @throws GenericSignatureFormatError If the signature is malformed
+     */
+    TypeSignature classType() {
+        expect('L');
+        StringBuilder name = new StringBuilder();
+        for (;;) {
+            String part = identifier();
+            name.append(part);
+            if (peek() != '/') break;
+            name.append('.');
+            position++;
+        }
+        TypeSignature type = TypeSignature.classType(name.toString(), null, typeArguments());
+        while (peek() == '.') {
+            position++;
+            name.append('$').append(identifier());
+            TypeSignature[] arguments = typeArguments();
+            TypeSignature owner = type.isParameterized() || arguments.length != 0 ? type : null;
+            type = TypeSignature.classType(name.toString(), owner, arguments);
+        }
+        expect(';');
+        return type;
+    }
+
+    private TypeSignature[] typeArguments() {
+        if (peek() != '<') return TypeSignature.NO_TYPES;
+        position++;
+        List<TypeSignature> arguments = new ArrayList<TypeSignature>(2);
+        do {
+            switch (peek()) {
+                case '*':
+                    position++;
+                    arguments.add(TypeSignature.wildcardType(
+                            new TypeSignature[] { TypeSignature.OBJECT }, TypeSignature.NO_TYPES));
+                    break;
+                case '+':
+                    position++;
+                    arguments.add(TypeSignature.wildcardType(
+                            new TypeSignature[] { referenceType() }, TypeSignature.NO_TYPES));
+                    break;
+                case '-':
+                    position++;
+                    arguments.add(TypeSignature.wildcardType(
+                            new TypeSignature[] { TypeSignature.OBJECT },
+                            new TypeSignature[] { referenceType() }));
+                    break;
+                default:
+                    arguments.add(referenceType());
+            }
+        } while (peek() != '>');
+        position++;
+        return arguments.toArray(new TypeSignature[arguments.size()]);
+    }
+
+    private String identifier() {
+        int start = position;
+        while (position < signature.length()) {
+            char c = signature.charAt(position);
+            if (c == '.' || c == ';' || c == '[' || c == '/' || c == '<' || c == '>' || c == ':')
+                break;
+            position++;
+        }
+        if (position == start) throw error();
+        return signature.substring(start, position);
+    }
+
+    private TypeSignature variable(String name) {
+        for (TypeSignature variable : methodParameters) {
+            if (variable.getName().equals(name)) return variable;
+        }
+        for (TypeSignature variable : classParameters) {
+            if (variable.getName().equals(name)) return variable;
+        }
+        TypeSignature variable = TypeSignature.typeVariable(name, null, null);
+        variable.setBounds(new TypeSignature[] { TypeSignature.OBJECT });
+        return variable;
+    }
+
+    /**
+     * Creates the error describing the current position.
+     *
+     * @return The error
+     */
+    GenericSignatureFormatError error() {
+        return new GenericSignatureFormatError(
+                "Malformed signature " + signature + " at " + position);
+    }
+}
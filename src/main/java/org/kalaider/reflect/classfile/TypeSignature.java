@@ -0,0 +1,415 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect.classfile;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The type read from a class file: a primitive type, a class type
+ * (possibly parameterized), an array type, a type variable
+ * or a wildcard.
+ *
+ * <p/>
+ * This is the class file counterpart of {@link java.lang.reflect.Type}.
+ * The class names are the binary names, as returned by
+ * {@link Class#getName()}, and the primitive types are named
+ * by their keywords.
+ *
+ * <p/>
+ * Type variables are bound to their declarations while the signature
+ * is parsed, so a type variable carries its bounds. Two type variables
+ * are equal if they have the same name and are declared by the same
+ * class or method.
+ *
+ * @author Alexander Vasilevsky
+ */
+public final class TypeSignature {
+
+    /**
+     * The kind of a type.
+     */
+    public enum Kind {
+
+        /**
+         * A primitive type or <code>void</code>.
+         */
+        PRIMITIVE,
+
+        /**
+         * A class or interface type, possibly parameterized.
+         */
+        CLASS,
+
+        /**
+         * An array type.
+         */
+        ARRAY,
+
+        /**
+         * A type variable.
+         */
+        VARIABLE,
+
+        /**
+         * A wildcard type argument.
+         */
+        WILDCARD
+    }
+
+    /**
+     * The empty array of types.
+     */
+    static final TypeSignature[] NO_TYPES = new TypeSignature[0];
+
+    /**
+     * The <code>java.lang.Object</code> type.
+     */
+    static final TypeSignature OBJECT = classType("java.lang.Object", null, NO_TYPES);
+
+    private final Kind kind;
+    private final String name;
+    private final TypeSignature owner;
+    private final TypeSignature[] arguments;
+    private final TypeSignature component;
+    private final String declaringClass;
+    private final String declaringMethod;
+
+    /**
+     * The bounds of a type variable, or the upper bounds of a wildcard.
+     * Bounds of type variables are assigned once, after the variable
+     * is created, which allows recursive declarations like
+     * <code>T extends Comparable&lt;T&gt;</code>.
+     */
+    private TypeSignature[] bounds;
+
+    /**
+     * The lower bounds of a wildcard.
+     */
+    private final TypeSignature[] lowerBounds;
+
+    private TypeSignature(Kind kind, String name, TypeSignature owner,
+                          TypeSignature[] arguments, TypeSignature component,
+                          String declaringClass, String declaringMethod,
+                          TypeSignature[] bounds, TypeSignature[] lowerBounds) {
+        this.kind = kind;
+        this.name = name;
+        this.owner = owner;
+        this.arguments = arguments;
+        this.component = component;
+        this.declaringClass = declaringClass;
+        this.declaringMethod = declaringMethod;
+        this.bounds = bounds;
+        this.lowerBounds = lowerBounds;
+    }
+
+    /**
+     * Creates the primitive type.
+     *
+     * @param name The keyword of the type
+     *
+     * @return The type
+     */
+    static TypeSignature primitiveType(String name) {
+        return new TypeSignature(Kind.PRIMITIVE, name, null, NO_TYPES, null,
+                null, null, NO_TYPES, NO_TYPES);
+    }
+
+    /**
+     * Creates the class type.
+     *
+     * @param name      The binary name of the class
+     * @param owner     The owner type, or <code>null</code>
+     * @param arguments The type arguments
+     *
+     * @return The type
+     */
+    static TypeSignature classType(String name, TypeSignature owner, TypeSignature[] arguments) {
+        return new TypeSignature(Kind.CLASS, name, owner, arguments, null,
+                null, null, NO_TYPES, NO_TYPES);
+    }
+
+    /**
+     * Creates the array type.
+     *
+     * @param component The component type
+     *
+     * @return The type
+     */
+    static TypeSignature arrayType(TypeSignature component) {
+        return new TypeSignature(Kind.ARRAY, null, null, NO_TYPES, component,
+                null, null, NO_TYPES, NO_TYPES);
+    }
+
+    /**
+     * Creates the type variable. Its bounds should be assigned by the
+     * {@link #setBounds(org.kalaider.reflect.classfile.TypeSignature[])
+     * setBounds()} method.
+     *
+     * @param name            The name of the variable
+     * @param declaringClass  The binary name of the declaring class,
+     *                        or <code>null</code> if unknown
+     * @param declaringMethod The name and descriptor of the declaring
+     *                        method, or <code>null</code> if the variable
+     *                        is declared by a class
+     *
+     * @return The type
+     */
+    static TypeSignature typeVariable(String name, String declaringClass, String declaringMethod) {
+        return new TypeSignature(Kind.VARIABLE, name, null, NO_TYPES, null,
+                declaringClass, declaringMethod, null, NO_TYPES);
+    }
+
+    /**
+     * Creates the wildcard.
+     *
+     * @param upperBounds The upper bounds
+     * @param lowerBounds The lower bounds
+     *
+     * @return The type
+     */
+    static TypeSignature wildcardType(TypeSignature[] upperBounds, TypeSignature[] lowerBounds) {
+        return new TypeSignature(Kind.WILDCARD, null, null, NO_TYPES, null,
+                null, null, upperBounds, lowerBounds);
+    }
+
+    /**
+     * Assigns the bounds of the type variable.
+     *
+     * @param bounds The bounds
+     */
+    void setBounds(TypeSignature[] bounds) {
+        this.bounds = bounds;
+    }
+
+    /**
+     * Returns the kind of this type.
+     *
+     * @return The kind
+     */
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Returns the name of this type: the binary name of the class
+     * (without type arguments), the keyword of the primitive type
+     * or the name of the type variable.
+     *
+     * @return The name, or <code>null</code> for arrays and wildcards
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the owner type of this class type.
+     *
+     * @return The owner type, or <code>null</code> if the type is
+     *         not a class type or has no generic owner
+     */
+    public TypeSignature getOwnerType() {
+        return owner;
+    }
+
+    /**
+     * Returns the type arguments of this class type.
+     *
+     * @return The unmodifiable list of the type arguments
+     */
+    public List<TypeSignature> getTypeArguments() {
+        return Collections.unmodifiableList(Arrays.asList(arguments));
+    }
+
+    /**
+     * Returns the component type of this array type.
+     *
+     * @return The component type, or <code>null</code> if the type is
+     *         not an array type
+     */
+    public TypeSignature getComponentType() {
+        return component;
+    }
+
+    /**
+     * Returns the bounds of this type variable, or the upper bounds
+     * of this wildcard.
+     *
+     * @return The unmodifiable list of the bounds
+     */
+    public List<TypeSignature> getBounds() {
+        return Collections.unmodifiableList(Arrays.asList(bounds()));
+    }
+
+    /**
+     * Returns the lower bounds of this wildcard.
+     *
+     * @return The unmodifiable list of the lower bounds
+     */
+    public List<TypeSignature> getLowerBounds() {
+        return Collections.unmodifiableList(Arrays.asList(lowerBounds));
+    }
+
+    /**
+     * Returns the binary name of the class declaring this type variable.
+     *
+     * @return The name of the declaring class, or <code>null</code>
+     *         if the type is not a type variable or the variable
+     *         is declared by an enclosing class
+     */
+    public String getDeclaringClass() {
+        return declaringClass;
+    }
+
+    /**
+     * Returns the name and descriptor of the method declaring this
+     * type variable, like <code>get(I)Ljava/lang/Object;</code>.
+     *
+     * @return The method, or <code>null</code> if the type is not a type
+     *         variable or the variable is declared by a class
+     */
+    public String getDeclaringMethod() {
+        return declaringMethod;
+    }
+
+    /**
+     * Determines this type is a parameterized type, i. e. a class type
+     * which or which owner has type arguments.
+     *
+     * @return <code>true</code> if the type is parameterized,
+     *         <code>false</code> otherwise
+     */
+    public boolean isParameterized() {
+        return kind == Kind.CLASS && (arguments.length != 0 || owner != null);
+    }
+
+    /**
+     * Returns the bounds without copying.
+     *
+     * @return The bounds
+     */
+    TypeSignature[] bounds() {
+        TypeSignature[] bounds = this.bounds;
+        return bounds != null ? bounds : NO_TYPES;
+    }
+
+    /**
+     * Returns the type arguments without copying.
+     *
+     * @return The type arguments
+     */
+    TypeSignature[] arguments() {
+        return arguments;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof TypeSignature)) return false;
+        TypeSignature other = (TypeSignature) obj;
+        if (kind != other.kind) return false;
+        switch (kind) {
+            case PRIMITIVE:
+                return name.equals(other.name);
+            case CLASS:
+                return name.equals(other.name) && equal(owner, other.owner)
+                        && Arrays.equals(arguments, other.arguments);
+            case ARRAY:
+                return component.equals(other.component);
+            case VARIABLE:
+                return name.equals(other.name)
+                        && equal(declaringClass, other.declaringClass)
+                        && equal(declaringMethod, other.declaringMethod);
+            default:
+                return Arrays.equals(bounds, other.bounds)
+                        && Arrays.equals(lowerBounds, other.lowerBounds);
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        switch (kind) {
+            case PRIMITIVE:
+                return name.hashCode();
+            case CLASS:
+                return (name.hashCode() * 31 + hash(owner)) * 31 + Arrays.hashCode(arguments);
+            case ARRAY:
+                return component.hashCode() * 31 + 1;
+            case VARIABLE:
+                return (name.hashCode() * 31 + hash(declaringClass)) * 31 + hash(declaringMethod);
+            default:
+                return Arrays.hashCode(bounds) * 31 + Arrays.hashCode(lowerBounds);
+        }
+    }
+
+    /**
+     * Returns the string representation of this type in the form
+     * it is written in the Java source code.
+     *
+     * @return The string representation
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        append(builder);
+        return builder.toString();
+    }
+
+    private void append(StringBuilder builder) {
+        switch (kind) {
+            case CLASS:
+                if (owner != null) {
+                    owner.append(builder);
+                    builder.append('$').append(name.substring(owner.name.length() + 1));
+                } else builder.append(name);
+                if (arguments.length != 0) {
+                    builder.append('<');
+                    for (int i = 0; i < arguments.length; i++) {
+                        if (i != 0) builder.append(", ");
+                        arguments[i].append(builder);
+                    }
+                    builder.append('>');
+                }
+                break;
+            case ARRAY:
+                component.append(builder);
+                builder.append("[]");
+                break;
+            case WILDCARD:
+                builder.append('?');
+                if (lowerBounds.length != 0) {
+                    builder.append(" super ");
+                    lowerBounds[0].append(builder);
+                } else if (!(bounds.length == 1 && bounds[0].equals(OBJECT))) {
+                    builder.append(" extends ");
+                    bounds[0].append(builder);
+                }
+                break;
+            default:
+                builder.append(name);
+        }
+    }
+
+    private static boolean equal(Object a, Object b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    private static int hash(Object object) {
+        return object == null ? 0 : object.hashCode();
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+/**
+ * The setting of the least time of a call for which the event is emitted,
+ * e.g. <code>"100 us"</code>.
+ *
+ * <p/>
+ * Works the same way as the <code>threshold</code> setting of the
+ * Java Flight Recorder does: the value is a number followed by one of
+ * the <code>ns</code>, <code>us</code>, <code>ms</code>, <code>s</code>,
+ * <code>m</code>, <code>h</code> or <code>d</code> units, and the least
+ * of the values set by the running recordings is used.
+ * The default value is {@link #DEFAULT}.
+ *
+ * <p/>
+ * The setting is read from the settings of the recordings rather than
+ * declared by a <code>SettingControl</code>, whose superclass is not
+ * exported by the <code>jdk.jfr</code> module of Java 11, so the events
+ * compile against the public API only. The value is read when a
+ * recording starts or stops.
+ *
+ * @author Alexander Vasilevsky
+ */
+final class ElapsedThreshold {
+
+    /**
+     * The name of the setting.
+     */
+    static final String NAME = "elapsedThreshold";
+
+    /**
+     * The default value of the setting.
+     */
+    static final String DEFAULT = "100 us";
+
+    /**
+     * The private constructor.
+     */
+    private ElapsedThreshold() {
+    }
+
+    /**
+     * Returns the least of the thresholds of the event set by the
+     * running recordings, or the default one if none is set.
+     *
+     * @param recordings The recordings
+     * @param event      The name of the event
+     *
+     * @return The threshold, in nanoseconds
+     */
+    static long of(List<Recording> recordings, String event) {
+        String key = event + '#' + NAME;
+        long least = Long.MAX_VALUE;
+        boolean set = false;
+        for (Recording recording : recordings) {
+            if (recording.getState() != RecordingState.RUNNING) continue;
+            String value = recording.getSettings().get(key);
+            if (value == null) continue;
+            set = true;
+            least = Math.min(least, parse(value));
+        }
+        return set ? least : parse(DEFAULT);
+    }
+
+    /**
+     * Parses the value of the setting.
+     *
+     * @param value The value
+     *
+     * @return The value in nanoseconds, {@link Long#MAX_VALUE}
+     *         if the value is malformed
+     */
+    private static long parse(String value) {
+        String text = value.trim();
+        int i = 0;
+        while (i < text.length() && Character.isDigit(text.charAt(i))) i++;
+        if (i == 0) return Long.MAX_VALUE;
+        long amount;
+        try {
+            amount = Long.parseLong(text.substring(0, i));
+        } catch (NumberFormatException e) {
+            return Long.MAX_VALUE;
+        }
+        TimeUnit unit;
+        switch (text.substring(i).trim()) {
+            case "ns": unit = TimeUnit.NANOSECONDS; break;
+            case "us": unit = TimeUnit.MICROSECONDS; break;
+            case "ms": unit = TimeUnit.MILLISECONDS; break;
+            case "s":  unit = TimeUnit.SECONDS; break;
+            case "m":  unit = TimeUnit.MINUTES; break;
+            case "h":  unit = TimeUnit.HOURS; break;
+            case "d":  unit = TimeUnit.DAYS; break;
+            default:   return Long.MAX_VALUE;
+        }
+        return unit.toNanos(amount);
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * The Java Flight Recorder event of the {@link ReflectionUtilities#isOverridden(
+ * java.lang.reflect.Method, java.lang.reflect.Method) isOverridden()} call.
+ *
+ * <p/>
+ * The event is emitted when the call took at least the
+ * {@link ElapsedThreshold elapsedThreshold} setting of the recording.
+ *
+ * @author Alexander Vasilevsky
+ */
+@Name(IsOverriddenEvent.NAME)
+@Label("Is Overridden")
+@Category("reflect4j")
+@Description("Determines whether a method is overridden by another")
+final class IsOverriddenEvent extends Event {
+
+    /**
+     * The name of the event.
+     */
+    static final String NAME = "org.kalaider.reflect.IsOverridden";
+
+    @Label("Method A")
+    @Description("The overridden method")
+    String methodA;
+
+    @Label("Method B")
+    @Description("The overriding method")
+    String methodB;
+
+    @Label("Overridden")
+    boolean overridden;
+
+    @Label("Hierarchy Depth")
+    @Description("The length of the shortest path of supertypes between the declaring classes")
+    int hierarchyDepth;
+
+    @Label("Compare Depth")
+    @Description("The deepest recursion of the comparison of types")
+    int compareDepth;
+
+    @Label("Cache Hit")
+    @Description("Whether no context of generic parameters was resolved")
+    boolean cacheHit;
+
+    @Label("Elapsed Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long elapsed;
+}
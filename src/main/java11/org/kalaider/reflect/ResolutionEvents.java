@@ -0,0 +1,201 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+/**
+ * The bridge to the Java Flight Recorder events of the generic
+ * resolution.
+ *
+ * <p/>
+ * The listener emitting the {@link IsOverriddenEvent} and
+ * {@link ResolveParametersEvent} events is installed into
+ * {@link ReflectionUtilities} only while a recording is running,
+ * so the resolution is not instrumented at all otherwise.
+ *
+ * @author Alexander Vasilevsky
+ */
+final class ResolutionEvents
+        implements ResolutionListener, FlightRecorderListener {
+
+    /**
+     * The last lookup of the cache of the contexts in the current thread,
+     * not yet reported by an event.
+     */
+    private final ThreadLocal<Lookup> lookups =
+            new ThreadLocal<Lookup>() {
+                @Override
+                protected Lookup initialValue() {
+                    return new Lookup();
+                }
+            };
+
+    /**
+     * The {@link ElapsedThreshold threshold} of the
+     * {@link IsOverriddenEvent}, in nanoseconds.
+     */
+    private volatile long isOverriddenThreshold;
+
+    /**
+     * The {@link ElapsedThreshold threshold} of the
+     * {@link ResolveParametersEvent}, in nanoseconds.
+     */
+    private volatile long resolveParametersThreshold;
+
+    /**
+     * The private constructor.
+     */
+    private ResolutionEvents() {
+    }
+
+    /**
+     * Installs the listener which emits the events while a recording
+     * is running. Does nothing if the Java Flight Recorder is not
+     * available.
+     */
+    static void install() {
+        try {
+            if (FlightRecorder.isAvailable())
+                FlightRecorder.addListener(new ResolutionEvents());
+        } catch (SecurityException e) {
+            // The events are not emitted
+        }
+    }
+
+    @Override
+    public void recorderInitialized(FlightRecorder recorder) {
+        update(recorder);
+    }
+
+    @Override
+    public void recordingStateChanged(Recording recording) {
+        update(FlightRecorder.getFlightRecorder());
+    }
+
+    /**
+     * Installs this listener if any recording is running,
+     * removes it otherwise, and updates the thresholds of the events.
+     *
+     * @param recorder The flight recorder
+     */
+    private void update(FlightRecorder recorder) {
+        List<Recording> recordings = recorder.getRecordings();
+        isOverriddenThreshold = ElapsedThreshold.of(recordings, IsOverriddenEvent.NAME);
+        resolveParametersThreshold = ElapsedThreshold.of(recordings, ResolveParametersEvent.NAME);
+        boolean running = false;
+        for (Recording recording : recordings) {
+            if (recording.getState() == RecordingState.RUNNING) {
+                running = true;
+                break;
+            }
+        }
+        ReflectionUtilities.setEventListener(running ? this : null);
+    }
+
+    @Override
+    public void isOverriddenCalled(Method methodA, Method methodB, boolean overridden,
+                                   int compareDepth, long nanos) {
+        boolean cacheHit = lookups.get().take(methodA.getDeclaringClass(), methodB.getDeclaringClass());
+        if (nanos < isOverriddenThreshold) return;
+        IsOverriddenEvent event = new IsOverriddenEvent();
+        if (!event.shouldCommit()) return;
+        event.elapsed = nanos;
+        event.methodA = methodA.toString();
+        event.methodB = methodB.toString();
+        event.overridden = overridden;
+        event.hierarchyDepth = depth(methodA.getDeclaringClass(), methodB.getDeclaringClass());
+        event.compareDepth = compareDepth;
+        event.cacheHit = cacheHit;
+        event.commit();
+    }
+
+    @Override
+    public void resolveParametersCalled(Class<?> classA, Class<?> classC, long nanos) {
+        boolean cacheHit = lookups.get().take(classA, classC);
+        if (nanos < resolveParametersThreshold) return;
+        ResolveParametersEvent event = new ResolveParametersEvent();
+        if (!event.shouldCommit()) return;
+        event.elapsed = nanos;
+        event.classA = classA;
+        event.classC = classC;
+        event.hierarchyDepth = depth(classA, classC);
+        event.cacheHit = cacheHit;
+        event.commit();
+    }
+
+    @Override
+    public void contextLookedUp(Class<?> classA, Class<?> classC, boolean hit) {
+        Lookup lookup = lookups.get();
+        lookup.classA = classA;
+        lookup.classC = classC;
+        lookup.hit = hit;
+    }
+
+    @Override
+    public void contextResolved(Class<?> classA, Class<?> classC, int depth, long nanos) {
+    }
+
+    /**
+     * Returns the length of the shortest path of supertypes between
+     * the classes.
+     *
+     * @param classA The upper class in the hierarchy class
+     * @param classC The lower class in the hierarchy class
+     *
+     * @return The length of the path
+     */
+    private static int depth(Class<?> classA, Class<?> classC) {
+        return SupertypeGraph.distance(classA, classC);
+    }
+
+    /**
+     * The lookup of the cache of the contexts.
+     *
+     * <p/>
+     * The calls reported by the events look up at most one context,
+     * the one between the declaring classes of the methods or between
+     * the classes passed, and it is the last lookup of the call. So the
+     * call took the context from the cache unless the last lookup is of
+     * the same classes and missed; a lookup of other classes was made by
+     * a call not reported, e.g. {@link ReflectionUtilities#findAnnotation(
+     * java.lang.reflect.Method, java.lang.Class) findAnnotation()}.
+     */
+    private static final class Lookup {
+
+        Class<?> classA;
+        Class<?> classC;
+        boolean hit;
+
+        /**
+         * Determines the call with the passed classes took the context
+         * from the cache, and forgets the lookup.
+         */
+        boolean take(Class<?> classA, Class<?> classC) {
+            boolean cacheHit = hit || this.classA != classA || this.classC != classC;
+            this.classA = null;
+            this.classC = null;
+            return cacheHit;
+        }
+    }
+}
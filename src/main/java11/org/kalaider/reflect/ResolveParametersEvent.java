@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * The Java Flight Recorder event of the {@link ReflectionUtilities#resolveParameters(
+ * java.lang.Class, java.lang.Class) resolveParameters()} and
+ * {@link ReflectionUtilities#resolveContext(java.lang.Class, java.lang.Class)
+ * resolveContext()} calls.
+ *
+ * <p/>
+ * The event is emitted when the call took at least the
+ * {@link ElapsedThreshold elapsedThreshold} setting of the recording.
+ *
+ * @author Alexander Vasilevsky
+ */
+@Name(ResolveParametersEvent.NAME)
+@Label("Resolve Parameters")
+@Category("reflect4j")
+@Description("Resolves the generic parameters of a class in context of its subclass")
+final class ResolveParametersEvent extends Event {
+
+    /**
+     * The name of the event.
+     */
+    static final String NAME = "org.kalaider.reflect.ResolveParameters";
+
+    @Label("Class A")
+    @Description("The upper class in the hierarchy")
+    Class<?> classA;
+
+    @Label("Class C")
+    @Description("The lower class in the hierarchy")
+    Class<?> classC;
+
+    @Label("Hierarchy Depth")
+    @Description("The length of the shortest path of supertypes between the classes")
+    int hierarchyDepth;
+
+    @Label("Cache Hit")
+    @Description("Whether the context of generic parameters was taken from the cache")
+    boolean cacheHit;
+
+    @Label("Elapsed Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long elapsed;
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author Alexander Vasilevsky
+ */
+public class BoundedCacheTest {
+
+    public BoundedCacheTest() {
+    }
+
+    /**
+     * <b>Method:</b> {@link BoundedCache#putIfAbsent(
+     *                       java.lang.Class, java.lang.Class, java.lang.Object)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Keeps the first value put under an owner class and key.
+     */
+    @Test
+    public void putIfAbsent_signature1_case1() {
+        BoundedCache<Class<?>, String> cache = new BoundedCache<Class<?>, String>(4);
+        assertNull(cache.get(Integer.class, Number.class));
+        assertEquals("a", cache.putIfAbsent(Integer.class, Number.class, "a"));
+        assertEquals("a", cache.putIfAbsent(Integer.class, Number.class, "b"));
+        assertEquals("a", cache.get(Integer.class, Number.class));
+        assertNull(cache.get(Integer.class, Object.class));
+        assertNull(cache.get(Long.class, Number.class));
+        assertEquals(1, cache.size());
+    }
+
+    /**
+     * <b>Method:</b> {@link BoundedCache#putIfAbsent(
+     *                       java.lang.Class, java.lang.Class, java.lang.Object)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 2</h2>
+     *
+     * <p/>
+     * Evicts the values once the maximum size is reached.
+     */
+    @Test
+    public void putIfAbsent_signature1_case2() {
+        BoundedCache<Class<?>, String> cache = new BoundedCache<Class<?>, String>(4);
+        for (int i = 0; i < CLASSES.length; i++) {
+            cache.putIfAbsent(CLASSES[i], Object.class, "" + i);
+            assertTrue(cache.size() <= 4);
+        }
+        assertEquals(4, cache.size());
+        int cached = 0;
+        for (int i = 0; i < CLASSES.length; i++) {
+            String value = cache.get(CLASSES[i], Object.class);
+            if (value != null) {
+                assertEquals("" + i, value);
+                cached++;
+            }
+        }
+        assertEquals(4, cached);
+        assertEquals("" + (CLASSES.length - 1), cache.get(CLASSES[CLASSES.length - 1], Object.class));
+    }
+
+    /**
+     * <b>Method:</b> {@link BoundedCache#putIfAbsent(
+     *                       java.lang.Class, java.lang.Class, java.lang.Object)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 3</h2>
+     *
+     * <p/>
+     * Evicts the values which were not used recently first.
+     */
+    @Test
+    public void putIfAbsent_signature1_case3() {
+        BoundedCache<Class<?>, String> cache = new BoundedCache<Class<?>, String>(4);
+        for (int i = 0; i < 4; i++) {
+            cache.putIfAbsent(CLASSES[i], Object.class, "" + i);
+        }
+        cache.putIfAbsent(CLASSES[4], Object.class, "4");
+        assertNull(cache.get(CLASSES[0], Object.class));
+        assertEquals("1", cache.get(CLASSES[1], Object.class));
+        cache.putIfAbsent(CLASSES[5], Object.class, "5");
+        assertEquals("1", cache.get(CLASSES[1], Object.class));
+        assertNull(cache.get(CLASSES[2], Object.class));
+        assertEquals("3", cache.get(CLASSES[3], Object.class));
+        assertEquals("4", cache.get(CLASSES[4], Object.class));
+        assertEquals("5", cache.get(CLASSES[5], Object.class));
+    }
+
+    /**
+     * <b>Method:</b> {@link BoundedCache#BoundedCache(int)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Throws {@link IllegalArgumentException} if the maximum size is not
+     * positive.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void BoundedCache_signature1_case1() {
+        new BoundedCache<Class<?>, String>(0);
+    }
+
+    /**
+     * <b>Method:</b> {@link BoundedCache#clear()}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Removes all of the values.
+     */
+    @Test
+    public void clear_signature1_case1() {
+        BoundedCache<Class<?>, String> cache = new BoundedCache<Class<?>, String>(4);
+        for (int i = 0; i < 4; i++) {
+            cache.putIfAbsent(CLASSES[i], Object.class, "" + i);
+        }
+        cache.clear();
+        assertEquals(0, cache.size());
+        for (int i = 0; i < 4; i++) {
+            assertNull(cache.get(CLASSES[i], Object.class));
+        }
+        assertEquals("a", cache.putIfAbsent(CLASSES[0], Object.class, "a"));
+        assertEquals(1, cache.size());
+    }
+
+    //==================== Testing Utilities ==================================
+
+    private static final Class<?>[] CLASSES = {
+        Integer.class, Long.class, Short.class, Byte.class,
+        Double.class, Float.class, String.class, Character.class
+    };
+}
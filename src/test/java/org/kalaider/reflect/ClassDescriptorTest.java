@@ -0,0 +1,229 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author Alexander Vasilevsky
+ */
+public class ClassDescriptorTest {
+
+    public ClassDescriptorTest() {
+    }
+
+    /**
+     * <b>Method:</b> {@link ClassDescriptor#getFieldType(int)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Describes the instance fields of the superclasses and the class,
+     * with the types resolved in context of the class.
+     */
+    @Test
+    public void getFieldType_signature1_case1() throws NoSuchFieldException {
+        ClassDescriptor descriptor = ClassDescriptor.of(ClassB.class);
+        assertSame(ClassB.class, descriptor.getType());
+        assertEquals(Arrays.asList(ClassA.class.getDeclaredField("value"),
+                ClassA.class.getDeclaredField("values"), ClassB.class.getDeclaredField("extra")),
+                descriptor.getFields());
+        assertEquals(3, descriptor.getFieldCount());
+        assertEquals(String.class, descriptor.getFieldType(0));
+        assertEquals(Expected.class.getDeclaredField("values").getGenericType(), descriptor.getFieldType(1));
+        assertEquals(Expected.class.getDeclaredField("extra").getGenericType(), descriptor.getFieldType(2));
+    }
+
+    /**
+     * <b>Method:</b> {@link ClassDescriptor#getFieldType(
+     *                       java.lang.reflect.Field)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Finds the type of the described field, and returns <code>null</code>
+     * for the static and the foreign fields.
+     */
+    @Test
+    public void getFieldType_signature2_case1() throws NoSuchFieldException {
+        ClassDescriptor descriptor = ClassDescriptor.of(ClassB.class);
+        assertEquals(String.class, descriptor.getFieldType(ClassA.class.getDeclaredField("value")));
+        assertNull(descriptor.getFieldType(ClassA.class.getDeclaredField("counter")));
+        assertNull(descriptor.getFieldType(Expected.class.getDeclaredField("extra")));
+    }
+
+    /**
+     * <b>Method:</b> {@link ClassDescriptor#getAccessorType(int)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Describes the getters and setters declared or inherited by the
+     * class, ordered by name, with the types of the properties resolved
+     * in context of the class.
+     */
+    @Test
+    public void getAccessorType_signature1_case1() throws NoSuchMethodException {
+        ClassDescriptor descriptor = ClassDescriptor.of(ClassB.class);
+        List<String> names = new ArrayList<String>();
+        for (Method accessor : descriptor.getAccessors()) names.add(accessor.getName());
+        assertEquals(Arrays.asList("getId", "getURL", "getValue", "isEmpty", "setValue"), names);
+        List<String> properties = new ArrayList<String>();
+        List<Type> types = new ArrayList<Type>();
+        for (int i = 0; i < descriptor.getAccessorCount(); i++) {
+            assertEquals(names.get(i), descriptor.getAccessor(i).getName());
+            properties.add(descriptor.getPropertyName(i));
+            types.add(descriptor.getAccessorType(i));
+        }
+        assertEquals(Arrays.asList("id", "URL", "value", "empty", "value"), properties);
+        assertEquals(Arrays.<Type>asList(Long.class, String.class, String.class, boolean.class,
+                String.class), types);
+    }
+
+    /**
+     * <b>Method:</b> {@link ClassDescriptor#getAccessorType(int)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 2</h2>
+     *
+     * <p/>
+     * Orders overloaded setters by the names of their parameter types.
+     */
+    @Test
+    public void getAccessorType_signature1_case2() {
+        ClassDescriptor descriptor = ClassDescriptor.of(ClassC.class);
+        List<Type> types = new ArrayList<Type>();
+        for (int i = 0; i < descriptor.getAccessorCount(); i++) {
+            assertEquals("setSize", descriptor.getAccessor(i).getName());
+            types.add(descriptor.getAccessorType(i));
+        }
+        assertEquals(Arrays.<Type>asList(int.class, Long.class, String.class), types);
+    }
+
+    /**
+     * <b>Method:</b> {@link ClassDescriptor#getAccessorType(int)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 3</h2>
+     *
+     * <p/>
+     * Orders the getters inherited from several interfaces by their
+     * declaring classes.
+     */
+    @Test
+    public void getAccessorType_signature1_case3() throws NoSuchMethodException {
+        ClassDescriptor descriptor = ClassDescriptor.of(ClassD.class);
+        assertEquals(Arrays.asList(Named.class.getMethod("getName"),
+                Titled.class.getMethod("getName")), descriptor.getAccessors());
+        assertEquals(Object.class, descriptor.getAccessorType(0));
+        assertEquals(String.class, descriptor.getAccessorType(1));
+    }
+
+    /**
+     * <b>Method:</b> {@link ClassDescriptor#getAccessorType(
+     *                       java.lang.reflect.Method)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Finds the type of the described accessor, and returns
+     * <code>null</code> for the other methods.
+     */
+    @Test
+    public void getAccessorType_signature2_case1() throws NoSuchMethodException {
+        ClassDescriptor descriptor = ClassDescriptor.of(ClassB.class);
+        assertEquals(String.class, descriptor.getAccessorType(
+                ClassA.class.getDeclaredMethod("setValue", Object.class)));
+        assertNull(descriptor.getAccessorType(ClassB.class.getDeclaredMethod("set", String.class)));
+        assertNull(descriptor.getAccessorType(ClassB.class.getDeclaredMethod("isBoxed")));
+        assertNull(descriptor.getAccessorType(ClassB.class.getDeclaredMethod("run")));
+    }
+
+    /**
+     * <b>Method:</b> {@link ClassDescriptor#of(java.lang.Class)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Builds the descriptor once per class.
+     */
+    @Test
+    public void of_signature1_case1() {
+        assertSame(ClassDescriptor.of(ClassB.class), ClassDescriptor.of(ClassB.class));
+        assertEquals(0, ClassDescriptor.of(Object.class).getFieldCount());
+        assertEquals(0, ClassDescriptor.of(Object.class).getAccessorCount());
+    }
+
+    //==================== Testing Utilities ==================================
+
+    interface Identified<I> {
+        I getId();
+    }
+    static class ClassA<T, I> implements Identified<I> {
+        static int counter;
+        T value;
+        List<T> values;
+        public T getValue() { return value; }
+        public void setValue(T value) { this.value = value; }
+        @Override public I getId() { return null; }
+        public boolean isEmpty() { return values == null; }
+    }
+    static class ClassB extends ClassA<String, Long> {
+        Map<String, Integer[]> extra;
+        public String getURL() { return null; }
+        public void set(String value) {  }
+        public Boolean isBoxed() { return null; }
+        public void run() {  }
+    }
+    static class ClassC {
+        public void setSize(String size) {  }
+        public void setSize(int size) {  }
+        public void setSize(Long size) {  }
+    }
+    interface Named {
+        Object getName();
+    }
+    interface Titled {
+        String getName();
+    }
+    static abstract class ClassD implements Titled, Named {  }
+    static class Expected {
+        List<String> values;
+        Map<String, Integer[]> extra;
+    }
+}
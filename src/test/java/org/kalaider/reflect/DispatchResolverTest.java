@@ -0,0 +1,222 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author Alexander Vasilevsky
+ */
+public class DispatchResolverTest {
+
+    public DispatchResolverTest() {
+    }
+
+    /**
+     * <b>Method:</b> {@link DispatchResolver#resolve(java.lang.Class)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Finds the most specific generic override declared by the receiver
+     * class or its superclasses.
+     */
+    @Test
+    public void resolve_signature1_case1() throws NoSuchMethodException {
+        Method methodA = ClassA.class.getDeclaredMethod("a", Object.class);
+        Method methodB = ClassB.class.getDeclaredMethod("a", Number.class);
+        Method methodD = ClassD.class.getDeclaredMethod("a", Integer.class);
+        DispatchResolver resolver = new DispatchResolver(methodA);
+        assertSame(methodA, resolver.getMethod());
+        assertEquals(methodA, resolver.resolve(ClassA.class));
+        assertEquals(methodB, resolver.resolve(ClassB.class));
+        assertEquals(methodB, resolver.resolve(ClassC.class));
+        assertEquals(methodD, resolver.resolve(ClassD.class));
+        assertSame(resolver.resolve(ClassD.class), resolver.resolve(ClassD.class));
+        assertEquals(methodD, new DispatchResolver(methodB).resolve(ClassD.class));
+    }
+
+    /**
+     * <b>Method:</b> {@link DispatchResolver#resolve(java.lang.Class)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 2</h2>
+     *
+     * <p/>
+     * Selects the maximally specific default method if no class implements
+     * the method, and returns <code>null</code> if it is abstract in the
+     * receiver class.
+     */
+    @Test
+    public void resolve_signature1_case2() throws NoSuchMethodException {
+        Method methodA = InterfaceA.class.getDeclaredMethod("b", Object.class);
+        Method methodB = InterfaceB.class.getDeclaredMethod("b", String.class);
+        DispatchResolver resolver = new DispatchResolver(methodA);
+        assertEquals(methodB, resolver.resolve(ClassE.class));
+        assertEquals(methodB, resolver.resolve(InterfaceB.class));
+        assertNull(resolver.resolve(InterfaceA.class));
+        assertNull(resolver.resolve(ClassF.class));
+        assertEquals(ClassG.class.getDeclaredMethod("b", String.class), resolver.resolve(ClassG.class));
+    }
+
+    /**
+     * <b>Method:</b> {@link DispatchResolver#resolve(java.lang.Class)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 3</h2>
+     *
+     * <p/>
+     * Throws {@link IllegalArgumentException} if the receiver class is not
+     * a subtype of the declaring class of the base method.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void resolve_signature1_case3() throws NoSuchMethodException {
+        new DispatchResolver(ClassB.class.getDeclaredMethod("a", Number.class)).resolve(ClassA.class);
+    }
+
+    /**
+     * <b>Method:</b> {@link DispatchResolver#resolve(java.lang.Class)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 4</h2>
+     *
+     * <p/>
+     * Finds the implementation inherited from a superclass which does not
+     * implement the interface, comparing the parameter types in context
+     * of the receiver class.
+     */
+    @Test
+    public void resolve_signature1_case4() throws NoSuchMethodException {
+        DispatchResolver resolver = new DispatchResolver(InterfaceC.class.getDeclaredMethod("c"));
+        assertEquals(ClassH.class.getDeclaredMethod("c"), resolver.resolve(ClassI.class));
+
+        resolver = new DispatchResolver(InterfaceD.class.getDeclaredMethod("d", Object.class));
+        assertEquals(ClassJ.class.getDeclaredMethod("d", String.class), resolver.resolve(ClassK.class));
+        assertEquals(ClassJ.class.getDeclaredMethod("d", String.class), resolver.resolve(ClassL.class));
+    }
+
+    /**
+     * <b>Method:</b> {@link DispatchResolver#getMethodHandle(java.lang.Class)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Creates the handle of the implementation once per receiver class.
+     */
+    @Test
+    public void getMethodHandle_signature1_case1() throws Throwable {
+        DispatchResolver resolver = new DispatchResolver(
+                ClassA.class.getDeclaredMethod("a", Object.class), MethodHandles.lookup());
+        MethodHandle handle = resolver.getMethodHandle(ClassD.class);
+        assertSame(handle, resolver.getMethodHandle(ClassD.class));
+        assertEquals("D", (String) handle.invoke(new ClassD(), 1));
+        assertEquals("B", (String) resolver.getMethodHandle(ClassC.class).invoke(new ClassC(), 1));
+
+        resolver = new DispatchResolver(
+                InterfaceA.class.getDeclaredMethod("b", Object.class), MethodHandles.lookup());
+        assertNull(resolver.getMethodHandle(ClassF.class));
+    }
+
+    /**
+     * <b>Method:</b> {@link DispatchResolver#getMethodHandle(java.lang.Class)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 2</h2>
+     *
+     * <p/>
+     * Throws {@link IllegalStateException} if the resolver was created
+     * without a lookup.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void getMethodHandle_signature1_case2() throws Exception {
+        new DispatchResolver(ClassA.class.getDeclaredMethod("a", Object.class))
+                .getMethodHandle(ClassB.class);
+    }
+
+    /**
+     * <b>Method:</b> {@link DispatchResolver#DispatchResolver(
+     *                       java.lang.reflect.Method)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Throws {@link IllegalArgumentException} if the method is static.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void DispatchResolver_signature1_case1() throws NoSuchMethodException {
+        new DispatchResolver(ClassA.class.getDeclaredMethod("c"));
+    }
+
+    //==================== Testing Utilities ==================================
+
+    static class ClassA<T> {
+        String a(T arg) { return "A"; }
+        static void c() {  }
+    }
+    static class ClassB<N extends Number> extends ClassA<N> {
+        @Override String a(N arg) { return "B"; }
+    }
+    static class ClassC extends ClassB<Integer> {  }
+    static class ClassD extends ClassC {
+        @Override String a(Integer arg) { return "D"; }
+    }
+
+    interface InterfaceA<T> {
+        void b(T arg);
+    }
+    interface InterfaceB extends InterfaceA<String> {
+        @Override default void b(String arg) {  }
+    }
+    static class ClassE implements InterfaceB {  }
+    static abstract class ClassF implements InterfaceB {
+        @Override public abstract void b(String arg);
+    }
+    static class ClassG extends ClassF {
+        @Override public void b(String arg) {  }
+    }
+    interface InterfaceC {
+        void c();
+    }
+    static class ClassH {
+        public void c() {  }
+    }
+    static class ClassI extends ClassH implements InterfaceC {  }
+    interface InterfaceD<T> {
+        void d(T arg);
+    }
+    static class ClassJ {
+        public void d(Integer arg) {  }
+        public void d(String arg) {  }
+    }
+    static class ClassK extends ClassJ implements InterfaceD<String> {  }
+    static class ClassL extends ClassK {  }
+}
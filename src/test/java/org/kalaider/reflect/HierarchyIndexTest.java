@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author Alexander Vasilevsky
+ */
+public class HierarchyIndexTest {
+
+    public HierarchyIndexTest() {
+    }
+
+    /**
+     * <b>Method:</b> {@link HierarchyIndex#isAssignableFrom(
+     *                       java.lang.Class, java.lang.Class)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Gives the same answers as {@link Class#isAssignableFrom(
+     * java.lang.Class)} for every pair of the indexed classes, interfaces
+     * and <code>Object</code>.
+     */
+    @Test
+    public void isAssignableFrom_signature1_case1() {
+        List<Class<?>> classes = Arrays.<Class<?>>asList(ClassC.class, ClassD.class,
+                ClassE.class, ArrayList.class, HashMap.class, ConcurrentHashMap.class, Integer.class);
+        HierarchyIndex index = HierarchyIndex.of(classes);
+        List<Class<?>> all = new ArrayList<Class<?>>(classes);
+        all.addAll(Arrays.<Class<?>>asList(Object.class, ClassA.class, ClassB.class,
+                InterfaceA.class, InterfaceB.class, InterfaceC.class,
+                Collection.class, RandomAccess.class, Serializable.class, Comparable.class,
+                Number.class));
+        for (Class<?> classA : all) {
+            assertTrue(index.contains(classA));
+            for (Class<?> classC : all) {
+                assertEquals(classA + " " + classC, classA.isAssignableFrom(classC),
+                        index.isAssignableFrom(classA, classC));
+            }
+        }
+    }
+
+    /**
+     * <b>Method:</b> {@link HierarchyIndex#isAssignableFrom(
+     *                       java.lang.Class, java.lang.Class)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 2</h2>
+     *
+     * <p/>
+     * Checks the classes not indexed, the arrays and the primitive types
+     * by reflection.
+     */
+    @Test
+    public void isAssignableFrom_signature1_case2() {
+        HierarchyIndex index = HierarchyIndex.of(Arrays.<Class<?>>asList(
+                ClassC.class, Object[].class, int.class));
+        assertFalse(index.contains(Object[].class));
+        assertFalse(index.contains(int.class));
+        assertFalse(index.contains(String.class));
+        assertTrue(index.isAssignableFrom(Object.class, String.class));
+        assertTrue(index.isAssignableFrom(Object.class, ClassC[].class));
+        assertTrue(index.isAssignableFrom(Object[].class, ClassC[].class));
+        assertFalse(index.isAssignableFrom(ClassA.class, String.class));
+        assertFalse(index.isAssignableFrom(int.class, Integer.class));
+        assertTrue(index.isAssignableFrom(int.class, int.class));
+    }
+
+    /**
+     * <b>Method:</b> {@link HierarchyIndex#of(java.util.Collection)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Indexes the classes and all of their supertypes once, assigning
+     * a bit to each interface.
+     */
+    @Test
+    public void of_signature1_case1() {
+        HierarchyIndex index = HierarchyIndex.of(Arrays.<Class<?>>asList(
+                ClassC.class, ClassB.class, ClassE.class));
+        // Object, ClassA, ClassB, ClassC, ClassE and three interfaces
+        assertEquals(8, index.size());
+        assertEquals(3, index.getInterfaceCount());
+        assertFalse(index.contains(ClassD.class));
+    }
+
+    /**
+     * <b>Method:</b> {@link HierarchyIndex#of(java.util.Collection)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 2</h2>
+     *
+     * <p/>
+     * Keeps the bits of more than <code>64</code> interfaces.
+     */
+    @Test
+    public void of_signature1_case2() {
+        List<Class<?>> classes = new ArrayList<Class<?>>();
+        for (Class<?> type : HierarchyIndexTest.class.getDeclaredClasses()) classes.add(type);
+        classes.addAll(Arrays.<Class<?>>asList(ArrayList.class, ConcurrentHashMap.class,
+                Integer.class, String.class, Thread.class, java.util.LinkedList.class,
+                java.util.TreeMap.class, java.util.TreeSet.class, java.util.EnumMap.class,
+                java.util.IdentityHashMap.class, java.util.Date.class, java.util.Scanner.class,
+                java.util.concurrent.LinkedBlockingDeque.class,
+                java.util.concurrent.ConcurrentSkipListMap.class,
+                java.util.concurrent.ScheduledThreadPoolExecutor.class,
+                java.util.concurrent.CompletableFuture.class,
+                java.util.concurrent.FutureTask.class, java.util.concurrent.ForkJoinTask.class,
+                java.nio.channels.FileChannel.class, java.nio.channels.SocketChannel.class,
+                java.nio.channels.DatagramChannel.class,
+                java.nio.channels.AsynchronousSocketChannel.class,
+                java.io.PrintWriter.class, java.io.RandomAccessFile.class,
+                java.lang.invoke.MethodType.class, StringBuilder.class, Class.class, Enum.class,
+                java.lang.reflect.Method.class, java.lang.reflect.Field.class,
+                java.time.LocalDate.class, java.time.ZonedDateTime.class,
+                java.beans.beancontext.BeanContextServicesSupport.class,
+                java.awt.dnd.DropTarget.class, javax.swing.JTable.class,
+                javax.swing.JTree.class, javax.swing.JList.class));
+        HierarchyIndex index = HierarchyIndex.of(classes);
+        assertTrue(index.getInterfaceCount() > 64);
+        List<Class<?>> all = new ArrayList<Class<?>>(classes);
+        for (Class<?> type : classes) all.addAll(Arrays.asList(type.getInterfaces()));
+        for (Class<?> classA : all) {
+            for (Class<?> classC : all) {
+                assertEquals(classA + " " + classC, classA.isAssignableFrom(classC),
+                        index.isAssignableFrom(classA, classC));
+            }
+        }
+    }
+
+    /**
+     * <b>Method:</b> {@link HierarchyIndex#of(java.util.Collection)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 3</h2>
+     *
+     * <p/>
+     * Throws {@link NullPointerException} if the collection contains
+     * <code>null</code>.
+     */
+    @Test(expected = NullPointerException.class)
+    public void of_signature1_case3() {
+        HierarchyIndex.of(Arrays.<Class<?>>asList(ClassA.class, null));
+    }
+
+    //==================== Testing Utilities ==================================
+
+    interface InterfaceA {  }
+    interface InterfaceB extends InterfaceA {  }
+    interface InterfaceC {  }
+    static class ClassA {  }
+    static class ClassB extends ClassA implements InterfaceB {  }
+    static class ClassC extends ClassB implements InterfaceC {  }
+    static class ClassD extends ClassA implements InterfaceA {  }
+    static class ClassE implements InterfaceC {  }
+}
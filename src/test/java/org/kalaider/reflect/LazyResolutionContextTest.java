@@ -0,0 +1,187 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect;
+
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author Alexander Vasilevsky
+ */
+public class LazyResolutionContextTest {
+
+    private static final ReflectionEngine ENGINE =
+            new ReflectionEngine(CacheProviders.concurrent());
+
+    public LazyResolutionContextTest() {
+    }
+
+    /**
+     * <b>Method:</b> {@link LazyResolutionContext#resolve(
+     *                       java.lang.reflect.TypeVariable)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Walks the superclasses only up to the declaring class of the type
+     * variable looked up.
+     */
+    @Test
+    public void resolve_signature1_case1() {
+        LazyResolutionContext context = new LazyResolutionContext(ENGINE, Object.class, ClassE.class);
+        assertEquals(0, context.walked());
+        assertEquals(Integer.class, context.resolve(ClassD.class.getTypeParameters()[0]));
+        assertEquals(1, context.walked());
+        assertEquals(Integer.class, context.resolve(ClassC.class.getTypeParameters()[0]));
+        assertEquals(2, context.walked());
+        assertEquals(Integer.class, context.resolve(ClassA.class.getTypeParameters()[0]));
+        assertEquals(4, context.walked());
+        assertEquals(Integer.class, context.resolve(ClassB.class.getTypeParameters()[0]));
+        assertEquals(4, context.walked());
+    }
+
+    /**
+     * <b>Method:</b> {@link LazyResolutionContext#resolve(
+     *                       java.lang.reflect.TypeVariable)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 2</h2>
+     *
+     * <p/>
+     * Returns <code>null</code> without walking for the type variables
+     * of the lower class, the classes above the upper class and the
+     * unrelated classes.
+     */
+    @Test
+    public void resolve_signature1_case2() {
+        LazyResolutionContext context = new LazyResolutionContext(ENGINE, ClassC.class, ClassE.class);
+        assertNull(context.resolve(ClassA.class.getTypeParameters()[0]));
+        assertNull(context.resolve(ClassF.class.getTypeParameters()[0]));
+        assertEquals(0, context.walked());
+        assertNull(context.get("T"));
+        assertNull(context.resolve(ClassG.class.getTypeParameters()[0]));
+        assertEquals(Integer.class, context.resolve(ClassC.class.getTypeParameters()[0]));
+        assertEquals(2, context.walked());
+    }
+
+    /**
+     * <b>Method:</b> {@link LazyResolutionContext#resolve(
+     *                       java.lang.reflect.TypeVariable)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 3</h2>
+     *
+     * <p/>
+     * Resolves the type variables of the superinterfaces.
+     */
+    @Test
+    public void resolve_signature1_case3() {
+        LazyResolutionContext context = new LazyResolutionContext(ENGINE, InterfaceA.class, ClassE.class);
+        assertEquals(Integer.class, context.resolve(InterfaceA.class.getTypeParameters()[0]));
+        assertEquals(Integer.class, context.resolve(ClassB.class.getTypeParameters()[0]));
+    }
+
+    /**
+     * <b>Method:</b> {@link LazyResolutionContext#entrySet()}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Is equal to the context resolved at once.
+     */
+    @Test
+    public void entrySet_signature1_case1() {
+        ResolutionContext expected = new ResolutionContext(Object.class, ClassE.class);
+        LazyResolutionContext context = new LazyResolutionContext(ENGINE, Object.class, ClassE.class);
+        assertEquals(Integer.class, context.resolve(ClassC.class.getTypeParameters()[0]));
+        assertEquals(expected, context);
+        assertEquals(expected.size(), context.size());
+        assertEquals(expected.hashCode(), context.hashCode());
+    }
+
+    /**
+     * <b>Method:</b> {@link LazyResolutionContext#resolve(
+     *                       java.lang.reflect.TypeVariable)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 4</h2>
+     *
+     * <p/>
+     * Gives the same answers to the concurrent lookups as the context
+     * resolved at once.
+     */
+    @Test
+    public void resolve_signature1_case4() throws Exception {
+        final ResolutionContext expected = new ResolutionContext(Object.class, ClassE.class);
+        final List<TypeVariable<?>> variables = new ArrayList<TypeVariable<?>>();
+        for (Class<?> type = ClassE.class; type != null; type = type.getSuperclass()) {
+            for (TypeVariable<?> variable : type.getTypeParameters()) variables.add(variable);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int n = 0; n < 100; n++) {
+                final LazyResolutionContext context = new LazyResolutionContext(ENGINE, Object.class, ClassE.class);
+                List<Future<Boolean>> futures = new ArrayList<Future<Boolean>>();
+                for (int t = 0; t < 4; t++) {
+                    final int first = t;
+                    futures.add(executor.submit(new Callable<Boolean>() {
+                        @Override
+                        public Boolean call() {
+                            for (int i = 0; i < variables.size(); i++) {
+                                TypeVariable<?> variable = variables.get((first + i) % variables.size());
+                                Type actual = context.resolve(variable);
+                                if (actual == null ? expected.resolve(variable) != null
+                                        : !actual.equals(expected.resolve(variable))) return false;
+                            }
+                            return true;
+                        }
+                    }));
+                }
+                for (Future<Boolean> future : futures) assertTrue(future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    //==================== Testing Utilities ==================================
+
+    interface InterfaceA<X> {  }
+    static class ClassA<T> {  }
+    static class ClassB<K> extends ClassA<K> implements InterfaceA<K> {  }
+    static class ClassC<N> extends ClassB<N> {  }
+    static class ClassD<M> extends ClassC<M> {  }
+    static class ClassE extends ClassD<Integer> {  }
+    static class ClassF<T> extends ClassE {  }
+    static class ClassG<T> {  }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author Alexander Vasilevsky
+ */
+public class MethodSignatureTest {
+
+    public MethodSignatureTest() {
+    }
+
+    /**
+     * <b>Method:</b> {@link MethodSignature#nextId(
+     *                       java.util.concurrent.atomic.AtomicInteger)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Stops at {@link Integer#MAX_VALUE} instead of wrapping around,
+     * and returns <code>0</code> once the ids are exhausted.
+     */
+    @Test
+    public void nextId_signature1_case1() {
+        AtomicInteger ids = new AtomicInteger();
+        assertEquals(1, MethodSignature.nextId(ids));
+        assertEquals(2, MethodSignature.nextId(ids));
+        ids.set(Integer.MAX_VALUE - 1);
+        assertEquals(Integer.MAX_VALUE, MethodSignature.nextId(ids));
+        assertEquals(0, MethodSignature.nextId(ids));
+        assertEquals(0, MethodSignature.nextId(ids));
+        assertEquals(Integer.MAX_VALUE, ids.get());
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import static org.junit.Assert.*;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ *
+ * @author Alexander Vasilevsky
+ */
+public class OverrideAnalysisTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    public OverrideAnalysisTest() {
+    }
+
+    /**
+     * <b>Method:</b> {@link OverrideAnalysis#analyze(java.util.Collection)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Finds the overridden methods of the analyzed classes.
+     */
+    @Test
+    public void analyze_signature1_case1() throws NoSuchMethodException {
+        OverrideAnalysis analysis = OverrideAnalysis.analyze(
+                Arrays.<Class<?>>asList(ClassA.class, ClassB.class, ClassC.class));
+        assertEquals(3, analysis.getClassCount());
+        assertEquals(4, analysis.getRelationCount());
+        assertEquals(Arrays.asList(
+                        ClassB.class.getDeclaredMethod("a", Number.class),
+                        ClassA.class.getDeclaredMethod("a", Object.class)),
+                analysis.getOverriddenMethods(ClassC.class.getDeclaredMethod("a", Number.class)));
+        assertEquals(Arrays.asList(
+                        ClassA.class.getDeclaredMethod("b", List.class)),
+                analysis.getOverriddenMethods(ClassC.class.getDeclaredMethod("b", List.class)));
+        assertEquals(Collections.emptyList(),
+                analysis.getOverriddenMethods(ClassC.class.getDeclaredMethod("c")));
+        assertTrue(analysis.getFailures().isEmpty());
+    }
+
+    /**
+     * <b>Method:</b> {@link OverrideAnalysis#analyze(java.util.Collection)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 2</h2>
+     *
+     * <p/>
+     * Finds the overriding methods of the analyzed classes.
+     */
+    @Test
+    public void analyze_signature1_case2() throws NoSuchMethodException {
+        OverrideAnalysis analysis = OverrideAnalysis.analyze(
+                Arrays.<Class<?>>asList(ClassA.class, ClassB.class, ClassC.class));
+        assertEquals(Arrays.asList(
+                        ClassB.class.getDeclaredMethod("a", Number.class),
+                        ClassC.class.getDeclaredMethod("a", Number.class)),
+                analysis.getOverridingMethods(ClassA.class.getDeclaredMethod("a", Object.class)));
+        assertEquals(Collections.emptyList(),
+                analysis.getOverridingMethods(ClassC.class.getDeclaredMethod("c")));
+    }
+
+    /**
+     * <b>Method:</b> {@link OverrideAnalysis#analyze(java.util.Collection,
+     *                       java.util.concurrent.ForkJoinPool)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Finds the same relations as the sequential search does when
+     * the classes are split between many tasks.
+     */
+    @Test
+    public void analyze_signature2_case1() {
+        List<Class<?>> classes = new ArrayList<Class<?>>();
+        for (int i = 0; i < 100; i++) {
+            classes.add(ClassA.class);
+            classes.add(ClassB.class);
+            classes.add(ClassC.class);
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            OverrideAnalysis analysis = OverrideAnalysis.analyze(classes, pool);
+            assertEquals(300, analysis.getClassCount());
+            assertEquals(400, analysis.getRelationCount());
+            for (Class<?> type : classes) {
+                for (Method method : type.getDeclaredMethods()) {
+                    if (method.isBridge()) continue;
+                    List<Method> expected = new ArrayList<Method>();
+                    for (int i = 0; i < 100; i++) {
+                        expected.addAll(ReflectionUtilities.findOverriddenMethods(method));
+                    }
+                    assertEquals(expected, analysis.getOverriddenMethods(method));
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * <b>Method:</b> {@link OverrideAnalysis#analyze(java.io.File,
+     *                       java.lang.ClassLoader)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Analyzes the classes of the jar file and reports the classes
+     * which cannot be loaded.
+     */
+    @Test
+    public void analyze_signature3_case1() throws IOException, NoSuchMethodException {
+        File jar = folder.newFile("classes.jar");
+        JarOutputStream output = new JarOutputStream(new FileOutputStream(jar));
+        try {
+            for (Class<?> type : Arrays.<Class<?>>asList(ClassA.class, ClassB.class, ClassC.class)) {
+                output.putNextEntry(new JarEntry(type.getName().replace('.', '/') + ".class"));
+                InputStream input = type.getResourceAsStream(
+                        type.getName().substring(type.getName().lastIndexOf('.') + 1) + ".class");
+                try {
+                    byte[] buffer = new byte[4096];
+                    for (int read; (read = input.read(buffer)) > 0; ) output.write(buffer, 0, read);
+                } finally {
+                    input.close();
+                }
+            }
+            output.putNextEntry(new JarEntry("org/kalaider/reflect/Missing.class"));
+            output.putNextEntry(new JarEntry("META-INF/MANIFEST.MF"));
+        } finally {
+            output.close();
+        }
+        OverrideAnalysis analysis = OverrideAnalysis.analyze(jar, getClass().getClassLoader());
+        assertEquals(4, analysis.getClassCount());
+        assertEquals(4, analysis.getRelationCount());
+        assertEquals(Collections.singletonList("org.kalaider.reflect.Missing"),
+                analysis.getFailures());
+        assertEquals(Arrays.asList(
+                        ClassB.class.getDeclaredMethod("a", Number.class),
+                        ClassA.class.getDeclaredMethod("a", Object.class)),
+                analysis.getOverriddenMethods(ClassC.class.getDeclaredMethod("a", Number.class)));
+    }
+
+    //==================== Testing Utilities ==================================
+
+    static class ClassA<T> {
+        void a(T arg) {  }
+        void b(List<? extends T> arg) {  }
+    }
+    static class ClassB<N extends Number> extends ClassA<N> {
+        @Override void a(N arg) {  }
+    }
+    static class ClassC extends ClassB<Number> {
+        @Override void a(Number arg) {  }
+        @Override void b(List<? extends Number> arg) {  }
+        void c() {  }
+    }
+}
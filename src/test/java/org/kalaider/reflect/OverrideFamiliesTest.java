@@ -0,0 +1,191 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author Alexander Vasilevsky
+ */
+public class OverrideFamiliesTest {
+
+    public OverrideFamiliesTest() {
+    }
+
+    /**
+     * <b>Method:</b> {@link OverrideFamilies#getFamily(java.lang.reflect.Method)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Groups the generic overrides of the superclasses and interfaces,
+     * ordered from the class to its superinterfaces, but not the overloads.
+     */
+    @Test
+    public void getFamily_signature1_case1() throws NoSuchMethodException {
+        Method methodB = ClassB.class.getDeclaredMethod("a", Integer.class);
+        List<Method> expected = Arrays.asList(methodB,
+                ClassA.class.getDeclaredMethod("a", Object.class),
+                InterfaceA.class.getDeclaredMethod("a", Object.class));
+        OverrideFamilies families = OverrideFamilies.of(ClassB.class);
+        assertSame(ClassB.class, families.getType());
+        assertEquals(expected, families.getFamily(methodB));
+        assertEquals(expected, families.getFamily(expected.get(2)));
+        assertEquals(Collections.singletonList(ClassB.class.getDeclaredMethod("a", String.class)),
+                families.getFamily(ClassB.class.getDeclaredMethod("a", String.class)));
+    }
+
+    /**
+     * <b>Method:</b> {@link OverrideFamilies#getFamily(java.lang.reflect.Method)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 2</h2>
+     *
+     * <p/>
+     * Merges the methods of unrelated interfaces implemented by the same
+     * method, and keeps the static methods and the methods not declared
+     * by the class or its supertypes apart.
+     */
+    @Test
+    public void getFamily_signature1_case2() throws NoSuchMethodException {
+        Method methodC = ClassC.class.getDeclaredMethod("c", String.class);
+        OverrideFamilies families = OverrideFamilies.of(ClassC.class);
+        assertEquals(Arrays.asList(methodC,
+                InterfaceB.class.getDeclaredMethod("c", String.class),
+                InterfaceC.class.getDeclaredMethod("c", Object.class)),
+                families.getFamily(methodC));
+        Method methodD = ClassC.class.getDeclaredMethod("d");
+        assertEquals(Collections.singletonList(methodD), families.getFamily(methodD));
+        assertEquals(Collections.emptyList(),
+                families.getFamily(ClassB.class.getDeclaredMethod("a", Integer.class)));
+    }
+
+    /**
+     * <b>Method:</b> {@link OverrideFamilies#getFamily(java.lang.reflect.Method)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 3</h2>
+     *
+     * <p/>
+     * Merges the interface method with the method implementing it in the
+     * class, inherited from a superclass which does not implement the
+     * interface, comparing both in context of the class.
+     */
+    @Test
+    public void getFamily_signature1_case3() throws NoSuchMethodException {
+        Method methodE = ClassD.class.getDeclaredMethod("e");
+        assertEquals(Arrays.asList(methodE, InterfaceD.class.getDeclaredMethod("e")),
+                OverrideFamilies.of(ClassE.class).getFamily(methodE));
+
+        Method methodC = ClassD.class.getDeclaredMethod("c", String.class);
+        OverrideFamilies families = OverrideFamilies.of(ClassF.class);
+        assertEquals(Arrays.asList(methodC, InterfaceC.class.getDeclaredMethod("c", Object.class)),
+                families.getFamily(methodC));
+        Method methodI = ClassD.class.getDeclaredMethod("c", Integer.class);
+        assertEquals(Collections.singletonList(methodI), families.getFamily(methodI));
+        assertEquals(Collections.singletonList(methodE),
+                OverrideFamilies.of(ClassD.class).getFamily(methodE));
+    }
+
+    /**
+     * <b>Method:</b> {@link OverrideFamilies#getFamilies()}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Partitions all of the methods of the class and its supertypes,
+     * including the ones of <code>Object</code>.
+     */
+    @Test
+    public void getFamilies_signature1_case1() throws NoSuchMethodException {
+        OverrideFamilies families = OverrideFamilies.of(ClassB.class);
+        List<List<Method>> all = families.getFamilies();
+        assertEquals(families.getFamilyCount(), all.size());
+        int methods = 0;
+        for (List<Method> family : all) {
+            assertFalse(family.isEmpty());
+            for (Method method : family) assertEquals(family, families.getFamily(method));
+            methods += family.size();
+        }
+        assertEquals(ClassB.class.getDeclaredMethods().length + ClassA.class.getDeclaredMethods().length
+                + InterfaceA.class.getDeclaredMethods().length + Object.class.getDeclaredMethods().length
+                - 1, methods);
+        Method toString = Object.class.getDeclaredMethod("toString");
+        assertEquals(Collections.singletonList(toString), families.getFamily(toString));
+    }
+
+    /**
+     * <b>Method:</b> {@link OverrideFamilies#of(java.lang.Class)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Computes the families once per class.
+     */
+    @Test
+    public void of_signature1_case1() {
+        assertSame(OverrideFamilies.of(ClassC.class), OverrideFamilies.of(ClassC.class));
+    }
+
+    //==================== Testing Utilities ==================================
+
+    interface InterfaceA<T> {
+        void a(T arg);
+    }
+    interface InterfaceB {
+        void c(String arg);
+    }
+    interface InterfaceC<T> {
+        void c(T arg);
+    }
+    static abstract class ClassA<T> implements InterfaceA<T> {
+        @Override public void a(T arg) {  }
+    }
+    static class ClassB extends ClassA<Integer> {
+        @Override public void a(Integer arg) {  }
+        public void a(String arg) {  }
+    }
+    static class ClassC implements InterfaceB, InterfaceC<String> {
+        @Override public void c(String arg) {  }
+        public void c(Integer arg) {  }
+        static void d() {  }
+    }
+    interface InterfaceD {
+        void e();
+    }
+    static class ClassD {
+        public void c(String arg) {  }
+        public void c(Integer arg) {  }
+        public void e() {  }
+    }
+    static class ClassE extends ClassD implements InterfaceD {  }
+    static class ClassF extends ClassD implements InterfaceC<String> {  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author Alexander Vasilevsky
+ */
+public class OverrideMemoTest {
+
+    public OverrideMemoTest() {
+    }
+
+    /**
+     * <b>Method:</b> {@link OverrideMemo#get(int, int)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Returns the results put, and {@link OverrideMemo#UNKNOWN} for the
+     * pairs not put, including the reversed ones.
+     */
+    @Test
+    public void get_signature1_case1() {
+        OverrideMemo memo = new OverrideMemo(16);
+        assertEquals(OverrideMemo.UNKNOWN, memo.get(1, 2));
+        memo.put(1, 2, true);
+        memo.put(2, 3, false);
+        memo.put(Integer.MAX_VALUE, Integer.MAX_VALUE, true);
+        assertEquals(1, memo.get(1, 2));
+        assertEquals(0, memo.get(2, 3));
+        assertEquals(1, memo.get(Integer.MAX_VALUE, Integer.MAX_VALUE));
+        assertEquals(OverrideMemo.UNKNOWN, memo.get(2, 1));
+        assertEquals(OverrideMemo.UNKNOWN, memo.get(3, 2));
+    }
+
+    /**
+     * <b>Method:</b> {@link OverrideMemo#put(int, int, boolean)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Overwrites the results once the table is full, never returning
+     * a wrong result.
+     */
+    @Test
+    public void put_signature1_case1() {
+        OverrideMemo memo = new OverrideMemo(5);
+        for (int i = 1; i <= 100; i++) memo.put(i, i + 1, i % 3 == 0);
+        int kept = 0;
+        for (int i = 1; i <= 100; i++) {
+            int result = memo.get(i, i + 1);
+            if (result == OverrideMemo.UNKNOWN) continue;
+            assertEquals(i % 3 == 0 ? 1 : 0, result);
+            kept++;
+        }
+        assertTrue(kept > 0 && kept <= 8);
+        assertEquals(1, memo.get(99, 100));
+    }
+
+    /**
+     * <b>Method:</b> {@link OverrideMemo#clear()}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Removes all of the results.
+     */
+    @Test
+    public void clear_signature1_case1() {
+        OverrideMemo memo = new OverrideMemo(16);
+        memo.put(1, 2, true);
+        memo.clear();
+        assertEquals(OverrideMemo.UNKNOWN, memo.get(1, 2));
+    }
+
+    /**
+     * <b>Method:</b> {@link OverrideMemo#OverrideMemo(int)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Throws {@link IllegalArgumentException} if the capacity is not
+     * positive.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void OverrideMemo_signature1_case1() {
+        new OverrideMemo(0);
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author Alexander Vasilevsky
+ */
+public class PrecomputedTableTest {
+
+    public PrecomputedTableTest() {
+    }
+
+    /**
+     * <b>Method:</b> {@link PrecomputedTable#of(java.lang.Class)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Reads the table of the marked class.
+     */
+    @Test
+    public void of_signature1_case1() throws NoSuchMethodException {
+        PrecomputedTable table = PrecomputedTable.of(ClassB.class);
+        assertNotNull(table);
+        Method a = ClassA.class.getDeclaredMethod("a", Object.class);
+        Method b = ClassA.class.getDeclaredMethod("b", List.class);
+        assertEquals(Boolean.TRUE, table.isOverridden(a, ClassB.class.getDeclaredMethod("a", Number.class)));
+        assertEquals(Boolean.FALSE, table.isOverridden(b, ClassB.class.getDeclaredMethod("b", Set.class)));
+        assertNull(table.isOverridden(a, ClassB.class.getDeclaredMethod("c", Object.class)));
+        assertTrue(table.covers(ClassA.class, ClassB.class));
+    }
+
+    /**
+     * <b>Method:</b> {@link PrecomputedTable#of(java.lang.Class)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 2</h2>
+     *
+     * <p/>
+     * Ignores the tables which do not match the classes loaded,
+     * and the classes which are not marked.
+     */
+    @Test
+    public void of_signature1_case2() {
+        assertNull(PrecomputedTable.of(ClassC.class));
+        assertNull(PrecomputedTable.of(ClassA.class));
+        assertNull(PrecomputedTable.of(String.class));
+    }
+
+    /**
+     * <b>Method:</b> {@link ReflectionUtilities#isOverridden(
+     *                       java.lang.reflect.Method, java.lang.reflect.Method)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * The table gives the same answers as the reflective resolution,
+     * which is used for the methods not covered by the table.
+     */
+    @Test
+    public void isOverridden_signature1_case1() throws NoSuchMethodException {
+        Method a = ClassA.class.getDeclaredMethod("a", Object.class);
+        Method b = ClassA.class.getDeclaredMethod("b", List.class);
+        assertTrue(ReflectionUtilities.isOverridden(a, ClassB.class.getDeclaredMethod("a", Number.class)));
+        assertFalse(ReflectionUtilities.isOverridden(b, ClassB.class.getDeclaredMethod("b", Set.class)));
+        assertFalse(ReflectionUtilities.isOverridden(a, ClassB.class.getDeclaredMethod("c", Object.class)));
+        assertTrue(ReflectionUtilities.isOverridden(
+                ClassB.class.getDeclaredMethod("a", Number.class),
+                ClassB.class.getDeclaredMethod("a", Number.class)));
+    }
+
+    /**
+     * <b>Method:</b> {@link ReflectionUtilities#resolveContext(
+     *                       java.lang.Class, java.lang.Class)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * The context built from the table equals the reflectively
+     * resolved one.
+     */
+    @Test
+    public void resolveContext_signature1_case1() {
+        Map<Type, Type> expected = new HashMap<Type, Type>(new ResolutionContext(ClassA.class, ClassB.class));
+        assertEquals(expected, new ResolutionContext(ClassA.class, ClassB.class, PrecomputedTable.of(ClassB.class)));
+        assertEquals(expected, ReflectionUtilities.resolveContext(ClassA.class, ClassB.class));
+        assertEquals(2, expected.size());
+    }
+
+    //==================== Testing Utilities ==================================
+
+    static class ClassA<T, L> {
+        void a(T arg) {  }
+        void b(List<? extends L> arg) {  }
+    }
+    @Precomputed
+    static class ClassB extends ClassA<Number, String> {
+        void a(Number arg) {  }
+        void b(Set<String> arg) {  }
+        void c(Object arg) {  }
+    }
+    @Precomputed
+    static class ClassC extends ClassA<Number, String> {  }
+}
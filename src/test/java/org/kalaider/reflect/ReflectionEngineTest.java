@@ -0,0 +1,523 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author Alexander Vasilevsky
+ */
+public class ReflectionEngineTest {
+
+    public ReflectionEngineTest() {
+    }
+
+    /**
+     * <b>Method:</b> {@link ReflectionEngine#isOverridden(
+     *                       java.lang.reflect.Method, java.lang.reflect.Method)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Gives the same answers with any of the built-in caches.
+     */
+    @Test
+    public void isOverridden_signature1_case1() throws NoSuchMethodException {
+        Method methodA = ClassA.class.getDeclaredMethod("a", Object.class);
+        Method methodB = ClassB.class.getDeclaredMethod("a", Number.class);
+        Method methodC = ClassC.class.getDeclaredMethod("a", Integer.class);
+        Method methodD = ClassC.class.getDeclaredMethod("a", String.class);
+        for (CacheProvider provider : Arrays.asList(CacheProviders.none(),
+                CacheProviders.concurrent(), CacheProviders.bounded(1))) {
+            ReflectionEngine engine = new ReflectionEngine(provider);
+            for (int i = 0; i < 2; i++) {
+                assertTrue(engine.isOverridden(methodA, methodB));
+                assertTrue(engine.isOverridden(methodB, methodC));
+                assertTrue(engine.isOverridden(methodA, methodC));
+                assertFalse(engine.isOverridden(methodA, methodD));
+            }
+        }
+    }
+
+    /**
+     * <b>Method:</b> {@link ReflectionEngine#isOverridden(
+     *                       java.lang.reflect.Method, java.lang.reflect.Method)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 2</h2>
+     *
+     * <p/>
+     * Counts the lookups of the caches, and keeps no override results
+     * if the descriptors of the methods are not cached.
+     */
+    @Test
+    public void isOverridden_signature1_case2() throws NoSuchMethodException {
+        Method methodA = ClassA.class.getDeclaredMethod("a", Object.class);
+        Method methodB = ClassB.class.getDeclaredMethod("a", Number.class);
+
+        ReflectionEngine engine = new ReflectionEngine(CacheProviders.concurrent());
+        engine.isOverridden(methodA, methodB);
+        engine.isOverridden(methodA, methodB);
+        CacheStatistics signatures = engine.getCacheStatistics(ReflectionEngine.METHOD_SIGNATURES);
+        CacheStatistics contexts = engine.getCacheStatistics(ReflectionEngine.RESOLUTION_CONTEXTS);
+        assertEquals(2, signatures.getMissCount());
+        assertEquals(2, signatures.getHitCount());
+        CacheStatistics results = engine.getCacheStatistics(ReflectionEngine.OVERRIDE_RESULTS);
+        assertEquals(1, contexts.getMissCount());
+        assertEquals(0, contexts.getHitCount());
+        assertEquals(1, results.getMissCount());
+        assertEquals(1, results.getHitCount());
+        assertEquals(0.5, results.getHitRatio(), 0);
+
+        engine = new ReflectionEngine(CacheProviders.none());
+        engine.isOverridden(methodA, methodB);
+        engine.isOverridden(methodA, methodB);
+        signatures = engine.getCacheStatistics(ReflectionEngine.METHOD_SIGNATURES);
+        assertEquals(4, signatures.getMissCount());
+        assertEquals(0, signatures.getHitCount());
+        assertEquals(0, engine.getCacheStatistics(ReflectionEngine.OVERRIDE_RESULTS).getMissCount());
+    }
+
+    /**
+     * <b>Method:</b> {@link ReflectionEngine#isOverridden(
+     *                       java.lang.reflect.Method, java.lang.reflect.Method)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 3</h2>
+     *
+     * <p/>
+     * Compares the methods on every call if the override results
+     * are not kept.
+     */
+    @Test
+    public void isOverridden_signature1_case3() throws NoSuchMethodException {
+        Method methodA = ClassA.class.getDeclaredMethod("a", Object.class);
+        Method methodB = ClassB.class.getDeclaredMethod("a", Number.class);
+
+        ReflectionEngine engine = new ReflectionEngine(CacheProviders.concurrent(), 0);
+        assertTrue(engine.isOverridden(methodA, methodB));
+        assertTrue(engine.isOverridden(methodA, methodB));
+        assertEquals(1, engine.getCacheStatistics(ReflectionEngine.RESOLUTION_CONTEXTS).getHitCount());
+        assertEquals(0, engine.getCacheStatistics(ReflectionEngine.OVERRIDE_RESULTS).getMissCount());
+    }
+
+    /**
+     * <b>Method:</b> {@link ReflectionEngine#resolveContext(
+     *                       java.lang.Class, java.lang.Class)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Reuses the cached context, or resolves it on every call if there
+     * are no caches.
+     */
+    @Test
+    public void resolveContext_signature1_case1() {
+        ReflectionEngine engine = new ReflectionEngine(CacheProviders.concurrent());
+        ResolutionContext context = engine.resolveContext(ClassA.class, ClassC.class);
+        assertSame(context, engine.resolveContext(ClassA.class, ClassC.class));
+        assertEquals(Integer.class, context.get(ClassA.class.getTypeParameters()[0]));
+
+        engine = new ReflectionEngine(CacheProviders.none());
+        context = engine.resolveContext(ClassA.class, ClassC.class);
+        assertNotSame(context, engine.resolveContext(ClassA.class, ClassC.class));
+        assertEquals(context, engine.resolveContext(ClassA.class, ClassC.class));
+    }
+
+    /**
+     * <b>Method:</b> {@link ReflectionEngine#resolveParametersLazily(
+     *                       java.lang.Class, java.lang.Class)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Counts a miss for the lazy context, resolves the whole context
+     * through the cache and returns the cached one afterwards.
+     */
+    @Test
+    public void resolveParametersLazily_signature1_case1() {
+        ReflectionEngine engine = new ReflectionEngine(CacheProviders.concurrent());
+        Map<Type, Type> lazy = engine.resolveParametersLazily(ClassA.class, ClassC.class);
+        CacheStatistics statistics = engine.getCacheStatistics(ReflectionEngine.RESOLUTION_CONTEXTS);
+        assertEquals(1, statistics.getMissCount());
+        assertEquals(0, statistics.getHitCount());
+
+        assertEquals(2, lazy.size());
+        assertEquals(2, statistics.getMissCount());
+        ResolutionContext context = engine.resolveContext(ClassA.class, ClassC.class);
+        assertEquals(1, statistics.getHitCount());
+        assertEquals(context, lazy);
+        assertSame(context, engine.resolveParametersLazily(ClassA.class, ClassC.class));
+        assertEquals(2, statistics.getHitCount());
+    }
+
+    /**
+     * <b>Method:</b> {@link ReflectionEngine#findOverriddenMethods(
+     *                       java.lang.reflect.Method)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Returns a new list on every call, even if the methods were cached.
+     */
+    @Test
+    public void findOverriddenMethods_signature1_case1() throws NoSuchMethodException {
+        Method methodC = ClassC.class.getDeclaredMethod("a", Integer.class);
+        List<Method> expected = Arrays.asList(
+                ClassB.class.getDeclaredMethod("a", Number.class),
+                ClassA.class.getDeclaredMethod("a", Object.class));
+
+        ReflectionEngine engine = new ReflectionEngine(CacheProviders.concurrent());
+        List<Method> methods = engine.findOverriddenMethods(methodC);
+        assertEquals(expected, methods);
+        methods.clear();
+        assertEquals(expected, engine.findOverriddenMethods(methodC));
+        CacheStatistics statistics = engine.getCacheStatistics(ReflectionEngine.OVERRIDDEN_METHODS);
+        assertEquals(1, statistics.getMissCount());
+        assertEquals(1, statistics.getHitCount());
+    }
+
+    /**
+     * <b>Method:</b> {@link ReflectionEngine#findAnnotation(
+     *                       java.lang.reflect.Method, java.lang.Class)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Finds the nearest annotation with any of the built-in caches,
+     * merging the annotations once per method and filtering them by the
+     * annotation type on each lookup.
+     */
+    @Test
+    public void findAnnotation_signature1_case1() throws NoSuchMethodException {
+        Method methodC = ClassC.class.getDeclaredMethod("a", Integer.class);
+        Method methodD = ClassC.class.getDeclaredMethod("a", String.class);
+        for (CacheProvider provider : Arrays.asList(CacheProviders.none(),
+                CacheProviders.concurrent(), CacheProviders.bounded(1))) {
+            ReflectionEngine engine = new ReflectionEngine(provider);
+            for (int i = 0; i < 2; i++) {
+                assertEquals("B", engine.findAnnotation(methodC, Marker.class).value());
+                assertNull(engine.findAnnotation(methodD, Marker.class));
+                assertNull(engine.findAnnotation(methodC, Deprecated.class));
+            }
+        }
+
+        ReflectionEngine engine = new ReflectionEngine(CacheProviders.concurrent());
+        engine.findAnnotation(methodC, Marker.class);
+        assertSame(engine.findAnnotation(methodC, Marker.class), engine.findAnnotation(methodC, Marker.class));
+        CacheStatistics statistics = engine.getCacheStatistics(ReflectionEngine.INHERITED_ANNOTATIONS);
+        assertEquals(1, statistics.getMissCount());
+        assertEquals(2, statistics.getHitCount());
+        assertNull(engine.findAnnotation(methodC, Deprecated.class));
+        assertEquals(1, statistics.getMissCount());
+        assertEquals(3, statistics.getHitCount());
+    }
+
+    /**
+     * <b>Method:</b> {@link ReflectionEngine#findAnnotations(
+     *                       java.lang.reflect.Method, java.lang.Class)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Returns a new list on every call, ordered from the method to the
+     * farthest superclass.
+     */
+    @Test
+    public void findAnnotations_signature1_case1() throws NoSuchMethodException {
+        Method methodC = ClassC.class.getDeclaredMethod("a", Integer.class);
+        ReflectionEngine engine = new ReflectionEngine(CacheProviders.concurrent());
+        List<Marker> markers = engine.findAnnotations(methodC, Marker.class);
+        assertEquals(2, markers.size());
+        assertEquals("B", markers.get(0).value());
+        assertEquals("A", markers.get(1).value());
+        markers.clear();
+        assertEquals(2, engine.findAnnotations(methodC, Marker.class).size());
+        assertEquals("A", engine.findAnnotations(
+                ClassA.class.getDeclaredMethod("a", Object.class), Marker.class).get(0).value());
+    }
+
+    /**
+     * <b>Method:</b> {@link ReflectionEngine#resolveParameterTypes(
+     *                       java.lang.reflect.Method, java.lang.Class)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Resolves the types of the method once per class, returning a new
+     * array on every call.
+     */
+    @Test
+    public void resolveParameterTypes_signature1_case1() throws NoSuchMethodException {
+        Method methodA = ClassA.class.getDeclaredMethod("a", Object.class);
+        ReflectionEngine engine = new ReflectionEngine(CacheProviders.concurrent());
+        Type[] types = engine.resolveParameterTypes(methodA, ClassC.class);
+        assertArrayEquals(new Type[] { Integer.class }, types);
+        types[0] = null;
+        assertArrayEquals(new Type[] { Integer.class }, engine.resolveParameterTypes(methodA, ClassC.class));
+        assertEquals(void.class, engine.resolveReturnType(methodA, ClassC.class));
+        assertEquals(ClassB.class.getTypeParameters()[0], engine.resolveParameterTypes(methodA, ClassB.class)[0]);
+        CacheStatistics statistics = engine.getCacheStatistics(ReflectionEngine.RESOLVED_TYPES);
+        assertEquals(2, statistics.getMissCount());
+        assertEquals(2, statistics.getHitCount());
+    }
+
+    /**
+     * <b>Method:</b> {@link ReflectionEngine#ReflectionEngine(
+     *                       org.kalaider.reflect.CacheProvider)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Creates the named caches by the provider and uses them.
+     */
+    @Test
+    public void ReflectionEngine_signature1_case1() throws NoSuchMethodException {
+        final List<String> names = new ArrayList<String>();
+        final List<Object> keys = new ArrayList<Object>();
+        ReflectionEngine engine = new ReflectionEngine(new CacheProvider() {
+            @Override
+            public <K, V> Cache<K, V> createCache(String name) {
+                names.add(name);
+                final Cache<K, V> cache = CacheProviders.concurrent().createCache(name);
+                return new Cache<K, V>() {
+                    @Override
+                    public V get(Class<?> owner, K key) {
+                        return cache.get(owner, key);
+                    }
+
+                    @Override
+                    public V putIfAbsent(Class<?> owner, K key, V value) {
+                        keys.add(key);
+                        return cache.putIfAbsent(owner, key, value);
+                    }
+
+                    @Override
+                    public void clear() {
+                        cache.clear();
+                    }
+                };
+            }
+        });
+        assertEquals(Arrays.asList(ReflectionEngine.RESOLUTION_CONTEXTS,
+                ReflectionEngine.METHOD_SIGNATURES, ReflectionEngine.OVERRIDDEN_METHODS,
+                ReflectionEngine.INHERITED_ANNOTATIONS, ReflectionEngine.RESOLVED_TYPES), names);
+
+        Method methodA = ClassA.class.getDeclaredMethod("a", Object.class);
+        Method methodB = ClassB.class.getDeclaredMethod("a", Number.class);
+        assertTrue(engine.isOverridden(methodA, methodB));
+        assertEquals(Arrays.<Object>asList(methodA, methodB, ClassA.class), keys);
+    }
+
+    /**
+     * <b>Method:</b> {@link ReflectionEngine#ReflectionEngine(
+     *                       org.kalaider.reflect.CacheProvider)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 2</h2>
+     *
+     * <p/>
+     * Throws {@link NullPointerException} if the provider creates no cache.
+     */
+    @Test(expected = NullPointerException.class)
+    public void ReflectionEngine_signature1_case2() {
+        new ReflectionEngine(new CacheProvider() {
+            @Override
+            public <K, V> Cache<K, V> createCache(String name) {
+                return null;
+            }
+        });
+    }
+
+    /**
+     * <b>Method:</b> {@link ReflectionEngine#getCacheStatistics(
+     *                       java.lang.String)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Returns <code>null</code> for an unknown cache.
+     */
+    @Test
+    public void getCacheStatistics_signature1_case1() {
+        ReflectionEngine engine = new ReflectionEngine(CacheProviders.none());
+        assertNull(engine.getCacheStatistics("unknown"));
+        assertEquals(6, engine.getCacheStatistics().size());
+        assertSame(engine.getCacheStatistics(ReflectionEngine.OVERRIDDEN_METHODS),
+                engine.getCacheStatistics().get(2));
+    }
+
+    /**
+     * <b>Method:</b> {@link ReflectionEngine#clearCaches()}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Removes the cached values, so they are resolved again.
+     */
+    @Test
+    public void clearCaches_signature1_case1() {
+        ReflectionEngine engine = new ReflectionEngine(CacheProviders.bounded(16));
+        ResolutionContext context = engine.resolveContext(ClassA.class, ClassC.class);
+        assertSame(context, engine.resolveContext(ClassA.class, ClassC.class));
+        engine.clearCaches();
+        assertNotSame(context, engine.resolveContext(ClassA.class, ClassC.class));
+        CacheStatistics statistics = engine.getCacheStatistics(ReflectionEngine.RESOLUTION_CONTEXTS);
+        assertEquals(2, statistics.getMissCount());
+        assertEquals(1, statistics.getHitCount());
+    }
+
+    /**
+     * <b>Method:</b> {@link ReflectionEngine#ReflectionEngine(
+     *                       org.kalaider.reflect.CacheProvider, int)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Throws {@link IllegalArgumentException} if the number of slots
+     * is negative.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void ReflectionEngine_signature2_case1() {
+        new ReflectionEngine(CacheProviders.none(), -1);
+    }
+
+    /**
+     * <b>Method:</b> {@link ReflectionEngine#withHierarchyIndex(
+     *                       org.kalaider.reflect.HierarchyIndex)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Gives the same answers as the engine it views, sharing its caches
+     * and statistics, and rejects the classes which are not subtypes.
+     */
+    @Test
+    public void withHierarchyIndex_signature1_case1() throws NoSuchMethodException {
+        ReflectionEngine engine = new ReflectionEngine(CacheProviders.concurrent());
+        HierarchyIndex index = HierarchyIndex.of(Arrays.<Class<?>>asList(ClassC.class));
+        ReflectionEngine view = engine.withHierarchyIndex(index);
+        assertSame(index, view.getHierarchyIndex());
+        assertNull(engine.getHierarchyIndex());
+        assertSame(view, view.withHierarchyIndex(index));
+        assertSame(engine, engine.withHierarchyIndex(null));
+
+        Method methodA = ClassA.class.getDeclaredMethod("a", Object.class);
+        Method methodC = ClassC.class.getDeclaredMethod("a", Integer.class);
+        assertTrue(view.isOverridden(methodA, methodC));
+        assertFalse(view.isOverridden(methodC, methodA));
+        assertEquals(methodC, view.findOverridingMethod(methodA, ClassC.class));
+        assertNull(view.findOverridingMethod(methodA, String.class));
+        assertEquals(engine.findOverriddenMethods(methodC), view.findOverriddenMethods(methodC));
+        assertSame(engine.resolveContext(ClassA.class, ClassC.class),
+                view.resolveContext(ClassA.class, ClassC.class));
+
+        CacheStatistics statistics = engine.getCacheStatistics(ReflectionEngine.OVERRIDDEN_METHODS);
+        assertSame(statistics, view.getCacheStatistics(ReflectionEngine.OVERRIDDEN_METHODS));
+        assertEquals(1, statistics.getHitCount());
+    }
+
+    /**
+     * <b>Method:</b> {@link ReflectionEngine#resolveParameters(
+     *                       java.lang.Class, java.lang.Class)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Throws {@link IllegalArgumentException} if the indexed lower class
+     * is not a subclass of the indexed upper class.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void resolveParameters_signature1_case1() {
+        ReflectionEngine engine = new ReflectionEngine(CacheProviders.concurrent()).withHierarchyIndex(
+                HierarchyIndex.of(Arrays.<Class<?>>asList(ClassA.class, ClassC.class)));
+        engine.resolveParameters(ClassC.class, ClassA.class);
+    }
+
+    /**
+     * <b>Method:</b> {@link CacheProviders#bounded(int)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Throws {@link IllegalArgumentException} if the maximum size is not
+     * positive.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void bounded_signature1_case1() {
+        CacheProviders.bounded(0);
+    }
+
+    //==================== Testing Utilities ==================================
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @interface Marker {
+        String value();
+    }
+
+    static class ClassA<T> {
+        @Marker("A") void a(T arg) {  }
+    }
+    static class ClassB<N extends Number> extends ClassA<N> {
+        @Marker("B") @Override void a(N arg) {  }
+    }
+    static class ClassC extends ClassB<Integer> {
+        @Override void a(Integer arg) {  }
+        void a(String arg) {  }
+    }
+}
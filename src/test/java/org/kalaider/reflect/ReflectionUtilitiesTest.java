@@ -16,14 +16,26 @@
  */
 package org.kalaider.reflect;
 
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Retention;
+import java.lang.invoke.MethodHandles;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.net.URL;
+import java.net.URLClassLoader;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import static org.junit.Assert.*;
+import static org.junit.Assume.*;
 import org.junit.Test;
 import static org.kalaider.reflect.ReflectionUtilities.*;
 
@@ -690,8 +702,796 @@ public class ReflectionUtilitiesTest {
         assertEquals(expected, parameters);
     }
 
+    /**
+     * <b>Method:</b> {@link ReflectionUtilities#resolveParameters(
+     *                       java.lang.Class, java.lang.Class)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 5</h2>
+     *
+     * <p/>
+     * Returns a map which is not backed by the cache.
+     */
+    @Test
+    public void resolveParameters_signature1_case5() throws NoSuchMethodException {
+        Map<Type, Type> parameters = resolveParameters(TestClass1.ClassA.class, TestClass1.ClassF.class);
+        parameters.clear();
+        assertEquals(5, resolveParameters(TestClass1.ClassA.class, TestClass1.ClassF.class).size());
+    }
+
+    /**
+     * <b>Method:</b> {@link ReflectionUtilities#resolveContext(
+     *                       java.lang.Class, java.lang.Class)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Throws {@link IllegalArgumentException} if the second class
+     * is not a subclass of the first.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void resolveContext_signature1_case1() throws NoSuchMethodException {
+        resolveContext(TestClass12.ClassA.class, TestClass12.ClassB.class);
+    }
+
+    /**
+     * <b>Method:</b> {@link ReflectionUtilities#resolveContext(
+     *                       java.lang.Class, java.lang.Class)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 2</h2>
+     *
+     * <p/>
+     * Returns the same context as the {@link ReflectionUtilities#resolveParameters(
+     * java.lang.Class, java.lang.Class) resolveParameters()} method does.
+     */
+    @Test
+    public void resolveContext_signature1_case2() throws NoSuchMethodException {
+        assertEquals(resolveParameters(TestClass2.ClassA.class, TestClass2.ClassF.class),
+                resolveContext(TestClass2.ClassA.class, TestClass2.ClassF.class));
+        assertEquals(resolveParameters(TestClass2.ClassC.class, TestClass2.ClassF.class),
+                resolveContext(TestClass2.ClassC.class, TestClass2.ClassF.class));
+    }
+
+    /**
+     * <b>Method:</b> {@link ReflectionUtilities#resolveContext(
+     *                       java.lang.Class, java.lang.Class)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 3</h2>
+     *
+     * <p/>
+     * Returns the shared context on the subsequent calls.
+     */
+    @Test
+    public void resolveContext_signature1_case3() throws NoSuchMethodException {
+        assertSame(resolveContext(TestClass1.ClassB.class, TestClass1.ClassE.class),
+                resolveContext(TestClass1.ClassB.class, TestClass1.ClassE.class));
+    }
+
+    /**
+     * <b>Method:</b> {@link ReflectionUtilities#resolveContext(
+     *                       java.lang.Class, java.lang.Class)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 4</h2>
+     *
+     * <p/>
+     * Returns an unmodifiable context.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void resolveContext_signature1_case4() throws NoSuchMethodException {
+        resolveContext(TestClass1.ClassA.class, TestClass1.ClassF.class).clear();
+    }
+
+    /**
+     * <b>Method:</b> {@link ReflectionUtilities#resolveContext(
+     *                       java.lang.Class, java.lang.Class)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 5</h2>
+     *
+     * <p/>
+     * Does not prevent the classes and their class loader from being
+     * unloaded after the heavy use of the caches.
+     */
+    @Test
+    public void resolveContext_signature1_case5() throws Exception {
+        WeakReference<ClassLoader> loader = resolveInDiscardedLoader();
+        for (int i = 0; i < 100 && loader.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(loader.get());
+    }
+
+    /**
+     * <b>Method:</b> {@link ReflectionUtilities#resolveParametersLazily(
+     *                       java.lang.Class, java.lang.Class)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Returns the same mappings as {@link ReflectionUtilities#resolveParameters(
+     * java.lang.Class, java.lang.Class) resolveParameters()}.
+     */
+    @Test
+    public void resolveParametersLazily_signature1_case1() {
+        Map<Type, Type> parameters = resolveParametersLazily(TestClass1.ClassA.class, TestClass1.ClassF.class);
+        assertEquals(resolveParameters(TestClass1.ClassB.class, TestClass1.ClassF.class).get(
+                TestClass1.ClassB.class.getTypeParameters()[0]),
+                parameters.get(TestClass1.ClassB.class.getTypeParameters()[0]));
+        assertEquals(resolveParameters(TestClass1.ClassA.class, TestClass1.ClassF.class), parameters);
+    }
+
+    /**
+     * <b>Method:</b> {@link ReflectionUtilities#resolveParametersLazily(
+     *                       java.lang.Class, java.lang.Class)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 2</h2>
+     *
+     * <p/>
+     * Throws {@link IllegalArgumentException} if the second class is not
+     * a subclass of the first one.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void resolveParametersLazily_signature1_case2() {
+        resolveParametersLazily(TestClass1.ClassF.class, TestClass1.ClassA.class);
+    }
+
+    /**
+     * <b>Method:</b> {@link ReflectionUtilities#findOverridingMethod(
+     *                       java.lang.reflect.Method, java.lang.Class)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Returns the overriding method.
+     */
+    @Test
+    public void findOverridingMethod_signature1_case1() throws NoSuchMethodException {
+        assertEquals(TestClass1.ClassF.class.getDeclaredMethod("a", C6.class, List.class),
+                findOverridingMethod(
+                        TestClass1.ClassA.class.getDeclaredMethod("a", Object.class, List.class),
+                        TestClass1.ClassF.class));
+    }
+
+    /**
+     * <b>Method:</b> {@link ReflectionUtilities#findOverridingMethod(
+     *                       java.lang.reflect.Method, java.lang.Class)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 2</h2>
+     *
+     * <p/>
+     * Returns the overriding generic method.
+     */
+    @Test
+    public void findOverridingMethod_signature1_case2() throws NoSuchMethodException {
+        assertEquals(TestClass5.ClassC.class.getDeclaredMethod("a", I2[].class, List.class),
+                findOverridingMethod(
+                        TestClass5.ClassA.class.getDeclaredMethod("a", List[].class, List.class),
+                        TestClass5.ClassC.class));
+    }
+
+    /**
+     * <b>Method:</b> {@link ReflectionUtilities#findOverridingMethod(
+     *                       java.lang.reflect.Method, java.lang.Class)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 3</h2>
+     *
+     * <p/>
+     * Returns <code>null</code> if the method is not overridden.
+     */
+    @Test
+    public void findOverridingMethod_signature1_case3() throws NoSuchMethodException {
+        assertNull(findOverridingMethod(
+                TestClass6.ClassA.class.getDeclaredMethod("a", List[].class, List.class),
+                TestClass6.ClassB.class));
+        assertNull(findOverridingMethod(
+                TestClass13.ClassA.class.getDeclaredMethod("a", Object.class),
+                TestClass13.ClassB.class));
+    }
+
+    /**
+     * <b>Method:</b> {@link ReflectionUtilities#findOverridingMethod(
+     *                       java.lang.reflect.Method, java.lang.Class)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 4</h2>
+     *
+     * <p/>
+     * Returns <code>null</code> if the class is not a subclass of
+     * the declaring class of the method.
+     */
+    @Test
+    public void findOverridingMethod_signature1_case4() throws NoSuchMethodException {
+        assertNull(findOverridingMethod(
+                TestClass12.ClassA.class.getDeclaredMethod("a", Object.class),
+                TestClass12.ClassB.class));
+    }
+
+    /**
+     * <b>Method:</b> {@link ReflectionUtilities#findOverriddenMethod(
+     *                       java.lang.reflect.Method, java.lang.Class)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Returns the overridden method.
+     */
+    @Test
+    public void findOverriddenMethod_signature1_case1() throws NoSuchMethodException {
+        assertEquals(TestClass4.ClassA.class.getDeclaredMethod("a", List.class),
+                findOverriddenMethod(
+                        TestClass4.ClassC.class.getDeclaredMethod("a", I2.class),
+                        TestClass4.ClassA.class));
+    }
+
+    /**
+     * <b>Method:</b> {@link ReflectionUtilities#findOverriddenMethod(
+     *                       java.lang.reflect.Method, java.lang.Class)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 2</h2>
+     *
+     * <p/>
+     * Returns <code>null</code> if the method does not override any
+     * method of the class.
+     */
+    @Test
+    public void findOverriddenMethod_signature1_case2() throws NoSuchMethodException {
+        assertNull(findOverriddenMethod(
+                TestClass7.ClassB.class.getDeclaredMethod("a", Set[].class, List.class),
+                TestClass7.ClassA.class));
+    }
+
+    /**
+     * <b>Method:</b> {@link ReflectionUtilities#findOverriddenMethods(
+     *                       java.lang.reflect.Method)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Returns the overridden methods from the nearest superclass
+     * to the farthest.
+     */
+    @Test
+    public void findOverriddenMethods_signature1_case1() throws NoSuchMethodException {
+        List<Method> expected = new ArrayList<Method>();
+        expected.add(TestClass2.ClassE.class.getDeclaredMethod("a", C4.class, List.class));
+        expected.add(TestClass2.ClassD.class.getDeclaredMethod("a", C2.class, I3.class));
+        expected.add(TestClass2.ClassC.class.getDeclaredMethod("a", C2.class, List.class));
+        expected.add(TestClass2.ClassB.class.getDeclaredMethod("a", C2.class, List.class));
+        expected.add(TestClass2.ClassA.class.getDeclaredMethod("a", Object.class, Object.class));
+        assertEquals(expected, findOverriddenMethods(
+                TestClass2.ClassF.class.getDeclaredMethod("a", C4.class, C7.class)));
+    }
+
+    /**
+     * <b>Method:</b> {@link ReflectionUtilities#findOverriddenMethods(
+     *                       java.lang.reflect.Method)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 2</h2>
+     *
+     * <p/>
+     * Returns an empty list if the method does not override anything.
+     */
+    @Test
+    public void findOverriddenMethods_signature1_case2() throws NoSuchMethodException {
+        assertTrue(findOverriddenMethods(
+                TestClass11.ClassB.class.getDeclaredMethod("a", I3[].class, List.class)).isEmpty());
+    }
+
+    /**
+     * <b>Method:</b> {@link ReflectionUtilities#isOverridden(
+     *                       java.lang.reflect.Method, java.lang.reflect.Method)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 33</h2>
+     *
+     * <p/>
+     * Does not allocate after the warm-up.
+     */
+    @Test
+    public void isOverridden_signature1_case33() throws NoSuchMethodException {
+        assertAllocationFree(
+                TestClass1.ClassA.class.getDeclaredMethod("a", Object.class, List.class),
+                TestClass1.ClassF.class.getDeclaredMethod("a", C6.class, List.class));
+        assertAllocationFree(
+                TestClass2.ClassA.class.getDeclaredMethod("a", Object.class, Object.class),
+                TestClass2.ClassF.class.getDeclaredMethod("a", C4.class, C7.class));
+        assertAllocationFree(
+                TestClass2.ClassB.class.getDeclaredMethod("a", C2.class, List.class),
+                TestClass2.ClassE.class.getDeclaredMethod("a", C4.class, List.class));
+        assertAllocationFree(
+                TestClass3.ClassA.class.getDeclaredMethod("a", List.class),
+                TestClass3.ClassB.class.getDeclaredMethod("a", I2.class));
+        assertAllocationFree(
+                TestClass5.ClassA.class.getDeclaredMethod("a", List[].class, List.class),
+                TestClass5.ClassC.class.getDeclaredMethod("a", I2[].class, List.class));
+        assertAllocationFree(
+                TestClass6.ClassA.class.getDeclaredMethod("a", List[].class, List.class),
+                TestClass6.ClassB.class.getDeclaredMethod("a", I2[].class, List.class));
+    }
+
+    /**
+     * <b>Method:</b> {@link ReflectionUtilities#isOverridden(
+     *                       java.lang.reflect.Method, java.lang.reflect.Method)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 34</h2>
+     *
+     * <p/>
+     * Returns <code>true</code> if the method of the non-generic
+     * hierarchy was overridden.
+     */
+    @Test
+    public void isOverridden_signature1_case34() throws NoSuchMethodException {
+        assertTrue(isOverridden(
+                TestClass14.ClassA.class.getDeclaredMethod("a", Object.class, I1.class),
+                TestClass14.ClassC.class.getDeclaredMethod("a", Object.class, I1.class)));
+        assertTrue(isOverridden(
+                TestClass14.ClassA.class.getDeclaredMethod("b", List.class),
+                TestClass14.ClassC.class.getDeclaredMethod("b", List.class)));
+        assertTrue(isOverridden(
+                TestClass14.ClassA.class.getDeclaredMethod("c", I1.class),
+                TestClass14.ClassC.class.getDeclaredMethod("c", I2.class)));
+    }
+
+    /**
+     * <b>Method:</b> {@link ReflectionUtilities#isOverridden(
+     *                       java.lang.reflect.Method, java.lang.reflect.Method)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 35</h2>
+     *
+     * <p/>
+     * Returns <code>false</code> if the method of the non-generic
+     * hierarchy was not overridden.
+     */
+    @Test
+    public void isOverridden_signature1_case35() throws NoSuchMethodException {
+        assertFalse(isOverridden(
+                TestClass14.ClassA.class.getDeclaredMethod("a", Object.class, I1.class),
+                TestClass14.ClassB.class.getDeclaredMethod("a", Object.class, I2.class)));
+        assertFalse(isOverridden(
+                TestClass14.ClassA.class.getDeclaredMethod("b", List.class),
+                TestClass14.ClassB.class.getDeclaredMethod("b", Set.class)));
+        assertFalse(isOverridden(
+                TestClass14.ClassA.class.getDeclaredMethod("c", I1.class),
+                TestClass14.ClassB.class.getDeclaredMethod("c", I3.class)));
+    }
+
+    /**
+     * <b>Method:</b> {@link ReflectionUtilities#isOverridden(
+     *                       java.lang.reflect.Method, java.lang.reflect.Method)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 36</h2>
+     *
+     * <p/>
+     * Resolves the type parameters of the generic interface.
+     */
+    @Test
+    public void isOverridden_signature1_case36() throws NoSuchMethodException {
+        assertTrue(isOverridden(
+                Comparable.class.getDeclaredMethod("compareTo", Object.class),
+                TestClass15.ClassC.class.getDeclaredMethod("compareTo", TestClass15.ClassC.class)));
+        assertFalse(isOverridden(
+                Comparable.class.getDeclaredMethod("compareTo", Object.class),
+                TestClass15.ClassC.class.getDeclaredMethod("compareTo", String.class)));
+    }
+
+    /**
+     * <b>Method:</b> {@link ReflectionUtilities#isOverridden(
+     *                       java.lang.reflect.Method, java.lang.reflect.Method)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 37</h2>
+     *
+     * <p/>
+     * Resolves the type parameters of the interface reached through
+     * several paths of the hierarchy.
+     */
+    @Test
+    public void isOverridden_signature1_case37() throws NoSuchMethodException {
+        Method a = TestClass15.InterfaceA.class.getDeclaredMethod("a", Object.class);
+        assertTrue(isOverridden(a, TestClass15.ClassA.class.getDeclaredMethod("a", Number.class)));
+        assertTrue(isOverridden(a, TestClass15.ClassB.class.getDeclaredMethod("a", Integer.class)));
+        assertFalse(isOverridden(a, TestClass15.ClassB.class.getDeclaredMethod("a", String.class)));
+    }
+
+    /**
+     * <b>Method:</b> {@link ReflectionUtilities#resolveParameters(
+     *                       java.lang.Class, java.lang.Class)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 6</h2>
+     *
+     * <p/>
+     * Resolves the type parameters of the superclasses and superinterfaces
+     * up to the interface, each one once.
+     */
+    @Test
+    public void resolveParameters_signature1_case6() throws NoSuchMethodException {
+        Map<Type, Type> expected = new HashMap<Type, Type>();
+        expected.put(TestClass15.InterfaceA.class.getTypeParameters()[0], Integer.class);
+        expected.put(TestClass15.InterfaceB.class.getTypeParameters()[0], Integer.class);
+        expected.put(TestClass15.InterfaceC.class.getTypeParameters()[0], Integer.class);
+        expected.put(TestClass15.ClassA.class.getTypeParameters()[0], Integer.class);
+        assertEquals(expected, resolveParameters(TestClass15.InterfaceA.class, TestClass15.ClassB.class));
+
+        expected.clear();
+        expected.put(TestClass15.InterfaceC.class.getTypeParameters()[0], Integer.class);
+        expected.put(TestClass15.ClassA.class.getTypeParameters()[0], Integer.class);
+        assertEquals(expected, resolveParameters(TestClass15.InterfaceC.class, TestClass15.ClassB.class));
+    }
+
+    /**
+     * <b>Method:</b> {@link ReflectionUtilities#findOverriddenMethods(
+     *                       java.lang.reflect.Method)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 3</h2>
+     *
+     * <p/>
+     * Returns the overridden methods of the superclasses followed by
+     * the ones of the superinterfaces.
+     */
+    @Test
+    public void findOverriddenMethods_signature1_case3() throws NoSuchMethodException {
+        List<Method> expected = new ArrayList<Method>();
+        expected.add(TestClass15.ClassA.class.getDeclaredMethod("a", Number.class));
+        expected.add(TestClass15.InterfaceA.class.getDeclaredMethod("a", Object.class));
+        assertEquals(expected, findOverriddenMethods(
+                TestClass15.ClassB.class.getDeclaredMethod("a", Integer.class)));
+    }
+
+    /**
+     * <b>Method:</b> {@link ReflectionUtilities#isOverridden(
+     *                       java.lang.reflect.Method, java.lang.reflect.Method)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 38</h2>
+     *
+     * <p/>
+     * Compares the F-bounded type variables and the long chains
+     * of type variables bounded by each other.
+     */
+    @Test
+    public void isOverridden_signature1_case38() throws NoSuchMethodException {
+        assertTrue(isOverridden(
+                TestClass16.ClassA.class.getDeclaredMethod("a", Comparable.class, Comparable.class, List.class),
+                TestClass16.ClassB.class.getDeclaredMethod("a", Comparable.class, Comparable.class, List.class)));
+        assertTrue(isOverridden(
+                TestClass16.ClassA.class.getDeclaredMethod("b", Number.class, Number.class),
+                TestClass16.ClassB.class.getDeclaredMethod("b", Number.class, Number.class)));
+        assertFalse(isOverridden(
+                TestClass16.ClassA.class.getDeclaredMethod("b", Number.class, Number.class),
+                TestClass16.ClassC.class.getDeclaredMethod("b", Integer.class, Integer.class)));
+        assertAllocationFree(
+                TestClass16.ClassA.class.getDeclaredMethod("b", Number.class, Number.class),
+                TestClass16.ClassB.class.getDeclaredMethod("b", Number.class, Number.class));
+    }
+
+    /**
+     * <b>Method:</b> {@link ReflectionUtilities#findAnnotation(
+     *                       java.lang.reflect.Method, java.lang.Class)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Finds the annotation of the method itself, or else of the nearest
+     * overridden method, including the generic methods of interfaces.
+     */
+    @Test
+    public void findAnnotation_signature1_case1() throws NoSuchMethodException {
+        Method methodB = TestClass17.ClassB.class.getDeclaredMethod("a", Integer.class);
+        Method methodC = TestClass17.ClassC.class.getDeclaredMethod("a", Integer.class);
+        assertEquals("ClassA", findAnnotation(methodB, TestClass17.Marker.class).value());
+        assertEquals("ClassC", findAnnotation(methodC, TestClass17.Marker.class).value());
+        assertEquals("InterfaceA", findAnnotation(
+                TestClass17.ClassD.class.getDeclaredMethod("b", String.class),
+                TestClass17.Marker.class).value());
+        assertNull(findAnnotation(
+                TestClass17.ClassB.class.getDeclaredMethod("a", String.class),
+                TestClass17.Marker.class));
+    }
+
+    /**
+     * <b>Method:</b> {@link ReflectionUtilities#findAnnotations(
+     *                       java.lang.reflect.Method, java.lang.Class)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Returns the annotations of the method and of the overridden methods
+     * of the superclasses followed by the ones of the superinterfaces.
+     */
+    @Test
+    public void findAnnotations_signature1_case1() throws NoSuchMethodException {
+        List<String> values = new ArrayList<String>();
+        for (TestClass17.Marker marker : findAnnotations(
+                TestClass17.ClassC.class.getDeclaredMethod("a", Integer.class),
+                TestClass17.Marker.class)) {
+            values.add(marker.value());
+        }
+        List<String> expected = new ArrayList<String>();
+        expected.add("ClassC");
+        expected.add("ClassA");
+        expected.add("InterfaceA");
+        assertEquals(expected, values);
+    }
+
+    /**
+     * <b>Method:</b> {@link ReflectionUtilities#resolveFieldType(
+     *                       java.lang.reflect.Field, java.lang.Class)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Substitutes the type variables deeply, producing the types equal to
+     * the ones reflected by the virtual machine.
+     */
+    @Test
+    public void resolveFieldType_signature1_case1() throws NoSuchFieldException {
+        for (String name : new String[] { "a", "c", "f", "g" }) {
+            Type expected = TestClass18.Expected.class.getDeclaredField(name).getGenericType();
+            Type actual = resolveFieldType(TestClass18.ClassA.class.getDeclaredField(name),
+                    TestClass18.ClassC.class);
+            assertEquals(expected, actual);
+            assertEquals(actual, expected);
+            assertEquals(expected.hashCode(), actual.hashCode());
+            assertEquals(expected.toString(), actual.toString());
+        }
+        assertEquals(Integer[][].class, resolveFieldType(
+                TestClass18.ClassA.class.getDeclaredField("b"), TestClass18.ClassC.class));
+    }
+
+    /**
+     * <b>Method:</b> {@link ReflectionUtilities#resolveFieldType(
+     *                       java.lang.reflect.Field, java.lang.Class)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 2</h2>
+     *
+     * <p/>
+     * Keeps the type variables of the class itself and returns the types
+     * which need no substitution as they are.
+     */
+    @Test
+    public void resolveFieldType_signature1_case2() throws NoSuchFieldException {
+        Field field = TestClass18.ClassA.class.getDeclaredField("a");
+        assertEquals("java.util.List<? extends N[]>",
+                resolveFieldType(field, TestClass18.ClassB.class).toString());
+        assertSame(field.getGenericType(), resolveFieldType(field, TestClass18.ClassA.class));
+        Field expected = TestClass18.Expected.class.getDeclaredField("a");
+        assertSame(expected.getGenericType(), resolveFieldType(expected, TestClass18.Expected.class));
+    }
+
+    /**
+     * <b>Method:</b> {@link ReflectionUtilities#resolveFieldType(
+     *                       java.lang.reflect.Field, java.lang.Class)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 3</h2>
+     *
+     * <p/>
+     * Throws {@link IllegalArgumentException} if the class is not
+     * a subclass of the declaring class of the field.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void resolveFieldType_signature1_case3() throws NoSuchFieldException {
+        resolveFieldType(TestClass18.ClassA.class.getDeclaredField("a"), TestClass18.Expected.class);
+    }
+
+    /**
+     * <b>Method:</b> {@link ReflectionUtilities#resolveReturnType(
+     *                       java.lang.reflect.Method, java.lang.Class)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Substitutes the type variables of the classes, but not the ones
+     * of the method.
+     */
+    @Test
+    public void resolveReturnType_signature1_case1() throws NoSuchMethodException {
+        Method d = TestClass18.ClassA.class.getDeclaredMethod("d", List.class);
+        Method e = TestClass18.ClassA.class.getDeclaredMethod("e", Object.class, Object.class);
+        assertEquals(Integer[].class, resolveReturnType(d, TestClass18.ClassC.class));
+        assertEquals(e.getTypeParameters()[0], resolveReturnType(e, TestClass18.ClassC.class));
+    }
+
+    /**
+     * <b>Method:</b> {@link ReflectionUtilities#resolveParameterTypes(
+     *                       java.lang.reflect.Method, java.lang.Class)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Substitutes the type variables of the classes, but not the ones
+     * of the method.
+     */
+    @Test
+    public void resolveParameterTypes_signature1_case1() throws NoSuchMethodException, NoSuchFieldException {
+        Method d = TestClass18.ClassA.class.getDeclaredMethod("d", List.class);
+        Method e = TestClass18.ClassA.class.getDeclaredMethod("e", Object.class, Object.class);
+        assertArrayEquals(new Type[] { TestClass18.Expected.class.getDeclaredField("d").getGenericType() },
+                resolveParameterTypes(d, TestClass18.ClassC.class));
+        assertArrayEquals(new Type[] { Integer[].class, e.getTypeParameters()[0] },
+                resolveParameterTypes(e, TestClass18.ClassC.class));
+    }
+
+    /**
+     * <b>Method:</b> {@link ReflectionUtilities#resolveType(
+     *                       java.lang.reflect.Type, java.lang.Class)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Resolves the type variables through the intermediate classes and
+     * keeps the ones of the unrelated classes.
+     */
+    @Test
+    public void resolveType_signature1_case1() {
+        Type t = TestClass18.ClassA.class.getTypeParameters()[0];
+        assertEquals(Integer[].class, resolveType(t, TestClass18.ClassC.class));
+        assertSame(t, resolveType(t, TestClass18.Expected.class));
+        assertSame(String.class, resolveType(String.class, TestClass18.ClassC.class));
+    }
+
     //==================== Testing Utilities ==================================
 
+    /**
+     * Asserts that the {@link ReflectionUtilities#isOverridden(
+     * java.lang.reflect.Method, java.lang.reflect.Method) isOverridden()}
+     * method does not allocate after the warm-up. Skipped if the JVM does
+     * not support measurement of allocated memory.
+     *
+     * @param methodA The first method
+     * @param methodB The second method
+     */
+    private static void assertAllocationFree(Method methodA, Method methodB) {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        final int calls = 100000;
+        long thread = Thread.currentThread().getId();
+        boolean expected = isOverridden(methodA, methodB);
+        for (int i = 0; i < calls; i++) isOverridden(methodA, methodB);
+
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < calls; i++) {
+            if (isOverridden(methodA, methodB) != expected) fail();
+        }
+        long after = threads.getThreadAllocatedBytes(thread);
+        assertEquals(0, (after - before) / calls);
+    }
+
+    /**
+     * Loads the testing classes by a new class loader, resolves
+     * the contexts and the generic types, finds the overridden methods,
+     * the annotations and the implementations, and builds the override
+     * families and the descriptors of all of them, also looking up the
+     * annotation type of the loader on a method of the system classes
+     * and dispatching a method of the system classes on them, and closes
+     * the loader.
+     *
+     * @return The weak reference to the loader
+     */
+    private static WeakReference<ClassLoader> resolveInDiscardedLoader() throws Exception {
+        URL location = ReflectionUtilitiesTest.class.getProtectionDomain().getCodeSource().getLocation();
+        URLClassLoader loader = new URLClassLoader(new URL[] { location }, null);
+        Class<?> test = Class.forName(ReflectionUtilitiesTest.class.getName(), false, loader);
+        assertNotSame(ReflectionUtilitiesTest.class, test);
+        List<Class<?>> classes = new ArrayList<Class<?>>();
+        collectDeclaredClasses(test, classes);
+        assertTrue(classes.size() > 50);
+        Class<? extends Annotation> marker = Class.forName(TestClass17.Marker.class.getName(), false, loader)
+                .asSubclass(Annotation.class);
+        Method toString = Object.class.getDeclaredMethod("toString");
+        assertNull(findAnnotation(toString, marker));
+        DispatchResolver dispatcher = new DispatchResolver(toString, MethodHandles.lookup());
+        for (Class<?> classC : classes) {
+            List<Class<?>> supertypes = new ArrayList<Class<?>>();
+            collectSupertypes(classC, supertypes);
+            for (Class<?> classA : supertypes) {
+                resolveContext(classA, classC);
+                resolveParameters(classA, classC);
+                resolveParametersLazily(classA, classC).size();
+            }
+            resolveType(classC.getGenericSuperclass() != null ? classC.getGenericSuperclass() : classC,
+                    classC);
+            for (Field field : classC.getDeclaredFields()) {
+                resolveFieldType(field, classC);
+            }
+            for (Method method : classC.getDeclaredMethods()) {
+                findOverriddenMethods(method);
+                findAnnotation(method, marker);
+                findAnnotations(method, marker);
+                resolveReturnType(method, classC);
+                resolveParameterTypes(method, classC);
+                if ((method.getModifiers() & (Modifier.STATIC | Modifier.PRIVATE)) == 0) {
+                    new DispatchResolver(method).resolve(classC);
+                }
+            }
+            if (!classC.isInterface() && dispatcher.resolve(classC).getDeclaringClass() == Object.class) {
+                assertNotNull(dispatcher.getMethodHandle(classC));
+            }
+            OverrideFamilies.of(classC);
+            ClassDescriptor.of(classC);
+        }
+        loader.close();
+        return new WeakReference<ClassLoader>(loader);
+    }
+
+    private static void collectDeclaredClasses(Class<?> type, List<Class<?>> classes) {
+        for (Class<?> declared : type.getDeclaredClasses()) {
+            classes.add(declared);
+            collectDeclaredClasses(declared, classes);
+        }
+    }
+
+    private static void collectSupertypes(Class<?> type, List<Class<?>> supertypes) {
+        if (type == null || supertypes.contains(type)) return;
+        supertypes.add(type);
+        collectSupertypes(type.getSuperclass(), supertypes);
+        for (Class<?> implemented : type.getInterfaces()) {
+            collectSupertypes(implemented, supertypes);
+        }
+    }
+
     private static class TestClass1 {
 
         static class ClassA<T> {
@@ -854,6 +1654,114 @@ public class ReflectionUtilitiesTest {
         }
     }
 
+    private static class TestClass14 {
+
+        static class ClassA {
+            void a(Object arg1, I1 arg2) {  }
+            void b(List<? extends I1> arg) {  }
+            <T extends I1 & I2> void c(T arg) {  }
+        }
+        static class ClassB extends ClassA {
+            void a(Object arg1, I2 arg2) {  }
+            void b(Set<? extends I1> arg) {  }
+            <T extends I3> void c(T arg) {  }
+        }
+        static class ClassC extends ClassB {
+            @Override void a(Object arg1, I1 arg2) {  }
+            @Override void b(List<? extends I1> arg) {  }
+            @Override <T extends I2 & I1> void c(T arg) {  }
+        }
+    }
+
+    private static class TestClass15 {
+
+        interface InterfaceA<T> {
+            void a(T arg);
+        }
+        interface InterfaceB<K> extends InterfaceA<K> {  }
+        interface InterfaceC<P> extends InterfaceA<P> {  }
+        static class ClassA<N extends Number> implements InterfaceB<N>, InterfaceC<N> {
+            @Override public void a(N arg) {  }
+        }
+        static class ClassB extends ClassA<Integer> implements InterfaceC<Integer> {
+            @Override public void a(Integer arg) {  }
+            public void a(String arg) {  }
+        }
+        static class ClassC implements Comparable<ClassC> {
+            @Override public int compareTo(ClassC other) { return 0; }
+            public int compareTo(String other) { return 0; }
+        }
+    }
+
+    private static class TestClass16 {
+
+        static class ClassA<T extends Comparable<T>> {
+            <B extends Comparable<B>, L extends List<L>> void a(T arg1, B arg2, L arg3) {  }
+            <T1 extends T2, T2 extends T3, T3 extends T4, T4 extends T5,
+             T5 extends T6, T6 extends T7, T7 extends T8, T8 extends Number> void b(T1 arg1, T8 arg2) {  }
+        }
+        static class ClassB<K extends Comparable<K>> extends ClassA<K> {
+            @Override <C extends Comparable<C>, M extends List<M>> void a(K arg1, C arg2, M arg3) {  }
+            @Override <K1 extends K2, K2 extends K3, K3 extends K4, K4 extends K5,
+             K5 extends K6, K6 extends K7, K7 extends K8, K8 extends Number> void b(K1 arg1, K8 arg2) {  }
+        }
+        static class ClassC extends ClassA<Integer> {
+            <K1 extends K2, K2 extends K3, K3 extends K4, K4 extends K5,
+             K5 extends K6, K6 extends K7, K7 extends K8, K8 extends Integer> void b(K1 arg1, K8 arg2) {  }
+        }
+    }
+
+    private static class TestClass17 {
+
+        @Retention(RetentionPolicy.RUNTIME)
+        @interface Marker {
+            String value();
+        }
+
+        interface InterfaceA<T> {
+            @Marker("InterfaceA") void a(T arg);
+            @Marker("InterfaceA") void b(T arg);
+        }
+        static abstract class ClassA<N extends Number> implements InterfaceA<N> {
+            @Marker("ClassA") @Override public void a(N arg) {  }
+        }
+        static class ClassB extends ClassA<Integer> {
+            @Override public void a(Integer arg) {  }
+            public void a(String arg) {  }
+            @Override public void b(Integer arg) {  }
+        }
+        static class ClassC extends ClassB {
+            @Marker("ClassC") @Override public void a(Integer arg) {  }
+        }
+        static class ClassD implements InterfaceA<String> {
+            @Override public void a(String arg) {  }
+            @Override public void b(String arg) {  }
+        }
+    }
+
+    private static class TestClass18 {
+
+        static class ClassA<T> {
+            List<? extends T> a;
+            T[] b;
+            Map<String, List<T>> c;
+            Inner f;
+            List<Inner>[] g;
+            T d(List<? super T> arg) { return null; }
+            <M> M e(T arg1, M arg2) { return null; }
+            class Inner {  }
+        }
+        static class ClassB<N extends Number> extends ClassA<N[]> {  }
+        static class ClassC extends ClassB<Integer> {  }
+        static class Expected {
+            List<? extends Integer[]> a;
+            Map<String, List<Integer[]>> c;
+            List<? super Integer[]> d;
+            ClassA<Integer[]>.Inner f;
+            List<ClassA<Integer[]>.Inner>[] g;
+        }
+    }
+
     private static interface I1 {  }
     private static interface I2 {  }
     private static interface I3 {  }
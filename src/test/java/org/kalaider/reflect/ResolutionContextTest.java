@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author Alexander Vasilevsky
+ */
+public class ResolutionContextTest {
+
+    public ResolutionContextTest() {
+    }
+
+    /**
+     * <b>Method:</b> {@link ResolutionContext#resolve(
+     *                       java.lang.reflect.TypeVariable)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Returns the actual types of the type parameters.
+     */
+    @Test
+    public void resolve_signature1_case1() {
+        ResolutionContext context = new ResolutionContext(ClassA.class, ClassD.class);
+        assertEquals(Number.class, context.resolve(ClassA.class.getTypeParameters()[0]));
+        assertEquals(Number.class, context.resolve(ClassB.class.getTypeParameters()[0]));
+        assertEquals(Number.class, context.resolve(ClassB.class.getTypeParameters()[1]));
+        assertEquals(Number.class, context.resolve(ClassC.class.getTypeParameters()[0]));
+        assertEquals(((ParameterizedType) ClassB.class.getGenericSuperclass()).getActualTypeArguments()[1],
+                context.resolve(ClassA.class.getTypeParameters()[1]));
+    }
+
+    /**
+     * <b>Method:</b> {@link ResolutionContext#resolve(
+     *                       java.lang.reflect.TypeVariable)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 2</h2>
+     *
+     * <p/>
+     * Returns <code>null</code> for the type parameters of the lower class,
+     * the classes above the upper class and the unrelated classes.
+     */
+    @Test
+    public void resolve_signature1_case2() {
+        ResolutionContext context = new ResolutionContext(ClassB.class, ClassD.class);
+        assertNull(context.resolve(ClassD.class.getTypeParameters()[0]));
+        assertNull(context.resolve(ClassA.class.getTypeParameters()[0]));
+        assertNull(context.resolve(ClassE.class.getTypeParameters()[0]));
+    }
+
+    /**
+     * <b>Method:</b> {@link ResolutionContext#resolve(
+     *                       java.lang.reflect.TypeVariable)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 3</h2>
+     *
+     * <p/>
+     * Returns <code>null</code> for the type parameters of the raw
+     * superclass.
+     */
+    @Test
+    public void resolve_signature1_case3() {
+        ResolutionContext context = new ResolutionContext(ClassA.class, ClassE.class);
+        assertNull(context.resolve(ClassA.class.getTypeParameters()[0]));
+        assertEquals(0, context.size());
+        assertTrue(context.isEmpty());
+    }
+
+    /**
+     * <b>Method:</b> {@link ResolutionContext#get(java.lang.Object)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Returns <code>null</code> for the keys which are not type variables.
+     */
+    @Test
+    public void get_signature1_case1() {
+        ResolutionContext context = new ResolutionContext(ClassA.class, ClassD.class);
+        assertNull(context.get(Number.class));
+        assertNull(context.get("T"));
+        assertNull(context.get(null));
+    }
+
+    /**
+     * <b>Method:</b> {@link ResolutionContext#entrySet()}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * The context is equal to the map of the same bindings.
+     */
+    @Test
+    public void entrySet_signature1_case1() {
+        ResolutionContext context = new ResolutionContext(ClassA.class, ClassD.class);
+        Map<Type, Type> expected = new HashMap<Type, Type>();
+        for (int i = 0; i < 2; i++) {
+            expected.put(ClassA.class.getTypeParameters()[i],
+                    context.resolve(ClassA.class.getTypeParameters()[i]));
+            expected.put(ClassB.class.getTypeParameters()[i],
+                    context.resolve(ClassB.class.getTypeParameters()[i]));
+        }
+        expected.put(ClassC.class.getTypeParameters()[0], Number.class);
+        assertEquals(5, context.size());
+        assertEquals(expected, context);
+        assertEquals(context, expected);
+        assertEquals(expected.hashCode(), context.hashCode());
+    }
+
+    /**
+     * <b>Method:</b> {@link ResolutionContext#put(java.lang.Object,
+     *                       java.lang.Object)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Throws {@link UnsupportedOperationException}.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void put_signature1_case1() {
+        new ResolutionContext(ClassA.class, ClassD.class)
+                .put(ClassA.class.getTypeParameters()[0], Object.class);
+    }
+
+    //==================== Testing Utilities ==================================
+
+    private static class ClassA<K, T> {  }
+    private static class ClassB<K, P> extends ClassA<K, List<P>> {  }
+    private static class ClassC<Q> extends ClassB<Number, Q> {  }
+    private static class ClassD<R> extends ClassC<Number> {  }
+    @SuppressWarnings("rawtypes")
+    private static class ClassE<S> extends ClassA {  }
+}
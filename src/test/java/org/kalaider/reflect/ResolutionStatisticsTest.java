@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.util.List;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ *
+ * @author Alexander Vasilevsky
+ */
+public class ResolutionStatisticsTest {
+
+    public ResolutionStatisticsTest() {
+    }
+
+    @After
+    public void tearDown() {
+        ReflectionUtilities.setListener(null);
+    }
+
+    /**
+     * <b>Method:</b> {@link ResolutionStatistics#isOverriddenCalled(
+     *                       java.lang.reflect.Method, java.lang.reflect.Method,
+     *                       boolean, int, long)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Counts the calls, the recursion depth of the comparison
+     * and the cache hits and misses.
+     */
+    @Test
+    public void isOverriddenCalled_signature1_case1() throws NoSuchMethodException {
+        ResolutionStatistics statistics = new ResolutionStatistics();
+        ReflectionUtilities.setListener(statistics);
+        assertSame(statistics, ReflectionUtilities.getListener());
+
+        Method a = ClassA.class.getDeclaredMethod("a", Object[].class);
+        Method c = ClassC.class.getDeclaredMethod("a", Number[].class);
+        assertTrue(ReflectionUtilities.isOverridden(a, ClassB.class.getDeclaredMethod("a", List[].class)));
+        assertTrue(ReflectionUtilities.isOverridden(ClassA.class.getDeclaredMethod("b", Object[].class),
+                ClassB.class.getDeclaredMethod("b", List[].class)));
+        assertFalse(ReflectionUtilities.isOverridden(a, c));
+
+        assertEquals(3, statistics.getIsOverriddenCount());
+        assertEquals(2, statistics.getMaxCompareDepth());
+        assertEquals(5.0 / 3, statistics.getMeanCompareDepth(), 1e-9);
+        assertEquals(1, statistics.getContextHitCount());
+        assertEquals(2, statistics.getContextMissCount());
+        assertEquals(1.0 / 3, statistics.getContextHitRatio(), 1e-9);
+        assertEquals(2, statistics.getContextResolvedCount());
+        assertEquals(2, statistics.getMaxResolveDepth());
+        assertEquals(3, statistics.getIsOverriddenLatency().getCount());
+    }
+
+    /**
+     * <b>Method:</b> {@link ResolutionStatistics#resolveParametersCalled(
+     *                       java.lang.Class, java.lang.Class, long)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Counts the calls and the superclasses walked.
+     */
+    @Test
+    public void resolveParametersCalled_signature1_case1() {
+        ResolutionStatistics statistics = new ResolutionStatistics();
+        ReflectionUtilities.setListener(statistics);
+        ReflectionUtilities.resolveParameters(ClassA.class, ClassD.class);
+        ReflectionUtilities.resolveContext(ClassA.class, ClassD.class);
+
+        assertEquals(2, statistics.getResolveParametersCount());
+        assertEquals(1, statistics.getContextResolvedCount());
+        assertEquals(3, statistics.getMaxResolveDepth());
+        assertEquals(3.0, statistics.getMeanResolveDepth(), 0);
+
+        statistics.reset();
+        assertEquals(0, statistics.getResolveParametersCount());
+        assertEquals(0, statistics.getMaxResolveDepth());
+        assertEquals(0, statistics.getContextHitRatio(), 0);
+    }
+
+    /**
+     * <b>Method:</b> {@link ResolutionStatistics#register()}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Exposes the statistics as an MBean.
+     */
+    @Test
+    public void register_signature1_case1() throws JMException {
+        ResolutionStatistics statistics = new ResolutionStatistics();
+        ObjectName name = statistics.register();
+        try {
+            ReflectionUtilities.setListener(statistics);
+            ReflectionUtilities.resolveParameters(ClassA.class, ClassE.class);
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            assertEquals(1L, server.getAttribute(name, "ResolveParametersCount"));
+            server.invoke(name, "reset", new Object[0], new String[0]);
+            assertEquals(0L, server.getAttribute(name, "ResolveParametersCount"));
+        } finally {
+            statistics.unregister();
+        }
+    }
+
+    /**
+     * <b>Method:</b> {@link LatencyHistogram#getPercentile(double)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Returns the upper bound of the bucket of the percentile.
+     */
+    @Test
+    public void getPercentile_signature1_case1() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentile(50));
+        for (int i = 0; i < 98; i++) histogram.record(100);
+        histogram.record(0);
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(100, histogram.getCount());
+        assertEquals(0, histogram.getPercentile(0));
+        assertEquals(127, histogram.getPercentile(50));
+        assertEquals(127, histogram.getPercentile(99));
+        assertEquals(Long.MAX_VALUE, histogram.getPercentile(100));
+        assertEquals(1, histogram.getBuckets()[0]);
+        assertEquals(98, histogram.getBuckets()[7]);
+    }
+
+    //==================== Testing Utilities ==================================
+
+    static class ClassA<T> {
+        void a(T[] arg) {  }
+        void b(T[] arg) {  }
+    }
+    static class ClassB<K extends List<?>> extends ClassA<K> {
+        @Override void a(K[] arg) {  }
+        @Override void b(K[] arg) {  }
+    }
+    static class ClassC extends ClassB<List<?>> {
+        void a(Number[] arg) {  }
+    }
+    static class ClassD extends ClassC {  }
+    static class ClassE extends ClassD {  }
+}
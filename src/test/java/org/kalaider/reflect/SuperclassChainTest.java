@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect;
+
+import java.lang.reflect.TypeVariable;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author Alexander Vasilevsky
+ */
+public class SuperclassChainTest {
+
+    public SuperclassChainTest() {
+    }
+
+    /**
+     * <b>Method:</b> {@link SuperclassChain#of(java.lang.Class)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Keeps the actual type arguments of the edge to the superclass.
+     */
+    @Test
+    public void of_signature1_case1() {
+        SuperclassChain chain = SuperclassChain.of(ClassC.class);
+        assertSame(ClassC.class, chain.type);
+        assertArrayEquals(new TypeNode[] { TypeNode.of(Integer.class) }, chain.arguments);
+        chain = chain.superclass;
+        assertSame(ClassB.class, chain.type);
+        assertArrayEquals(new TypeNode[] { TypeNode.of(ClassB.class.getTypeParameters()[0]),
+                TypeNode.of(String.class) }, chain.arguments);
+        chain = chain.superclass;
+        assertSame(ClassA.class, chain.type);
+        assertNull(chain.arguments);
+        assertSame(Object.class, chain.superclass.type);
+        assertNull(chain.superclass.superclass);
+    }
+
+    /**
+     * <b>Method:</b> {@link SuperclassChain#of(java.lang.Class)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 2</h2>
+     *
+     * <p/>
+     * Shares the chain of the superclass between the sibling classes.
+     */
+    @Test
+    public void of_signature1_case2() {
+        assertSame(SuperclassChain.of(ClassC.class).superclass,
+                SuperclassChain.of(ClassD.class).superclass);
+        assertSame(SuperclassChain.of(ClassB.class), SuperclassChain.of(ClassD.class).superclass);
+    }
+
+    /**
+     * <b>Method:</b> {@link SuperclassChain#of(java.lang.Class)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 3</h2>
+     *
+     * <p/>
+     * Keeps no arguments for the raw superclasses.
+     */
+    @Test
+    public void of_signature1_case3() {
+        assertNull(SuperclassChain.of(ClassE.class).arguments);
+        assertNull(SuperclassChain.of(Comparable.class).superclass);
+    }
+
+    /**
+     * <b>Method:</b> {@link ResolutionContext#ResolutionContext(
+     *                       java.lang.Class, java.lang.Class)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Resolves the contexts of the sibling classes from the shared chain.
+     */
+    @Test
+    public void ResolutionContext_signature1_case1() {
+        TypeVariable<?>[] parametersA = ClassA.class.getTypeParameters();
+        ResolutionContext contextC = new ResolutionContext(ClassA.class, ClassC.class);
+        ResolutionContext contextD = new ResolutionContext(ClassA.class, ClassD.class);
+        assertEquals(Integer.class, contextC.resolve(parametersA[0]));
+        assertEquals(Long.class, contextD.resolve(parametersA[0]));
+        assertEquals(String.class, contextC.resolve(parametersA[1]));
+        assertEquals(String.class, contextD.resolve(parametersA[1]));
+        assertEquals(ClassB.class.getTypeParameters()[0],
+                new ResolutionContext(ClassA.class, ClassE.class).resolve(parametersA[0]));
+    }
+
+    //==================== Testing Utilities ==================================
+
+    static class ClassA<T, K> {  }
+    static class ClassB<N extends Number> extends ClassA<N, String> {  }
+    static class ClassC extends ClassB<Integer> {  }
+    static class ClassD extends ClassB<Long> {  }
+    @SuppressWarnings("rawtypes")
+    static class ClassE extends ClassB {  }
+}
@@ -0,0 +1,352 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect.classfile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.GenericSignatureFormatError;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.zip.CRC32;
+import static org.junit.Assert.*;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.kalaider.reflect.ReflectionUtilities;
+import org.kalaider.reflect.ReflectionUtilitiesTest;
+
+/**
+ *
+ * @author Alexander Vasilevsky
+ */
+public class ClassFileUtilitiesTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    public ClassFileUtilitiesTest() {
+    }
+
+    /**
+     * <b>Method:</b> {@link ClassFileUtilities#isOverridden(
+     *                       org.kalaider.reflect.classfile.MethodInfo,
+     *                       org.kalaider.reflect.classfile.MethodInfo)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Gives the same answers as the reflective counterpart for every pair
+     * of methods of the {@link ReflectionUtilitiesTest} test classes.
+     */
+    @Test
+    public void isOverridden_signature1_case1() throws IOException {
+        ClassPath classPath = ClassPath.open(getClass().getClassLoader());
+        try {
+            List<Method> methods = new ArrayList<Method>();
+            for (Class<?> type : classes(ReflectionUtilitiesTest.class)) {
+                for (Method method : type.getDeclaredMethods()) {
+                    if (!method.isSynthetic()) methods.add(method);
+                }
+            }
+            assertTrue(methods.size() > 20);
+            int overridden = 0;
+            for (Method methodA : methods) {
+                for (Method methodB : methods) {
+                    boolean expected = ReflectionUtilities.isOverridden(methodA, methodB);
+                    assertEquals(methodA + " / " + methodB, expected,
+                            ClassFileUtilities.isOverridden(info(classPath, methodA), info(classPath, methodB)));
+                    if (expected) overridden++;
+                }
+            }
+            assertTrue(overridden > methods.size());
+        } finally {
+            classPath.close();
+        }
+    }
+
+    /**
+     * <b>Method:</b> {@link ClassFileUtilities#isOverridden(
+     *                       org.kalaider.reflect.classfile.MethodInfo,
+     *                       org.kalaider.reflect.classfile.MethodInfo)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 2</h2>
+     *
+     * <p/>
+     * Reads the classes from the jar file, both stored and deflated,
+     * without initializing them.
+     */
+    @Test
+    public void isOverridden_signature1_case2() throws IOException {
+        ClassPath classPath = ClassPath.open(jar(ClassA.class, ClassB.class, ClassC.class));
+        try {
+            assertEquals(Arrays.asList(ClassA.class.getName(), ClassB.class.getName(),
+                    ClassC.class.getName()), classPath.getClassNames());
+            ClassInfo classB = classPath.get(ClassB.class.getName());
+            ClassInfo classC = classPath.get(ClassC.class.getName());
+            assertSame(classB, classC.getSuperclass());
+            assertTrue(ClassFileUtilities.isOverridden(
+                    classB.getSuperclass().getDeclaredMethod("a", "(Ljava/lang/Object;)V"),
+                    classC.getDeclaredMethod("a", "(Ljava/lang/Integer;)V")));
+            assertFalse(ClassFileUtilities.isOverridden(
+                    classB.getDeclaredMethod("b", "(Ljava/util/List;)V"),
+                    classC.getDeclaredMethod("a", "(Ljava/lang/Integer;)V")));
+            assertFalse(initialized);
+        } finally {
+            classPath.close();
+        }
+    }
+
+    /**
+     * <b>Method:</b> {@link ClassFileUtilities#resolveParameters(
+     *                       org.kalaider.reflect.classfile.ClassInfo,
+     *                       org.kalaider.reflect.classfile.ClassInfo)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Gives the same contexts as the reflective counterpart for every pair
+     * of the {@link ReflectionUtilitiesTest} test classes.
+     */
+    @Test
+    public void resolveParameters_signature1_case1() throws IOException {
+        ClassPath classPath = ClassPath.open(getClass().getClassLoader());
+        try {
+            List<Class<?>> classes = classes(ReflectionUtilitiesTest.class);
+            for (Class<?> classA : classes) {
+                if (classA.isInterface()) continue;
+                for (Class<?> classC : classes) {
+                    if (!classA.isAssignableFrom(classC)) continue;
+                    Map<String, String> expected = new HashMap<String, String>();
+                    for (Map.Entry<Type, Type> entry
+                            : ReflectionUtilities.resolveParameters(classA, classC).entrySet()) {
+                        TypeVariable<?> variable = (TypeVariable<?>) entry.getKey();
+                        expected.put(((Class<?>) variable.getGenericDeclaration()).getName()
+                                + "." + variable.getName(), entry.getValue().getTypeName());
+                    }
+                    Map<String, String> actual = new HashMap<String, String>();
+                    for (Map.Entry<TypeSignature, TypeSignature> entry
+                            : ClassFileUtilities.resolveParameters(classPath.get(classA.getName()),
+                                    classPath.get(classC.getName())).entrySet()) {
+                        actual.put(entry.getKey().getDeclaringClass() + "." + entry.getKey().getName(),
+                                entry.getValue().toString());
+                    }
+                    assertEquals(classA + " / " + classC, expected, actual);
+                }
+            }
+        } finally {
+            classPath.close();
+        }
+    }
+
+    /**
+     * <b>Method:</b> {@link ClassFileUtilities#resolveParameters(
+     *                       org.kalaider.reflect.classfile.ClassInfo,
+     *                       org.kalaider.reflect.classfile.ClassInfo)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 2</h2>
+     *
+     * <p/>
+     * Throws {@link IllegalArgumentException} if the second class
+     * is not a subclass of the first one.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void resolveParameters_signature1_case2() throws IOException {
+        ClassPath classPath = ClassPath.open(getClass().getClassLoader());
+        try {
+            ClassFileUtilities.resolveParameters(classPath.get(ClassB.class.getName()),
+                    classPath.get(ClassA.class.getName()));
+        } finally {
+            classPath.close();
+        }
+    }
+
+    /**
+     * <b>Method:</b> {@link ClassInfo#getTypeParameters()}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Binds the type variables of the bounds, including the recursive
+     * and forward references.
+     */
+    @Test
+    public void getTypeParameters_signature1_case1() throws IOException {
+        ClassPath classPath = ClassPath.open(getClass().getClassLoader());
+        try {
+            ClassInfo classB = classPath.get(ClassB.class.getName());
+            List<TypeSignature> parameters = classB.getTypeParameters();
+            assertEquals(2, parameters.size());
+            TypeSignature n = parameters.get(0);
+            TypeSignature m = parameters.get(1);
+            assertEquals("java.lang.Comparable<M>", n.getBounds().get(1).toString());
+            assertSame(m, n.getBounds().get(1).getTypeArguments().get(0));
+            assertSame(m, m.getBounds().get(0).getTypeArguments().get(0));
+            assertEquals(ClassA.class.getName() + "<N>", classB.getGenericSuperclass().toString());
+            assertSame(n, classB.getGenericSuperclass().getTypeArguments().get(0));
+        } finally {
+            classPath.close();
+        }
+    }
+
+    /**
+     * <b>Method:</b> {@link MethodInfo#getGenericParameterTypes()}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Throws {@link GenericSignatureFormatError} if the signature
+     * is malformed.
+     */
+    @Test(expected = GenericSignatureFormatError.class)
+    public void getGenericParameterTypes_signature1_case1() throws IOException {
+        ClassPath classPath = ClassPath.open(getClass().getClassLoader());
+        try {
+            ClassInfo classA = classPath.get(ClassA.class.getName());
+            new MethodInfo(classA, 0, "a", "(Ljava/lang/Object;)V", "(TT)V").getGenericParameterTypes();
+        } finally {
+            classPath.close();
+        }
+    }
+
+    /**
+     * <b>Method:</b> {@link ClassPath#get(java.lang.String)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Throws {@link TypeNotPresentException} if the class is not found.
+     */
+    @Test(expected = TypeNotPresentException.class)
+    public void get_signature1_case1() throws IOException {
+        ClassPath classPath = ClassPath.open((ClassLoader) null, jar(ClassA.class));
+        try {
+            assertNotNull(classPath.find(ClassA.class.getName()));
+            assertNull(classPath.find(ClassB.class.getName()));
+            classPath.get(ClassB.class.getName());
+        } finally {
+            classPath.close();
+        }
+    }
+
+    //==================== Testing Utilities ==================================
+
+    static boolean initialized;
+
+    static class ClassA<T> {
+        void a(T arg) {  }
+    }
+    static class ClassB<N extends Number & Comparable<M>, M extends Comparable<M>> extends ClassA<N> {
+        void b(List<? super M> arg) {  }
+    }
+    static class ClassC extends ClassB<Integer, Integer> {
+        static {
+            initialized = true;
+        }
+        void a(Integer arg) {  }
+    }
+
+    private static List<Class<?>> classes(Class<?> type) {
+        List<Class<?>> classes = new ArrayList<Class<?>>();
+        for (Class<?> nested : type.getDeclaredClasses()) {
+            classes.add(nested);
+            classes.addAll(classes(nested));
+        }
+        return classes;
+    }
+
+    private static MethodInfo info(ClassPath classPath, Method method) {
+        StringBuilder descriptor = new StringBuilder("(");
+        for (Class<?> type : method.getParameterTypes()) descriptor.append(descriptor(type));
+        descriptor.append(')').append(descriptor(method.getReturnType()));
+        MethodInfo info = classPath.get(method.getDeclaringClass().getName())
+                .getDeclaredMethod(method.getName(), descriptor.toString());
+        assertNotNull(method.toString(), info);
+        return info;
+    }
+
+    private static String descriptor(Class<?> type) {
+        if (type.isArray()) return type.getName().replace('.', '/');
+        if (!type.isPrimitive()) return "L" + type.getName().replace('.', '/') + ";";
+        if (type == void.class) return "V";
+        if (type == boolean.class) return "Z";
+        if (type == long.class) return "J";
+        return String.valueOf(Character.toUpperCase(type.getName().charAt(0)));
+    }
+
+    private File jar(Class<?>... types) throws IOException {
+        File jar = folder.newFile();
+        JarOutputStream output = new JarOutputStream(new FileOutputStream(jar));
+        try {
+            boolean stored = false;
+            for (Class<?> type : types) {
+                String name = type.getName().replace('.', '/') + ".class";
+                byte[] bytes = bytes(name);
+                JarEntry entry = new JarEntry(name);
+                if (stored) {
+                    CRC32 crc = new CRC32();
+                    crc.update(bytes);
+                    entry.setMethod(JarEntry.STORED);
+                    entry.setSize(bytes.length);
+                    entry.setCrc(crc.getValue());
+                }
+                stored = !stored;
+                output.putNextEntry(entry);
+                output.write(bytes);
+            }
+        } finally {
+            output.close();
+        }
+        return jar;
+    }
+
+    private byte[] bytes(String name) throws IOException {
+        InputStream input = getClass().getClassLoader().getResourceAsStream(name);
+        try {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            for (int read; (read = input.read(buffer)) > 0; ) output.write(buffer, 0, read);
+            return output.toByteArray();
+        } finally {
+            input.close();
+        }
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright (C) 2014 Alexander Vasilevsky
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.kalaider.reflect;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ *
+ * @author Alexander Vasilevsky
+ */
+public class ResolutionEventsTest {
+
+    public ResolutionEventsTest() {
+    }
+
+    @After
+    public void tearDown() {
+        ReflectionUtilities.setListener(null);
+    }
+
+    /**
+     * <b>Method:</b> {@link ReflectionUtilities#isOverridden(
+     *                       java.lang.reflect.Method, java.lang.reflect.Method)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Emits the events of the calls while a recording is running.
+     */
+    @Test
+    public void isOverridden_signature1_case1() throws Exception {
+        Method a = ClassA.class.getDeclaredMethod("a", Object.class);
+        Method b = ClassB.class.getDeclaredMethod("a", Number.class);
+
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable(IS_OVERRIDDEN).with(ELAPSED_THRESHOLD, "0 ns");
+            recording.start();
+            assertTrue(ReflectionUtilities.isOverridden(a, b));
+            assertTrue(ReflectionUtilities.isOverridden(a, b));
+            recording.stop();
+            events = events(recording, IS_OVERRIDDEN);
+        }
+
+        assertEquals(2, events.size());
+        RecordedEvent event = events.get(0);
+        assertEquals(a.toString(), event.getString("methodA"));
+        assertEquals(b.toString(), event.getString("methodB"));
+        assertTrue(event.getBoolean("overridden"));
+        assertEquals(1, event.getInt("hierarchyDepth"));
+        assertEquals(1, event.getInt("compareDepth"));
+        assertFalse(event.getBoolean("cacheHit"));
+        assertTrue(events.get(1).getBoolean("cacheHit"));
+    }
+
+    /**
+     * <b>Method:</b> {@link ReflectionUtilities#isOverridden(
+     *                       java.lang.reflect.Method, java.lang.reflect.Method)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 2</h2>
+     *
+     * <p/>
+     * Does not emit the events of the calls faster than the threshold.
+     */
+    @Test
+    public void isOverridden_signature1_case2() throws Exception {
+        Method a = ClassA.class.getDeclaredMethod("a", Object.class);
+        Method c = ClassC.class.getDeclaredMethod("a", Integer.class);
+
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable(IS_OVERRIDDEN).with(ELAPSED_THRESHOLD, "1 h");
+            recording.start();
+            assertTrue(ReflectionUtilities.isOverridden(a, c));
+            recording.stop();
+            events = events(recording, IS_OVERRIDDEN);
+        }
+
+        assertTrue(events.isEmpty());
+    }
+
+    /**
+     * <b>Method:</b> {@link ReflectionUtilities#isOverridden(
+     *                       java.lang.reflect.Method, java.lang.reflect.Method)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 3</h2>
+     *
+     * <p/>
+     * Reports the cache hit of the call itself, not of the contexts
+     * resolved by the calls which emit no events.
+     */
+    @Test
+    public void isOverridden_signature1_case3() throws Exception {
+        Method a = ClassA.class.getDeclaredMethod("a", Object.class);
+        Method e = ClassE.class.getDeclaredMethod("e", String.class);
+        Method f = ClassF.class.getDeclaredMethod("e", String.class);
+
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable(IS_OVERRIDDEN).with(ELAPSED_THRESHOLD, "0 ns");
+            recording.start();
+            assertNotNull(ReflectionUtilities.findOverridingMethod(a, ClassF.class));
+            assertTrue(ReflectionUtilities.isOverridden(e, f));
+            recording.stop();
+            events = events(recording, IS_OVERRIDDEN);
+        }
+
+        assertEquals(1, events.size());
+        assertTrue(events.get(0).getBoolean("cacheHit"));
+    }
+
+    /**
+     * <b>Method:</b> {@link ReflectionUtilities#resolveParameters(
+     *                       java.lang.Class, java.lang.Class)}
+     *
+     * <p/><!-- ------------------------------------------------------ --><hr/>
+     *
+     * <h2>Case 1</h2>
+     *
+     * <p/>
+     * Emits the events of the calls while a recording is running,
+     * notifying the listener installed as well.
+     */
+    @Test
+    public void resolveParameters_signature1_case1() throws Exception {
+        ResolutionStatistics statistics = new ResolutionStatistics();
+        ReflectionUtilities.setListener(statistics);
+
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable(RESOLVE_PARAMETERS).with(ELAPSED_THRESHOLD, "0 ns");
+            recording.start();
+            ReflectionUtilities.resolveParameters(ClassA.class, ClassD.class);
+            ReflectionUtilities.resolveContext(ClassA.class, ClassD.class);
+            recording.stop();
+            events = events(recording, RESOLVE_PARAMETERS);
+        }
+        ReflectionUtilities.resolveContext(ClassA.class, ClassD.class);
+
+        assertEquals(2, events.size());
+        RecordedEvent event = events.get(0);
+        assertEquals(ClassA.class.getName(), event.getClass("classA").getName());
+        assertEquals(ClassD.class.getName(), event.getClass("classC").getName());
+        assertEquals(3, event.getInt("hierarchyDepth"));
+        assertFalse(event.getBoolean("cacheHit"));
+        assertTrue(events.get(1).getBoolean("cacheHit"));
+        assertEquals(3, statistics.getResolveParametersCount());
+    }
+
+    //==================== Testing Utilities ==================================
+
+    private static final String IS_OVERRIDDEN = "org.kalaider.reflect.IsOverridden";
+    private static final String RESOLVE_PARAMETERS = "org.kalaider.reflect.ResolveParameters";
+    private static final String ELAPSED_THRESHOLD = "elapsedThreshold";
+
+    private static List<RecordedEvent> events(Recording recording, String name) throws IOException {
+        Path file = Files.createTempFile("reflect4j", ".jfr");
+        try {
+            recording.dump(file);
+            List<RecordedEvent> events = new ArrayList<RecordedEvent>();
+            for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+                if (event.getEventType().getName().equals(name)) events.add(event);
+            }
+            return events;
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    static class ClassA<T> {
+        void a(T arg) {  }
+    }
+
+    static class ClassB<N extends Number>
+        extends ClassA<N> {
+        @Override void a(N arg) {  }
+    }
+
+    static class ClassC
+        extends ClassB<Integer> {
+        @Override void a(Integer arg) {  }
+    }
+
+    static class ClassD
+        extends ClassC {  }
+
+    static class ClassE
+        extends ClassB<Long> {
+        void e(String arg) {  }
+    }
+
+    static class ClassF
+        extends ClassE {
+        @Override void a(Long arg) {  }
+        @Override void e(String arg) {  }
+    }
+}